@@ -0,0 +1,127 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.microsoft.bot.builder.TurnContext;
+
+/**
+ * Reserve, release and status commands of {@link Actions} under contention.
+ *
+ * <p>
+ * Every thread is a different user. With one resource all threads fight for
+ * the same lock and document, and most reservations are refused; with more
+ * resources the threads spread over the lock stripes. Watchers are monitors of
+ * every resource, notified on each reservation and release.
+ * </p>
+ *
+ * <p>
+ * The fixture is rebuilt for every iteration, so the logs and expiry deadlines
+ * written by one iteration do not slow down the next.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActionsBenchmark {
+  private static final String CHART = "prod";
+
+  /** The number of resources the threads act on. */
+  @Param({ "1", "16" })
+  public int resources;
+
+  /** The number of users monitoring each resource. */
+  @Param({ "0", "10" })
+  public int watchers;
+
+  Fixture fixture;
+  private final AtomicInteger senders = new AtomicInteger();
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    fixture = new Fixture();
+    fixture.addChart(CHART, resources);
+    LocalDateTime till = LocalDateTime.now().plusDays(1);
+    for (int i = 0; i < watchers; i++) {
+      String watcher = "watcher-" + i;
+      fixture.addUser(watcher);
+      for (int r = 0; r < resources; r++) { fixture.resourceService.monitor(CHART + "-" + r, watcher, till); }
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    fixture.close();
+  }
+
+  /**
+   * A user, and the resource it acts on.
+   */
+  @State(Scope.Thread)
+  public static class Sender {
+    TurnContext turn;
+    String resource;
+
+    @Setup(Level.Iteration)
+    public void setUp(ActionsBenchmark benchmark) {
+      int index = benchmark.senders.getAndIncrement();
+      String user = "user-" + index;
+      benchmark.fixture.addUser(user);
+      turn = Fixture.turn(user);
+      resource = CHART + "-" + index % benchmark.resources;
+    }
+  }
+
+  private void reserveRelease(Sender sender, Blackhole blackhole) {
+    blackhole.consume(fixture.actions.actOnResource(sender.turn, sender.resource, "reserve", 60));
+    blackhole.consume(fixture.actions.actOnResource(sender.turn, sender.resource, "release"));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void reserveRelease_4threads(Sender sender, Blackhole blackhole) {
+    reserveRelease(sender, blackhole);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object status_4threads(Sender sender) {
+    return fixture.actions.actOnResource(sender.turn, sender.resource, "status");
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public void mixed_reserveRelease(Sender sender, Blackhole blackhole) {
+    reserveRelease(sender, blackhole);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(3)
+  public Object mixed_status(Sender sender) {
+    return fixture.actions.actOnResource(sender.turn, sender.resource, "status");
+  }
+}
@@ -0,0 +1,43 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, taking the usual JMH command line options.
+ *
+ * <p>
+ * Unlike the JMH launcher, results are written as JSON ({@code jmh-result.json}
+ * unless {@code -rff} names another file) when no {@code -rf} is given, so
+ * every run leaves a machine-readable record to compare with the previous ones.
+ * </p>
+ */
+public final class Benchmarks {
+
+  private Benchmarks() { }
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp()) {
+      commandLine.showHelp();
+      return;
+    }
+    Runner listing = new Runner(commandLine);
+    if (commandLine.shouldList()) {
+      listing.list();
+      return;
+    }
+    if (commandLine.shouldListWithParams()) {
+      listing.listWithParams(commandLine);
+      return;
+    }
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+    if (!commandLine.getResultFormat().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON);
+    }
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,70 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of a command message, as {@link MutexBot#onMessageActivity} does it
+ * and as it was done before {@link Utils#tokenize}. Run with {@code -prof gc}
+ * to compare the bytes allocated per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandParsingBenchmark {
+
+  @Param({ "Reserve prod:qa6 for 1h12m", "Status  prod:qa6", "ForceRelease prod:qa6" })
+  public String message;
+
+  @Benchmark
+  public Object tokenize() {
+    List<String> words = Utils.tokenize(message);
+    String action = MutexBot.resourceAction(words.get(0));
+    if (words.size() != 4) { return action; }
+    return Utils.parseDuration(words.get(3));
+  }
+
+  /**
+   * The parsing before: regex normalization and split, a chain of lower-cased
+   * comparisons, then a linear scan of the admin actions and a regex split of
+   * the duration.
+   */
+  @Benchmark
+  public Object split() {
+    String text = message.trim().replaceAll(" +", " ");
+    String[] words = text.split(" ");
+    if (words.length == 1 && (text.toLowerCase().equals("help") || text.toLowerCase().equals("run")
+        || text.toLowerCase().equals("admin") || text.toLowerCase().equals("listadmins")
+        || text.toLowerCase().startsWith("hello") || text.toLowerCase().equals("hi"))) {
+      return text;
+    }
+    String action = words[0].toLowerCase();
+    for (String admin : Utils.adminActions) {
+      if (admin.toLowerCase().equals(action)) { return admin; }
+    }
+    if (words.length != 4) { return action; }
+    int hours = 0, minutes = 0;
+    for (String part : words[3].toLowerCase().split("(?<=\\D)(?=\\d)")) {
+      if (part.endsWith("h")) {
+        hours = Integer.parseInt(part.substring(0, part.length() - 1));
+      } else if (part.endsWith("m")) {
+        minutes = Integer.parseInt(part.substring(0, part.length() - 1));
+      }
+    }
+    return hours * 60 + minutes;
+  }
+}
@@ -0,0 +1,141 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the Bot Connector service, the {@code serviceUrl} of
+ * the activities sent by the {@link LoadGenerator}.
+ *
+ * <p>
+ * It answers the calls the bot makes while handling them:
+ * </p>
+ * <ul>
+ * <li>{@code POST v3/conversations/{id}/activities[/{replyTo}]}
+ * ({@code sendActivity}): accepted and counted,</li>
+ * <li>{@code POST v3/conversations} ({@code createConversation}): a new
+ * personal conversation,</li>
+ * <li>{@code GET v3/conversations/{id}/members/{userId}} ({@code getMember}): a
+ * profile built from the user ID, as in {@link Fixture#member}.</li>
+ * </ul>
+ * <p>
+ * Any other call is answered {@code 404} and counted as unexpected. Every
+ * answer can be delayed, to model the latency of the real service.
+ * </p>
+ */
+public class ConnectorStub implements AutoCloseable {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final HttpServer server;
+  private final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "connector-stub");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final long latencyMillis;
+
+  private final AtomicLong activities = new AtomicLong();
+  private final AtomicLong conversations = new AtomicLong();
+  private final AtomicLong members = new AtomicLong();
+  private final AtomicLong unexpected = new AtomicLong();
+
+  /**
+   * Starts the stub.
+   *
+   * @param port          The port to listen on, or 0 for any free port.
+   * @param latencyMillis How long every call takes, in milliseconds.
+   * @throws IOException If the port cannot be bound.
+   */
+  public ConnectorStub(int port, long latencyMillis) throws IOException {
+    this.latencyMillis = latencyMillis;
+    server = HttpServer.create(new InetSocketAddress(port), 1024);
+    server.createContext("/", this::handle);
+    server.setExecutor(workers);
+    server.start();
+  }
+
+  /**
+   * @return The port the stub listens on.
+   */
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (InputStream body = exchange.getRequestBody()) {
+      while (body.read() >= 0) { }  // Drain, so the connection can be reused
+    }
+    if (latencyMillis > 0) {
+      try {
+        TimeUnit.MILLISECONDS.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+    String method = exchange.getRequestMethod();
+    boolean conversationsPath = path.length >= 2 && path[0].equals("v3") && path[1].equals("conversations");
+    ObjectNode response = MAPPER.createObjectNode();
+    if (conversationsPath && method.equals("POST") && path.length == 2) {
+      long id = conversations.incrementAndGet();
+      response.put("id", "a:stub-personal-" + id);
+      response.put("activityId", "stub-" + id);
+    } else if (conversationsPath && method.equals("POST") && path.length >= 4 && path[3].equals("activities")) {
+      response.put("id", "stub-" + activities.incrementAndGet());
+    } else if (conversationsPath && method.equals("GET") && path.length == 5 && path[3].equals("members")) {
+      members.incrementAndGet();
+      response = MAPPER.valueToTree(Fixture.member(path[4]));
+    } else {
+      unexpected.incrementAndGet();
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+      return;
+    }
+
+    byte[] json = MAPPER.writeValueAsString(response).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(200, json.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(json);
+    }
+  }
+
+  /**
+   * @return The number of activities the bot sent.
+   */
+  public long getActivities() { return activities.get(); }
+
+  /**
+   * @return The number of conversations the bot created.
+   */
+  public long getConversations() { return conversations.get(); }
+
+  /**
+   * @return The number of member profiles the bot fetched.
+   */
+  public long getMembers() { return members.get(); }
+
+  /**
+   * @return The number of calls the stub does not model.
+   */
+  public long getUnexpected() { return unexpected.get(); }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    workers.shutdownNow();
+  }
+}
@@ -0,0 +1,100 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import com.microsoft.bot.builder.Bot;
+import com.microsoft.bot.integration.AdapterWithErrorHandler;
+import com.microsoft.bot.integration.BotFrameworkHttpAdapter;
+import com.microsoft.bot.integration.spring.BotController;
+import com.microsoft.bot.integration.spring.BotDependencyConfiguration;
+
+/**
+ * Runs the bot in this JVM, behind the real {@link BotController} and
+ * adapter, on the in-memory stores of a {@link Fixture}.
+ *
+ * <p>
+ * No app ID is configured, so the adapter accepts activities without a token
+ * and calls the Bot Connector (the {@link ConnectorStub}) without one. Member
+ * profiles and personal messages go through the real {@link MemberCache} and
+ * {@link PersonalMessenger}.
+ * </p>
+ */
+@Configuration
+@EnableAutoConfiguration(exclude = {
+    MongoAutoConfiguration.class, MongoDataAutoConfiguration.class, MongoRepositoriesAutoConfiguration.class })
+@Import({ BotController.class })
+public class EmbeddedBot extends BotDependencyConfiguration {
+
+  /**
+   * Starts the bot.
+   *
+   * @param port The port to serve {@code /api/messages} on, or 0 for any free port.
+   * @return The running application; closing it stops the bot.
+   */
+  public static ConfigurableApplicationContext start(int port) {
+    return new SpringApplicationBuilder(EmbeddedBot.class)
+        .web(WebApplicationType.SERVLET)
+        .properties("server.port=" + port, "spring.main.banner-mode=off")
+        .run();
+  }
+
+  /**
+   * @param context The running application.
+   * @return The port {@code /api/messages} is served on.
+   */
+  public static int port(ConfigurableApplicationContext context) {
+    return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+  }
+
+  @Override
+  public com.microsoft.bot.integration.Configuration getConfiguration() {
+    Properties empty = new Properties();
+    return new com.microsoft.bot.integration.Configuration() {
+      @Override
+      public String getProperty(String key) { return null; }
+
+      @Override
+      public Properties getProperties() { return empty; }
+
+      @Override
+      public String[] getProperties(String key) { return null; }
+    };
+  }
+
+  @Override
+  public BotFrameworkHttpAdapter getBotFrameworkHttpAdaptor(com.microsoft.bot.integration.Configuration configuration) {
+    return new AdapterWithErrorHandler(configuration);
+  }
+
+  /**
+   * @param adapter The adapter, also used to send personal messages.
+   * @return The bot components on in-memory stores.
+   */
+  @Bean(destroyMethod = "close")
+  public Fixture fixture(BotFrameworkHttpAdapter adapter) {
+    MemberCache memberCache = new MemberCache(TimeUnit.HOURS.toMinutes(1));
+    return new Fixture(memberCache, references -> new PersonalMessenger(references, adapter, "", ""));
+  }
+
+  /**
+   * @param fixture The bot components.
+   * @return The bot.
+   */
+  @Bean
+  public Bot bot(Fixture fixture) {
+    return new MutexBot(fixture.userService, fixture.userInput, fixture.actions, fixture.memberCache,
+        "http://localhost/");
+  }
+}
@@ -0,0 +1,197 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.util.ReflectionUtils;
+
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ActivityTypes;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.teams.TeamsChannelAccount;
+import com.sprinklr.msTeams.mutexBot.model.ChartName;
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.repositories.CatalogStateRepository;
+import com.sprinklr.msTeams.mutexBot.service.ChartNameService;
+import com.sprinklr.msTeams.mutexBot.service.ConversationReferenceService;
+import com.sprinklr.msTeams.mutexBot.service.LogWriter;
+import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
+import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+import com.sprinklr.msTeams.mutexBot.service.UsageService;
+import com.sprinklr.msTeams.mutexBot.service.UserService;
+
+/**
+ * The bot components wired as Spring wires them, on in-memory stores.
+ *
+ * <p>
+ * By default, messages to monitors are "sent" by a messenger that completes
+ * at once, and the Teams roster is replaced by profiles built from the user
+ * ID, so nothing leaves the JVM. The GitLab connector is not created; the admin actions that
+ * sync the catalog are not benchmarked.
+ * </p>
+ */
+public class Fixture implements AutoCloseable {
+  public final InMemoryResources resources = new InMemoryResources();
+  public final InMemoryUsers users = new InMemoryUsers();
+  public final InMemoryChartNames chartNames = new InMemoryChartNames();
+  public final InMemoryLogs<ReservationLog> reservationLogs = InMemoryLogs.reservations();
+  public final InMemoryLogs<MonitorLog> monitorLogs = InMemoryLogs.monitors();
+  public final InMemoryConversations conversations = new InMemoryConversations();
+  public final InMemoryUsage usage = new InMemoryUsage();
+
+  public final ResourceService resourceService = new ResourceService();
+  public final UserService userService = new UserService();
+  public final ChartNameService chartNameService;
+  public final LogWriter logWriter;
+  public final UsageService usageService;
+  public final ReservationLogService reservationLogService;
+  public final MonitorLogService monitorLogService;
+  public final ConversationReferenceService conversationReferences;
+  public final ResourceLocks resourceLocks = new ResourceLocks(64);
+  public final NotificationDispatcher notificationDispatcher = new NotificationDispatcher(4, 100_000, 1, 0);
+  public final MemberCache memberCache;
+  public final PersonalMessenger personalMessenger;
+  public final ExpiryScheduler expiryScheduler;
+  public final UserInput userInput;
+  public final Actions actions;
+  public final LogCalendar logCalendar;
+
+  /**
+   * Wires the components on empty stores.
+   */
+  public Fixture() {
+    this(new MemberCache(TimeUnit.HOURS.toMillis(1), (turnContext, id) -> member(id)));
+  }
+
+  /**
+   * Wires the components on empty stores, looking up Teams members through the
+   * given cache and sending no messages.
+   *
+   * @param memberCache The cache of Teams member profiles.
+   */
+  public Fixture(MemberCache memberCache) {
+    this(memberCache,
+        conversationReferences -> new PersonalMessenger(null, null, "", "") {
+          @Override
+          public Function<String, CompletableFuture<Void>> sender(String message, TurnContext turnContext) {
+            return userId -> CompletableFuture.completedFuture(null);
+          }
+        });
+  }
+
+  /**
+   * Wires the components on empty stores, reaching Teams through the given
+   * member cache and messenger, e.g. the real ones talking to a
+   * {@link ConnectorStub}.
+   *
+   * @param memberCache The cache of Teams member profiles.
+   * @param messenger   Builds the messenger on the store of conversation references.
+   */
+  public Fixture(MemberCache memberCache, Function<ConversationReferenceService, PersonalMessenger> messenger) {
+    this.memberCache = memberCache;
+    inject(resourceService, "repo", resources.repository());
+    inject(userService, "repo", users.repository());
+    chartNameService = new ChartNameService(chartNames.repository(),
+        StandIns.of(CatalogStateRepository.class, new Object()));
+    logWriter = new LogWriter(reservationLogs.reservationRepository(), monitorLogs.monitorRepository(), 200, 1000,
+        100_000, 30_000, Paths.get(System.getProperty("java.io.tmpdir"), "mutexbot-benchmark.spill").toString());
+    usageService = new UsageService(usage.repository(), chartNameService, resourceService);
+    reservationLogService = new ReservationLogService(reservationLogs.reservationRepository(), logWriter,
+        usageService);
+    monitorLogService = new MonitorLogService(monitorLogs.monitorRepository(), logWriter, usageService);
+    conversationReferences = new ConversationReferenceService(conversations.repository());
+    personalMessenger = messenger.apply(conversationReferences);
+    expiryScheduler = new ExpiryScheduler(resourceService, reservationLogService, userService, resourceLocks,
+        notificationDispatcher, personalMessenger, 0);
+    userInput = new UserInput(resourceService, chartNameService);
+    actions = new Actions(resourceService, userService, reservationLogService, monitorLogService, chartNameService,
+        userInput, null, resourceLocks, notificationDispatcher, personalMessenger, expiryScheduler, memberCache,
+        usageService);
+    logCalendar = new LogCalendar(monitorLogService, reservationLogService, userService);
+  }
+
+  private static void inject(Object target, String name, Object value) {
+    Field field = ReflectionUtils.findField(target.getClass(), name);
+    ReflectionUtils.makeAccessible(field);
+    ReflectionUtils.setField(field, target, value);
+  }
+
+  /**
+   * Builds the Teams profile of a user.
+   *
+   * @param id The ID of the user.
+   * @return The profile.
+   */
+  public static TeamsChannelAccount member(String id) {
+    TeamsChannelAccount member = new TeamsChannelAccount();
+    member.setId(id);
+    member.setName("User " + id);
+    member.setEmail(id + "@example.com");
+    return member;
+  }
+
+  /**
+   * Adds the releases of a chart to the catalog, named
+   * {@code <chart>-<number>}, and reloads the resource cache.
+   *
+   * @param chart    The chart name.
+   * @param releases The number of releases.
+   */
+  public void addChart(String chart, int releases) {
+    chartNames.save(new ChartName(chart));
+    for (int i = 0; i < releases; i++) {
+      resources.save(new Resource(chart + "-" + i));
+    }
+    resourceService.refreshCache();
+  }
+
+  /**
+   * Registers a user, both in the DB and in the member cache, as after their
+   * first message.
+   *
+   * @param id The ID of the user.
+   */
+  public void addUser(String id) {
+    users.add(id);
+    memberCache.put(member(id));
+  }
+
+  /**
+   * Builds the context of a turn in which a user sends a message.
+   *
+   * @param userId The ID of the sender.
+   * @return The context. Only {@link TurnContext#getActivity()} is supported.
+   */
+  public static TurnContext turn(String userId) {
+    Activity activity = new Activity(ActivityTypes.MESSAGE);
+    activity.setFrom(new ChannelAccount(userId));
+    activity.setRecipient(new ChannelAccount("bot"));
+    return StandIns.of(TurnContext.class, new Turn(activity));
+  }
+
+  /**
+   * The part of a {@link TurnContext} the benchmarked commands use.
+   */
+  public static class Turn {
+    private final Activity activity;
+
+    Turn(Activity activity) { this.activity = activity; }
+
+    public Activity getActivity() { return activity; }
+  }
+
+  @Override
+  public void close() {
+    expiryScheduler.shutdown();
+    notificationDispatcher.shutdown();
+    logWriter.shutdown();
+    usageService.flush();
+  }
+}
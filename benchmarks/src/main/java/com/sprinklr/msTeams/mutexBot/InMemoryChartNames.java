@@ -0,0 +1,46 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.sprinklr.msTeams.mutexBot.model.ChartName;
+import com.sprinklr.msTeams.mutexBot.repositories.ChartNameRepository;
+
+/**
+ * In-memory stand-in for {@link ChartNameRepository}.
+ */
+public class InMemoryChartNames {
+  private final ConcurrentSkipListMap<String, ChartName> documents = new ConcurrentSkipListMap<>();
+
+  /**
+   * @return A {@link ChartNameRepository} backed by this store.
+   */
+  public ChartNameRepository repository() {
+    return StandIns.of(ChartNameRepository.class, this);
+  }
+
+  public Object save(Object entity) {
+    ChartName chartName = (ChartName) entity;
+    documents.put(chartName.getName(), chartName);
+    return chartName;
+  }
+
+  public List<ChartName> findAll() {
+    return new ArrayList<>(documents.values());
+  }
+
+  public boolean existsById(Object name) {
+    return documents.containsKey(name);
+  }
+
+  public void deleteById(Object name) {
+    documents.remove(name);
+  }
+
+  public void applyCatalog(Collection<String> added, Collection<String> removed) {
+    for (String name : added) { documents.put(name, new ChartName(name)); }
+    for (String name : removed) { documents.remove(name); }
+  }
+}
@@ -0,0 +1,39 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sprinklr.msTeams.mutexBot.model.PersonalConversation;
+import com.sprinklr.msTeams.mutexBot.repositories.PersonalConversationRepository;
+
+/**
+ * In-memory stand-in for {@link PersonalConversationRepository}.
+ */
+public class InMemoryConversations {
+  private final ConcurrentHashMap<String, PersonalConversation> documents = new ConcurrentHashMap<>();
+
+  /**
+   * @return A {@link PersonalConversationRepository} backed by this store.
+   */
+  public PersonalConversationRepository repository() {
+    return StandIns.of(PersonalConversationRepository.class, this);
+  }
+
+  public Object save(Object entity) {
+    PersonalConversation conversation = (PersonalConversation) entity;
+    documents.put(conversation.getUser(), conversation);
+    return conversation;
+  }
+
+  public Optional<PersonalConversation> findById(Object user) {
+    return Optional.ofNullable(documents.get(user));
+  }
+
+  public void deleteById(Object user) {
+    documents.remove(user);
+  }
+
+  public int size() {
+    return documents.size();
+  }
+}
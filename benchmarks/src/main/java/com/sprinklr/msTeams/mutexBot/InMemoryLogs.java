@@ -0,0 +1,228 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Pageable;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.repositories.MonitorLogRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepository;
+
+/**
+ * In-memory stand-in for {@link ReservationLogRepository} and
+ * {@link MonitorLogRepository}, which declare the same queries.
+ *
+ * <p>
+ * Logs are kept per resource and per user in start order, the order of the
+ * {@code resource_time} and {@code user_time} indexes, so a window query scans
+ * the logs starting before the end of the window, as the index range scan does.
+ * </p>
+ *
+ * @param <T> The type of log.
+ */
+public class InMemoryLogs<T> {
+  private final Function<T, String> resource;
+  private final Function<T, String> user;
+  private final Function<T, LocalDateTime> start;
+  private final Function<T, LocalDateTime> end;
+  private final Function<T, String> id;
+  private final BiConsumer<T, LocalDateTime> setEnd;
+  private final boolean shortenOnly;
+  private final Comparator<T> byStart;
+  private final Map<String, List<T>> byResource = new ConcurrentHashMap<>();
+  private final Map<String, List<T>> byUser = new ConcurrentHashMap<>();
+  /** The stored logs; logs do not override {@code equals}, so this is an identity set. */
+  private final Set<T> stored = ConcurrentHashMap.newKeySet();
+  private final Map<String, T> byId = new ConcurrentHashMap<>();
+
+  private InMemoryLogs(Function<T, String> resource, Function<T, String> user, Function<T, LocalDateTime> start,
+      Function<T, LocalDateTime> end, Function<T, String> id, BiConsumer<T, LocalDateTime> setEnd,
+      boolean shortenOnly) {
+    this.resource = resource;
+    this.user = user;
+    this.start = start;
+    this.end = end;
+    this.id = id;
+    this.setEnd = setEnd;
+    this.shortenOnly = shortenOnly;
+    this.byStart = Comparator.comparing(start);
+  }
+
+  /**
+   * @return A store of reservation logs.
+   */
+  public static InMemoryLogs<ReservationLog> reservations() {
+    return new InMemoryLogs<>(ReservationLog::getResource, ReservationLog::getUser, ReservationLog::getStartTime,
+        ReservationLog::getEndTime, ReservationLog::getId, ReservationLog::setEndTime, false);
+  }
+
+  /**
+   * @return A store of monitor logs.
+   */
+  public static InMemoryLogs<MonitorLog> monitors() {
+    return new InMemoryLogs<>(MonitorLog::getResource, MonitorLog::getUser, MonitorLog::getStartTime,
+        MonitorLog::getEndTime, MonitorLog::getId, MonitorLog::setEndTime, true);
+  }
+
+  /**
+   * @return A {@link ReservationLogRepository} backed by this store.
+   */
+  public ReservationLogRepository reservationRepository() {
+    return StandIns.of(ReservationLogRepository.class, this);
+  }
+
+  /**
+   * @return A {@link MonitorLogRepository} backed by this store.
+   */
+  public MonitorLogRepository monitorRepository() {
+    return StandIns.of(MonitorLogRepository.class, this);
+  }
+
+  /**
+   * Stores many logs at once, in any order.
+   *
+   * @param logs The logs to store.
+   */
+  public void load(Collection<T> logs) {
+    logs.forEach(this::save);
+    byResource.values().forEach(list -> list.sort(byStart));
+    byUser.values().forEach(list -> list.sort(byStart));
+  }
+
+  /**
+   * Stores a new log. Saving a log that is already stored keeps it in place, as
+   * the end time it may have changed is not part of the ordering.
+   */
+  public Object save(Object entity) {
+    @SuppressWarnings("unchecked")
+    T log = (T) entity;
+    if (!stored.add(log)) { return log; }
+    if (id.apply(log) != null) { byId.put(id.apply(log), log); }
+    append(byResource, resource.apply(log), log);
+    append(byUser, user.apply(log), log);
+    return log;
+  }
+
+  private static <T> void append(Map<String, List<T>> index, String key, T log) {
+    List<T> logs = index.computeIfAbsent(key, k -> new ArrayList<>());
+    synchronized (logs) { logs.add(log); }
+  }
+
+  private static <T> List<T> newestFirst(Map<String, List<T>> index, String key) {
+    List<T> logs = index.getOrDefault(key, Collections.emptyList());
+    List<T> copy;
+    synchronized (logs) { copy = new ArrayList<>(logs); }
+    Collections.reverse(copy);
+    return copy;
+  }
+
+  /**
+   * Finds the logs of a key overlapping a window, oldest first.
+   */
+  private List<T> window(Map<String, List<T>> index, String key, LocalDateTime from, LocalDateTime to) {
+    List<T> logs = index.getOrDefault(key, Collections.emptyList());
+    List<T> result = new ArrayList<>();
+    synchronized (logs) {
+      int low = 0;
+      int high = logs.size();
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (start.apply(logs.get(middle)).isBefore(to)) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      for (int i = 0; i < low; i++) {
+        T log = logs.get(i);
+        if (end.apply(log).isAfter(from)) { result.add(log); }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Stores new logs, skipping those whose ID is already stored, as the bulk
+   * insert does.
+   */
+  public void insertAll(Collection<T> logs) {
+    for (T log : logs) {
+      if (!byId.containsKey(id.apply(log))) { save(log); }
+    }
+  }
+
+  /**
+   * Stores new logs, or moves the end time of the stored log with the same ID
+   * later, as the bulk upsert of monitor logs does.
+   */
+  public void upsertAll(Collection<T> logs) {
+    for (T log : logs) {
+      T existing = byId.get(id.apply(log));
+      if (existing == null) {
+        save(log);
+      } else if (end.apply(log).isAfter(end.apply(existing))) {
+        setEnd.accept(existing, end.apply(log));
+      }
+    }
+  }
+
+  /**
+   * Sets the end time of logs by ID, as the bulk update does.
+   */
+  public void closeAll(Map<String, LocalDateTime> ends) {
+    ends.forEach((logId, at) -> {
+      T log = byId.get(logId);
+      if (log != null && (!shortenOnly || end.apply(log).isAfter(at))) { setEnd.accept(log, at); }
+    });
+  }
+
+  public List<T> getLatest(String resource, String user, Pageable pageable) {
+    List<T> latest = new ArrayList<>();
+    List<T> logs = byResource.getOrDefault(resource, Collections.emptyList());
+    synchronized (logs) {
+      for (int i = logs.size() - 1; i >= 0 && latest.size() < pageable.getPageSize(); i--) {
+        if (this.user.apply(logs.get(i)).equals(user)) { latest.add(logs.get(i)); }
+      }
+    }
+    return latest;
+  }
+
+  public List<T> getLogs(String resource, String user) {
+    List<T> logs = newestFirst(byResource, resource);
+    logs.removeIf(log -> !this.user.apply(log).equals(user));
+    return logs;
+  }
+
+  public List<T> getResourceLogs(String resource) {
+    return newestFirst(byResource, resource);
+  }
+
+  public List<T> getUserLogs(String user) {
+    return newestFirst(byUser, user);
+  }
+
+  public List<T> getLogs(String resource, String user, LocalDateTime from, LocalDateTime to) {
+    List<T> logs = window(byResource, resource, from, to);
+    logs.removeIf(log -> !this.user.apply(log).equals(user));
+    return logs;
+  }
+
+  public List<T> getResourceLogs(String resource, LocalDateTime from, LocalDateTime to) {
+    return window(byResource, resource, from, to);
+  }
+
+  public List<T> getUserLogs(String user, LocalDateTime from, LocalDateTime to) {
+    return window(byUser, user, from, to);
+  }
+}
@@ -0,0 +1,182 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UserTimeEntry;
+import com.sprinklr.msTeams.mutexBot.repositories.ResourceRepository;
+
+/**
+ * In-memory stand-in for {@link ResourceRepository}.
+ *
+ * <p>
+ * Every conditional update is atomic per resource and, like
+ * {@code findAndModify}, returns a new copy of the document, so the cache of
+ * {@link com.sprinklr.msTeams.mutexBot.service.ResourceService} never shares
+ * objects with the store.
+ * </p>
+ */
+public class InMemoryResources {
+  private final ConcurrentHashMap<String, Resource> documents = new ConcurrentHashMap<>();
+
+  /**
+   * @return A {@link ResourceRepository} backed by this store.
+   */
+  public ResourceRepository repository() {
+    return StandIns.of(ResourceRepository.class, this);
+  }
+
+  /**
+   * Copies a resource, as reading it back from the database would.
+   */
+  static Resource copy(Resource resource) {
+    Resource copy = new Resource(resource.getName());
+    if (resource.getReservedBy() != null) { copy.reserve(resource.getReservedBy(), resource.getReservedTill()); }
+    if (!resource.getReservedFlag()) { copy.release(); }
+    copy.setReservationLogId(resource.getReservationLogId());
+    for (UserTimeEntry entry : resource.getMonitoredBy()) {
+      copy.getMonitoredBy().add(new UserTimeEntry(entry.user, entry.till, entry.logId));
+    }
+    copy.maxAllocationTime = resource.maxAllocationTime;
+    return copy;
+  }
+
+  private static void pullExpired(Resource resource, LocalDateTime now) {
+    Iterator<UserTimeEntry> iterator = resource.getMonitoredBy().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().till.isBefore(now)) { iterator.remove(); }
+    }
+  }
+
+  /**
+   * Applies an update to a stored resource if the condition holds.
+   *
+   * @return A copy of the updated resource, or {@code null}.
+   */
+  private Resource modify(String name, Predicate<Resource> condition, Consumer<Resource> update) {
+    return modify(name, condition, update, true);
+  }
+
+  /**
+   * Applies an update to a stored resource if the condition holds.
+   *
+   * @return A copy of the resource after the update, or before it if not
+   *         {@code returnNew}, or {@code null}.
+   */
+  private Resource modify(String name, Predicate<Resource> condition, Consumer<Resource> update, boolean returnNew) {
+    Resource[] result = new Resource[1];
+    documents.computeIfPresent(name, (key, stored) -> {
+      if (!condition.test(stored)) { return stored; }
+      Resource updated = copy(stored);
+      update.accept(updated);
+      result[0] = copy(returnNew ? updated : stored);
+      return updated;
+    });
+    return result[0];
+  }
+
+  public Object save(Object entity) {
+    Resource resource = (Resource) entity;
+    documents.put(resource.getName(), copy(resource));
+    return resource;
+  }
+
+  public Optional<Resource> findById(Object name) {
+    Resource resource = documents.get(name);
+    return resource == null ? Optional.empty() : Optional.of(copy(resource));
+  }
+
+  public List<Resource> findAll() {
+    return documents.values().stream().map(InMemoryResources::copy).collect(Collectors.toList());
+  }
+
+  public void deleteById(Object name) {
+    documents.remove(name);
+  }
+
+  public List<Resource> findReservedResources(LocalDateTime now) {
+    return documents.values().stream()
+        .filter(resource -> resource.getReservedFlag() && resource.getReservedTill().isAfter(now))
+        .map(InMemoryResources::copy)
+        .collect(Collectors.toList());
+  }
+
+  public List<Resource> findAvailableResources(LocalDateTime now) {
+    return documents.values().stream()
+        .filter(resource -> !resource.getReservedFlag() || resource.getReservedTill().isBefore(now))
+        .map(InMemoryResources::copy)
+        .collect(Collectors.toList());
+  }
+
+  public Resource reserveIfAvailable(String name, String user, LocalDateTime till, int duration, LocalDateTime now,
+      String logId) {
+    return modify(name,
+        stored -> (!stored.getReservedFlag() || stored.getReservedTill() == null || stored.getReservedTill().isBefore(now))
+            && stored.maxAllocationTime >= duration,
+        resource -> {
+          resource.reserve(user, till, logId);
+          pullExpired(resource, now);
+        });
+  }
+
+  public Resource releaseIfHeld(String name, String user, LocalDateTime now) {
+    return modify(name,
+        stored -> stored.getReservedFlag() && !stored.getReservedTill().isBefore(now)
+            && (user == null || user.equals(stored.getReservedBy())),
+        resource -> {
+          resource.release();
+          pullExpired(resource, now);
+        });
+  }
+
+  public Resource addMonitor(String name, String user, LocalDateTime till, String logId, LocalDateTime now) {
+    return modify(name, stored -> true, resource -> resource.monitor(user, till, logId, now));
+  }
+
+  public Resource removeMonitor(String name, String user) {
+    return modify(name,
+        stored -> stored.getMonitoredBy().stream().anyMatch(entry -> entry.user.equals(user)),
+        resource -> resource.stopMonitoring(user), false);
+  }
+
+  public Resource setReservationLogId(String name, String user, LocalDateTime till, String logId) {
+    return modify(name,
+        stored -> stored.getReservedFlag() && user.equals(stored.getReservedBy()) && till.equals(stored.getReservedTill())
+            && stored.getReservationLogId() == null,
+        resource -> resource.setReservationLogId(logId));
+  }
+
+  public Resource setMonitorLogId(String name, String user, String logId) {
+    return modify(name,
+        stored -> stored.getMonitor(user) != null && stored.getMonitor(user).logId == null,
+        resource -> resource.getMonitor(user).logId = logId);
+  }
+
+  public Resource expireReservation(String name, String user, LocalDateTime till, LocalDateTime now) {
+    return modify(name,
+        stored -> stored.getReservedFlag() && user.equals(stored.getReservedBy()) && till.equals(stored.getReservedTill()),
+        resource -> {
+          resource.release();
+          pullExpired(resource, now);
+        });
+  }
+
+  public Resource pullExpiredMonitors(String name, LocalDateTime now) {
+    return modify(name,
+        stored -> stored.getMonitoredBy().stream().anyMatch(entry -> entry.till.isBefore(now)),
+        resource -> pullExpired(resource, now));
+  }
+
+  public void applyCatalog(Collection<Resource> added, Collection<String> removed) {
+    for (Resource resource : added) { save(resource); }
+    for (String name : removed) { deleteById(name); }
+  }
+}
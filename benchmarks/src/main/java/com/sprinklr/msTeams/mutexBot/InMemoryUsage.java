@@ -0,0 +1,50 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+import com.sprinklr.msTeams.mutexBot.repositories.UsageRollupRepository;
+
+/**
+ * In-memory stand-in for {@link UsageRollupRepository}.
+ */
+public class InMemoryUsage {
+  private final ConcurrentHashMap<String, UsageRollup> documents = new ConcurrentHashMap<>();
+
+  /**
+   * @return A {@link UsageRollupRepository} backed by this store.
+   */
+  public UsageRollupRepository repository() {
+    return StandIns.of(UsageRollupRepository.class, this);
+  }
+
+  public void incrementAll(Collection<UsageRollup> deltas) {
+    for (UsageRollup delta : deltas) {
+      documents.merge(delta.getId(), delta, (stored, added) -> {
+        UsageRollup sum = new UsageRollup(stored.getScope(), stored.getKey(), stored.getGranularity(),
+            stored.getBucket());
+        sum.add(stored);
+        sum.add(added);
+        return sum;
+      });
+    }
+  }
+
+  public List<UsageRollup> getBuckets(String scope, String granularity, LocalDateTime from, LocalDateTime to) {
+    return documents.values().stream()
+        .filter(rollup -> rollup.getScope().equals(scope) && rollup.getGranularity().equals(granularity)
+            && !rollup.getBucket().isBefore(from) && rollup.getBucket().isBefore(to))
+        .collect(Collectors.toList());
+  }
+
+  public List<UsageRollup> getBuckets(String scope, String key, String granularity, LocalDateTime from,
+      LocalDateTime to) {
+    return getBuckets(scope, granularity, from, to).stream()
+        .filter(rollup -> rollup.getKey().equals(key))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,83 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.sprinklr.msTeams.mutexBot.model.User;
+import com.sprinklr.msTeams.mutexBot.repositories.UserRepository;
+
+/**
+ * In-memory stand-in for {@link UserRepository}.
+ */
+public class InMemoryUsers {
+  private final ConcurrentHashMap<String, User> documents = new ConcurrentHashMap<>();
+
+  /**
+   * @return A {@link UserRepository} backed by this store.
+   */
+  public UserRepository repository() {
+    return StandIns.of(UserRepository.class, this);
+  }
+
+  /**
+   * Stores a user with a complete profile.
+   *
+   * @param id The ID of the user.
+   * @return The stored user.
+   */
+  public User add(String id) {
+    User user = new User(id, "User " + id, id + "@example.com");
+    documents.put(id, user);
+    return user;
+  }
+
+  public Object save(Object entity) {
+    User user = (User) entity;
+    documents.put(user.getId(), user);
+    return user;
+  }
+
+  public Optional<User> findById(Object id) {
+    return Optional.ofNullable(documents.get(id));
+  }
+
+  public List<User> findAll() {
+    return new ArrayList<>(documents.values());
+  }
+
+  public List<User> findAllById(Iterable<String> ids) {
+    List<User> users = new ArrayList<>();
+    for (String id : ids) {
+      User user = documents.get(id);
+      if (user != null) { users.add(user); }
+    }
+    return users;
+  }
+
+  public boolean existsById(String id) {
+    return documents.containsKey(id);
+  }
+
+  public User findByEmail(String email) {
+    return documents.values().stream().filter(user -> email.equals(user.getEmail())).findFirst().orElse(null);
+  }
+
+  public List<User> findByAdminTrue() {
+    return documents.values().stream().filter(User::isAdmin).collect(Collectors.toList());
+  }
+
+  public User getOrCreate(String id) {
+    return documents.computeIfAbsent(id, User::new);
+  }
+
+  public User upsertProfile(String id, String name, String email) {
+    return documents.compute(id, (key, stored) -> {
+      User user = new User(id, name == null ? User.defaultName : name, email == null ? User.defaultEmail : email);
+      if (stored != null && stored.isAdmin()) { user.makeAdmin(); }
+      return user;
+    });
+  }
+}
@@ -0,0 +1,549 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ActivityTypes;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationAccount;
+import com.microsoft.bot.schema.Serialization;
+
+/**
+ * Replays Teams activities against {@code /api/messages} and reports the
+ * throughput and latency of the bot, from the POST to its response, which the
+ * {@link com.microsoft.bot.integration.spring.BotController} sends once the
+ * turn, replies included, is done.
+ *
+ * <p>
+ * Each of {@code --concurrency} workers repeatedly picks one of
+ * {@code --users} simulated users and plays a scenario for them, drawn from
+ * {@code --mix}:
+ * </p>
+ * <ul>
+ * <li>{@code status}, {@code reserve}, {@code release}, {@code monitor},
+ * {@code stopmonitoring}: the typed command on a random resource; a user
+ * releases the resource they last reserved, if any,</li>
+ * <li>{@code run}: the card flow, {@code run} then the chart, release and
+ * duration cards.</li>
+ * </ul>
+ * <p>
+ * The activities carry the URL of a {@link ConnectorStub} started by the
+ * generator, so the replies, personal messages and member lookups of the bot
+ * never reach Teams. Against a deployed bot ({@code --bot}), the bot must run
+ * without {@code MicrosoftAppId} so that it accepts activities without a token,
+ * must be able to reach the stub ({@code --stub-host}), and its catalog must
+ * contain {@code --resources}. With {@code --embedded}, the bot is started in
+ * this JVM on in-memory stores ({@link EmbeddedBot}) and a catalog of
+ * {@code --releases} releases per chart.
+ * </p>
+ *
+ * <p>
+ * Requests started during the {@code --warmup} seconds are not reported.
+ * Latency percentiles are exact, computed from every measured request.
+ * </p>
+ */
+public final class LoadGenerator {
+  /** The steps requests are reported by, in report order. */
+  private static final List<String> STEPS = Collections.unmodifiableList(Arrays.asList(
+      "status", "reserve", "release", "monitor", "stopmonitoring",
+      "run", "chartNameCard", "releaseNameCard", "durationCard"));
+  private static final String TENANT = "load-tenant";
+
+  private final Options options;
+  private final List<String> charts;
+  private final List<String> resources;
+  private final Map<String, List<String>> releasesByChart = new HashMap<>();
+  private final List<SimulatedUser> users = new ArrayList<>();
+  private final String[] scenarios;
+  private final int[] cumulativeWeights;
+  private final HttpClient client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(10))
+      .build();
+  private final AtomicLong activityIds = new AtomicLong();
+
+  private URI bot;
+  private String serviceUrl;
+
+  private LoadGenerator(Options options) {
+    this.options = options;
+    this.charts = options.charts;
+    this.resources = options.resources;
+    for (String resource : resources) {
+      String chart = charts.stream().filter(c -> resource.startsWith(c + "-")).findFirst().orElse(charts.get(0));
+      releasesByChart.computeIfAbsent(chart, c -> new ArrayList<>()).add(resource);
+    }
+    for (int i = 0; i < options.users; i++) { users.add(new SimulatedUser("load-user-" + i)); }
+
+    scenarios = options.mix.keySet().toArray(new String[0]);
+    cumulativeWeights = new int[scenarios.length];
+    int total = 0;
+    for (int i = 0; i < scenarios.length; i++) {
+      total += options.mix.get(scenarios[i]);
+      cumulativeWeights[i] = total;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options;
+    try {
+      options = Options.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(Options.USAGE);
+      System.exit(2);
+      return;
+    }
+    if (options == null) {
+      System.out.println(Options.USAGE);
+      return;
+    }
+    Report report = new LoadGenerator(options).run();
+    report.print();
+    if (options.json != null) { report.write(new File(options.json)); }
+  }
+
+  /**
+   * Starts the stub (and the embedded bot), drives the load, then stops them.
+   *
+   * @return The report of the measured requests.
+   */
+  Report run() throws Exception {
+    ConfigurableApplicationContext embedded = null;
+    try (ConnectorStub stub = new ConnectorStub(options.stubPort, options.connectorLatencyMillis)) {
+      serviceUrl = "http://" + options.stubHost + ":" + stub.port() + "/";
+      if (options.embedded) {
+        embedded = EmbeddedBot.start(0);
+        Fixture fixture = embedded.getBean(Fixture.class);
+        for (String chart : charts) { fixture.addChart(chart, options.releases); }
+        bot = URI.create("http://localhost:" + EmbeddedBot.port(embedded) + "/api/messages");
+      } else {
+        bot = URI.create(options.bot);
+      }
+      System.out.printf("Driving %s with %d users, %d workers: %ds warmup, %ds measured%n",
+          bot, users.size(), options.concurrency, options.warmupSeconds, options.durationSeconds);
+      Report report = drive();
+      report.connector(stub);
+      return report;
+    } finally {
+      if (embedded != null) { embedded.close(); }
+    }
+  }
+
+  private Report drive() throws Exception {
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmupSeconds * 1_000_000_000L;
+    long end = measureFrom + options.durationSeconds * 1_000_000_000L;
+    ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+    List<Future<Samples>> futures = new ArrayList<>();
+    for (int i = 0; i < options.concurrency; i++) {
+      futures.add(workers.submit(() -> work(measureFrom, end)));
+    }
+    List<Samples> samples = new ArrayList<>();
+    for (Future<Samples> future : futures) { samples.add(future.get()); }
+    workers.shutdown();
+    return new Report(samples, (Math.min(System.nanoTime(), end) - measureFrom) / 1e9);
+  }
+
+  /**
+   * The loop of one worker.
+   */
+  private Samples work(long measureFrom, long end) {
+    Samples samples = new Samples();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (System.nanoTime() < end) {
+      SimulatedUser user = users.get(random.nextInt(users.size()));
+      for (Step step : scenario(pick(random), user, random)) {
+        long started = System.nanoTime();
+        if (started >= end) { break; }
+        int status = post(step.activity);
+        if (started >= measureFrom) { samples.add(step.name, System.nanoTime() - started, status); }
+        if (status >= 300) { break; }  // The rest of a card flow makes no sense
+      }
+    }
+    return samples;
+  }
+
+  private String pick(Random random) {
+    int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; ; i++) {
+      if (draw < cumulativeWeights[i]) { return scenarios[i]; }
+    }
+  }
+
+  /**
+   * Builds the activities of a scenario.
+   */
+  private List<Step> scenario(String scenario, SimulatedUser user, Random random) {
+    String resource = resources.get(random.nextInt(resources.size()));
+    switch (scenario) {
+      case "reserve":
+        user.reserved = resource;
+        return Collections.singletonList(new Step(scenario, text(user, "reserve " + resource + " for "
+            + (1 + random.nextInt(3)) + "h")));
+      case "release":
+        String reserved = user.reserved;
+        user.reserved = null;
+        return Collections.singletonList(new Step(scenario, text(user, "release "
+            + (reserved != null ? reserved : resource))));
+      case "monitor":
+        return Collections.singletonList(new Step(scenario, text(user, "monitor " + resource + " for 30m")));
+      case "run":
+        String chart = charts.get(random.nextInt(charts.size()));
+        List<String> releases = releasesByChart.getOrDefault(chart, resources);
+        String release = releases.get(random.nextInt(releases.size()));
+        Map<String, Object> duration = card("durationCard");
+        duration.put("resource", release);
+        duration.put("action", "reserve");
+        duration.put("hours", "1");
+        duration.put("minutes", String.valueOf(random.nextInt(60)));
+        user.reserved = release;
+        return Arrays.asList(
+            new Step("run", text(user, "run")),
+            new Step("chartNameCard", submit(user, card("chartNameCard", chart))),
+            new Step("releaseNameCard", submit(user, card("releaseNameCard", release))),
+            new Step("durationCard", submit(user, duration)));
+      default:  // status, stopmonitoring
+        return Collections.singletonList(new Step(scenario, text(user, scenario + " " + resource)));
+    }
+  }
+
+  private static Map<String, Object> card(String card) {
+    Map<String, Object> data = new HashMap<>();
+    data.put("card", card);
+    return data;
+  }
+
+  private static Map<String, Object> card(String card, String value) {
+    Map<String, Object> data = card(card);
+    data.put("value", value);
+    return data;
+  }
+
+  private Activity text(SimulatedUser user, String text) {
+    Activity activity = activity(user);
+    activity.setText(text);
+    return activity;
+  }
+
+  private Activity submit(SimulatedUser user, Map<String, Object> data) {
+    Activity activity = activity(user);
+    activity.setValue(data);
+    return activity;
+  }
+
+  /**
+   * Builds a message from a user in their personal chat with the bot.
+   */
+  private Activity activity(SimulatedUser user) {
+    Activity activity = new Activity(ActivityTypes.MESSAGE);
+    activity.setId("load-" + activityIds.incrementAndGet());
+    activity.setTimestamp(OffsetDateTime.now());
+    activity.setChannelId("msteams");
+    activity.setServiceUrl(serviceUrl);
+    ChannelAccount from = new ChannelAccount(user.id, "User " + user.id);
+    from.setAadObjectId(user.id);
+    activity.setFrom(from);
+    activity.setRecipient(new ChannelAccount("28:load-bot", "MutexBot"));
+    ConversationAccount conversation = new ConversationAccount(user.conversationId);
+    conversation.setConversationType("personal");
+    conversation.setTenantId(TENANT);
+    activity.setConversation(conversation);
+    ObjectNode channelData = Serialization.createObjectNode();
+    channelData.putObject("tenant").put("id", TENANT);
+    activity.setChannelData(channelData);
+    return activity;
+  }
+
+  /**
+   * Posts an activity to the bot.
+   *
+   * @return The status code, or 599 if the request itself failed.
+   */
+  private int post(Activity activity) {
+    try {
+      HttpRequest request = HttpRequest.newBuilder(bot)
+          .timeout(Duration.ofSeconds(60))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(Serialization.toString(activity)))
+          .build();
+      return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    } catch (IOException e) {
+      return 599;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return 599;
+    }
+  }
+
+  /**
+   * A Teams user, with their personal conversation with the bot.
+   */
+  private static class SimulatedUser {
+    final String id;
+    final String conversationId;
+    /** The resource the user last reserved, released by their next release. */
+    volatile String reserved;
+
+    SimulatedUser(String id) {
+      this.id = id;
+      this.conversationId = "a:load-personal-" + id;
+    }
+  }
+
+  /**
+   * One request of a scenario.
+   */
+  private static class Step {
+    final String name;
+    final Activity activity;
+
+    Step(String name, Activity activity) {
+      this.name = name;
+      this.activity = activity;
+    }
+  }
+
+  /**
+   * The measured requests of one worker.
+   */
+  static class Samples {
+    long[] nanos = new long[1 << 14];
+    byte[] steps = new byte[1 << 14];
+    int size;
+    final Map<Integer, Long> errors = new TreeMap<>();
+
+    void add(String step, long latency, int status) {
+      if (size == nanos.length) {
+        nanos = Arrays.copyOf(nanos, size * 2);
+        steps = Arrays.copyOf(steps, size * 2);
+      }
+      nanos[size] = latency;
+      steps[size] = (byte) STEPS.indexOf(step);
+      size++;
+      if (status >= 300) { errors.merge(status, 1L, Long::sum); }
+    }
+  }
+
+  /**
+   * Throughput and latency percentiles, overall and by step.
+   */
+  static class Report {
+    private final double seconds;
+    private final long requests;
+    private final Map<Integer, Long> errors = new TreeMap<>();
+    /** The sorted latencies of all requests, then of each step that was sent. */
+    private final Map<String, long[]> latencies = new LinkedHashMap<>();
+    private final Map<String, Long> connector = new LinkedHashMap<>();
+
+    Report(List<Samples> workers, double seconds) {
+      this.seconds = seconds;
+      int total = 0;
+      int[] perStep = new int[STEPS.size()];
+      for (Samples samples : workers) {
+        total += samples.size;
+        for (int i = 0; i < samples.size; i++) { perStep[samples.steps[i]]++; }
+        samples.errors.forEach((status, count) -> errors.merge(status, count, Long::sum));
+      }
+      requests = total;
+
+      long[] all = new long[total];
+      long[][] byStep = new long[STEPS.size()][];
+      for (int s = 0; s < byStep.length; s++) { byStep[s] = new long[perStep[s]]; }
+      int[] filled = new int[STEPS.size()];
+      int n = 0;
+      for (Samples samples : workers) {
+        for (int i = 0; i < samples.size; i++) {
+          all[n++] = samples.nanos[i];
+          byStep[samples.steps[i]][filled[samples.steps[i]]++] = samples.nanos[i];
+        }
+      }
+      Arrays.sort(all);
+      latencies.put("all", all);
+      for (int s = 0; s < byStep.length; s++) {
+        if (byStep[s].length == 0) { continue; }
+        Arrays.sort(byStep[s]);
+        latencies.put(STEPS.get(s), byStep[s]);
+      }
+    }
+
+    void connector(ConnectorStub stub) {
+      connector.put("activities", stub.getActivities());
+      connector.put("conversations", stub.getConversations());
+      connector.put("members", stub.getMembers());
+      connector.put("unexpected", stub.getUnexpected());
+    }
+
+    /**
+     * @return The latency below which the given share of requests completed, in milliseconds.
+     */
+    private static double percentile(long[] sorted, double share) {
+      if (sorted.length == 0) { return 0; }
+      int index = (int) Math.ceil(share * sorted.length) - 1;
+      return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    void print() {
+      long failed = errors.values().stream().mapToLong(Long::longValue).sum();
+      System.out.printf("%nRequests: %d in %.1f s (%.1f req/s), errors: %d %s%n",
+          requests, seconds, requests / seconds, failed, errors.isEmpty() ? "" : errors);
+      System.out.printf("%-16s %9s %9s %9s %9s %9s   (ms)%n", "", "count", "p50", "p99", "p999", "max");
+      latencies.forEach((step, sorted) -> System.out.printf("%-16s %9d %9.2f %9.2f %9.2f %9.2f%n", step,
+          sorted.length, percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999),
+          percentile(sorted, 1)));
+      System.out.println("Connector calls: " + connector);
+    }
+
+    void write(File file) throws IOException {
+      ObjectNode json = Serialization.createObjectNode();
+      json.put("seconds", seconds);
+      json.put("requests", requests);
+      json.put("throughput", requests / seconds);
+      ObjectNode errorCounts = json.putObject("errors");
+      errors.forEach((status, count) -> errorCounts.put(String.valueOf(status), count));
+      ObjectNode steps = json.putObject("latencyMillis");
+      latencies.forEach((step, sorted) -> steps.putObject(step)
+          .put("count", sorted.length)
+          .put("p50", percentile(sorted, 0.5))
+          .put("p99", percentile(sorted, 0.99))
+          .put("p999", percentile(sorted, 0.999))
+          .put("max", percentile(sorted, 1)));
+      ObjectNode calls = json.putObject("connector");
+      connector.forEach(calls::put);
+      new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, json);
+    }
+  }
+
+  /**
+   * The command line options.
+   */
+  static class Options {
+    static final String USAGE = String.join("\n",
+        "Usage: LoadGenerator (--embedded | --bot <url>) [options]",
+        "  --embedded                 Run the bot in this JVM, on in-memory stores",
+        "  --bot <url>                The /api/messages URL of a running bot",
+        "  --resources <a,b,...>      Resources in the catalog of the running bot",
+        "  --charts <a,b,...>         Charts offered by the run flow (default prod,stage,qa,dev)",
+        "  --releases <n>             Releases per chart of the embedded catalog (default 25)",
+        "  --users <n>                Simulated users (default 2000)",
+        "  --concurrency <n>          Requests in flight (default 32)",
+        "  --warmup <seconds>         Unreported warmup (default 10)",
+        "  --duration <seconds>       Measured duration (default 30)",
+        "  --mix <name=weight,...>    Scenario weights (default "
+            + "status=35,reserve=20,release=15,monitor=10,stopmonitoring=5,run=15)",
+        "  --stub-port <port>         Port of the Bot Connector stub (default any free port)",
+        "  --stub-host <host>         Host the bot reaches the stub at (default localhost)",
+        "  --connector-latency <ms>   Latency of every Bot Connector call (default 0)",
+        "  --json <file>              Also write the report as JSON");
+    private static final List<String> SCENARIOS = Arrays.asList(
+        "status", "reserve", "release", "monitor", "stopmonitoring", "run");
+
+    boolean embedded;
+    String bot;
+    List<String> charts = Arrays.asList("prod", "stage", "qa", "dev");
+    List<String> resources;
+    int releases = 25;
+    int users = 2000;
+    int concurrency = 32;
+    int warmupSeconds = 10;
+    int durationSeconds = 30;
+    Map<String, Integer> mix = parseMix("status=35,reserve=20,release=15,monitor=10,stopmonitoring=5,run=15");
+    int stubPort = 0;
+    String stubHost = "localhost";
+    long connectorLatencyMillis = 0;
+    String json;
+
+    /**
+     * @return The options, or {@code null} if help was asked for.
+     * @throws IllegalArgumentException If an option is unknown or invalid.
+     */
+    static Options parse(String[] args) {
+      Options options = new Options();
+      for (int i = 0; i < args.length; i++) {
+        String name = args[i];
+        if (name.equals("--help") || name.equals("-h")) { return null; }
+        if (name.equals("--embedded")) {
+          options.embedded = true;
+          continue;
+        }
+        if (i + 1 == args.length) { throw new IllegalArgumentException("Missing value of " + name); }
+        String value = args[++i];
+        try {
+          switch (name) {
+            case "--bot": options.bot = value; break;
+            case "--resources": options.resources = Arrays.asList(value.split(",")); break;
+            case "--charts": options.charts = Arrays.asList(value.split(",")); break;
+            case "--releases": options.releases = Integer.parseInt(value); break;
+            case "--users": options.users = Integer.parseInt(value); break;
+            case "--concurrency": options.concurrency = Integer.parseInt(value); break;
+            case "--warmup": options.warmupSeconds = Integer.parseInt(value); break;
+            case "--duration": options.durationSeconds = Integer.parseInt(value); break;
+            case "--mix": options.mix = parseMix(value); break;
+            case "--stub-port": options.stubPort = Integer.parseInt(value); break;
+            case "--stub-host": options.stubHost = value; break;
+            case "--connector-latency": options.connectorLatencyMillis = Long.parseLong(value); break;
+            case "--json": options.json = value; break;
+            default: throw new IllegalArgumentException("Unknown option " + name);
+          }
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException("Invalid value of " + name + ": " + value);
+        }
+      }
+
+      if (options.embedded == (options.bot != null)) {
+        throw new IllegalArgumentException("Give either --embedded or --bot");
+      }
+      if (options.embedded) {
+        options.resources = new ArrayList<>();
+        for (String chart : options.charts) {
+          for (int r = 0; r < options.releases; r++) { options.resources.add(chart + "-" + r); }
+        }
+      } else if (options.resources == null) {
+        throw new IllegalArgumentException("--resources is required with --bot");
+      }
+      if (options.users < 1 || options.concurrency < 1 || options.resources.isEmpty()) {
+        throw new IllegalArgumentException("--users, --concurrency and the catalog must not be empty");
+      }
+      return options;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+      Map<String, Integer> weights = new LinkedHashMap<>();
+      for (String entry : mix.split(",")) {
+        String[] pair = entry.split("=");
+        if (pair.length != 2 || !SCENARIOS.contains(pair[0])) {
+          throw new IllegalArgumentException("Invalid scenario weight: " + entry + "; scenarios are " + SCENARIOS);
+        }
+        int weight = Integer.parseInt(pair[1]);
+        if (weight > 0) { weights.put(pair[0], weight); }
+      }
+      if (weights.isEmpty()) { throw new IllegalArgumentException("No scenario has a weight"); }
+      return weights;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+
+/**
+ * Generation of the log report by {@link LogCalendar#getEvents}, for a window
+ * holding every log row of the resource (or user) reported on. Half of the
+ * rows are reservations and half are monitoring periods.
+ *
+ * <p>
+ * In the resource perspective the rows belong to 500 users, whose names are
+ * resolved for the titles; in the user perspective they are spread over 100
+ * resources.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LogCalendarBenchmark {
+  private static final int USERS = 500;
+  private static final int RESOURCES = 100;
+  private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+  private static final LocalDateTime TO = FROM.plusYears(1);
+
+  /** The number of log rows in the report. */
+  @Param({ "10000", "100000", "1000000" })
+  public int rows;
+
+  @Param({ "resource", "user" })
+  public String perspective;
+
+  private Fixture fixture;
+
+  @Setup
+  public void setUp() {
+    fixture = new Fixture();
+    for (int i = 0; i < USERS; i++) { fixture.users.add("user-" + i); }
+
+    boolean byResource = perspective.equals("resource");
+    long step = TimeUnit.DAYS.toSeconds(365) / rows;
+    List<ReservationLog> reservations = new ArrayList<>(rows / 2);
+    List<MonitorLog> monitors = new ArrayList<>(rows / 2);
+    for (int i = 0; i < rows; i++) {
+      String resource = byResource ? "prod-0" : "prod-" + i % RESOURCES;
+      String user = byResource ? "user-" + i % USERS : "user-0";
+      LocalDateTime start = FROM.plusSeconds(i * step);
+      LocalDateTime end = start.plusMinutes(90);
+      if (i % 2 == 0) {
+        reservations.add(new ReservationLog(resource, user, start, end));
+      } else {
+        monitors.add(new MonitorLog(resource, user, start, end));
+      }
+    }
+    fixture.reservationLogs.load(reservations);
+    fixture.monitorLogs.load(monitors);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.close();
+  }
+
+  @Benchmark
+  public Object getEvents() {
+    if (perspective.equals("resource")) {
+      return fixture.logCalendar.getEvents("prod-0", null, perspective, null, FROM.toString(), TO.toString());
+    }
+    return fixture.logCalendar.getEvents(null, "user-0", perspective, null, FROM.toString(), TO.toString());
+  }
+}
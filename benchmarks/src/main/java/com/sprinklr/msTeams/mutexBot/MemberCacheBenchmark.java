@@ -0,0 +1,66 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microsoft.bot.builder.TurnContext;
+
+/**
+ * Latency of a status command with and without the {@link MemberCache}, whose
+ * misses look the sender up in the Teams roster. The roster lookup is a
+ * network round trip, simulated by a pause. Sampled, so the report holds the
+ * p50 and p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberCacheBenchmark {
+  private static final String RESOURCE = "prod-0";
+
+  /** How long members stay cached; 0 looks the sender up on every command. */
+  @Param({ "0", "3600000" })
+  public long ttlMillis;
+
+  /** The duration of a roster lookup. */
+  @Param({ "2000" })
+  public long rosterMicros;
+
+  private Fixture fixture;
+  private TurnContext turn;
+
+  @Setup
+  public void setUp() {
+    fixture = new Fixture(new MemberCache(ttlMillis, (turnContext, id) -> {
+      LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(rosterMicros));
+      return Fixture.member(id);
+    }));
+    fixture.addChart("prod", 1);
+    turn = Fixture.turn("user-0");
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.close();
+  }
+
+  @Benchmark
+  public Object status() {
+    return fixture.actions.actOnResource(turn, RESOURCE, "status");
+  }
+}
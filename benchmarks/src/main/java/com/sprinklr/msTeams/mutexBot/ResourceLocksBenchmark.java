@@ -0,0 +1,91 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of commands holding a {@link ResourceLocks} lock, by 8 threads:
+ * each on a resource of its own stripe, or all on the same resource. The
+ * first should scale with the threads, the second run as one thread does
+ * ({@code -t 1} for the baseline).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ResourceLocksBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Locks {
+    /** The work done while holding the lock, in {@link Blackhole#consumeCPU} tokens. */
+    @Param({ "1000" })
+    public long work;
+
+    final ResourceLocks locks = new ResourceLocks(64);
+    final List<String> names = new ArrayList<>();
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+      List<Integer> stripes = new ArrayList<>();
+      for (int i = 0; names.size() < 64; i++) {
+        String name = "chart-release" + i;
+        if (stripes.contains(locks.stripeFor(name))) { continue; }
+        stripes.add(locks.stripeFor(name));
+        names.add(name);
+      }
+    }
+
+    String nextName() {
+      return names.get(threads.getAndIncrement() % names.size());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Resource {
+    String name;
+
+    @Setup
+    public void setUp(Locks locks) {
+      name = locks.nextName();
+    }
+  }
+
+  private static void command(Locks locks, String name) {
+    Lock lock = locks.locks.lock(name);
+    try {
+      Blackhole.consumeCPU(locks.work);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Benchmark
+  public void distinctResources(Locks locks, Resource resource) {
+    command(locks, resource.name);
+  }
+
+  @Benchmark
+  public void sameResource(Locks locks) {
+    command(locks, locks.names.get(0));
+  }
+}
@@ -0,0 +1,99 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UserTimeEntry;
+
+/**
+ * {@link Resource#monitor} and {@link Resource#clean_monitor_list} on
+ * resources with large watcher lists.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceMonitorBenchmark {
+
+  /** The number of users monitoring the resource. */
+  @Param({ "10", "1000", "10000" })
+  public int watchers;
+
+  private Resource resource;
+  private LocalDateTime till;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    till = LocalDateTime.now().plusDays(1);
+    resource = watched(watchers, till);
+  }
+
+  private static Resource watched(int watchers, LocalDateTime till) {
+    Resource resource = new Resource("prod-0");
+    for (int i = 0; i < watchers; i++) { resource.getMonitoredBy().add(new UserTimeEntry("user-" + i, till)); }
+    return resource;
+  }
+
+  /** An existing watcher extends their period. */
+  @Benchmark
+  public Resource monitor_extend() {
+    till = till.plusNanos(1);
+    resource.monitor("user-" + ThreadLocalRandom.current().nextInt(watchers), till);
+    return resource;
+  }
+
+  /** A new watcher is added, then removed so the list keeps its size. */
+  @Benchmark
+  public boolean monitor_addAndStop() {
+    resource.monitor("newcomer", till);
+    return resource.stopMonitoring("newcomer");
+  }
+
+  /** The common case: no period has ended. */
+  @Benchmark
+  public Resource clean_noneExpired() {
+    resource.clean_monitor_list();
+    return resource;
+  }
+
+  /**
+   * A list of which every other period has ended. The list is rebuilt before
+   * each call, so this only suits the larger watcher counts.
+   */
+  @State(Scope.Thread)
+  public static class HalfExpired {
+    Resource resource;
+
+    @Setup(Level.Invocation)
+    public void setUp(ResourceMonitorBenchmark benchmark) {
+      LocalDateTime now = LocalDateTime.now();
+      resource = new Resource("prod-0");
+      for (int i = 0; i < benchmark.watchers; i++) {
+        resource.getMonitoredBy().add(new UserTimeEntry("user-" + i, i % 2 == 0 ? now.minusMinutes(1) : now.plusDays(1)));
+      }
+    }
+  }
+
+  @Benchmark
+  public Resource clean_halfExpired(HalfExpired halfExpired) {
+    halfExpired.resource.clean_monitor_list();
+    return halfExpired.resource;
+  }
+}
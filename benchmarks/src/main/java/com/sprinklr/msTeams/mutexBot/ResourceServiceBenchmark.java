@@ -0,0 +1,86 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+
+/**
+ * Lookups of {@link com.sprinklr.msTeams.mutexBot.service.ResourceService}:
+ * {@code exists} and {@code find} of cached and unknown names, and the chart
+ * prefix scan behind the release name card.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceServiceBenchmark {
+  private static final int CHARTS = 20;
+
+  /** The number of resources in the catalog. */
+  @Param({ "100", "10000" })
+  public int resources;
+
+  private Fixture fixture;
+  private String[] names;
+
+  @Setup
+  public void setUp() {
+    fixture = new Fixture();
+    for (int chart = 0; chart < CHARTS; chart++) {
+      fixture.addChart("chart" + chart, resources / CHARTS);
+    }
+    names = fixture.resourceService.getCached().stream().map(Resource::getName).toArray(String[]::new);
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.close();
+  }
+
+  private String anyName() {
+    return names[ThreadLocalRandom.current().nextInt(names.length)];
+  }
+
+  @Benchmark
+  public boolean exists_hit() {
+    return fixture.resourceService.exists(anyName());
+  }
+
+  /** A miss goes to the repository, so this includes one stand-in lookup. */
+  @Benchmark
+  public boolean exists_miss() {
+    return fixture.resourceService.exists("missing-" + ThreadLocalRandom.current().nextInt(1000));
+  }
+
+  @Benchmark
+  public Resource find_hit() throws Exception {
+    return fixture.resourceService.find(anyName());
+  }
+
+  /** A miss goes to the repository, so this includes one stand-in lookup. */
+  @Benchmark
+  public Resource find_miss() throws Exception {
+    return fixture.resourceService.find("missing-" + ThreadLocalRandom.current().nextInt(1000));
+  }
+
+  @Benchmark
+  public Object findByChartName() {
+    return fixture.resourceService.findByChartName("chart" + ThreadLocalRandom.current().nextInt(CHARTS));
+  }
+}
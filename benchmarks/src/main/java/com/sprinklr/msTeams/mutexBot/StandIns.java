@@ -0,0 +1,66 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds stand-ins for interfaces with many methods, such as Spring Data
+ * repositories or {@link com.microsoft.bot.builder.TurnContext}, from a plain
+ * object that implements only the methods a benchmark needs.
+ *
+ * <p>
+ * A call on the stand-in runs the public method of the target with the same
+ * name and parameter types; calling any other method throws
+ * {@link UnsupportedOperationException}, so a benchmark never silently
+ * measures a code path the stand-in does not model.
+ * </p>
+ */
+public final class StandIns {
+
+  private StandIns() { }
+
+  /**
+   * Creates a stand-in.
+   *
+   * @param <T>    The type of the stand-in.
+   * @param type   The interface to implement.
+   * @param target The object whose methods implement it.
+   * @return The stand-in.
+   */
+  public static <T> T of(Class<T> type, Object target) {
+    Map<Method, Method> methods = new ConcurrentHashMap<>();
+    Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+      if (method.getDeclaringClass() == Object.class) {
+        switch (method.getName()) {
+          case "equals": return self == args[0];
+          case "hashCode": return System.identityHashCode(self);
+          default: return type.getSimpleName() + " backed by " + target.getClass().getSimpleName();
+        }
+      }
+      Method implementation = methods.computeIfAbsent(method, m -> find(target, m));
+      if (implementation == null) {
+        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+            + " is not implemented by " + target.getClass().getSimpleName());
+      }
+      try {
+        return implementation.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    });
+    return type.cast(proxy);
+  }
+
+  private static Method find(Object target, Method method) {
+    try {
+      Method implementation = target.getClass().getMethod(method.getName(), method.getParameterTypes());
+      implementation.setAccessible(true);
+      return implementation;
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.Serialization;
+
+/**
+ * Rendering of the adaptive cards of {@link UserInput}. The {@code _json}
+ * variants also serialize the card, as the connector client does when it is
+ * sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInputBenchmark {
+  private static final String CHART = "prod";
+
+  /** The number of releases of the chart, i.e. choices of the release name card. */
+  @Param({ "10", "1000" })
+  public int releases;
+
+  private Fixture fixture;
+
+  @Setup
+  public void setUp() {
+    fixture = new Fixture();
+    fixture.addChart(CHART, releases);
+    for (int chart = 0; chart < 50; chart++) { fixture.addChart("chart" + chart, 1); }
+  }
+
+  @TearDown
+  public void tearDown() {
+    fixture.close();
+  }
+
+  @Benchmark
+  public Activity releaseNameSelection() {
+    return fixture.userInput.releaseNameSelection(CHART);
+  }
+
+  @Benchmark
+  public String releaseNameSelection_json() throws Exception {
+    return Serialization.toString(fixture.userInput.releaseNameSelection(CHART));
+  }
+
+  @Benchmark
+  public Activity chartNameSelection() {
+    return fixture.userInput.chartNameSelection();
+  }
+
+  @Benchmark
+  public Activity durationSelection() {
+    return fixture.userInput.durationSelection(CHART + "-0", "reserve");
+  }
+
+  @Benchmark
+  public Activity adminActionSelection() {
+    return fixture.userInput.adminActionSelection();
+  }
+
+  @Benchmark
+  public Activity actionSelection() {
+    return fixture.userInput.actionSelection(CHART + "-0");
+  }
+}
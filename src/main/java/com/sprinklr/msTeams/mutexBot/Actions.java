@@ -2,24 +2,29 @@ package com.sprinklr.msTeams.mutexBot;
 
 import com.microsoft.bot.builder.MessageFactory;
 import com.microsoft.bot.builder.TurnContext;
-import com.microsoft.bot.builder.teams.TeamsInfo;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.teams.TeamsChannelAccount;
 
 import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
 import com.sprinklr.msTeams.mutexBot.model.User;
 import com.sprinklr.msTeams.mutexBot.model.UserTimeEntry;
 import com.sprinklr.msTeams.mutexBot.service.ChartNameService;
 import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
 import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
 import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+import com.sprinklr.msTeams.mutexBot.service.UsageService;
 import com.sprinklr.msTeams.mutexBot.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -27,16 +32,29 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class Actions {
+  /** The names of the admin actions, lower-cased. */
+  private static final Set<String> adminActions = new HashSet<>();
+  /** The number of days and the length of the top lists of the usage report. */
+  private static final int USAGE_DAYS = 7;
+  private static final int USAGE_TOP = 5;
+
+  static {
+    for (String action : Utils.adminActions) { adminActions.add(action.toLowerCase()); }
+  }
+
   private ResourceService resourceService;
   private UserService userService;
   private UserInput userInput;
-  private String appId;
-  private String appPassword;
   private ReservationLogService reservationLogService;
   private MonitorLogService monitorLogService;
   private ChartNameService chartNameService;
   private HelmCharts helmConnector;
-  private final static Object mutex = new Object();
+  private ResourceLocks resourceLocks;
+  private NotificationDispatcher notificationDispatcher;
+  private PersonalMessenger personalMessenger;
+  private ExpiryScheduler expiryScheduler;
+  private MemberCache memberCache;
+  private UsageService usageService;
 
   /**
    * Constructs an Actions class with the specified services.
@@ -48,8 +66,12 @@ public class Actions {
    * @param chartNameService the service to handle chart names
    * @param userInput the class to handle user inputs like cards
    * @param helmConnector the class to connect to helmRepository
-   * @param appId ID of the Teams bot (from Azure)
-   * @param appPassword client secret of the bot (from Azure)
+   * @param resourceLocks the registry of per-resource locks
+   * @param notificationDispatcher the dispatcher for notifications to monitors
+   * @param personalMessenger the class to send personal messages to users
+   * @param expiryScheduler the scheduler that ends reservations and monitoring at their deadline
+   * @param memberCache the cache of Teams member profiles
+   * @param usageService the service reporting the usage of resources
    */
   @Autowired
   public Actions(
@@ -60,8 +82,12 @@ public class Actions {
       ChartNameService chartNameService,
       UserInput userInput,
       HelmCharts helmConnector,
-      @Value("${MicrosoftAppId}") String appId,
-      @Value("${MicrosoftAppPassword}") String appPassword) {
+      ResourceLocks resourceLocks,
+      NotificationDispatcher notificationDispatcher,
+      PersonalMessenger personalMessenger,
+      ExpiryScheduler expiryScheduler,
+      MemberCache memberCache,
+      UsageService usageService) {
     this.resourceService = resourceService;
     this.userService = userService;
     this.userInput = userInput;
@@ -69,8 +95,33 @@ public class Actions {
     this.monitorLogService = monitorLogService;
     this.chartNameService = chartNameService;
     this.helmConnector = helmConnector;
-    this.appId = appId;
-    this.appPassword = appPassword;
+    this.resourceLocks = resourceLocks;
+    this.notificationDispatcher = notificationDispatcher;
+    this.personalMessenger = personalMessenger;
+    this.expiryScheduler = expiryScheduler;
+    this.memberCache = memberCache;
+    this.usageService = usageService;
+  }
+
+  /**
+   * Retrieves the profile of the user who sent the current activity.
+   * 
+   * <p>
+   * The Teams roster is only queried, and the user only registered in the DB,
+   * when the profile is not already cached.
+   * </p>
+   * 
+   * @param turnContext the context for this turn of the conversation.
+   * @return the profile of the sender.
+   */
+  protected TeamsChannelAccount getSender(TurnContext turnContext) {
+    String user_id = turnContext.getActivity().getFrom().getId();
+    TeamsChannelAccount user = memberCache.find(user_id);
+    if (user != null) { return user; }
+
+    user = memberCache.load(turnContext, user_id);
+    userService.register(new User(user));
+    return user;
   }
 
   /**
@@ -96,10 +147,8 @@ public class Actions {
    * @return an Activity representing the response.
    */
   protected Activity actOnResource(TurnContext turnContext, String resource_name, String action) {
-    for (String act : Utils.adminActions) {
-      if (act.toLowerCase().equals(action)) {
-        return adminAction(turnContext, resource_name, action);
-      }
+    if (adminActions.contains(action)) {
+      return adminAction(turnContext, resource_name, action);
     }
 
     if (!resourceService.exists(resource_name)) {
@@ -111,31 +160,32 @@ public class Actions {
       return userInput.durationSelection(resource_name, action);
     }
 
-    TeamsChannelAccount user = TeamsInfo.getMember(turnContext, turnContext.getActivity().getFrom().getId()).join();
-    if (!userService.exists(user)) { userService.save(new User(user)); }
+    TeamsChannelAccount user = getSender(turnContext);
 
     Activity response;
-    synchronized (mutex) {
-      Resource resource;
-      try {
-        resource = resourceService.find(resource_name);
-      } catch (Exception e) {
-        e.printStackTrace();
-        return MessageFactory.text("Exception while fetching resource.");
-      }
-      if (resource == null) {
-        return MessageFactory.text("Resource \"" + resource_name + "\" not found.");
-      }
-
+    Lock lock = resourceLocks.lock(resource_name);
+    try {
       if (action.equals("release")) {
-        response = releaseResource(user, turnContext, resource);
+        response = releaseResource(user, turnContext, resource_name);
       } else if (action.equals("stopmonitoring")) {
-        response = stopMonitoringResource(user, resource);
+        response = stopMonitoringResource(user, resource_name);
       } else if (action.equals("status")) {
+        Resource resource;
+        try {
+          resource = resourceService.find(resource_name);
+        } catch (Exception e) {
+          e.printStackTrace();
+          return MessageFactory.text("Exception while fetching resource.");
+        }
+        if (resource == null) {
+          return MessageFactory.text("Resource \"" + resource_name + "\" not found.");
+        }
         response = getStatus(resource);
       } else {
         response = MessageFactory.text(String.format(Utils.UNSURE_ACTION_MESSAGE, resource_name, action));
       }
+    } finally {
+      lock.unlock();
     }
     return response;
   }
@@ -149,33 +199,33 @@ public class Actions {
    * @return an Activity representing the response.
    */
   protected Activity adminAction(TurnContext turnContext, String resource_name, String action) {
-    String user_id = turnContext.getActivity().getFrom().getId();
-    TeamsChannelAccount teamsUser = TeamsInfo.getMember(turnContext, user_id).join();
-    User user;
+    TeamsChannelAccount teamsUser = getSender(turnContext);
+    boolean admin;
     try {
-      user = userService.find(user_id);
+      admin = userService.isAdmin(teamsUser.getId());
     } catch (Exception e) {
       e.printStackTrace();
       return MessageFactory.text("Exception while fetching user.");
     }
-    if ((user == null)) {
-      userService.save(new User(teamsUser));
+    if (!admin) {
       return MessageFactory.text("Only admins can perform this action");
     }
-    if (!userService.exists(user_id)) {
-      userService.save(new User(teamsUser));
-    }
-    if (!user.isAdmin()) {
-      return MessageFactory.text("Only admins can perform this action");
+
+    if (action.equals("usage")) {
+      return usageReport(resource_name);
     }
 
     if (resource_name.toLowerCase().equals("db")) {
       Utils.sendMessage(turnContext, "Started syncing DB with HelmCharts.<br>This is a long process, please wait...");
-      helmConnector.syncDB();
+      helmConnector.syncDB(true);
       return MessageFactory.text("synced DB with HelmCharts");
     } else if (resource_name.toLowerCase().equals("cache")) {
       resourceService.refreshCache();
+      userService.clearCache();
       return MessageFactory.text("synced cache with DB");
+    } else if (resource_name.toLowerCase().equals("logs")) {
+      int merged = monitorLogService.compact();
+      return MessageFactory.text(String.format("compacted monitor logs, merged %d overlapping entries", merged));
     }
 
     User argUser = userService.findByEmail(resource_name);
@@ -228,7 +278,8 @@ public class Actions {
       return MessageFactory.text("Chart name \"" + resource_name + "\" deleted successfully.");
     }
 
-    synchronized (mutex) {
+    Lock lock = resourceLocks.lock(resource_name);
+    try {
       exists = resourceService.exists(resource_name);
       if (action.equals("createresource")) {
         if (exists) {
@@ -247,18 +298,13 @@ public class Actions {
       }
 
       if (action.equals("forcerelease")) {
-        Resource resource;
-        try {
-          resource = resourceService.find(resource_name);
-        } catch (Exception e) {
-          e.printStackTrace();
-          return MessageFactory.text("Exception while fetching resource.");
-        }
-        if (resource == null) {
+        if (!exists) {
           return MessageFactory.text("Resource \"" + resource_name + "\" not found.");
         }
-        return releaseResource(teamsUser, turnContext, resource, true);
+        return releaseResource(teamsUser, turnContext, resource_name, true);
       }
+    } finally {
+      lock.unlock();
     }
 
     if (action.equals("resourcelog")) {
@@ -271,6 +317,60 @@ public class Actions {
     return MessageFactory.text("Invalid admin action: " + action);
   }
 
+  /**
+   * Reports the usage of the last week from the usage rollups: the top lists
+   * of resources, charts or users, or the usage of a single resource or chart.
+   * 
+   * @param arg "resources", "charts", "users", or the name of a resource or chart.
+   * @return an Activity representing the response.
+   */
+  protected Activity usageReport(String arg) {
+    String name = arg.toLowerCase();
+    try {
+      if (name.equals("resources") || name.equals("charts")) {
+        String scope = name.equals("resources") ? UsageRollup.RESOURCE : UsageRollup.CHART;
+        return MessageFactory.text("Usage of the last " + USAGE_DAYS + " days<br><br>"
+            + usageList("Most reserved " + name, scope, UsageService.RESERVED)
+            + usageList("Most contended " + name, scope, UsageService.DENIED)
+            + usageList("Most idle " + name, scope, UsageService.IDLE));
+      }
+      if (name.equals("users")) {
+        return MessageFactory.text("Usage of the last " + USAGE_DAYS + " days<br><br>"
+            + usageList("Users holding resources the longest", UsageRollup.USER, UsageService.RESERVED)
+            + usageList("Users refused the most", UsageRollup.USER, UsageService.DENIED));
+      }
+      String scope;
+      if (resourceService.exists(arg)) {
+        scope = UsageRollup.RESOURCE;
+      } else if (chartNameService.exists(arg)) {
+        scope = UsageRollup.CHART;
+      } else {
+        return MessageFactory.text("Usage takes \"resources\", \"charts\", \"users\" or a resource or chart name.");
+      }
+      UsageService.Usage usage = usageService.usage(scope, arg, UsageRollup.DAY, USAGE_DAYS);
+      return MessageFactory.text(String.format("Usage of %s \"%s\" in the last %d days:<br>%s", scope, arg,
+          USAGE_DAYS, usage));
+    } catch (Exception e) {
+      e.printStackTrace();
+      return MessageFactory.text("Exception while fetching usage.");
+    }
+  }
+
+  private String usageList(String title, String scope, String order) throws Exception {
+    StringBuilder list = new StringBuilder(title + ":<br>");
+    int rank = 0;
+    for (UsageService.Usage usage : usageService.top(scope, UsageRollup.DAY, USAGE_DAYS, order, USAGE_TOP)) {
+      String line = usage.toString();
+      if (scope.equals(UsageRollup.USER)) {
+        User user = userService.find(usage.getKey());
+        if (user != null) { line = Utils.user2hyperlink(user) + line.substring(usage.getKey().length()); }
+      }
+      list.append(String.format(" &emsp;%d. %s<br>", ++rank, line));
+    }
+    if (rank == 0) { list.append(" &emsp;none<br>"); }
+    return list.append("<br>").toString();
+  }
+
   /**
    * Performs specified action on the specified resource for a given duration.
    * 
@@ -282,33 +382,24 @@ public class Actions {
    */
   protected Activity actOnResource(TurnContext turnContext, String resource_name, String action,
       Integer duration) {
-    TeamsChannelAccount user = TeamsInfo.getMember(turnContext, turnContext.getActivity().getFrom().getId()).join();
-    if (!userService.exists(user)) {
-      userService.save(new User(user));
-    }
+    TeamsChannelAccount user = getSender(turnContext);
 
     if (duration <= 0) {
       return MessageFactory.text("Duration can't be -ve or zero");
     }
 
     Activity response;
-    synchronized (mutex) {
-      Resource resource;
-      try {
-        resource = resourceService.find(resource_name);
-      } catch (Exception e) {
-        e.printStackTrace();
-        return MessageFactory.text("Exception while fetching resource.");
-      }
-      if (resource == null) { return MessageFactory.text("Resource \"" + resource_name + "\" not found."); }
-
+    Lock lock = resourceLocks.lock(resource_name);
+    try {
       if (action.equals("reserve")) {
-        response = reserveResource(user, turnContext, resource, duration);
+        response = reserveResource(user, turnContext, resource_name, duration);
       } else if (action.equals("monitor")) {
-        response = monitorResource(user, resource, duration);
+        response = monitorResource(user, resource_name, duration);
       } else {
         response = MessageFactory.text(String.format(Utils.UNSURE_ACTION_MESSAGE, resource_name, action));
       }
+    } finally {
+      lock.unlock();
     }
     return response;
   }
@@ -316,35 +407,37 @@ public class Actions {
   /**
    * Stops monitoring the specified resource.
    * 
-   * @param user     the user who is stopping the monitoring.
-   * @param resource the resource to stop monitoring.
+   * @param user          the user who is stopping the monitoring.
+   * @param resource_name the name of the resource to stop monitoring.
    * @return an Activity representing the response.
    */
-  protected Activity stopMonitoringResource(TeamsChannelAccount user, Resource resource) {
-    if (!resource.stopMonitoring(user.getId())) {
-      String message = String.format(" was not monitoring \"%s\".", resource.getName());
+  protected Activity stopMonitoringResource(TeamsChannelAccount user, String resource_name) {
+    UserTimeEntry removed = resourceService.stopMonitoring(resource_name, user.getId());
+    if (removed == null) {
+      String message = String.format(" was not monitoring \"%s\".", resource_name);
       return Utils.makeMentionedResponse(user, message);
     }
-    resourceService.save(resource);
-    monitorLogService.stopMonitoring(resource.getName(), user.getId());
-    String message = String.format(" stopped monitoring \"%s\".", resource.getName());
+    monitorLogService.stopMonitoring(removed.logId, resource_name, user.getId());
+    String message = String.format(" stopped monitoring \"%s\".", resource_name);
     return Utils.makeMentionedResponse(user, message);
   }
 
   /**
    * Starts monitoring the specified resource.
    * 
-   * @param user     the user who is starting the monitoring.
-   * @param resource the resource to start monitoring.
-   * @param duration the duration for the monitoring.
+   * @param user          the user who is starting the monitoring.
+   * @param resource_name the name of the resource to start monitoring.
+   * @param duration      the duration for the monitoring.
    * @return an Activity representing the response.
    */
-  protected Activity monitorResource(TeamsChannelAccount user, Resource resource, int duration) {
+  protected Activity monitorResource(TeamsChannelAccount user, String resource_name, int duration) {
     LocalDateTime monitorTill = LocalDateTime.now().plusMinutes(duration);
-    resource.monitor(user.getId(), monitorTill);
-    resourceService.save(resource);
+    Resource resource = resourceService.monitor(resource_name, user.getId(), monitorTill);
+    if (resource == null) { return MessageFactory.text("Resource \"" + resource_name + "\" not found."); }
 
-    monitorLogService.monitor(resource.getName(), user.getId(), monitorTill);
+    monitorLogService.monitor(resource.getName(), user.getId(), monitorTill,
+        resource.getMonitor(user.getId()).logId);
+    expiryScheduler.trackMonitor(resource, user.getId());
 
     String message = String.format(" is monitoring \"%s\" till %s.", resource.getName(),
         Utils.time2hyperlink(monitorTill));
@@ -354,70 +447,66 @@ public class Actions {
   /**
    * Releases the specified resource.
    * 
-   * @param user        the user who is releasing the resource.
-   * @param turnContext the context for this turn of the conversation.
-   * @param resource    the resource to release.
+   * @param user          the user who is releasing the resource.
+   * @param turnContext   the context for this turn of the conversation.
+   * @param resource_name the name of the resource to release.
    * @return an Activity representing the response.
    */
-  protected Activity releaseResource(TeamsChannelAccount user, TurnContext turnContext, Resource resource) {
-    return releaseResource(user, turnContext, resource, false);
+  protected Activity releaseResource(TeamsChannelAccount user, TurnContext turnContext, String resource_name) {
+    return releaseResource(user, turnContext, resource_name, false);
   }
 
   /**
    * Releases the specified resource with a force option.
    * 
-   * @param user        the user who is releasing the resource.
-   * @param turnContext the context for this turn of the conversation.
-   * @param resource    the resource to release.
-   * @param force       whether to force the release.
+   * <p>
+   * The release is a single conditional update; the resource is only read
+   * again to explain why the release was refused.
+   * </p>
+   * 
+   * @param user          the user who is releasing the resource.
+   * @param turnContext   the context for this turn of the conversation.
+   * @param resource_name the name of the resource to release.
+   * @param force         whether to release regardless of who reserved it (admins only).
    * @return an Activity representing the response.
    */
-  protected Activity releaseResource(TeamsChannelAccount user, TurnContext turnContext, Resource resource, boolean force) {
-    if (!resource.isReserved()) {
-      return MessageFactory.text(String.format("Resource \"%s\" is not reserved by anyone.", resource.getName()));
-    }
-
-    String reservingUserId = resource.getReservedBy();
-    if (!user.getId().equals(reservingUserId)) {
-      User releasingUser = null;
-      if (force) {
-        try {
-          releasingUser = userService.find(user.getId());
-        } catch (Exception e) {
-          e.printStackTrace();
-          return MessageFactory.text("Error while fetching releasing user");
-        }
-        if (releasingUser == null) {
-          releasingUser = new User(user);
-          userService.save(releasingUser);
-        }
+  protected Activity releaseResource(TeamsChannelAccount user, TurnContext turnContext, String resource_name, boolean force) {
+    Resource resource = force
+        ? resourceService.forceRelease(resource_name)
+        : resourceService.release(resource_name, user.getId());
+
+    if (resource == null) {
+      // Read again from the DB: the cached copy may predate the change that refused the write.
+      Resource current;
+      try {
+        current = resourceService.reload(resource_name);
+      } catch (Exception e) {
+        e.printStackTrace();
+        return MessageFactory.text("Exception while fetching resource.");
       }
-      if (!(force && releasingUser.isAdmin())) {
-        User reservingUser;
-        try {
-          reservingUser = userService.find(reservingUserId);
-        } catch (Exception e) {
-          System.out.println("Error while fetching reserving user");
-          e.printStackTrace();
-          reservingUser = new User(reservingUserId);
-        }
-        return MessageFactory.text(String.format("Resource \"%s\" is reserved by %s till %s", resource.getName(),
-            Utils.user2hyperlink(reservingUser, resource.getName()), Utils.time2hyperlink(resource.getReservedTill())));
+      if (current == null) {
+        return MessageFactory.text("Resource \"" + resource_name + "\" not found.");
+      }
+      if (!current.isReserved()) {
+        return MessageFactory.text(String.format("Resource \"%s\" is not reserved by anyone.", resource_name));
       }
+      User reservingUser;
+      try {
+        reservingUser = userService.find(current.getReservedBy());
+      } catch (Exception e) {
+        System.out.println("Error while fetching reserving user");
+        e.printStackTrace();
+        reservingUser = new User(current.getReservedBy());
+      }
+      return MessageFactory.text(String.format("Resource \"%s\" is reserved by %s till %s", resource_name,
+          Utils.user2hyperlink(reservingUser, resource_name), Utils.time2hyperlink(current.getReservedTill())));
     }
 
-    resource.release();
-    resource.clean_monitor_list();
-    resourceService.save(resource);
-
-    reservationLogService.release(resource.getName(), resource.getReservedBy());
+    reservationLogService.release(resource, LocalDateTime.now());
 
     String message = String.format(" released \"%s\".", resource.getName());
 
-    for (UserTimeEntry entry : resource.getMonitoredBy()) {
-      Utils.sendPersonalMessage(entry.user, Utils.user2hyperlink(user, resource.getName()) + message, turnContext,
-          appId, appPassword).join();
-    }
+    notifyMonitors(resource, Utils.user2hyperlink(user, resource.getName()) + message, turnContext);
 
     return Utils.makeMentionedResponse(user, message);
   }
@@ -425,48 +514,79 @@ public class Actions {
   /**
    * Reserves the specified resource.
    * 
-   * @param user        the user who is reserving the resource.
-   * @param turnContext the context for this turn of the conversation.
-   * @param resource    the resource to reserve.
-   * @param duration    the duration for the reservation.
+   * <p>
+   * The reservation is a single conditional update; the resource is only read
+   * again, from the DB, to explain why the reservation was refused.
+   * </p>
+   * 
+   * @param user          the user who is reserving the resource.
+   * @param turnContext   the context for this turn of the conversation.
+   * @param resource_name the name of the resource to reserve.
+   * @param duration      the duration for the reservation.
    * @return an Activity representing the response.
    */
-  protected Activity reserveResource(TeamsChannelAccount user, TurnContext turnContext, Resource resource,
+  protected Activity reserveResource(TeamsChannelAccount user, TurnContext turnContext, String resource_name,
       int duration) {
-    if (resource.isReserved()) {
-      User reservingUser;
+    LocalDateTime reserveTill = LocalDateTime.now().plusMinutes(duration);
+    Resource resource = resourceService.reserve(resource_name, user.getId(), reserveTill, duration);
+
+    if (resource == null) {
+      // Read again from the DB: the cached copy may predate the change that refused the write.
+      Resource current;
       try {
-        reservingUser = userService.find(resource.getReservedBy());
+        current = resourceService.reload(resource_name);
       } catch (Exception e) {
         e.printStackTrace();
-        return MessageFactory.text("Exception while fetching user.");
+        return MessageFactory.text("Exception while fetching resource.");
       }
-      return MessageFactory.text(String.format("Resource \"%s\" is already reserved by %s till %s.", resource.getName(),
-          Utils.user2hyperlink(reservingUser, resource.getName()), Utils.time2hyperlink(resource.getReservedTill())));
-    }
-
-    if (resource.maxAllocationTime < duration) {
-      return MessageFactory.text(String.format("Duration can't be more than %d hours and %d minutes.",
-          resource.maxAllocationTime / 60, resource.maxAllocationTime % 60));
+      if (current == null) {
+        return MessageFactory.text("Resource \"" + resource_name + "\" not found.");
+      }
+      if (current.isReserved()) {
+        usageService.denied(resource_name, user.getId(), LocalDateTime.now());
+        User reservingUser;
+        try {
+          reservingUser = userService.find(current.getReservedBy());
+        } catch (Exception e) {
+          e.printStackTrace();
+          return MessageFactory.text("Exception while fetching user.");
+        }
+        return MessageFactory.text(String.format("Resource \"%s\" is already reserved by %s till %s.", resource_name,
+            Utils.user2hyperlink(reservingUser, resource_name), Utils.time2hyperlink(current.getReservedTill())));
+      }
+      if (current.maxAllocationTime < duration) {
+        return MessageFactory.text(String.format("Duration can't be more than %d hours and %d minutes.",
+            current.maxAllocationTime / 60, current.maxAllocationTime % 60));
+      }
+      return MessageFactory.text(String.format("Resource \"%s\" changed while reserving, please try again.", resource_name));
     }
 
-    LocalDateTime reserveTill = LocalDateTime.now().plusMinutes(duration);
-    resource.reserve(user.getId(), reserveTill);
-    resource.clean_monitor_list();
-    resourceService.save(resource);
-
-    reservationLogService.reserve(resource.getName(), user.getId(), reserveTill);
+    reservationLogService.reserve(resource.getName(), user.getId(), reserveTill, resource.getReservationLogId());
+    expiryScheduler.trackReservation(resource);
 
     String message = String.format(" reserved \"%s\" till %s.", resource.getName(), Utils.time2hyperlink(reserveTill));
 
-    for (UserTimeEntry entry : resource.getMonitoredBy()) {
-      Utils.sendPersonalMessage(entry.user, Utils.user2hyperlink(user, resource.getName()) + message, turnContext,
-          appId, appPassword).join();
-    }
+    notifyMonitors(resource, Utils.user2hyperlink(user, resource.getName()) + message, turnContext);
 
     return Utils.makeMentionedResponse(user, message);
   }
 
+  /**
+   * Notifies the monitors of a resource in the background. The notifications
+   * are prepared from the turn before it ends, as they are sent after it.
+   * 
+   * @param resource    the resource whose monitors are notified.
+   * @param message     the message to send.
+   * @param turnContext the context for this turn of the conversation.
+   */
+  protected void notifyMonitors(Resource resource, String message, TurnContext turnContext) {
+    List<String> recipients = resource.getMonitoredBy().stream()
+        .map(entry -> entry.user)
+        .collect(Collectors.toList());
+    if (recipients.isEmpty()) { return; }
+    notificationDispatcher.dispatch(recipients, personalMessenger.sender(message, turnContext));
+  }
+
   /**
    * Gets the status of the specified resource.
    * 
@@ -51,12 +51,14 @@ public class Application extends BotDependencyConfiguration {
    * @param userService The service responsible for user-related operations.
    * @param userInput   The class that handles user input.
    * @param actions     The class that defines actions the bot can perform.
+   * @param memberCache The cache of Teams member profiles.
    * @param url         The URL of the deployed bot.
    * @return An instance of {@link MutexBot}.
    */
   @Bean
-  public MutexBot getBot(UserService userService, UserInput userInput, Actions actions,  @Value("${URL}") String url) {
-    return new MutexBot(userService, userInput, actions, url);
+  public MutexBot getBot(UserService userService, UserInput userInput, Actions actions, MemberCache memberCache,
+      @Value("${URL}") String url) {
+    return new MutexBot(userService, userInput, actions, memberCache, url);
   }
 
   /**
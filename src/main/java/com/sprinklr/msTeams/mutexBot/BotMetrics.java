@@ -0,0 +1,142 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The meters of the bot.
+ *
+ * <p>
+ * Meters are registered with Micrometer's global registry, to which Spring
+ * Boot adds the Prometheus registry scraped at {@code /actuator/prometheus}.
+ * Components therefore need no registry injected, and in unit tests, where no
+ * registry is added, recording costs next to nothing.
+ * </p>
+ *
+ * <p>
+ * Timers of calls carry an {@code outcome} tag, {@code success} or
+ * {@code error}. The timers of commands and connector calls publish a
+ * percentile histogram, so that quantiles can be aggregated across instances.
+ * </p>
+ */
+public final class BotMetrics {
+  /** Handling of a message, from receipt to reply; tagged by {@code command}. */
+  public static final String COMMANDS = "mutexbot.commands";
+  /** Repository calls; tagged by {@code repository} and {@code method}. */
+  public static final String REPOSITORY_CALLS = "mutexbot.repository.calls";
+  /** Calls to the Bot Connector; tagged by {@code call}. */
+  public static final String CONNECTOR_CALLS = "mutexbot.connector.calls";
+  /** Synchronizations with GitLab; tagged by {@code result}. */
+  public static final String GITLAB_SYNC = "mutexbot.gitlab.sync";
+  /** Tree pages requested from GitLab; tagged by {@code result}. */
+  public static final String GITLAB_PAGES = "mutexbot.gitlab.pages";
+  /** Cache lookups; tagged by {@code cache} and {@code result} ({@code hit} or {@code miss}). */
+  public static final String CACHE_REQUESTS = "mutexbot.cache.requests";
+  /** Time spent waiting for a resource lock. */
+  public static final String LOCK_WAIT = "mutexbot.lock.wait";
+  /** Reservation and monitor logs handled by the log writer, tagged by {@code outcome} ({@code written} or {@code spilled}). */
+  public static final String AUDIT_LOGS = "mutexbot.audit.logs";
+
+  private BotMetrics() { }
+
+  /**
+   * @return The registry the meters are registered with.
+   */
+  public static MeterRegistry registry() {
+    return Metrics.globalRegistry;
+  }
+
+  /**
+   * @param error The error a call failed with, or {@code null}.
+   * @return The {@code outcome} tag of the call.
+   */
+  public static String outcome(Throwable error) {
+    return error == null ? "success" : "error";
+  }
+
+  /**
+   * Records a call that started with the given sample.
+   *
+   * @param sample    The sample started with the call.
+   * @param error     The error the call failed with, or {@code null}.
+   * @param histogram Whether the timer publishes a percentile histogram.
+   * @param name      The name of the timer.
+   * @param tags      The tags of the timer, as key/value pairs, besides the outcome.
+   */
+  public static void stop(Timer.Sample sample, Throwable error, boolean histogram, String name, String... tags) {
+    Timer.Builder timer = Timer.builder(name).tags(tags).tag("outcome", outcome(error));
+    if (histogram) { timer.publishPercentileHistogram(); }
+    sample.stop(timer.register(registry()));
+  }
+
+  /**
+   * Times a call to the Bot Connector.
+   *
+   * @param <T>  The type of the result.
+   * @param name The name of the call.
+   * @param call The call.
+   * @return The result of the call.
+   */
+  public static <T> T connector(String name, Supplier<T> call) {
+    Timer.Sample sample = Timer.start(registry());
+    try {
+      T result = call.get();
+      stop(sample, null, true, CONNECTOR_CALLS, "call", name);
+      return result;
+    } catch (RuntimeException e) {
+      stop(sample, e, true, CONNECTOR_CALLS, "call", name);
+      throw e;
+    }
+  }
+
+  /**
+   * Times an asynchronous call to the Bot Connector, until the returned future
+   * completes.
+   *
+   * @param <T>  The type of the result.
+   * @param name The name of the call.
+   * @param call Starts the call.
+   * @return The future of the call.
+   */
+  public static <T> CompletableFuture<T> connectorAsync(String name, Supplier<CompletableFuture<T>> call) {
+    Timer.Sample sample = Timer.start(registry());
+    CompletableFuture<T> future;
+    try {
+      future = call.get();
+    } catch (RuntimeException e) {
+      stop(sample, e, true, CONNECTOR_CALLS, "call", name);
+      throw e;
+    }
+    return future.whenComplete((result, error) -> stop(sample, error, true, CONNECTOR_CALLS, "call", name));
+  }
+
+  /**
+   * @param name The name of the counter.
+   * @param tags The tags of the counter, as key/value pairs.
+   * @return The counter.
+   */
+  public static Counter counter(String name, String... tags) {
+    return Counter.builder(name).tags(tags).register(registry());
+  }
+
+  /**
+   * Publishes the hits and misses a cache counts itself.
+   *
+   * @param <T>    The type of the cache.
+   * @param name   The name of the cache.
+   * @param cache  The cache. It is only weakly referenced.
+   * @param hits   Reads the number of hits.
+   * @param misses Reads the number of misses.
+   */
+  public static <T> void cache(String name, T cache, ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+    FunctionCounter.builder(CACHE_REQUESTS, cache, hits).tags("cache", name, "result", "hit").register(registry());
+    FunctionCounter.builder(CACHE_REQUESTS, cache, misses).tags("cache", name, "result", "miss").register(registry());
+  }
+}
@@ -0,0 +1,158 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.io.IOUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.microsoft.bot.schema.Serialization;
+
+/**
+ * An adaptive card template, parsed once and filled by copying the parsed tree.
+ *
+ * <p>
+ * Text values may contain placeholders written {@code ${name}} or
+ * {@code $(name)}. Filling a card replaces them in a copy of the template and
+ * sets the choices of its choice set. Values are stored as tree nodes, never
+ * spliced into JSON text, so quotes and backslashes in them need no escaping.
+ * </p>
+ */
+public class CardTemplate {
+  private final ObjectNode prototype;
+
+  /**
+   * Constructs a CardTemplate from a parsed card.
+   *
+   * @param prototype The parsed card. It is never modified.
+   */
+  public CardTemplate(ObjectNode prototype) {
+    this.prototype = prototype;
+  }
+
+  /**
+   * Loads a template from the classpath.
+   *
+   * @param path The path of the template JSON file.
+   * @return The template, or {@code null} if the file does not exist.
+   * @throws IOException If the file cannot be read or is not a JSON object.
+   */
+  public static CardTemplate load(String path) throws IOException {
+    try (InputStream inputStream = CardTemplate.class.getResourceAsStream(path)) {
+      if (inputStream == null) { return null; }
+      JsonNode card = Serialization.jsonToTree(IOUtils.toString(inputStream, StandardCharsets.UTF_8.toString()));
+      if (!card.isObject()) { throw new IOException("Card template " + path + " is not a JSON object"); }
+      return new CardTemplate((ObjectNode) card);
+    }
+  }
+
+  /**
+   * Fills a copy of the template.
+   *
+   * @param values  The placeholder values, by name. Placeholders without a
+   *                value are left as they are.
+   * @param choices The choices of the first {@code Input.ChoiceSet} of the card,
+   *                or {@code null} to keep those of the template.
+   * @param title   Maps a choice to its displayed title.
+   * @return The filled card.
+   */
+  public ObjectNode fill(Map<String, String> values, List<String> choices, Function<String, String> title) {
+    ObjectNode card = prototype.deepCopy();
+    replace(card, values);
+    if (choices != null) {
+      ArrayNode choiceSet = findChoices(card);
+      if (choiceSet != null) {
+        choiceSet.removeAll();
+        for (String choice : choices) {
+          choiceSet.addObject().put("title", title.apply(choice)).put("value", choice);
+        }
+      }
+    }
+    return card;
+  }
+
+  /**
+   * Replaces the placeholders in every text value below a node.
+   */
+  private static void replace(JsonNode node, Map<String, String> values) {
+    if (values.isEmpty()) { return; }
+    if (node.isObject()) {
+      ObjectNode object = (ObjectNode) node;
+      Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        JsonNode value = field.getValue();
+        if (value.isTextual()) {
+          String text = substitute(value.textValue(), values);
+          if (text != null) { field.setValue(TextNode.valueOf(text)); }
+        } else if (value.isContainerNode()) {
+          replace(value, values);
+        }
+      }
+    } else if (node.isArray()) {
+      ArrayNode array = (ArrayNode) node;
+      for (int i = 0; i < array.size(); i++) {
+        JsonNode value = array.get(i);
+        if (value.isTextual()) {
+          String text = substitute(value.textValue(), values);
+          if (text != null) { array.set(i, TextNode.valueOf(text)); }
+        } else if (value.isContainerNode()) {
+          replace(value, values);
+        }
+      }
+    }
+  }
+
+  /**
+   * Replaces the {@code ${name}} and {@code $(name)} placeholders of a text.
+   *
+   * @return The new text, or {@code null} if the text has no placeholder with a
+   *         value.
+   */
+  static String substitute(String text, Map<String, String> values) {
+    int dollar = text.indexOf('$');
+    if (dollar < 0) { return null; }
+    StringBuilder builder = null;
+    int copied = 0;
+    while (dollar >= 0 && dollar + 1 < text.length()) {
+      char open = text.charAt(dollar + 1);
+      char close = open == '{' ? '}' : open == '(' ? ')' : 0;
+      int end = close == 0 ? -1 : text.indexOf(close, dollar + 2);
+      String value = end < 0 ? null : values.get(text.substring(dollar + 2, end));
+      if (value == null) {
+        dollar = text.indexOf('$', dollar + 1);
+        continue;
+      }
+      if (builder == null) { builder = new StringBuilder(text.length() + value.length()); }
+      builder.append(text, copied, dollar).append(value);
+      copied = end + 1;
+      dollar = text.indexOf('$', copied);
+    }
+    if (builder == null) { return null; }
+    return builder.append(text, copied, text.length()).toString();
+  }
+
+  /**
+   * Finds the choices array of the first {@code Input.ChoiceSet} in the body of
+   * a card.
+   */
+  private static ArrayNode findChoices(ObjectNode card) {
+    JsonNode body = card.get("body");
+    if (body == null || !body.isArray()) { return null; }
+    for (JsonNode element : body) {
+      if (!"Input.ChoiceSet".equals(element.path("type").asText())) { continue; }
+      JsonNode choices = element.get("choices");
+      if (choices != null && choices.isArray()) { return (ArrayNode) choices; }
+      return ((ObjectNode) element).putArray("choices");
+    }
+    return null;
+  }
+}
@@ -0,0 +1,59 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A case-insensitive table of commands, each registered under a name and any
+ * number of aliases. Lookups compare the word as typed, so finding a command
+ * does not allocate a lower-cased copy of the message.
+ *
+ * @param <T> The type of the command handlers.
+ */
+public class CommandTable<T> {
+  private final Map<String, T> commands = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+  /** The name each command was registered under, by name and alias. */
+  private final Map<String, String> names = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+  /**
+   * Registers a command.
+   *
+   * @param handler The handler of the command.
+   * @param name    The name of the command.
+   * @param aliases Other names of the command.
+   * @return This table.
+   * @throws IllegalArgumentException If a name is already registered.
+   */
+  public CommandTable<T> register(T handler, String name, String... aliases) {
+    put(name, name, handler);
+    for (String alias : aliases) { put(alias, name, handler); }
+    return this;
+  }
+
+  private void put(String alias, String name, T handler) {
+    if (commands.putIfAbsent(alias, handler) != null) {
+      throw new IllegalArgumentException("Command registered twice: " + alias);
+    }
+    names.put(alias, name);
+  }
+
+  /**
+   * Finds the handler of a command.
+   *
+   * @param name The name or alias of the command, in any case.
+   * @return The handler, or {@code null} if no command has that name.
+   */
+  public T find(String name) {
+    return commands.get(name);
+  }
+
+  /**
+   * Resolves an alias to the name its command was registered under.
+   *
+   * @param name The name or alias of the command, in any case.
+   * @return The registered name, or {@code null} if no command has that name.
+   */
+  public String nameOf(String name) {
+    return names.get(name);
+  }
+}
@@ -0,0 +1,271 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.User;
+import com.sprinklr.msTeams.mutexBot.model.UserTimeEntry;
+import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+import com.sprinklr.msTeams.mutexBot.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ends reservations and monitoring periods when they reach their deadline.
+ *
+ * <p>
+ * Deadlines are kept in a {@link DelayQueue}, so each tick only looks at the
+ * deadlines that are due, however many are pending. A deadline that no longer
+ * matches the resource (released early, extended, or reserved again) is
+ * dropped without touching the DB.
+ * </p>
+ *
+ * <p>
+ * Ticks run every {@code expiry.tickMillis} on a thread of their own, rather
+ * than on the shared scheduler of the {@code @Scheduled} jobs, so that a long
+ * chart sync or cache refresh does not hold deadlines back.
+ * </p>
+ */
+@Component
+public class ExpiryScheduler {
+  private final ResourceService resourceService;
+  private final ReservationLogService reservationLogService;
+  private final UserService userService;
+  private final ResourceLocks resourceLocks;
+  private final NotificationDispatcher notificationDispatcher;
+  private final PersonalMessenger personalMessenger;
+  private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+  private final ScheduledExecutorService ticker;
+
+  /**
+   * A pending reservation or monitoring deadline.
+   */
+  static class Deadline implements Delayed {
+    final String resource;
+    /** The reserving user, or {@code null} for a monitoring deadline. */
+    final String user;
+    final LocalDateTime till;
+    private final long dueMillis;
+
+    Deadline(String resource, String user, LocalDateTime till) {
+      this.resource = resource;
+      this.user = user;
+      this.till = till;
+      this.dueMillis = till.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    boolean isReservation() { return user != null; }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(dueMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(dueMillis, ((Deadline) other).dueMillis);
+    }
+  }
+
+  /**
+   * Constructs an ExpiryScheduler.
+   *
+   * @param resourceService        the service to handle resources
+   * @param reservationLogService  the service to handle reservation logs
+   * @param userService            the service to handle user information
+   * @param resourceLocks          the registry of per-resource locks
+   * @param notificationDispatcher the dispatcher for notifications to monitors
+   * @param personalMessenger      the class to send personal messages to users
+   * @param tickMillis             the delay between ticks; 0 for no periodic ticks
+   */
+  @Autowired
+  public ExpiryScheduler(
+      ResourceService resourceService,
+      ReservationLogService reservationLogService,
+      UserService userService,
+      ResourceLocks resourceLocks,
+      NotificationDispatcher notificationDispatcher,
+      PersonalMessenger personalMessenger,
+      @Value("${expiry.tickMillis:1000}") long tickMillis) {
+    this.resourceService = resourceService;
+    this.reservationLogService = reservationLogService;
+    this.userService = userService;
+    this.resourceLocks = resourceLocks;
+    this.notificationDispatcher = notificationDispatcher;
+    this.personalMessenger = personalMessenger;
+    this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "expiry-scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    if (tickMillis > 0) {
+      ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Schedules the deadlines of all cached resources, including the ones that
+   * lapsed while the bot was down (they expire on the first tick).
+   */
+  @PostConstruct
+  public void loadPending() {
+    for (Resource resource : resourceService.getCached()) {
+      track(resource);
+    }
+  }
+
+  /**
+   * Schedules the reservation and monitoring deadlines of a resource.
+   *
+   * @param resource The resource as returned by the latest update.
+   */
+  public void track(Resource resource) {
+    trackReservation(resource);
+    if (resource.getMonitoredBy() == null) { return; }
+    for (UserTimeEntry entry : resource.getMonitoredBy()) {
+      if (entry.till != null) { deadlines.add(new Deadline(resource.getName(), null, entry.till)); }
+    }
+  }
+
+  /**
+   * Schedules the end of the reservation of a resource.
+   *
+   * <p>
+   * The deadline must come from the stored document (not the requested time),
+   * since it is matched exactly against the stored {@code reservedTill}.
+   * </p>
+   *
+   * @param resource The resource as returned by the reserve update.
+   */
+  public void trackReservation(Resource resource) {
+    if (!resource.getReservedFlag() || resource.getReservedBy() == null || resource.getReservedTill() == null) {
+      return;
+    }
+    deadlines.add(new Deadline(resource.getName(), resource.getReservedBy(), resource.getReservedTill()));
+  }
+
+  /**
+   * Schedules the end of a user's monitoring period on a resource.
+   *
+   * @param resource The resource as returned by the monitor update.
+   * @param user     The ID of the monitoring user.
+   */
+  public void trackMonitor(Resource resource, String user) {
+    if (resource.getMonitoredBy() == null) { return; }
+    for (UserTimeEntry entry : resource.getMonitoredBy()) {
+      if (user.equals(entry.user) && entry.till != null) {
+        deadlines.add(new Deadline(resource.getName(), null, entry.till));
+      }
+    }
+  }
+
+  /**
+   * @return The number of pending deadlines.
+   */
+  public int pending() { return deadlines.size(); }
+
+  /**
+   * Processes every deadline that is due.
+   *
+   * @return The number of deadlines processed.
+   */
+  public int tick() {
+    int processed = 0;
+    Deadline deadline;
+    while ((deadline = deadlines.poll()) != null) {
+      processed++;
+      try {
+        expire(deadline);
+      } catch (Exception e) {
+        System.err.println("Error while expiring " + deadline.resource);
+        e.printStackTrace();
+      }
+    }
+    return processed;
+  }
+
+  /**
+   * Stops the periodic ticks.
+   */
+  @PreDestroy
+  public void shutdown() {
+    ticker.shutdownNow();
+  }
+
+  /**
+   * Ends the reservation or monitoring period of a due deadline, if it still
+   * applies.
+   */
+  private void expire(Deadline deadline) throws Exception {
+    Lock lock = resourceLocks.lock(deadline.resource);
+    try {
+      if (deadline.isReservation()) {
+        expireReservation(deadline);
+      } else {
+        expireMonitors(deadline);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases a lapsed reservation, closes its log entry at the deadline and
+   * tells the monitors that the resource is free.
+   */
+  private void expireReservation(Deadline deadline) throws Exception {
+    Resource cached = resourceService.find(deadline.resource);
+    if (cached == null || !cached.getReservedFlag() || !deadline.till.equals(cached.getReservedTill())
+        || !deadline.user.equals(cached.getReservedBy())) {
+      return;
+    }
+
+    Resource resource = resourceService.expire(deadline.resource, deadline.user, deadline.till);
+    if (resource == null) { return; }
+
+    reservationLogService.release(resource, deadline.till);
+
+    List<String> recipients = resource.getMonitoredBy().stream()
+        .map(entry -> entry.user)
+        .collect(Collectors.toList());
+    if (recipients.isEmpty()) { return; }
+
+    User holder;
+    try {
+      holder = userService.find(deadline.user);
+    } catch (Exception e) {
+      holder = null;
+    }
+    if (holder == null) { holder = new User(deadline.user); }
+    String message = String.format("Reservation of \"%s\" by %s expired at %s.", resource.getName(),
+        Utils.user2hyperlink(holder, resource.getName()), Utils.time2hyperlink(deadline.till));
+    notificationDispatcher.dispatch(recipients, recipient -> personalMessenger.send(recipient, message));
+  }
+
+  /**
+   * Drops the monitors whose period has ended.
+   */
+  private void expireMonitors(Deadline deadline) throws Exception {
+    Resource cached = resourceService.find(deadline.resource);
+    if (cached == null || !cached.isMonitored()) { return; }
+    LocalDateTime now = LocalDateTime.now();
+    boolean anyExpired = cached.getMonitoredBy().stream().anyMatch(entry -> entry.till.isBefore(now));
+    if (!anyExpired) { return; }
+    resourceService.expireMonitors(deadline.resource);
+  }
+}
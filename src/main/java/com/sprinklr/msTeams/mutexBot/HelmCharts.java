@@ -3,52 +3,103 @@ package com.sprinklr.msTeams.mutexBot;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Timer;
+
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.sprinklr.msTeams.mutexBot.service.ChartNameService;
 import com.sprinklr.msTeams.mutexBot.service.ResourceService;
 
-import org.springframework.scheduling.annotation.Async;
-import java.util.concurrent.CompletableFuture;
-
 /**
  * The HelmCharts class is responsible for synchronizing the local database with
  * the Helm charts repository in GitLab.
  * It retrieves the directory structure from the GitLab repository and updates
  * the local database accordingly.
+ *
+ * <p>
+ * All requests share one HTTP client. The releases of the charts are fetched in
+ * parallel by at most {@code gitlab.parallelism} threads. A sync is skipped when
+ * the latest commit touching {@code charts/} is the one already synced, and
+ * tree pages are requested with {@code If-None-Match} so unchanged pages are
+ * not sent again.
+ * </p>
+ *
+ * <p>
+ * Startup does not wait for GitLab: the bot serves the catalog stored in
+ * MongoDB, and the first sync runs in the background once the application is
+ * ready. The synced commit is stored with the catalog, so a restart without new
+ * commits needs no walk of the repository at all.
+ * </p>
  */
 @Service
 public class HelmCharts {
+  private static final int PER_PAGE = 100;
+
   @Value("${gitlab.token}")
   private String privateToken;
 
   @Value("${gitlab.projectId}")
   private String projectId;
 
-  private String baseUrl;
+  @Value("${gitlab.url:https://prod-gitlab.sprinklr.com}")
+  private String gitlabUrl;
 
   private List<String> chartNames = new ArrayList<String>();
   private List<String> resourceNames = new ArrayList<String>();
 
+  /** The latest commit under {@code charts/} at the last successful sync. */
+  private String syncedCommit;
+
+  /** The ETag and body of every tree page fetched, by URL. */
+  private final Map<String, CachedPage> pages = new ConcurrentHashMap<>();
+
   private final ResourceService resourceService;
   private final ChartNameService chartNameService;
+  private final Readiness readiness;
+  private final HttpClient client;
+  private final ExecutorService fetchers;
+
+  /**
+   * A tree page with the ETag GitLab returned for it.
+   */
+  private static class CachedPage {
+    final String etag;
+    final String body;
+
+    CachedPage(String etag, String body) {
+      this.etag = etag;
+      this.body = body;
+    }
+  }
 
   /**
    * Constructs a HelmCharts instance with the specified services.
@@ -56,76 +107,136 @@ public class HelmCharts {
    * @param resourceService  The service responsible for resource-related
    *                         operations.
    * @param chartNameService The service responsible for chart name operations.
+   * @param readiness        The startup phase, marked synced after a sync.
+   * @param parallelism      The maximum number of charts fetched at once.
    */
   @Autowired
-  public HelmCharts(ResourceService resourceService, ChartNameService chartNameService) {
+  public HelmCharts(ResourceService resourceService, ChartNameService chartNameService, Readiness readiness,
+      @Value("${gitlab.parallelism:8}") int parallelism) {
     this.resourceService = resourceService;
     this.chartNameService = chartNameService;
+    this.readiness = readiness;
+    this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    AtomicInteger count = new AtomicInteger();
+    this.fetchers = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+      Thread thread = new Thread(runnable, "gitlab-fetch-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   /**
-   * Initializes the base URL for the GitLab repository and triggers an initial
-   * synchronization.
+   * Triggers the initial synchronization in the background once the
+   * application is ready, starting from the commit the stored catalog was
+   * synced from.
    */
-  @PostConstruct
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
   public void init() {
-    baseUrl = "https://prod-gitlab.sprinklr.com/api/v4/projects/" + projectId + "/repository/tree";
-    syncDB();
+    synchronized (this) {
+      try {
+        syncedCommit = chartNameService.getSyncedCommit().orElse(null);
+      } catch (Exception e) {
+        System.err.println("Could not read the synced commit, walking the whole repo");
+        e.printStackTrace();
+      }
+    }
+    long start = System.nanoTime();
+    if (syncDB(false)) {
+      System.out.println("\nInitial sync took " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
   }
 
   /**
-   * Asynchronously retrieves the list of releases for a given chart.
+   * Stops the fetcher threads.
+   */
+  @PreDestroy
+  public void shutdown() {
+    fetchers.shutdownNow();
+  }
+
+  /**
+   * @return The base URL of the GitLab project API.
+   */
+  private String projectUrl() {
+    return gitlabUrl + "/api/v4/projects/" + projectId;
+  }
+
+  /**
+   * Retrieves the list of releases for a given chart.
    *
    * @param chartName The name of the chart.
-   * @return A CompletableFuture containing the list of releases.
+   * @return The list of releases, or empty if the releases could not be fetched.
    */
-  @Async
-  private CompletableFuture<List<String>> getReleases(String chartName) {
-    List<String> releases = new ArrayList<>();
+  private Optional<List<String>> getReleases(String chartName) {
     Optional<List<JsonObject>> releasesOptional = getTree("charts/" + chartName + "/releases");
     if (!releasesOptional.isPresent()) {
       System.err.println("Invalid path: charts/" + chartName + "/releases");
+      return Optional.empty();
     }
+    List<String> releases = new ArrayList<>();
     for (JsonObject release : releasesOptional.get()) {
       if (!release.get("type").getAsString().equals("tree")) { continue; }
       releases.add(chartName + "-" + release.get("name").getAsString());
     }
-    return CompletableFuture.completedFuture(releases);
+    return Optional.of(releases);
   }
 
   /**
    * Retrieves the repository structure from GitLab and updates the local lists of
    * chart and resource names.
+   *
+   * @return {@code true} if the whole structure was fetched, {@code false} if a
+   *         request failed (the lists are then incomplete and must not be
+   *         synced).
    */
-  public synchronized void getRepo() {
+  public synchronized boolean getRepo() {
     chartNames.clear();
     resourceNames.clear();
 
     Optional<List<JsonObject>> chartsOptional = getTree("charts");
     if (!chartsOptional.isPresent()) {
       System.err.println("Invalid path: charts");
-      return;
+      return false;
     }
 
-    List<JsonObject> charts = chartsOptional.get();
-    List<CompletableFuture<List<String>>> futures = new ArrayList<>();
-
-    for (JsonObject chart : charts) {
-      if (!chart.getAsJsonObject().get("type").getAsString().equals("tree")) { continue; }
+    List<CompletableFuture<Optional<List<String>>>> futures = new ArrayList<>();
+    for (JsonObject chart : chartsOptional.get()) {
+      if (!chart.get("type").getAsString().equals("tree")) { continue; }
       String chartName = chart.get("name").getAsString();
       chartNames.add(chartName);
-      futures.add(getReleases(chartName));
+      futures.add(CompletableFuture.supplyAsync(() -> getReleases(chartName), fetchers));
     }
 
     // Collect all release names
-    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-    for (CompletableFuture<List<String>> future : futures) {
+    boolean complete = true;
+    for (CompletableFuture<Optional<List<String>>> future : futures) {
       try {
-        resourceNames.addAll(future.get());
+        Optional<List<String>> releases = future.join();
+        if (releases.isPresent()) {
+          resourceNames.addAll(releases.get());
+        } else {
+          complete = false;
+        }
       } catch (Exception e) {
         e.printStackTrace();
+        complete = false;
       }
     }
+    return complete;
+  }
+
+  /**
+   * Retrieves the ID of the latest commit that changed the charts directory.
+   *
+   * @return The commit ID, or empty if it could not be fetched.
+   */
+  private Optional<String> getHeadCommit() {
+    Optional<String> body = get(projectUrl() + "/repository/commits?path=charts&per_page=1", false);
+    if (!body.isPresent()) { return Optional.empty(); }
+    JsonArray commits = JsonParser.parseString(body.get()).getAsJsonArray();
+    if (commits.size() == 0) { return Optional.empty(); }
+    return Optional.of(commits.get(0).getAsJsonObject().get("id").getAsString());
   }
 
   /**
@@ -137,44 +248,85 @@ public class HelmCharts {
    *         structure.
    */
   private Optional<List<JsonObject>> getTree(String path) {
-    HttpClient client = HttpClient.newHttpClient();
     List<JsonObject> allItems = new ArrayList<>();
+    String url;
+    try {
+      url = projectUrl() + "/repository/tree?path=" + URLEncoder.encode(path, StandardCharsets.UTF_8.name());
+    } catch (IOException e) {
+      System.err.println("Invalid path: " + path);
+      return Optional.empty();
+    }
     int page = 1;
-    String url = baseUrl + "?path=" + path;
-    URI uri;
-    HttpResponse<String> response;
     while (true) {
-      try {
-        uri = new URI(url + "&per_page=100&page=" + page);
-      } catch (URISyntaxException e) {
-        System.err.println("Invalid uri: " + url);
-        return Optional.empty();
-      }
-      HttpRequest request = HttpRequest.newBuilder().uri(uri).header("PRIVATE-TOKEN", privateToken).build();
-
-      try {
-        response = client.send(request, HttpResponse.BodyHandlers.ofString());
-      } catch (IOException e) {
-        System.err.println("IO Exception in HelmCharts service");
-        e.printStackTrace();
-        return Optional.empty();
-      } catch (InterruptedException e) {
-        System.err.println("Request Interrupted in HelmCharts service");
+      Optional<String> body = get(url + "&per_page=" + PER_PAGE + "&page=" + page, true);
+      if (!body.isPresent()) {
+        System.err.println("Failed to fetch tree at path: " + path);
         return Optional.empty();
       }
 
       // Get all pages
-      if (response.statusCode() == 200) {
-        JsonArray items = JsonParser.parseString(response.body()).getAsJsonArray();
-        if (items.size() == 0) { break; }  // No more items
-        items.forEach(item -> allItems.add(item.getAsJsonObject()));
-        page++;
+      JsonArray items = JsonParser.parseString(body.get()).getAsJsonArray();
+      items.forEach(item -> allItems.add(item.getAsJsonObject()));
+      if (items.size() < PER_PAGE) { break; }  // Last page
+      page++;
+    }
+    return Optional.of(allItems);
+  }
+
+  /**
+   * Sends a GET request to GitLab.
+   *
+   * @param url         The URL to fetch.
+   * @param conditional Whether to revalidate a previously fetched body with its
+   *                    ETag instead of downloading it again.
+   * @return The response body, or empty if the request failed.
+   */
+  private Optional<String> get(String url, boolean conditional) {
+    URI uri;
+    try {
+      uri = new URI(url);
+    } catch (URISyntaxException e) {
+      System.err.println("Invalid uri: " + url);
+      return Optional.empty();
+    }
+    HttpRequest.Builder builder = HttpRequest.newBuilder().uri(uri).timeout(Duration.ofSeconds(30))
+        .header("PRIVATE-TOKEN", privateToken);
+    CachedPage cached = conditional ? pages.get(url) : null;
+    if (cached != null) { builder.header("If-None-Match", cached.etag); }
+
+    HttpResponse<String> response;
+    try {
+      response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    } catch (IOException e) {
+      System.err.println("IO Exception in HelmCharts service");
+      e.printStackTrace();
+      if (conditional) { pageCount("failed"); }
+      return Optional.empty();
+    } catch (InterruptedException e) {
+      System.err.println("Request Interrupted in HelmCharts service");
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    }
+
+    if (response.statusCode() == 304 && cached != null) {
+      if (conditional) { pageCount("notModified"); }
+      return Optional.of(cached.body);
+    }
+    if (response.statusCode() != 200) {
+      if (conditional) { pageCount("failed"); }
+      System.err.println("Request to " + url + " failed, Status code: " + response.statusCode());
+      return Optional.empty();
+    }
+    if (conditional) {
+      pageCount("downloaded");
+      Optional<String> etag = response.headers().firstValue("ETag");
+      if (etag.isPresent()) {
+        pages.put(url, new CachedPage(etag.get(), response.body()));
       } else {
-        System.err.println("Failed to fetch tree at path: " + path + ", Status code: " + response.statusCode());
-        return Optional.empty();
+        pages.remove(url);
       }
     }
-    return Optional.of(allItems);
+    return Optional.of(response.body());
   }
 
   /**
@@ -182,31 +334,79 @@ public class HelmCharts {
    * repository every hour.
    */
   @Scheduled(cron = "0 0 * * * ?")
-  public synchronized void syncDB() {
+  public void syncDB() {
+    syncDB(false);
+  }
+
+  /**
+   * Synchronizes the local database with the GitLab repository.
+   *
+   * @param force Whether to walk the repository even if no commit changed the
+   *              charts since the last sync.
+   * @return {@code true} if the catalog matches the repository afterwards,
+   *         {@code false} if the repository could not be fetched.
+   */
+  public synchronized boolean syncDB(boolean force) {
+    Timer.Sample sample = Timer.start(BotMetrics.registry());
+    String result = "failed";
+    try {
+      result = sync(force);
+    } finally {
+      sample.stop(Timer.builder(BotMetrics.GITLAB_SYNC).tag("result", result).register(BotMetrics.registry()));
+    }
+    return !result.equals("failed");
+  }
+
+  /**
+   * Synchronizes the local database with the GitLab repository.
+   *
+   * @return The result of the sync for {@link BotMetrics#GITLAB_SYNC}:
+   *         {@code synced}, {@code unchanged} or {@code failed}.
+   */
+  private String sync(boolean force) {
+    Optional<String> headCommit = getHeadCommit();
+    if (!force && headCommit.isPresent() && headCommit.get().equals(syncedCommit)) {
+      System.out.println("\nHelm charts unchanged since commit " + syncedCommit + ", skipping sync");
+      readiness.synced();
+      return "unchanged";
+    }
+
     System.out.println("\nGetting Repo");
-    getRepo();
+    if (!getRepo()) {
+      System.err.println("\nCould not fetch the whole repo, skipping sync");
+      return "failed";
+    }
     System.out.println("\nGot Repo");
 
+    // Diff against the DB and apply each catalog with one bulk write; the
+    // resource cache takes the same delta, so no full reload is needed.
     Set<String> dbResources = new HashSet<String>(resourceService.getAllNames());
     Set<String> newResources = new HashSet<String>(resourceNames);
     newResources.removeAll(dbResources);
-    newResources.forEach(resourceName -> resourceService.save(resourceName));
     Set<String> deletedResources = new HashSet<String>(dbResources);
     deletedResources.removeAll(resourceNames);
-    deletedResources.forEach(resourceName -> resourceService.delete(resourceName));
+    resourceService.applyCatalog(newResources, deletedResources);
 
     Set<String> dbCharts = new HashSet<String>(chartNameService.getAll());
     Set<String> newCharts = new HashSet<String>(chartNames);
     newCharts.removeAll(dbCharts);
-    newCharts.forEach(chartName -> chartNameService.save(chartName));
     Set<String> deletedCharts = new HashSet<String>(dbCharts);
     deletedCharts.removeAll(chartNames);
-    deletedCharts.forEach(chartName -> chartNameService.delete(chartName));
+    chartNameService.applyCatalog(newCharts, deletedCharts);
+
+    System.out.println("\nSynced DB: " + newResources.size() + " resources added, " + deletedResources.size()
+        + " removed; " + newCharts.size() + " charts added, " + deletedCharts.size() + " removed");
 
-    System.out.println("\nSynced DB");
-    System.out.println("\nRefreshing Cache");
-    resourceService.refreshCache();
-    System.out.println("\nCache Refreshed");
+    syncedCommit = headCommit.orElse(null);
+    if (syncedCommit != null) { chartNameService.setSyncedCommit(syncedCommit); }
+    readiness.synced();
+    return "synced";
+  }
 
+  /**
+   * Counts a tree page requested from GitLab ({@link BotMetrics#GITLAB_PAGES}).
+   */
+  private static void pageCount(String result) {
+    BotMetrics.counter(BotMetrics.GITLAB_PAGES, "result", result).increment();
   }
 }
@@ -3,16 +3,27 @@ package com.sprinklr.msTeams.mutexBot;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
 import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
@@ -23,9 +34,16 @@ import com.sprinklr.msTeams.mutexBot.service.UserService;
 
 /**
  * Class to present reservation and monitor logs in a calendar like UI.
+ *
+ * <p>
+ * The page at {@code /logs} holds no data; the calendar fetches the logs of
+ * the range it displays from {@code /logs/events}, so a page load costs one
+ * bounded query per log type no matter how long the history is.
+ * </p>
  */
 @RestController
 public class LogCalendar {
+  private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
 
   private final MonitorLogService monitorLogService;
   private final ReservationLogService reservationLogService;
@@ -54,21 +72,13 @@ public class LogCalendar {
    * @param userId       the ID of the user
    * @param resourceName the name of the resource
    * @param perspective  the perspective for the logs ("resource" or "user")
+   * @param users        the users appearing in the logs, by ID
    * @return the name of the user or resource based on the perspective
    */
-  private String value(String userId, String resourceName, String perspective) {
-    if (perspective == null) { perspective = new String("resource"); }
-    perspective = perspective.toLowerCase();
-
+  private String value(String userId, String resourceName, String perspective, Map<String, User> users) {
     if (perspective.equals("resource")) {
-      User user;
-      try {
-        user = userService.find(userId);
-      } catch (Exception e) {
-        e.printStackTrace();
-        return "User";
-      }
-      return user.getName();
+      User user = users.get(userId);
+      return user == null ? "User" : user.getName();
     } else if (perspective.equals("user")) {
       return resourceName;
     } else {
@@ -77,19 +87,111 @@ public class LogCalendar {
   }
 
   /**
-   * Endpoint to fetch user/resource logs.
-   * 
+   * Resolves every user appearing in the logs in one lookup, rather than one
+   * per row. Unknown users are not created.
+   *
+   * @param reservationLogs the reservation logs shown
+   * @param monitorLogs     the monitor logs shown
+   * @return the users appearing in the logs, by ID
+   */
+  private Map<String, User> users(List<ReservationLog> reservationLogs, List<MonitorLog> monitorLogs) {
+    Set<String> userIds = new HashSet<>();
+    reservationLogs.forEach(log -> userIds.add(log.getUser()));
+    monitorLogs.forEach(log -> userIds.add(log.getUser()));
+    return userService.findAll(userIds);
+  }
+
+  /**
+   * Parses a bound of the range requested by the calendar. Times are in UTC,
+   * as the logs are; a date means the start of that day.
+   *
+   * @param value the ISO 8601 date or date-time sent by the calendar
+   * @return the bound as a UTC local date-time
+   */
+  static LocalDateTime parseBound(String value) {
+    try {
+      return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    } catch (DateTimeParseException e) {
+      // No offset: already UTC
+    }
+    try {
+      return LocalDateTime.parse(value);
+    } catch (DateTimeParseException e) {
+      // Date only
+    }
+    try {
+      return LocalDate.parse(value).atStartOfDay();
+    } catch (DateTimeParseException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date: " + value);
+    }
+  }
+
+  /**
+   * Builds a calendar event.
+   */
+  private static Map<String, Object> event(String title, LocalDateTime start, LocalDateTime end, String className) {
+    Map<String, Object> event = new LinkedHashMap<>();
+    event.put("title", title);
+    event.put("start", formatter.format(start.atOffset(ZoneOffset.UTC)));
+    event.put("end", formatter.format(end.atOffset(ZoneOffset.UTC)));
+    event.put("classNames", Collections.singletonList(className));
+    return event;
+  }
+
+  /**
+   * Endpoint to fetch the user/resource logs overlapping a time range, as a
+   * FullCalendar event feed.
+   *
    * @param resource    the name of the resource (optional)
    * @param user        the ID of the user (optional)
    * @param perspective the perspective of the logs ("resource" or "user")
    *                    (optional)
-   * @return the HTML formatted logs
+   * @param type        the type of logs, "reservation" or "monitor"
+   *                    (optional, both by default)
+   * @param start       the start of the range, in ISO 8601
+   * @param end         the end of the range, in ISO 8601
+   * @return the events overlapping the range
    */
-  @GetMapping("/logs")
-  public String getUserLogs(
+  @GetMapping("/logs/events")
+  public List<Map<String, Object>> getEvents(
       @RequestParam(required = false) String resource,
       @RequestParam(required = false) String user,
-      @RequestParam(required = false) String perspective) {
+      @RequestParam(required = false) String perspective,
+      @RequestParam(required = false) String type,
+      @RequestParam String start,
+      @RequestParam String end) {
+    LocalDateTime from = parseBound(start);
+    LocalDateTime to = parseBound(end);
+    String view = perspective == null ? "resource" : perspective.toLowerCase();
+
+    List<ReservationLog> reservationLogs = "monitor".equals(type) ? Collections.emptyList()
+        : reservationLogService.getLogs(resource, user, from, to);
+    List<MonitorLog> monitorLogs = "reservation".equals(type) ? Collections.emptyList()
+        : monitorLogService.getLogs(resource, user, from, to);
+    Map<String, User> names = view.equals("resource") ? users(reservationLogs, monitorLogs) : Collections.emptyMap();
+
+    List<Map<String, Object>> events = new ArrayList<>(reservationLogs.size() + monitorLogs.size());
+    for (ReservationLog log : reservationLogs) {
+      events.add(event("Reserved - " + value(log.getUser(), log.getResource(), view, names),
+          log.getStartTime(), log.getEndTime(), "reservation"));
+    }
+    for (MonitorLog log : monitorLogs) {
+      events.add(event("Monitored - " + value(log.getUser(), log.getResource(), view, names),
+          log.getStartTime(), log.getEndTime(), "monitor"));
+    }
+    return events;
+  }
+
+  /**
+   * Endpoint to fetch the calendar page of user/resource logs. The page is the
+   * same for every query: it loads its events from {@code /logs/events},
+   * passing on its own {@code resource}, {@code user} and {@code perspective}
+   * parameters.
+   * 
+   * @return the HTML page
+   */
+  @GetMapping("/logs")
+  public String getUserLogs() {
     String template;
     try {
       InputStream inputStream = getClass().getResourceAsStream("/report.html");
@@ -104,30 +206,6 @@ public class LogCalendar {
     if (template == null) {
       return "Report template not found";
     }
-
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");// .withZone(ZoneOffset.UTC);
-    List<MonitorLog> monitorLogs = monitorLogService.getLogs(resource, user);
-    List<ReservationLog> reservationLogs = reservationLogService.getLogs(resource, user);
-
-    String reservationRecords = reservationLogs.stream()
-        .map(log -> String.format(
-            "{ title: 'Reserved - %s', start: '%s', end: '%s', classNames: ['reservation']}",
-            value(log.getUser(), log.getResource(), perspective),
-            formatter.format(log.getStartTime().atOffset(ZoneOffset.UTC)),
-            formatter.format(log.getEndTime().atOffset(ZoneOffset.UTC))))
-        .collect(Collectors.joining(",\n      ", "[\n      ", "\n]"));
-
-    String monitorRecords = monitorLogs.stream()
-        .map(log -> String.format(
-            "{ title: 'Monitored - %s', start: '%s', end: '%s', classNames: ['monitor']}",
-            value(log.getUser(), log.getResource(), perspective),
-            formatter.format(log.getStartTime().atOffset(ZoneOffset.UTC)),
-            formatter.format(log.getEndTime().atOffset(ZoneOffset.UTC))))
-        .collect(Collectors.joining(",\n      ", "[\n      ", "\n]"));
-
-    String page = template;
-    page = page.replaceFirst("\\[\\]", reservationRecords);
-    page = page.replaceFirst("\\[\\]", monitorRecords);
-    return page;
+    return template;
   }
 }
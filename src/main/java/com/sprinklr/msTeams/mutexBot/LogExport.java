@@ -0,0 +1,210 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
+import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+
+/**
+ * Exports reservation and monitor logs as NDJSON or CSV.
+ *
+ * <p>
+ * {@code /logs/export} writes the logs to the response as they are read from
+ * a DB cursor, so an export holds one batch of logs in memory, however long
+ * the history. The response is gzip-compressed as it is written when the
+ * client accepts it.
+ * </p>
+ */
+@RestController
+public class LogExport {
+  private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+  private static final String[] COLUMNS = { "id", "resource", "user", "start", "end" };
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final ReservationLogService reservationLogService;
+  private final MonitorLogService monitorLogService;
+  private final JsonFactory json = new JsonFactory();
+
+  /**
+   * Constructs a LogExport with the specified services.
+   *
+   * @param reservationLogService the service to handle reservation logs
+   * @param monitorLogService     the service to handle monitor logs
+   */
+  @Autowired
+  public LogExport(ReservationLogService reservationLogService, MonitorLogService monitorLogService) {
+    this.reservationLogService = reservationLogService;
+    this.monitorLogService = monitorLogService;
+  }
+
+  /**
+   * Endpoint to export the logs overlapping a time range, one log per line,
+   * in {@code _id} order or, filtered by resource or user, in start time order.
+   *
+   * @param type           the type of logs, "reservation" or "monitor"
+   * @param format         "ndjson" (default) or "csv"
+   * @param resource       the name of the resource (optional)
+   * @param user           the ID of the user (optional)
+   * @param start          the start of the range, in ISO 8601 (optional)
+   * @param end            the end of the range, in ISO 8601 (optional)
+   * @param acceptEncoding the encodings accepted by the client
+   * @param response       the response the logs are written to
+   * @throws IOException if the response cannot be written
+   */
+  @GetMapping("/logs/export")
+  public void export(
+      @RequestParam String type,
+      @RequestParam(defaultValue = "ndjson") String format,
+      @RequestParam(required = false) String resource,
+      @RequestParam(required = false) String user,
+      @RequestParam(required = false) String start,
+      @RequestParam(required = false) String end,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletResponse response) throws IOException {
+    if (!type.equals("reservation") && !type.equals("monitor")) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid type: " + type);
+    }
+    if (!format.equals("ndjson") && !format.equals("csv")) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid format: " + format);
+    }
+    LocalDateTime from = start == null ? null : LogCalendar.parseBound(start);
+    LocalDateTime to = end == null ? null : LogCalendar.parseBound(end);
+
+    boolean gzip = acceptsGzip(acceptEncoding);
+    response.setContentType(format.equals("csv") ? "text/csv" : "application/x-ndjson");
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=\"" + type + "-logs." + format + "\"");
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) { response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip"); }
+
+    OutputStream body = response.getOutputStream();
+    if (gzip) { body = new GZIPOutputStream(body, BUFFER_SIZE); }
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+      if (type.equals("reservation")) {
+        try (CloseableIterator<ReservationLog> logs = reservationLogService.streamLogs(resource, user, from, to)) {
+          write(logs, log -> row(log.getId(), log.getResource(), log.getUser(), log.getStartTime(),
+              log.getEndTime()), format, writer);
+        }
+      } else {
+        try (CloseableIterator<MonitorLog> logs = monitorLogService.streamLogs(resource, user, from, to)) {
+          write(logs, log -> row(log.getId(), log.getResource(), log.getUser(), log.getStartTime(),
+              log.getEndTime()), format, writer);
+        }
+      }
+    }
+  }
+
+  /**
+   * Tells whether an {@code Accept-Encoding} header accepts gzip: if it lists
+   * {@code gzip} (or {@code x-gzip}) with a non-zero quality, or else lists
+   * {@code *} with a non-zero quality. A quality that cannot be read counts
+   * as 0.
+   *
+   * @param acceptEncoding The header, or {@code null} if absent.
+   * @return Whether the response may be gzipped.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) { return false; }
+    Double gzip = null;
+    Double any = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim();
+        if (!param.toLowerCase(Locale.ROOT).startsWith("q=")) { continue; }
+        try {
+          quality = Double.parseDouble(param.substring(2).trim());
+        } catch (NumberFormatException e) {
+          quality = 0;
+        }
+      }
+      if (name.equals("gzip") || name.equals("x-gzip")) {
+        gzip = gzip == null ? quality : Math.max(gzip, quality);
+      } else if (name.equals("*")) {
+        any = quality;
+      }
+    }
+    return gzip != null ? gzip > 0 : any != null && any > 0;
+  }
+
+  private static String[] row(String id, String resource, String user, LocalDateTime start, LocalDateTime end) {
+    return new String[] { id, resource, user, time(start), time(end) };
+  }
+
+  private static String time(LocalDateTime time) {
+    return time == null ? null : formatter.format(time.atOffset(ZoneOffset.UTC));
+  }
+
+  /**
+   * Writes each log as a line, converting it to its columns as it is read.
+   */
+  private <T> void write(CloseableIterator<T> logs, Function<T, String[]> columns, String format, Writer writer)
+      throws IOException {
+    if (format.equals("csv")) {
+      writeCsv(COLUMNS, writer);
+      while (logs.hasNext()) { writeCsv(columns.apply(logs.next()), writer); }
+      return;
+    }
+    JsonGenerator generator = json.createGenerator(writer);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    generator.setRootValueSeparator(null);
+    while (logs.hasNext()) {
+      String[] values = columns.apply(logs.next());
+      generator.writeStartObject();
+      for (int i = 0; i < COLUMNS.length; i++) { generator.writeStringField(COLUMNS[i], values[i]); }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+    generator.close();
+  }
+
+  /**
+   * Writes a CSV line, quoting the values holding a separator, a quote or a
+   * line break as RFC 4180 does.
+   */
+  private static void writeCsv(String[] values, Writer writer) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) { writer.write(','); }
+      String value = values[i] == null ? "" : values[i];
+      if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+          || value.indexOf('\r') >= 0) {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+      } else {
+        writer.write(value);
+      }
+    }
+    writer.write("\r\n");
+  }
+}
@@ -0,0 +1,106 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UserTimeEntry;
+import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
+import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+
+/**
+ * Records the log IDs of the reservations and monitor entries made before
+ * resources carried them.
+ *
+ * <p>
+ * A reservation or monitor entry without a log ID is closed by a lookup of
+ * the latest log of its resource and user. Once the application is ready,
+ * this migration looks that log up once for every open reservation and
+ * monitor entry still missing an ID, and stores its ID on the resource, so
+ * that closing it is a single {@code _id} update. Each ID is only set if the
+ * reservation or entry is unchanged and still has none, so the migration is
+ * idempotent and safe to run alongside commands and on several instances.
+ * </p>
+ */
+@Component
+public class LogIdBackfill {
+  private final ResourceService resourceService;
+  private final ReservationLogService reservationLogService;
+  private final MonitorLogService monitorLogService;
+
+  /**
+   * Constructs a LogIdBackfill with the specified services.
+   *
+   * @param resourceService       the service to manage resources
+   * @param reservationLogService the service to handle reservation logs
+   * @param monitorLogService     the service to handle monitor logs
+   */
+  @Autowired
+  public LogIdBackfill(ResourceService resourceService, ReservationLogService reservationLogService,
+      MonitorLogService monitorLogService) {
+    this.resourceService = resourceService;
+    this.reservationLogService = reservationLogService;
+    this.monitorLogService = monitorLogService;
+  }
+
+  /**
+   * Runs the migration in the background once the application is ready.
+   */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void init() {
+    try {
+      long start = System.nanoTime();
+      int backfilled = backfill();
+      if (backfilled > 0) {
+        System.out.println("\nBackfilled " + backfilled + " log IDs in " + (System.nanoTime() - start) / 1_000_000
+            + " ms");
+      }
+    } catch (Exception e) {
+      System.err.println("Log ID backfill failed; logs without an ID are closed by lookup");
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Stores the ID of the latest log on every reservation and unexpired monitor
+   * entry that has none.
+   *
+   * @return The number of log IDs stored.
+   */
+  public int backfill() {
+    LocalDateTime now = LocalDateTime.now();
+    int backfilled = 0;
+    for (Resource resource : resourceService.getCached()) {
+      if (resource.getReservedFlag() && resource.getReservationLogId() == null) {
+        ReservationLog log = reservationLogService.getLatest(resource.getName(), resource.getReservedBy());
+        if (log != null && log.getId() != null && resourceService.setReservationLogId(resource.getName(),
+            resource.getReservedBy(), resource.getReservedTill(), log.getId()) != null) {
+          backfilled++;
+        }
+      }
+
+      // Copied: the cached list may be replaced while it is walked.
+      List<UserTimeEntry> monitors = new ArrayList<>(resource.getMonitoredBy());
+      for (UserTimeEntry entry : monitors) {
+        if (entry.logId != null || !entry.till.isAfter(now)) { continue; }
+        MonitorLog log = monitorLogService.getLatest(resource.getName(), entry.user);
+        if (log != null && log.getId() != null
+            && resourceService.setMonitorLogId(resource.getName(), entry.user, log.getId()) != null) {
+          backfilled++;
+        }
+      }
+    }
+    return backfilled;
+  }
+}
@@ -0,0 +1,140 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.builder.teams.TeamsInfo;
+import com.microsoft.bot.schema.teams.TeamsChannelAccount;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of Teams member profiles, keyed by Teams ID and by AAD object ID.
+ *
+ * <p>
+ * A command from a user whose profile is cached needs no call to the Teams
+ * roster. Entries are filled when members are added to a team and whenever the
+ * roster is queried, and expire after {@code members.ttlMinutes} so that name
+ * and email changes are eventually picked up.
+ * </p>
+ */
+@Component
+public class MemberCache {
+  private final Map<String, Entry> members = new ConcurrentHashMap<>();
+  private final long ttlMillis;
+  private final BiFunction<TurnContext, String, TeamsChannelAccount> loader;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * A cached profile and the time it stops being valid.
+   */
+  private static class Entry {
+    final TeamsChannelAccount member;
+    final long expiresAt;
+
+    Entry(TeamsChannelAccount member, long expiresAt) {
+      this.member = member;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  /**
+   * Constructs a MemberCache that loads profiles from the Teams roster.
+   *
+   * @param ttlMinutes How long a profile is kept, in minutes.
+   */
+  @Autowired
+  public MemberCache(@Value("${members.ttlMinutes:60}") long ttlMinutes) {
+    this(TimeUnit.MINUTES.toMillis(ttlMinutes),
+        (turnContext, id) -> BotMetrics.connector("getMember", () -> TeamsInfo.getMember(turnContext, id).join()));
+  }
+
+  /**
+   * Constructs a MemberCache with a custom loader.
+   *
+   * @param ttlMillis How long a profile is kept, in milliseconds.
+   * @param loader    Fetches the profile of a member when it is not cached.
+   */
+  MemberCache(long ttlMillis, BiFunction<TurnContext, String, TeamsChannelAccount> loader) {
+    this.ttlMillis = ttlMillis;
+    this.loader = loader;
+    BotMetrics.cache("members", this, MemberCache::getHits, MemberCache::getMisses);
+  }
+
+  /**
+   * Retrieves the profile of a member, from the cache when possible.
+   *
+   * @param turnContext The context of the current turn, used to query the roster.
+   * @param id          The Teams ID or AAD object ID of the member.
+   * @return The profile of the member.
+   */
+  public TeamsChannelAccount get(TurnContext turnContext, String id) {
+    TeamsChannelAccount member = find(id);
+    if (member != null) { return member; }
+    return load(turnContext, id);
+  }
+
+  /**
+   * Retrieves the cached profile of a member.
+   *
+   * @param id The Teams ID or AAD object ID of the member.
+   * @return The cached profile, or {@code null} if it is not cached or has expired.
+   */
+  public TeamsChannelAccount find(String id) {
+    Entry entry = members.get(id);
+    if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+      if (entry != null) { members.remove(id, entry); }
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return entry.member;
+  }
+
+  /**
+   * Fetches the profile of a member from the roster and caches it.
+   *
+   * @param turnContext The context of the current turn, used to query the roster.
+   * @param id          The Teams ID or AAD object ID of the member.
+   * @return The profile of the member.
+   */
+  public TeamsChannelAccount load(TurnContext turnContext, String id) {
+    TeamsChannelAccount member = loader.apply(turnContext, id);
+    put(member);
+    return member;
+  }
+
+  /**
+   * Caches the profile of a member.
+   *
+   * @param member The profile of the member.
+   */
+  public void put(TeamsChannelAccount member) {
+    if (member == null || member.getId() == null) { return; }
+    Entry entry = new Entry(member, System.currentTimeMillis() + ttlMillis);
+    members.put(member.getId(), entry);
+    if (member.getAadObjectId() != null) { members.put(member.getAadObjectId(), entry); }
+  }
+
+  /**
+   * Removes the profile of a member.
+   *
+   * @param id The Teams ID or AAD object ID of the member.
+   */
+  public void evict(String id) {
+    Entry entry = members.remove(id);
+    if (entry == null) { return; }
+    members.remove(entry.member.getId(), entry);
+    if (entry.member.getAadObjectId() != null) { members.remove(entry.member.getAadObjectId(), entry); }
+  }
+
+  public long getHits() { return hits.get(); }
+  public long getMisses() { return misses.get(); }
+}
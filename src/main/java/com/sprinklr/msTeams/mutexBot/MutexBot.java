@@ -13,37 +13,98 @@ import com.sprinklr.msTeams.mutexBot.service.UserService;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
+import io.micrometer.core.instrument.Timer;
+
 /**
  * The MutexBot class handles the core functionality of the Teams bot for
  * managing reservations.
  * It extends {@link TeamsActivityHandler} to provide custom behavior for
  * message and member activities.
+ *
+ * <p>
+ * A text message is split into words in one pass. A single word is looked up
+ * in a case-insensitive table of commands; otherwise the first word names an
+ * action on the resource named by the second, optionally followed by a
+ * duration ({@code [for] 1h30m}).
+ * </p>
  */
 public class MutexBot extends TeamsActivityHandler {
   private final UserService userService;
   private final UserInput userInput;
   private final Actions actions;
-  private final static String helpMessage = "Commands:<br> &emsp;Reserve \\<Resource\\> [for \\<Duration\\>]<br> &emsp;Release \\<Resource\\><br> &emsp;Status \\<Resource\\><br> &emsp;Monitor \\<Resource\\> [for \\<Duration\\>]<br> &emsp;StopMonitoring \\<Resource\\><br>e.g.<br> &emsp;Reserve prod:qa6 for 1h12m<br> &emsp;StopMonitoring dev:qa6<br><br>Admin only commands:<br> &emsp;Sync DB<br> &emsp;Sync Cache<br> &emsp;CreateResource \\<Resource\\><br> &emsp;DeleteResource \\<Resource\\><br> &emsp;CreateChartName \\<ChartName\\><br> &emsp;DeleteChartName \\<ChartName\\><br> &emsp;ForceRelease \\<Resource\\><br> &emsp;MakeAdmin \\<User Email\\><br> &emsp;DismissAdmin \\<User Email\\><br> &emsp;ResourceLog \\<Resource\\><br> &emsp;UserLog \\<User Email\\><br><br><hr>Send \"Hello\" for welcome card.<br>Send \"run\" to select a resource.";
+  private final MemberCache memberCache;
+  private final static String helpMessage = "Commands:<br> &emsp;Reserve \\<Resource\\> [for \\<Duration\\>]<br> &emsp;Release \\<Resource\\><br> &emsp;Status \\<Resource\\><br> &emsp;Monitor \\<Resource\\> [for \\<Duration\\>]<br> &emsp;StopMonitoring \\<Resource\\><br>e.g.<br> &emsp;Reserve prod:qa6 for 1h12m<br> &emsp;StopMonitoring dev:qa6<br><br>Admin only commands:<br> &emsp;Sync DB<br> &emsp;Sync Cache<br> &emsp;Sync Logs<br> &emsp;CreateResource \\<Resource\\><br> &emsp;DeleteResource \\<Resource\\><br> &emsp;CreateChartName \\<ChartName\\><br> &emsp;DeleteChartName \\<ChartName\\><br> &emsp;ForceRelease \\<Resource\\><br> &emsp;MakeAdmin \\<User Email\\><br> &emsp;DismissAdmin \\<User Email\\><br> &emsp;ResourceLog \\<Resource\\><br> &emsp;UserLog \\<User Email\\><br> &emsp;Usage resources|charts|users|\\<Resource\\>|\\<ChartName\\><br><br><hr>Send \"Hello\" for welcome card.<br>Send \"run\" to select a resource.";
   public static String URL;
 
+  /** The single word commands, by name and alias. */
+  private final CommandTable<Function<TurnContext, Activity>> commands = new CommandTable<>();
+
+  /** The handlers of card responses, by card name. */
+  private final CommandTable<BiFunction<TurnContext, Map<String, Object>, Activity>> cards = new CommandTable<>();
+
+  /** The actions on a resource, mapped from name or alias to the action name. */
+  private static final CommandTable<String> resourceActions = new CommandTable<>();
+
+  static {
+    resourceActions
+        .register("reserve", "reserve")
+        .register("release", "release")
+        .register("status", "status", "stat")
+        .register("monitor", "monitor", "watch")
+        .register("stopmonitoring", "stopmonitoring", "stopmonitor", "unmonitor", "unwatch");
+    for (String action : Utils.adminActions) {
+      resourceActions.register(action.toLowerCase(), action);
+    }
+  }
+
   /**
    * Constructs a MutexBot instance with the specified services.
    *
    * @param userService The service responsible for user-related operations.
    * @param userInput   The class that handles user input.
    * @param actions     The class that defines actions the bot can perform.
+   * @param memberCache The cache of Teams member profiles.
    * @param url         The URL of the deployed bot.
    */
   @Autowired
-  public MutexBot(UserService userService, UserInput userInput, Actions actions, @Value("${URL}") String url) {
+  public MutexBot(UserService userService, UserInput userInput, Actions actions, MemberCache memberCache,
+      @Value("${URL}") String url) {
     this.userService = userService;
     this.userInput = userInput;
     this.actions = actions;
+    this.memberCache = memberCache;
     MutexBot.URL = url;
+
+    commands
+        .register(turnContext -> MessageFactory.text(helpMessage), "help", "?", "commands")
+        .register(userInput::resourceSelection, "run", "start")
+        .register(turnContext -> userInput.adminActionSelection(), "admin")
+        .register(turnContext -> MessageFactory.text("Admins:<br><br>" + userService.listAdmins() + "<hr>"),
+            "listAdmins", "admins")
+        .register(turnContext -> userInput.welcomeCard(), "hello", "hi", "hey");
+    cards
+        .register(actions::handleDurationCard, "durationCard")
+        .register(actions::handleAdminActionsCard, "adminActionsCard")
+        .register(actions::handleChartNameCard, "chartNameCard")
+        .register(actions::handleReleaseNameCard, "releaseNameCard");
+  }
+
+  /**
+   * Resolves the name or alias of an action on a resource.
+   *
+   * @param word The action as typed, in any case.
+   * @return The lower-cased name of the action; unknown actions are returned
+   *         lower-cased so that {@link Actions} can report them.
+   */
+  static String resourceAction(String word) {
+    String action = resourceActions.find(word);
+    return action != null ? action : word.toLowerCase();
   }
 
   /**
@@ -59,52 +120,96 @@ public class MutexBot extends TeamsActivityHandler {
    */
   @Override
   protected CompletableFuture<Void> onMessageActivity(TurnContext turnContext) {
+    Timer.Sample sample = Timer.start(BotMetrics.registry());
     turnContext.getActivity().removeRecipientMention();
-    Activity response;
+    String command;
+    CompletableFuture<Void> sent;
 
     // Check if the message is a card respose
     if (turnContext.getActivity().getText() == null) {
       Map<String, Object> data = (Map<String, Object>) turnContext.getActivity().getValue();
       String card = (String) data.get("card");
-      if (card != null) {
-        if (card.equals("durationCard")) {
-          response = actions.handleDurationCard(turnContext, data);
-        } else if (card.equals("adminActionsCard")) {
-          response = actions.handleAdminActionsCard(turnContext, data);
-        } else if (card.equals("chartNameCard")) {
-          response = actions.handleChartNameCard(turnContext, data);
-        } else if (card.equals("releaseNameCard")) {
-          response = actions.handleReleaseNameCard(turnContext, data);
-        } else {
-          response = MessageFactory.text("Received unknown card: " + card);
-        }
+      command = card != null && cards.nameOf(card) != null ? cards.nameOf(card) : "unknownCard";
+      sent = replyToCard(turnContext, card, data);
+    } else {
+      List<String> words = Utils.tokenize(turnContext.getActivity().getText());
+      command = commandName(words);
+      sent = reply(turnContext, words);
+    }
+    return sent.whenComplete((result, error) -> BotMetrics.stop(sample, error, true, BotMetrics.COMMANDS,
+        "command", command));
+  }
+
+  /**
+   * Names the command of a text message for {@link BotMetrics#COMMANDS}. Only
+   * registered names are returned, so that typos do not create new timers.
+   *
+   * @param words The words of the message.
+   * @return The name of the command, or the action on a resource.
+   */
+  String commandName(List<String> words) {
+    if (words.isEmpty()) { return "empty"; }
+    if (words.size() == 1) {
+      String word = words.get(0);
+      String name = commands.nameOf(word);
+      if (name != null) { return name; }
+      return word.regionMatches(true, 0, "hello", 0, 5) ? "hello" : "unknown";
+    }
+    String action = resourceActions.find(words.get(0));
+    return action != null ? action : "unknown";
+  }
+
+  /**
+   * Replies to the submission of a card.
+   */
+  private CompletableFuture<Void> replyToCard(TurnContext turnContext, String card, Map<String, Object> data) {
+    Activity response;
+    if (card != null) {
+      BiFunction<TurnContext, Map<String, Object>, Activity> handler = cards.find(card);
+      if (handler != null) {
+        response = handler.apply(turnContext, data);
       } else {
-        response = MessageFactory.text("No message recieved.");
+        response = MessageFactory.text("Received unknown card: " + card);
       }
-      return Utils.sendMessage(turnContext,response);
+    } else {
+      response = MessageFactory.text("No message recieved.");
     }
+    return Utils.sendMessage(turnContext,response);
+  }
 
-    String message = turnContext.getActivity().getText().trim().replaceAll(" +", " ");
-    String[] message_array = message.split(" ");
-    if (message_array.length == 0) { // message can't be empty
+  /**
+   * Replies to a text message.
+   */
+  private CompletableFuture<Void> reply(TurnContext turnContext, List<String> words) {
+    Activity response;
+    if (words.isEmpty()) { // message can't be empty
       response = MessageFactory.text("Something went wrong.");
-    } else if ((message_array.length == 1) && (message.toLowerCase().equals("help"))) {
-      response = MessageFactory.text(helpMessage);
-    } else if ((message_array.length == 1) && (message.toLowerCase().equals("run"))) {
-      response = userInput.resourceSelection(turnContext);
-    } else if ((message_array.length == 1) && (message.toLowerCase().equals("admin"))) {
-      response = userInput.adminActionSelection();
-    } else if ((message_array.length == 1) && (message.toLowerCase().equals("listadmins"))) {
-      response = MessageFactory.text("Admins:<br><br>"+userService.listAdmins()+"<hr>");
-    } else if ((message_array.length == 1) && ( (message.toLowerCase().startsWith("hello")) || (message.toLowerCase().equals("hi")) )) {
-      response = userInput.welcomeCard();
-    } else if (message_array.length == 2) {
-      response = actions.actOnResource(turnContext, message_array[1], message_array[0].toLowerCase());
-    } else if (message_array.length == 4) {
-      response = actions.actOnResource(turnContext, message_array[1], message_array[0].toLowerCase(), Utils.timeString2Int(message_array[3].toLowerCase()));
+    } else if (words.size() == 1) {
+      String word = words.get(0);
+      Function<TurnContext, Activity> command = commands.find(word);
+      if (command != null) {
+        response = command.apply(turnContext);
+      } else if (word.regionMatches(true, 0, "hello", 0, 5)) {
+        response = userInput.welcomeCard();
+      } else {
+        Utils.sendMessage(turnContext, "Invalid message recieved:<br>" + word);
+        response = userInput.welcomeCard();
+      }
     } else {
-      Utils.sendMessage(turnContext, "Invalid message recieved:<br>" + message);
-      response = userInput.welcomeCard();
+      String action = resourceAction(words.get(0));
+      if (words.size() == 2) {
+        response = actions.actOnResource(turnContext, words.get(1), action);
+      } else {
+        // <action> <resource> [for] <duration>
+        int durationStart = words.get(2).equalsIgnoreCase("for") ? 3 : 2;
+        String duration = String.join(" ", words.subList(durationStart, words.size()));
+        try {
+          response = actions.actOnResource(turnContext, words.get(1), action, Utils.parseDuration(duration));
+        } catch (IllegalArgumentException e) {
+          response = MessageFactory.text("Invalid duration \"" + duration + "\": " + e.getMessage()
+              + ".<br>e.g. Reserve prod:qa6 for 1h12m");
+        }
+      }
     }
     return Utils.sendMessage(turnContext, response);
   }
@@ -113,8 +218,8 @@ public class MutexBot extends TeamsActivityHandler {
    * Handles the event when members are added to a team.
    *
    * <p>
-   * This method registers newly added users in the database and sends a welcome
-   * message.
+   * This method registers newly added users in the database, caches their
+   * profiles and sends a welcome message.
    * </p>
    *
    * @param membersAdded The list of members added to the team.
@@ -132,7 +237,8 @@ public class MutexBot extends TeamsActivityHandler {
     String bot_id = turnContext.getActivity().getRecipient().getId();
     for (TeamsChannelAccount user : membersAdded) {
       if (user.getId().equals(bot_id)) { continue; }
-      if (!userService.exists(user)) { userService.save(new User(user)); }
+      userService.register(new User(user));
+      memberCache.put(user);
     }
 
     return Utils.sendMessage(turnContext, userInput.welcomeCard());
@@ -0,0 +1,166 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends personal notifications (e.g. to the monitors of a resource) in the
+ * background, so the user who issued a command gets the reply right away.
+ *
+ * <p>
+ * Sends run on a bounded pool: at most {@code notifications.threads} messages
+ * are in flight at once and at most {@code notifications.queueCapacity} wait
+ * for a thread. A failed send is retried with exponential backoff up to
+ * {@code notifications.maxAttempts} times.
+ * </p>
+ */
+@Component
+public class NotificationDispatcher {
+  private final ThreadPoolExecutor executor;
+  private final ScheduledExecutorService retryScheduler;
+  private final int maxAttempts;
+  private final long backoffMillis;
+
+  /**
+   * The result of notifying a single recipient.
+   */
+  public static class Outcome {
+    public final String recipient;
+    public final boolean delivered;
+    public final int attempts;
+    public final Throwable error;
+
+    public Outcome(String recipient, boolean delivered, int attempts, Throwable error) {
+      this.recipient = recipient;
+      this.delivered = delivered;
+      this.attempts = attempts;
+      this.error = error;
+    }
+
+    public String toString() {
+      if (delivered) { return String.format("%s: delivered after %d attempt(s)", recipient, attempts); }
+      return String.format("%s: failed after %d attempt(s) (%s)", recipient, attempts, error);
+    }
+  }
+
+  /**
+   * Constructs a NotificationDispatcher.
+   *
+   * @param threads       Maximum number of notifications sent concurrently.
+   * @param queueCapacity Maximum number of notifications waiting for a thread.
+   * @param maxAttempts   Maximum number of attempts per recipient.
+   * @param backoffMillis Delay before the first retry, doubled on each retry.
+   */
+  public NotificationDispatcher(
+      @Value("${notifications.threads:4}") int threads,
+      @Value("${notifications.queueCapacity:1000}") int queueCapacity,
+      @Value("${notifications.maxAttempts:3}") int maxAttempts,
+      @Value("${notifications.backoffMillis:500}") long backoffMillis) {
+    this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<Runnable>(queueCapacity), daemonThreads("notifications-"));
+    this.executor.allowCoreThreadTimeOut(true);
+    this.retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("notifications-retry-"));
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.backoffMillis = backoffMillis;
+  }
+
+  /**
+   * Notifies every recipient in the background.
+   *
+   * @param recipients The IDs of the users to notify.
+   * @param sender     Sends the notification to one recipient.
+   * @return A CompletableFuture that completes with the outcome for each
+   *         recipient once all of them are delivered or have given up.
+   */
+  public CompletableFuture<List<Outcome>> dispatch(Collection<String> recipients,
+      Function<String, CompletableFuture<Void>> sender) {
+    List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
+    for (String recipient : recipients) {
+      CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+      submit(recipient, sender, 1, outcome);
+      outcomes.add(outcome);
+    }
+    return CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0]))
+        .thenApply(done -> outcomes.stream().map(CompletableFuture::join).collect(Collectors.toList()))
+        .whenComplete((results, error) -> report(results));
+  }
+
+  /**
+   * Queues one attempt to notify a recipient.
+   */
+  private void submit(String recipient, Function<String, CompletableFuture<Void>> sender, int attempt,
+      CompletableFuture<Outcome> outcome) {
+    try {
+      executor.execute(() -> attempt(recipient, sender, attempt, outcome));
+    } catch (RejectedExecutionException e) {
+      outcome.complete(new Outcome(recipient, false, attempt, e));
+    }
+  }
+
+  /**
+   * Sends the notification and schedules a retry if it fails.
+   */
+  private void attempt(String recipient, Function<String, CompletableFuture<Void>> sender, int attempt,
+      CompletableFuture<Outcome> outcome) {
+    try {
+      sender.apply(recipient).join();
+      outcome.complete(new Outcome(recipient, true, attempt, null));
+    } catch (Exception e) {
+      if (attempt >= maxAttempts) {
+        outcome.complete(new Outcome(recipient, false, attempt, e));
+        return;
+      }
+      long delay = backoffMillis << (attempt - 1);
+      try {
+        retryScheduler.schedule(() -> submit(recipient, sender, attempt + 1, outcome), delay, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException rejected) {
+        outcome.complete(new Outcome(recipient, false, attempt, e));
+      }
+    }
+  }
+
+  /**
+   * Logs the recipients that could not be notified.
+   */
+  private void report(List<Outcome> results) {
+    if (results == null) { return; }
+    for (Outcome result : results) {
+      if (!result.delivered) { System.err.println("Notification " + result); }
+    }
+  }
+
+  /**
+   * Stops accepting notifications and lets the queued ones finish.
+   */
+  @PreDestroy
+  public void shutdown() {
+    retryScheduler.shutdown();
+    executor.shutdown();
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
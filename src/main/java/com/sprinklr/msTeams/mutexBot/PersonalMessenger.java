@@ -0,0 +1,176 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import com.microsoft.bot.builder.BotFrameworkAdapter;
+import com.microsoft.bot.builder.MessageFactory;
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.connector.authentication.MicrosoftAppCredentials;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationParameters;
+import com.microsoft.bot.schema.ConversationReference;
+
+import com.sprinklr.msTeams.mutexBot.service.ConversationReferenceService;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends personal (1:1) messages to users.
+ *
+ * <p>
+ * The first message to a user creates the conversation and stores its
+ * reference; later messages reuse the stored reference with a single
+ * {@code continueConversation} call. One set of app credentials is shared by
+ * all messages, so the connector token is cached across calls.
+ * </p>
+ *
+ * <p>
+ * Messages sent outside a turn (e.g. by the {@link ExpiryScheduler}) can only
+ * reach users whose conversation reference is already stored.
+ * </p>
+ */
+@Component
+public class PersonalMessenger {
+  private final ConversationReferenceService conversationReferences;
+  private final BotFrameworkAdapter adapter;
+  private final MicrosoftAppCredentials credentials;
+  private final String appId;
+
+  /**
+   * Constructs a PersonalMessenger.
+   *
+   * @param conversationReferences The store of 1:1 conversation references.
+   * @param adapter                The bot adapter, which sends the messages.
+   * @param appId                  ID of the Teams bot (from Azure).
+   * @param appPassword            Client secret of the bot (from Azure).
+   */
+  @Autowired
+  public PersonalMessenger(
+      ConversationReferenceService conversationReferences,
+      BotFrameworkAdapter adapter,
+      @Value("${MicrosoftAppId}") String appId,
+      @Value("${MicrosoftAppPassword}") String appPassword) {
+    this.conversationReferences = conversationReferences;
+    this.adapter = adapter;
+    this.credentials = new MicrosoftAppCredentials(appId, appPassword);
+    this.appId = appId;
+  }
+
+  /**
+   * Sends a personal message to a specified user.
+   *
+   * @param userId      The ID of the user to send the message to.
+   * @param message     The message to send.
+   * @param turnContext The context of the current turn.
+   * @return A CompletableFuture that completes when the message is sent.
+   */
+  public CompletableFuture<Void> send(String userId, String message, TurnContext turnContext) {
+    return sender(message, turnContext).apply(userId);
+  }
+
+  /**
+   * Prepares a personal message to be sent after the turn, e.g. by the
+   * {@link NotificationDispatcher}. What is needed to start a conversation is
+   * read from the turn now, since its context may be disposed once it ends.
+   *
+   * @param message     The message to send.
+   * @param turnContext The context of the current turn.
+   * @return Sends the message to a user, by ID.
+   */
+  public Function<String, CompletableFuture<Void>> sender(String message, TurnContext turnContext) {
+    Origin origin = new Origin(turnContext.getActivity());
+    return userId -> BotMetrics.connectorAsync("sendPersonalMessage", () -> sendInTurn(userId, message, origin));
+  }
+
+  private CompletableFuture<Void> sendInTurn(String userId, String message, Origin origin) {
+    ConversationReference reference = conversationReferences.find(userId);
+    if (reference == null) {
+      return createAndSend(userId, message, origin);
+    }
+
+    return continueAndSend(adapter, reference, message)
+        .handle((sent, error) -> error)
+        .thenCompose(error -> {
+          if (error == null) { return CompletableFuture.completedFuture(null); }
+          // The stored conversation may be gone (e.g. the bot was uninstalled); start a new one.
+          conversationReferences.evict(userId);
+          return createAndSend(userId, message, origin);
+        });
+  }
+
+  /**
+   * Sends a personal message outside of a turn, through the stored conversation
+   * reference of the user.
+   *
+   * @param userId  The ID of the user to send the message to.
+   * @param message The message to send.
+   * @return A CompletableFuture that completes when the message is sent, or
+   *         completes exceptionally if no conversation with the user is stored.
+   */
+  public CompletableFuture<Void> send(String userId, String message) {
+    return BotMetrics.connectorAsync("sendPersonalMessage", () -> sendOutsideTurn(userId, message));
+  }
+
+  private CompletableFuture<Void> sendOutsideTurn(String userId, String message) {
+    ConversationReference reference = conversationReferences.find(userId);
+    if (reference == null) {
+      CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(new IllegalStateException("No conversation stored for user " + userId));
+      return failed;
+    }
+    return continueAndSend(adapter, reference, message);
+  }
+
+  /**
+   * Creates the 1:1 conversation with a user, stores its reference and sends
+   * the message.
+   */
+  private CompletableFuture<Void> createAndSend(String userId, String message, Origin origin) {
+    ConversationParameters conversationParameters = new ConversationParameters();
+    conversationParameters.setIsGroup(false);
+    conversationParameters.setBot(origin.bot);
+    conversationParameters.setMembers(Collections.singletonList(new ChannelAccount(userId)));
+    conversationParameters.setTenantId(origin.tenantId);
+
+    return adapter.createConversation(
+        origin.teamsChannelId, origin.serviceUrl, credentials, conversationParameters,
+        (context) -> {
+          ConversationReference reference = context.getActivity().getConversationReference();
+          conversationReferences.save(userId, reference);
+          return continueAndSend(adapter, reference, message);
+        });
+  }
+
+  /**
+   * Sends a message into an existing conversation.
+   */
+  private CompletableFuture<Void> continueAndSend(BotFrameworkAdapter adapter, ConversationReference reference,
+      String message) {
+    Activity response = MessageFactory.text(message);
+    return adapter.continueConversation(appId, reference,
+        (context) -> context.sendActivity(response).thenApply(resourceResponse -> null));
+  }
+
+  /**
+   * The channel, service and bot of the turn a message was sent from, which
+   * new conversations are created in.
+   */
+  private static final class Origin {
+    private final String teamsChannelId;
+    private final String serviceUrl;
+    private final ChannelAccount bot;
+    private final String tenantId;
+
+    Origin(Activity activity) {
+      this.teamsChannelId = activity.teamsGetChannelId();
+      this.serviceUrl = activity.getServiceUrl();
+      this.bot = activity.getRecipient();
+      this.tenantId = activity.getConversation().getTenantId();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Tracks the startup phase of the bot and reports it at {@code /ready}.
+ *
+ * <p>
+ * The bot accepts traffic as soon as the catalog stored in the
+ * "jenkins-resources" and "ChartNames" collections is loaded
+ * ({@link Phase#SNAPSHOT}); the reconciliation with GitLab runs afterwards in
+ * the background and moves the phase to {@link Phase#SYNCED}. The uptime at
+ * which each phase was reached is reported along with it.
+ * </p>
+ */
+@RestController
+public class Readiness {
+
+  /**
+   * The startup phases, in order.
+   */
+  public enum Phase {
+    /** The application context is starting; no traffic is served. */
+    STARTING,
+    /** Serving from the last known catalog; the GitLab sync is pending. */
+    SNAPSHOT,
+    /** The catalog has been reconciled with GitLab since startup. */
+    SYNCED
+  }
+
+  private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.STARTING);
+  private volatile long readyMillis = -1;
+  private volatile long syncedMillis = -1;
+
+  /**
+   * @return The current startup phase.
+   */
+  public Phase getPhase() {
+    return phase.get();
+  }
+
+  /**
+   * Marks the bot as serving once the application context is ready.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void ready() {
+    readyMillis = uptimeMillis();
+    phase.compareAndSet(Phase.STARTING, Phase.SNAPSHOT);
+    System.out.println("\nServing from the stored catalog after " + readyMillis + " ms");
+  }
+
+  /**
+   * Marks the catalog as reconciled with GitLab. Only the first call after
+   * startup is recorded.
+   */
+  public void synced() {
+    if (phase.getAndSet(Phase.SYNCED) == Phase.SYNCED) { return; }
+    syncedMillis = uptimeMillis();
+    System.out.println("\nCatalog synced with GitLab after " + syncedMillis + " ms");
+  }
+
+  /**
+   * Endpoint reporting the startup phase.
+   *
+   * @return The phase and the uptime in milliseconds at which the bot started
+   *         serving and at which the catalog was synced ({@code -1} if not yet),
+   *         with status 503 until the bot serves traffic.
+   */
+  @GetMapping("/ready")
+  public ResponseEntity<Map<String, Object>> status() {
+    Phase current = phase.get();
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("phase", current);
+    body.put("readyMillis", readyMillis);
+    body.put("syncedMillis", syncedMillis);
+    HttpStatus status = current == Phase.STARTING ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK;
+    return new ResponseEntity<>(body, status);
+  }
+
+  private static long uptimeMillis() {
+    return ManagementFactory.getRuntimeMXBean().getUptime();
+  }
+}
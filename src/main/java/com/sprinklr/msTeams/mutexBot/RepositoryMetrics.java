@@ -0,0 +1,88 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call to the repositories of the bot, by repository and method
+ * ({@link BotMetrics#REPOSITORY_CALLS}).
+ *
+ * <p>
+ * Spring Data builds each repository as an AOP proxy; the timing advice is
+ * added in front of its chain, so a call is timed including the custom
+ * fragments ({@code ...RepositoryImpl}) and the conversion of the results.
+ * The repositories of the embedded storage are plain objects, so they are
+ * wrapped in a proxy of their interfaces carrying the same advice.
+ * </p>
+ */
+@Component
+public class RepositoryMetrics implements BeanPostProcessor {
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (!(bean instanceof Repository)) { return bean; }
+    Timing timing = new Timing(repositoryName(bean, beanName));
+    if (bean instanceof Advised) {
+      ((Advised) bean).addAdvice(0, timing);
+      return bean;
+    }
+    ProxyFactory proxy = new ProxyFactory(bean);
+    proxy.addAdvice(timing);
+    return proxy.getProxy();
+  }
+
+  /**
+   * @return The simple name of the repository interface declared by the bot.
+   */
+  private static String repositoryName(Object repository, String beanName) {
+    for (Class<?> type : ClassUtils.getAllInterfaces(repository)) {
+      if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+        return type.getSimpleName();
+      }
+    }
+    return beanName;
+  }
+
+  /**
+   * The advice timing the calls to one repository.
+   */
+  static class Timing implements MethodInterceptor {
+    private final String repository;
+    /** The timers of successful calls, by method, as they are by far the most frequent. */
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    Timing(String repository) {
+      this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      Method method = invocation.getMethod();
+      Timer.Sample sample = Timer.start(BotMetrics.registry());
+      Object result;
+      try {
+        result = invocation.proceed();
+      } catch (Throwable e) {
+        BotMetrics.stop(sample, e, false, BotMetrics.REPOSITORY_CALLS,
+            "repository", repository, "method", method.getName());
+        throw e;
+      }
+      sample.stop(timers.computeIfAbsent(method, m -> Timer.builder(BotMetrics.REPOSITORY_CALLS)
+          .tags("repository", repository, "method", m.getName(), "outcome", BotMetrics.outcome(null))
+          .register(BotMetrics.registry())));
+      return result;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Registry of locks keyed by resource name.
+ *
+ * <p>
+ * Resource names are hashed onto a fixed number of lock stripes, so commands
+ * on different resources run in parallel while commands on the same resource
+ * are serialized. The number of locks never grows, however many resources are
+ * created. The time spent waiting for a lock is recorded as
+ * {@link BotMetrics#LOCK_WAIT}.
+ * </p>
+ */
+@Component
+public class ResourceLocks {
+  private final ReentrantLock[] stripes;
+  private final int mask;
+  private final Timer waits = Timer.builder(BotMetrics.LOCK_WAIT).register(BotMetrics.registry());
+
+  /**
+   * Constructs a ResourceLocks registry.
+   *
+   * @param stripes The minimum number of lock stripes (rounded up to a power of two).
+   */
+  public ResourceLocks(@Value("${locks.stripes:64}") int stripes) {
+    int size = 1;
+    while (size < stripes) { size <<= 1; }
+    this.stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Returns the lock guarding the specified resource.
+   *
+   * @param resourceName The name of the resource.
+   * @return The lock for the resource (shared with other resources on the same stripe).
+   */
+  public Lock forResource(String resourceName) {
+    return stripes[stripeFor(resourceName)];
+  }
+
+  /**
+   * Acquires the lock guarding the specified resource, recording how long the
+   * caller waited for it.
+   *
+   * @param resourceName The name of the resource.
+   * @return The acquired lock, to be unlocked by the caller.
+   */
+  public Lock lock(String resourceName) {
+    Lock lock = forResource(resourceName);
+    if (lock.tryLock()) {
+      waits.record(0, TimeUnit.NANOSECONDS);
+      return lock;
+    }
+    long start = System.nanoTime();
+    lock.lock();
+    waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return lock;
+  }
+
+  /**
+   * Computes the stripe index for the specified resource.
+   *
+   * @param resourceName The name of the resource.
+   * @return The index of the stripe.
+   */
+  int stripeFor(String resourceName) {
+    int h = resourceName.hashCode();
+    h ^= (h >>> 16);
+    return h & mask;
+  }
+
+  /**
+   * @return The number of lock stripes.
+   */
+  public int size() { return stripes.length; }
+}
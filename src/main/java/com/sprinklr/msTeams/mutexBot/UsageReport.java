@@ -0,0 +1,87 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+import com.sprinklr.msTeams.mutexBot.service.UsageService;
+
+/**
+ * Serves the utilization of resources, charts and users as JSON.
+ *
+ * <p>
+ * {@code /usage} reads the hourly or daily usage rollups of its window rather
+ * than the logs, so its cost depends on the number of buckets in the window,
+ * not on how many reservations were made. With a {@code key} it returns the
+ * usage of that resource, chart or user only; otherwise it returns the top
+ * list in the requested order.
+ * </p>
+ */
+@RestController
+public class UsageReport {
+  private static final List<String> SCOPES = Arrays.asList(UsageRollup.RESOURCE, UsageRollup.CHART,
+      UsageRollup.USER);
+  private static final List<String> GRANULARITIES = Arrays.asList(UsageRollup.HOUR, UsageRollup.DAY);
+  private static final List<String> ORDERS = Arrays.asList(UsageService.RESERVED, UsageService.DENIED,
+      UsageService.MONITORED, UsageService.IDLE);
+  /** The longest windows served, a quarter of daily or a week of hourly buckets. */
+  private static final int MAX_DAYS = 92;
+  private static final int MAX_HOURS = 24 * 7;
+
+  private final UsageService usageService;
+
+  /**
+   * Constructs a UsageReport with the specified service.
+   *
+   * @param usageService the service reading the usage rollups
+   */
+  @Autowired
+  public UsageReport(UsageService usageService) {
+    this.usageService = usageService;
+  }
+
+  /**
+   * Retrieves the usage of the last hours or days, including the current one.
+   *
+   * @param scope       "resource", "chart" or "user"
+   * @param key         the resource or chart name or user ID to report on, or
+   *                    none for the top list
+   * @param granularity "hour" or "day"
+   * @param periods     the number of hours or days
+   * @param order       "reserved", "denied", "monitored" or "idle"
+   * @param limit       the length of the top list
+   * @return the usages, each with its utilization in percent
+   */
+  @GetMapping("/usage")
+  public List<UsageService.Usage> usage(
+      @RequestParam(value = "scope", defaultValue = UsageRollup.RESOURCE) String scope,
+      @RequestParam(value = "key", required = false) String key,
+      @RequestParam(value = "granularity", defaultValue = UsageRollup.DAY) String granularity,
+      @RequestParam(value = "periods", defaultValue = "7") int periods,
+      @RequestParam(value = "order", defaultValue = UsageService.RESERVED) String order,
+      @RequestParam(value = "limit", defaultValue = "10") int limit) {
+    check(SCOPES.contains(scope), "scope must be one of " + SCOPES);
+    check(GRANULARITIES.contains(granularity), "granularity must be one of " + GRANULARITIES);
+    check(ORDERS.contains(order), "order must be one of " + ORDERS);
+    int maxPeriods = granularity.equals(UsageRollup.DAY) ? MAX_DAYS : MAX_HOURS;
+    check(periods > 0 && periods <= maxPeriods, "periods must be between 1 and " + maxPeriods);
+    check(limit > 0, "limit must be positive");
+
+    if (key != null) {
+      return Collections.singletonList(usageService.usage(scope, key, granularity, periods));
+    }
+    return usageService.top(scope, granularity, periods, order, limit);
+  }
+
+  private static void check(boolean valid, String message) {
+    if (!valid) { throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message); }
+  }
+}
@@ -8,18 +8,17 @@ import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.Attachment;
 import com.microsoft.bot.schema.CardAction;
 import com.microsoft.bot.schema.HeroCard;
-import com.microsoft.bot.schema.Serialization;
 
 import com.sprinklr.msTeams.mutexBot.service.ChartNameService;
 import com.sprinklr.msTeams.mutexBot.service.ResourceService;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -36,6 +35,13 @@ public class UserInput {
   private final ResourceService resourceService;
   private ChartNameService chartNamesService;
 
+  /** The card templates, parsed once; every card is filled from a copy. */
+  private final CardTemplate resourceTemplate = loadTemplate(Utils.RESOURCE_ADAPTIVE_CARD_TEMPLATE);
+  private final CardTemplate durationTemplate = loadTemplate(Utils.DURATION_ADAPTIVE_CARD_TEMPLATE);
+  private final CardTemplate adminActionsTemplate = loadTemplate(Utils.ADMIN_ACTIONS_ADAPTIVE_CARD_TEMPLATE);
+  private final List<String> adminActionValues = new ArrayList<>();
+  private final Map<String, String> adminActionTitles = new HashMap<>();
+
   /**
    * Constructs a UserInput instance with the specified services.
    *
@@ -46,6 +52,10 @@ public class UserInput {
   public UserInput(ResourceService resourceService, ChartNameService chartNamesService) {
     this.resourceService = resourceService;
     this.chartNamesService = chartNamesService;
+    for (String action : Utils.adminActions) {
+      adminActionValues.add(action.toLowerCase());
+      adminActionTitles.put(action.toLowerCase(), action);
+    }
   }
 
   /**
@@ -105,39 +115,14 @@ public class UserInput {
    * @return An Activity containing the release name selection card.
    */
   protected Activity releaseNameSelection(String chartName) {
-    String templateJSON;
-    try {
-      templateJSON = getTemplateJson(Utils.RESOURCE_ADAPTIVE_CARD_TEMPLATE);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return MessageFactory.text("Error while loading adaptive card.<br>" + e);
-    }
-    if (templateJSON == null) { return MessageFactory.text(cardNotFoundMessage); }
+    if (resourceTemplate == null) { return MessageFactory.text(cardNotFoundMessage); }
 
-    StringBuilder chartChoicesBuilder = new StringBuilder();
+    Map<String, String> values = new HashMap<>();
+    values.put("fieldName", "Release Name (for '" + chartName + "'):");
+    values.put("cardName", "releaseNameCard");
     List<String> resourceNames = resourceService.findByChartName(chartName);
-    String releaseName;
-    for (String resourceName : resourceNames) {
-      if (chartChoicesBuilder.length() > 0) { chartChoicesBuilder.append(", "); }
-      releaseName = String.format(
-          "{\"title\": \"%s\", \"value\": \"%s\"}",
-          resourceName.substring(chartName.length() + 1), resourceName
-      );
-      chartChoicesBuilder.append(releaseName);
-    }
-    String cardJSON = templateJSON.replaceFirst("\\{\\}", chartChoicesBuilder.toString());
-    cardJSON = cardJSON.replace("$(fieldName)", "Release Name (for '" + chartName + "'):");
-    cardJSON = cardJSON.replace("$(cardName)", "releaseNameCard");
-
-    JsonNode content;
-    try {
-      content = Serialization.jsonToTree(cardJSON);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return MessageFactory.text("Error while serializing adaptive card.<br>" + e);
-    }
-
-    return getAdaptiveCardAttachment(content);
+    return getAdaptiveCardAttachment(resourceTemplate.fill(values, resourceNames,
+        resourceName -> resourceName.substring(chartName.length() + 1)));
   }
 
   /**
@@ -146,34 +131,12 @@ public class UserInput {
    * @return An Activity containing the chart name selection card.
    */
   protected Activity chartNameSelection() {
-    String templateJSON;
-    try {
-      templateJSON = getTemplateJson(Utils.RESOURCE_ADAPTIVE_CARD_TEMPLATE);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return MessageFactory.text("Error while loading adaptive card.<br>" + e);
-    }
-    if (templateJSON == null) { return MessageFactory.text(cardNotFoundMessage); }
-
-    StringBuilder chartChoicesBuilder = new StringBuilder();
-    List<String> chart_names = chartNamesService.getAll();
-    for (String chart_name : chart_names) {
-      if (chartChoicesBuilder.length() > 0) { chartChoicesBuilder.append(", "); }
-      chartChoicesBuilder.append(String.format("{\"title\": \"%s\", \"value\": \"%s\"}", chart_name, chart_name));
-    }
-    String cardJSON = templateJSON.replaceFirst("\\{\\}", chartChoicesBuilder.toString());
-    cardJSON = cardJSON.replace("$(fieldName)", "Chart Name:");
-    cardJSON = cardJSON.replace("$(cardName)", "chartNameCard");
+    if (resourceTemplate == null) { return MessageFactory.text(cardNotFoundMessage); }
 
-    JsonNode content;
-    try {
-      content = Serialization.jsonToTree(cardJSON);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return MessageFactory.text("Error while serializing adaptive card.<br>" + e);
-    }
-
-    return getAdaptiveCardAttachment(content);
+    Map<String, String> values = new HashMap<>();
+    values.put("fieldName", "Chart Name:");
+    values.put("cardName", "chartNameCard");
+    return getAdaptiveCardAttachment(resourceTemplate.fill(values, chartNamesService.getAll(), chartName -> chartName));
   }
 
   /**
@@ -184,26 +147,12 @@ public class UserInput {
    * @return An Activity containing the duration selection card.
    */
   protected Activity durationSelection(String resource, String action) {
+    if (durationTemplate == null) { return MessageFactory.text(cardNotFoundMessage); }
 
-    String templateJSON;
-    try {
-      templateJSON = getTemplateJson(Utils.DURATION_ADAPTIVE_CARD_TEMPLATE);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return MessageFactory.text("Error while loading adaptive card.<br>" + e);
-    }
-    if (templateJSON == null) { return MessageFactory.text(cardNotFoundMessage); }
-
-    String cardJSON = templateJSON.replaceAll("\\$\\{resource\\}", resource).replaceAll("\\$\\{action\\}", action);
-    JsonNode content;
-    try {
-      content = Serialization.jsonToTree(cardJSON);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return MessageFactory.text("Error while serializing adaptive card.<br>" + e);
-    }
-
-    return getAdaptiveCardAttachment(content);
+    Map<String, String> values = new HashMap<>();
+    values.put("resource", resource);
+    values.put("action", action);
+    return getAdaptiveCardAttachment(durationTemplate.fill(values, null, null));
   }
 
   /**
@@ -220,16 +169,22 @@ public class UserInput {
   }
 
   /**
-   * Retrieves the JSON template for an adaptive card from the specified path.
+   * Loads the template of an adaptive card from the specified path.
    *
    * @param templatePath The path to the template JSON file.
-   * @return The JSON content of the template.
-   * @throws IOException If an I/O error occurs while reading the template file.
+   * @return The template, or {@code null} if it could not be loaded; the cards
+   *         using it then report an error.
    */
-  protected String getTemplateJson(String templatePath) throws IOException {
-    InputStream inputStream = getClass().getResourceAsStream(templatePath);
-    if (inputStream == null) { return null; }
-    return IOUtils.toString(inputStream, StandardCharsets.UTF_8.toString());
+  private static CardTemplate loadTemplate(String templatePath) {
+    try {
+      CardTemplate template = CardTemplate.load(templatePath);
+      if (template == null) { System.err.println("Card template not found: " + templatePath); }
+      return template;
+    } catch (IOException e) {
+      System.err.println("Error while loading card template: " + templatePath);
+      e.printStackTrace();
+      return null;
+    }
   }
 
   /**
@@ -238,31 +193,9 @@ public class UserInput {
    * @return An Activity containing the admin action selection card.
    */
   protected Activity adminActionSelection() {
-    String templateJSON;
-    try {
-      templateJSON = getTemplateJson(Utils.ADMIN_ACTIONS_ADAPTIVE_CARD_TEMPLATE);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return MessageFactory.text("Error while loading adaptive card.<br>" + e);
-    }
-    if (templateJSON == null) { return MessageFactory.text(cardNotFoundMessage); }
-
-    StringBuilder choicesBuilder = new StringBuilder();
-    for (String action : Utils.adminActions) {
-      if (choicesBuilder.length() > 0) { choicesBuilder.append(", "); }
-      choicesBuilder.append(String.format("{\"title\": \"%s\", \"value\": \"%s\"}", action, action.toLowerCase()));
-    }
-    String cardJSON = templateJSON.replace("{}", choicesBuilder.toString());
-
-    JsonNode content;
-    try {
-      content = Serialization.jsonToTree(cardJSON);
-    } catch (IOException e) {
-      e.printStackTrace();
-      return MessageFactory.text("Error while serializing adaptive card.<br>" + e);
-    }
-
-    return getAdaptiveCardAttachment(content);
+    if (adminActionsTemplate == null) { return MessageFactory.text(cardNotFoundMessage); }
+    return getAdaptiveCardAttachment(adminActionsTemplate.fill(Collections.emptyMap(), adminActionValues,
+        action -> adminActionTitles.get(action)));
   }
 
   /**
@@ -1,13 +1,9 @@
 package com.sprinklr.msTeams.mutexBot;
 
-import com.microsoft.bot.builder.BotFrameworkAdapter;
 import com.microsoft.bot.builder.MessageFactory;
 import com.microsoft.bot.builder.TurnContext;
-import com.microsoft.bot.connector.authentication.MicrosoftAppCredentials;
 import com.microsoft.bot.schema.Activity;
 import com.microsoft.bot.schema.ChannelAccount;
-import com.microsoft.bot.schema.ConversationParameters;
-import com.microsoft.bot.schema.ConversationReference;
 import com.microsoft.bot.schema.Mention;
 import com.microsoft.bot.schema.teams.TeamsChannelAccount;
 
@@ -17,7 +13,9 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -26,7 +24,7 @@ import java.util.concurrent.CompletableFuture;
 public class Utils {
 
   public static final String[] actions = { "Reserve", "Release", "Status", "Monitor", "StopMonitoring" };
-  public static final String[] adminActions = { "createResource", "deleteResource", "makeAdmin", "dismissAdmin", "forceRelease", "createChartName", "deleteChartName", "resourceLog", "userLog", "sync" };
+  public static final String[] adminActions = { "createResource", "deleteResource", "makeAdmin", "dismissAdmin", "forceRelease", "createChartName", "deleteChartName", "resourceLog", "userLog", "sync", "usage" };
   public static DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm:ss (dd/MM/yyyy)");
   public static final String DURATION_ADAPTIVE_CARD_TEMPLATE = "/duration.json";
   public static final String ADMIN_ACTIONS_ADAPTIVE_CARD_TEMPLATE = "/adminActions.json";
@@ -111,20 +109,111 @@ public class Utils {
    * @param time The time string in the format of hours and minutes (e.g., "2h
    *             30m").
    * @return The total minutes as an integer.
+   * @throws IllegalArgumentException If the time string is not a valid
+   *                                  duration; see {@link #parseDuration}.
    */
   public static int timeString2Int(String time) {
-    int hours = 0, minutes = 0;
-
-    String[] parts = time.split("(?<=\\D)(?=\\d)");
-    for (String part : parts) {
-      if (part.endsWith("h")) {
-        hours = Integer.parseInt(part.substring(0, part.length() - 1));
-      } else if (part.endsWith("m")) {
-        minutes = Integer.parseInt(part.substring(0, part.length() - 1));
+    return parseDuration(time);
+  }
+
+  /**
+   * Parses a duration made of numbers followed by units, such as
+   * {@code 1h30m}, {@code 2 hours} or {@code 45min}, in one pass and without
+   * regexes. Units are {@code h}, {@code hr}, {@code hrs}, {@code hour},
+   * {@code hours}, {@code m}, {@code min}, {@code mins}, {@code minute} and
+   * {@code minutes}, in any case; whitespace between parts is ignored.
+   *
+   * @param time The duration.
+   * @return The duration in minutes.
+   * @throws IllegalArgumentException If the duration is malformed, with a
+   *                                  message saying what is wrong and where.
+   */
+  public static int parseDuration(CharSequence time) {
+    int length = time.length();
+    int position = 0;
+    long total = 0;
+    boolean hoursSeen = false, minutesSeen = false, empty = true;
+    while (true) {
+      while (position < length && Character.isWhitespace(time.charAt(position))) { position++; }
+      if (position == length) { break; }
+
+      int numberStart = position;
+      long number = 0;
+      while (position < length && time.charAt(position) >= '0' && time.charAt(position) <= '9') {
+        number = number * 10 + (time.charAt(position) - '0');
+        if (number > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("Number at position " + (numberStart + 1) + " is too large");
+        }
+        position++;
+      }
+      if (position == numberStart) {
+        throw new IllegalArgumentException(
+            "Expected a number at position " + (position + 1) + ", found '" + time.charAt(position) + "'");
+      }
+
+      while (position < length && Character.isWhitespace(time.charAt(position))) { position++; }
+      int unitStart = position;
+      while (position < length && Character.isLetter(time.charAt(position))) { position++; }
+      if (position == unitStart) {
+        throw new IllegalArgumentException("Missing unit (h or m) after " + number + " at position " + (unitStart + 1));
+      }
+      if (isUnit(time, unitStart, position, "h", "hr", "hrs", "hour", "hours")) {
+        if (hoursSeen) { throw new IllegalArgumentException("Hours given twice, at position " + (unitStart + 1)); }
+        hoursSeen = true;
+        total += number * 60;
+      } else if (isUnit(time, unitStart, position, "m", "min", "mins", "minute", "minutes")) {
+        if (minutesSeen) { throw new IllegalArgumentException("Minutes given twice, at position " + (unitStart + 1)); }
+        minutesSeen = true;
+        total += number;
+      } else {
+        throw new IllegalArgumentException("Unknown unit '" + time.subSequence(unitStart, position)
+            + "' at position " + (unitStart + 1) + ", expected h or m");
+      }
+      if (total > Integer.MAX_VALUE) { throw new IllegalArgumentException("Duration is too long"); }
+      empty = false;
+    }
+    if (empty) { throw new IllegalArgumentException("Duration is empty"); }
+    return (int) total;
+  }
+
+  /**
+   * Checks whether a range of a text is one of the given units, ignoring case.
+   */
+  private static boolean isUnit(CharSequence text, int start, int end, String... units) {
+    for (String unit : units) {
+      if (unit.length() != end - start) { continue; }
+      boolean matches = true;
+      for (int i = 0; i < unit.length() && matches; i++) {
+        matches = Character.toLowerCase(text.charAt(start + i)) == unit.charAt(i);
       }
+      if (matches) { return true; }
     }
+    return false;
+  }
 
-    return hours * 60 + minutes;
+  /**
+   * Splits a message into words in one pass. Any run of whitespace separates
+   * words; leading and trailing whitespace is ignored.
+   *
+   * @param message The message.
+   * @return The words of the message.
+   */
+  public static List<String> tokenize(String message) {
+    List<String> tokens = new ArrayList<>(4);
+    int length = message.length();
+    int start = -1;
+    for (int i = 0; i < length; i++) {
+      if (Character.isWhitespace(message.charAt(i))) {
+        if (start >= 0) {
+          tokens.add(message.substring(start, i));
+          start = -1;
+        }
+      } else if (start < 0) {
+        start = i;
+      }
+    }
+    if (start >= 0) { tokens.add(message.substring(start)); }
+    return tokens;
   }
 
   // --------------------------------------------------------------------------
@@ -186,40 +275,4 @@ public class Utils {
     return mention;
   }
 
-  /**
-   * Sends a personal message to a specified user.
-   *
-   * @param userId      The ID of the user to send the message to.
-   * @param message     The message to send.
-   * @param turnContext The context of the current turn.
-   * @param appId       The app ID for authentication.
-   * @param appPassword The app password for authentication.
-   * @return A CompletableFuture that completes when the message is sent.
-   */
-  public static CompletableFuture<Void> sendPersonalMessage(String userId, String message, TurnContext turnContext, String appId, String appPassword) {
-    String teamsChannelId = turnContext.getActivity().teamsGetChannelId();
-    String serviceUrl = turnContext.getActivity().getServiceUrl();
-    MicrosoftAppCredentials credentials = new MicrosoftAppCredentials(appId, appPassword);
-    ChannelAccount user = new ChannelAccount(userId);
-    // TeamsChannelAccount user = TeamsInfo.getMember(turnContext, userId).join();
-
-    Activity response = MessageFactory.text(message);
-    ConversationParameters conversationParameters = new ConversationParameters();
-    conversationParameters.setIsGroup(false);
-    conversationParameters.setBot(turnContext.getActivity().getRecipient());
-    conversationParameters.setMembers(Collections.singletonList(user));
-    conversationParameters.setTenantId(turnContext.getActivity().getConversation().getTenantId());
-
-    return ((BotFrameworkAdapter) turnContext.getAdapter()).createConversation(
-        teamsChannelId, serviceUrl, credentials, conversationParameters,
-        (context) -> {
-          ConversationReference reference = context.getActivity().getConversationReference();
-          return context.getAdapter()
-              .continueConversation(
-                  appId, reference, (inner_context) -> inner_context
-                      .sendActivity(response)
-                      .thenApply(resourceResponse -> null));
-        });
-  }
-
 }
@@ -0,0 +1,45 @@
+package com.sprinklr.msTeams.mutexBot.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Records which revision of the Helm charts repository the catalog in the
+ * "jenkins-resources" and "ChartNames" collections was synced from, stored in
+ * the "Catalog-State" collection of MongoDB.
+ */
+@Document(collection = "Catalog-State")
+public class CatalogState {
+  /** The ID of the only document, for the Helm charts catalog. */
+  public static final String HELM = "helm";
+
+  @Id
+  private String name;
+  private String commit;
+  private LocalDateTime syncedAt;
+
+  public CatalogState() { }
+
+  /**
+   * Constructs a CatalogState.
+   *
+   * @param name     The name of the catalog.
+   * @param commit   The commit the catalog was synced from.
+   * @param syncedAt The time of the sync.
+   */
+  public CatalogState(String name, String commit, LocalDateTime syncedAt) {
+    this.name = name;
+    this.commit = commit;
+    this.syncedAt = syncedAt;
+  }
+
+  public String getName() { return name; }
+
+  public String getCommit() { return commit; }
+
+  public LocalDateTime getSyncedAt() { return syncedAt; }
+
+  public String toString() { return String.format("%s @ %s (%s)", name, commit, syncedAt); }
+}
@@ -3,6 +3,8 @@ package com.sprinklr.msTeams.mutexBot.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.sprinklr.msTeams.mutexBot.Utils;
@@ -11,8 +13,16 @@ import com.sprinklr.msTeams.mutexBot.Utils;
  * Represents a monitoring log entry for a resource by a user.
  * Each log entry contains details such as resource name, user ID,
  * start time, and end time.
+ * Logs are indexed by resource and by user, then by time, so the logs of a
+ * time window are found by an index range scan. The end time is part of the
+ * index too, so logs that ended before the window are skipped without being
+ * fetched.
  */
 @Document(collection = "Monitor-Log")
+@CompoundIndexes({
+    @CompoundIndex(name = "resource_time", def = "{ 'resource': 1, 'start': 1, 'end': 1 }"),
+    @CompoundIndex(name = "user_time", def = "{ 'user': 1, 'start': 1, 'end': 1 }")
+})
 public class MonitorLog {
   @Id
   private String _id;
@@ -21,6 +31,8 @@ public class MonitorLog {
   private LocalDateTime start;
   private LocalDateTime end;
 
+  public String getId() { return _id; }
+  public void setId(String id) { this._id = id; }
   public String getResource() { return resource; }
   public String getUser() { return user; }
   public LocalDateTime getStartTime() { return start; }
@@ -0,0 +1,71 @@
+package com.sprinklr.msTeams.mutexBot.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationAccount;
+import com.microsoft.bot.schema.ConversationReference;
+
+/**
+ * Represents the 1:1 conversation between the bot and a user, stored in the
+ * "Personal-Conversations" collection of MongoDB.
+ * Holds just enough to rebuild a {@link ConversationReference} for proactive
+ * messages.
+ */
+@Document(collection = "Personal-Conversations")
+public class PersonalConversation {
+  @Id
+  private String user;
+  private String conversationId;
+  private String tenantId;
+  private String serviceUrl;
+  private String channelId;
+  private String botId;
+  private String botName;
+
+  public PersonalConversation() { }
+
+  /**
+   * Constructs a PersonalConversation from the reference of a conversation.
+   *
+   * @param user      The ID of the user.
+   * @param reference The reference to the 1:1 conversation with the user.
+   */
+  public PersonalConversation(String user, ConversationReference reference) {
+    this.user = user;
+    this.conversationId = reference.getConversation().getId();
+    this.tenantId = reference.getConversation().getTenantId();
+    this.serviceUrl = reference.getServiceUrl();
+    this.channelId = reference.getChannelId();
+    if (reference.getBot() != null) {
+      this.botId = reference.getBot().getId();
+      this.botName = reference.getBot().getName();
+    }
+  }
+
+  public String getUser() { return user; }
+
+  public String getConversationId() { return conversationId; }
+
+  /**
+   * Rebuilds the reference to the conversation.
+   *
+   * @return The {@link ConversationReference} of the 1:1 conversation.
+   */
+  public ConversationReference toReference() {
+    ConversationAccount conversation = new ConversationAccount(conversationId);
+    conversation.setTenantId(tenantId);
+    conversation.setConversationType("personal");
+
+    ConversationReference reference = new ConversationReference();
+    reference.setConversation(conversation);
+    reference.setServiceUrl(serviceUrl);
+    reference.setChannelId(channelId);
+    reference.setUser(new ChannelAccount(user));
+    reference.setBot(new ChannelAccount(botId, botName));
+    return reference;
+  }
+
+  public String toString() { return String.format("%s -> %s", user, conversationId); }
+}
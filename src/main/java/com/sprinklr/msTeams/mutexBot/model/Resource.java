@@ -20,13 +20,19 @@ public class Resource {
   private boolean reserved;
   private String reservedBy;
   private LocalDateTime reservedTill;
+  /** The ID of the log of the current (or last) reservation. */
+  private String reservationLogId;
   private List<UserTimeEntry> monitoredBy;
 
   /** Maximum allocation time for resource reservation in minutes. */
   public int maxAllocationTime = 24 * 60;
 
   public String getReservedBy() { return reservedBy; }
+  /** @return The stored reservation flag, which stays set until the release is persisted. */
+  public boolean getReservedFlag() { return reserved; }
   public LocalDateTime getReservedTill() { return reservedTill; }
+  public String getReservationLogId() { return reservationLogId; }
+  public void setReservationLogId(String reservationLogId) { this.reservationLogId = reservationLogId; }
   public List<UserTimeEntry> getMonitoredBy() { return monitoredBy; }
 
   /**
@@ -49,9 +55,21 @@ public class Resource {
    * @param till The LocalDateTime until when the resource is reserved.
    */
   public void reserve(String user, LocalDateTime till) {
+    reserve(user, till, null);
+  }
+
+  /**
+   * Reserves the resource for a specific user until a given time.
+   * 
+   * @param user  The ID of the user reserving the resource.
+   * @param till  The LocalDateTime until when the resource is reserved.
+   * @param logId The ID of the log of the reservation.
+   */
+  public void reserve(String user, LocalDateTime till, String logId) {
     reserved = true;
     reservedBy = user;
     reservedTill = till;
+    reservationLogId = logId;
   }
 
   /**
@@ -102,20 +120,50 @@ public class Resource {
    * @param till The LocalDateTime until when the user will monitor the resource.
    */
   public void monitor(String user, LocalDateTime till) {
+    monitor(user, till, null, LocalDateTime.now());
+  }
+
+  /**
+   * Starts monitoring the resource for a specific user until a given time.
+   * If the user is already monitoring the resource, updates the monitoring
+   * duration, and the entry keeps its log unless it had expired.
+   * 
+   * @param user  The ID of the user monitoring the resource.
+   * @param till  The LocalDateTime until when the user will monitor the resource.
+   * @param logId The ID of a new log, used if the entry is new, has expired or
+   *              has no log; or {@code null} to keep the current one.
+   * @param now   The current time.
+   */
+  public void monitor(String user, LocalDateTime till, String logId, LocalDateTime now) {
     boolean already_present = false;
     for (UserTimeEntry entry : monitoredBy) {
       if (entry.user.equals(user)) {
         already_present = true;
+        if (logId != null && (entry.logId == null || entry.till.isBefore(now))) { entry.logId = logId; }
         if (entry.till.isAfter(till)) { break; }
         entry.till = till;
       }
     }
     if (!already_present) {
-      UserTimeEntry entry = new UserTimeEntry(user, till);
+      UserTimeEntry entry = new UserTimeEntry(user, till, logId);
       monitoredBy.add(entry);
     }
   }
 
+  /**
+   * Finds the monitoring entry of a user.
+   * 
+   * @param user The ID of the user.
+   * @return The entry, or {@code null} if the user is not monitoring the resource.
+   */
+  public UserTimeEntry getMonitor(String user) {
+    if (monitoredBy == null) { return null; }
+    for (UserTimeEntry entry : monitoredBy) {
+      if (entry.user.equals(user)) { return entry; }
+    }
+    return null;
+  }
+
   /**
    * Returns a string representation of the Resource object.
    * 
@@ -146,8 +194,7 @@ public class Resource {
   public boolean isReserved() {
     if (!reserved) { return false; }
     if (reservedTill == null) { return false; }
-    if (reservedTill.isBefore(LocalDateTime.now())) { reserved = false; }
-    return reserved;
+    return !reservedTill.isBefore(LocalDateTime.now());
   }
 
   /**
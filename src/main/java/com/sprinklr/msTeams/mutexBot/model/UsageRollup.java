@@ -0,0 +1,144 @@
+package com.sprinklr.msTeams.mutexBot.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * The usage of a resource, a chart or a user during one hour or one day,
+ * stored in the "Usage-Rollup" collection of MongoDB.
+ * Rollups are incremented as reservations and monitoring periods are logged,
+ * so reading the usage of a time window reads one document per key and
+ * bucket, however many logs the window holds. Rollups are indexed by scope,
+ * granularity and bucket for the top lists of a window, and by key for the
+ * usage of a single resource, chart or user.
+ */
+@Document(collection = "Usage-Rollup")
+@CompoundIndexes({
+    @CompoundIndex(name = "scope_bucket", def = "{ 'scope': 1, 'granularity': 1, 'bucket': 1 }"),
+    @CompoundIndex(name = "key_bucket", def = "{ 'scope': 1, 'key': 1, 'granularity': 1, 'bucket': 1 }")
+})
+public class UsageRollup {
+  /** The scope of the usage of a resource. */
+  public static final String RESOURCE = "resource";
+  /** The scope of the usage of all the releases of a chart. */
+  public static final String CHART = "chart";
+  /** The scope of the usage of a user. */
+  public static final String USER = "user";
+  /** The granularity of hourly buckets. */
+  public static final String HOUR = "hour";
+  /** The granularity of daily buckets. */
+  public static final String DAY = "day";
+
+  @Id
+  private String _id;
+  private String scope;
+  private String key;
+  private String granularity;
+  private LocalDateTime bucket;
+  private double reservedMinutes;
+  private long reservations;
+  private long monitors;
+  private long deniedReserves;
+
+  /**
+   * Constructs an empty rollup.
+   *
+   * @param scope       {@link #RESOURCE}, {@link #CHART} or {@link #USER}.
+   * @param key         The name of the resource or chart, or the ID of the user.
+   * @param granularity {@link #HOUR} or {@link #DAY}.
+   * @param bucket      The start of the hour or day.
+   */
+  public UsageRollup(String scope, String key, String granularity, LocalDateTime bucket) {
+    this._id = id(scope, key, granularity, bucket);
+    this.scope = scope;
+    this.key = key;
+    this.granularity = granularity;
+    this.bucket = bucket;
+  }
+
+  public String getId() { return _id; }
+  public String getScope() { return scope; }
+  public String getKey() { return key; }
+  public String getGranularity() { return granularity; }
+  public LocalDateTime getBucket() { return bucket; }
+  public double getReservedMinutes() { return reservedMinutes; }
+  public long getReservations() { return reservations; }
+  public long getMonitors() { return monitors; }
+  public long getDeniedReserves() { return deniedReserves; }
+
+  public void addReservedMinutes(double minutes) { reservedMinutes += minutes; }
+  public void addReservations(long count) { reservations += count; }
+  public void addMonitors(long count) { monitors += count; }
+  public void addDeniedReserves(long count) { deniedReserves += count; }
+
+  /**
+   * Adds the counters of another rollup to this one.
+   *
+   * @param other The rollup to add.
+   */
+  public void add(UsageRollup other) {
+    reservedMinutes += other.reservedMinutes;
+    reservations += other.reservations;
+    monitors += other.monitors;
+    deniedReserves += other.deniedReserves;
+  }
+
+  /**
+   * Builds the ID of a rollup, which makes incrementing it an upsert by
+   * {@code _id}.
+   *
+   * @param scope       The scope.
+   * @param key         The key.
+   * @param granularity The granularity.
+   * @param bucket      The start of the bucket.
+   * @return The ID.
+   */
+  public static String id(String scope, String key, String granularity, LocalDateTime bucket) {
+    return scope + ":" + granularity + ":" + bucket + ":" + key;
+  }
+
+  /**
+   * Finds the bucket a time falls in.
+   *
+   * @param granularity {@link #HOUR} or {@link #DAY}.
+   * @param time        The time.
+   * @return The start of the hour or day of the time.
+   */
+  public static LocalDateTime bucketOf(String granularity, LocalDateTime time) {
+    return time.truncatedTo(unit(granularity));
+  }
+
+  /**
+   * Finds the bucket following another.
+   *
+   * @param granularity {@link #HOUR} or {@link #DAY}.
+   * @param bucket      The start of a bucket.
+   * @return The start of the next bucket.
+   */
+  public static LocalDateTime next(String granularity, LocalDateTime bucket) {
+    return bucket.plus(1, unit(granularity));
+  }
+
+  /**
+   * Finds the unit of time of a granularity.
+   *
+   * @param granularity {@link #HOUR} or {@link #DAY}.
+   * @return The unit of time.
+   * @throws IllegalArgumentException If the granularity is unknown.
+   */
+  public static ChronoUnit unit(String granularity) {
+    if (HOUR.equals(granularity)) { return ChronoUnit.HOURS; }
+    if (DAY.equals(granularity)) { return ChronoUnit.DAYS; }
+    throw new IllegalArgumentException("Unknown granularity: " + granularity);
+  }
+
+  public String toString() {
+    return String.format("%s %s %s %s: %.1f minutes reserved, %d reservations, %d monitors, %d denied", scope, key,
+        granularity, bucket, reservedMinutes, reservations, monitors, deniedReserves);
+  }
+}
@@ -4,15 +4,22 @@ import java.time.LocalDateTime;
 
 /**
  * Represents an entry for user monitoring time.
- * Each entry includes the user and the monitoring end time.
+ * Each entry includes the user, the monitoring end time and the ID of the
+ * monitor log to close when the user stops monitoring.
  */
 public class UserTimeEntry {
   public String user;
   public LocalDateTime till;
+  public String logId;
 
   public UserTimeEntry(String user, LocalDateTime till) {
+    this(user, till, null);
+  }
+
+  public UserTimeEntry(String user, LocalDateTime till, String logId) {
     this.user = user;
     this.till = till;
+    this.logId = logId;
   }
 
   public UserTimeEntry() { }
@@ -0,0 +1,15 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sprinklr.msTeams.mutexBot.model.CatalogState;
+
+/**
+ * MongoDB repository interface for managing {@link CatalogState} entities.
+ * Provides CRUD operations for interacting with the "Catalog-State"
+ * collection.
+ */
+@Repository
+public interface CatalogStateRepository extends MongoRepository<CatalogState, String> {
+}
@@ -7,9 +7,10 @@ import com.sprinklr.msTeams.mutexBot.model.ChartName;
 
 /**
  * MongoDB repository interface for managing {@link ChartName} entities.
- * Provides CRUD operations and query methods for interacting with the
- * "ChartNames" collection.
+ * Provides CRUD operations, query methods and the bulk writes of
+ * {@link ChartNameRepositoryCustom} for interacting with the "ChartNames"
+ * collection.
  */
 @Repository
-public interface ChartNameRepository extends MongoRepository<ChartName, String> {
+public interface ChartNameRepository extends MongoRepository<ChartName, String>, ChartNameRepositoryCustom {
 }
@@ -0,0 +1,19 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import java.util.Collection;
+
+import com.sprinklr.msTeams.mutexBot.model.ChartName;
+
+/**
+ * Bulk operations on {@link ChartName} documents.
+ */
+public interface ChartNameRepositoryCustom {
+
+  /**
+   * Inserts and deletes chart names in one unordered bulk write.
+   *
+   * @param added   The chart names to insert.
+   * @param removed The chart names to delete.
+   */
+  void applyCatalog(Collection<String> added, Collection<String> removed);
+}
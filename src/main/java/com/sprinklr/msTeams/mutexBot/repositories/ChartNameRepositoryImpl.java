@@ -0,0 +1,42 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.sprinklr.msTeams.mutexBot.model.ChartName;
+
+/**
+ * MongoDB implementation of {@link ChartNameRepositoryCustom} using bulk
+ * writes.
+ */
+public class ChartNameRepositoryImpl implements ChartNameRepositoryCustom {
+
+  private final MongoOperations mongo;
+
+  /**
+   * Constructs a new {@code ChartNameRepositoryImpl}.
+   *
+   * @param mongo The Mongo operations to run the writes with.
+   */
+  @Autowired
+  public ChartNameRepositoryImpl(MongoOperations mongo) {
+    this.mongo = mongo;
+  }
+
+  @Override
+  public void applyCatalog(Collection<String> added, Collection<String> removed) {
+    if (added.isEmpty() && removed.isEmpty()) { return; }
+    BulkOperations bulk = mongo.bulkOps(BulkMode.UNORDERED, ChartName.class);
+    if (!added.isEmpty()) { bulk.insert(added.stream().map(ChartName::new).collect(Collectors.toList())); }
+    if (!removed.isEmpty()) { bulk.remove(new Query(where("_id").in(removed))); }
+    bulk.execute();
+  }
+}
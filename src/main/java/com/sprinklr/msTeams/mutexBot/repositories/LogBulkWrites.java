@@ -0,0 +1,61 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * The bulk writes shared by the log repositories, whose documents only differ
+ * by the names of their time fields.
+ */
+final class LogBulkWrites {
+  private static final int DUPLICATE_KEY = 11000;
+
+  private LogBulkWrites() { }
+
+  /**
+   * Inserts logs in one unordered bulk write, skipping the logs whose ID is
+   * already stored, so that a batch that partly failed can be written again.
+   * A skipped log keeps its stored end, so its close must follow in
+   * {@link #closeAll}.
+   */
+  static void insertAll(MongoOperations mongo, Class<?> type, Collection<?> logs) {
+    if (logs.isEmpty()) { return; }
+    try {
+      mongo.bulkOps(BulkMode.UNORDERED, type).insert(new ArrayList<>(logs))
+          .execute();
+    } catch (BulkOperationException e) {
+      if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) { throw e; }
+    }
+  }
+
+  /**
+   * Sets the end time of logs by ID in one unordered bulk write.
+   *
+   * @param endField    The name of the end time field.
+   * @param ends        The end time of each log, by ID.
+   * @param shortenOnly Whether to only move end times earlier.
+   */
+  static void closeAll(MongoOperations mongo, Class<?> type, String endField, Map<String, LocalDateTime> ends,
+      boolean shortenOnly) {
+    if (ends.isEmpty()) { return; }
+    BulkOperations bulk = mongo.bulkOps(BulkMode.UNORDERED, type);
+    for (Map.Entry<String, LocalDateTime> end : ends.entrySet()) {
+      Criteria criteria = where("_id").is(end.getKey());
+      if (shortenOnly) { criteria = criteria.and(endField).gt(end.getValue()); }
+      bulk.updateOne(new Query(criteria), Update.update(endField, end.getValue()));
+    }
+    bulk.execute();
+  }
+}
@@ -0,0 +1,40 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * The cursor queries shared by the log repositories, whose documents only
+ * differ by the names of their time fields.
+ */
+final class LogCursors {
+  /** The number of logs fetched per round trip by {@link #stream}. */
+  static final int BATCH_SIZE = 1000;
+
+  private LogCursors() { }
+
+  /**
+   * Streams the logs matching a filter from a cursor, fetching
+   * {@link #BATCH_SIZE} at a time. Filtered by resource or user, the logs come
+   * in start time order from the {@code resource_time} or {@code user_time}
+   * index. Unfiltered, they come in {@code _id} order, which follows the time
+   * they were opened, as sorting the whole collection by start time would
+   * need it in memory.
+   */
+  static <T> CloseableIterator<T> stream(MongoOperations mongo, Class<T> type, String startField, String endField,
+      String resource, String user, LocalDateTime from, LocalDateTime to) {
+    Query query = new Query();
+    if (resource != null) { query.addCriteria(where("resource").is(resource)); }
+    if (user != null) { query.addCriteria(where("user").is(user)); }
+    if (to != null) { query.addCriteria(where(startField).lt(to)); }
+    if (from != null) { query.addCriteria(where(endField).gt(from)); }
+    Sort order = resource == null && user == null ? Sort.by("_id") : Sort.by(startField);
+    return mongo.stream(query.with(order).cursorBatchSize(BATCH_SIZE), type);
+  }
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -15,7 +16,7 @@ import java.util.List;
  * "Monitor-Log" collection.
  */
 @Repository
-public interface MonitorLogRepository extends MongoRepository<MonitorLog, String> {
+public interface MonitorLogRepository extends MongoRepository<MonitorLog, String>, MonitorLogRepositoryCustom {
 
   /**
    * Retrieves the latest monitor logs for a specific resource and user.
@@ -55,4 +56,39 @@ public interface MonitorLogRepository extends MongoRepository<MonitorLog, String
    */
   @Query(value = "{ 'user': ?0 }", sort = "{ 'start': -1 }")
   List<MonitorLog> getUserLogs(String user);
+
+  /**
+   * Retrieves the logs of a specific resource and user that overlap a time
+   * window.
+   *
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param from     The start of the window.
+   * @param to       The end of the window.
+   * @return A list of {@link MonitorLog} objects sorted by ascending start time.
+   */
+  @Query(value = "{ 'resource': ?0, 'user': ?1, 'start': { $lt: ?3 }, 'end': { $gt: ?2 } }", sort = "{ 'start': 1 }")
+  List<MonitorLog> getLogs(String resource, String user, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Retrieves the logs of a specific resource that overlap a time window.
+   *
+   * @param resource The resource identifier.
+   * @param from     The start of the window.
+   * @param to       The end of the window.
+   * @return A list of {@link MonitorLog} objects sorted by ascending start time.
+   */
+  @Query(value = "{ 'resource': ?0, 'start': { $lt: ?2 }, 'end': { $gt: ?1 } }", sort = "{ 'start': 1 }")
+  List<MonitorLog> getResourceLogs(String resource, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Retrieves the logs of a specific user that overlap a time window.
+   *
+   * @param user The user identifier.
+   * @param from The start of the window.
+   * @param to   The end of the window.
+   * @return A list of {@link MonitorLog} objects sorted by ascending start time.
+   */
+  @Query(value = "{ 'user': ?0, 'start': { $lt: ?2 }, 'end': { $gt: ?1 } }", sort = "{ 'start': 1 }")
+  List<MonitorLog> getUserLogs(String user, LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,56 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.data.util.CloseableIterator;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+
+/**
+ * Bulk writes and cursor queries of {@link MonitorLog} documents.
+ */
+public interface MonitorLogRepositoryCustom {
+
+  /**
+   * Inserts logs, or moves the end time of the stored log with the same ID
+   * later, in one bulk write. Extending a monitoring period thus extends its
+   * log, and writing a batch again is harmless.
+   *
+   * @param logs The logs to insert or extend, with their IDs set.
+   */
+  void upsertAll(Collection<MonitorLog> logs);
+
+  /**
+   * Moves the end time of logs earlier, leaving the logs that already ended
+   * by then unchanged, in one bulk write.
+   *
+   * @param ends The end time of each log, by ID.
+   */
+  void closeAll(Map<String, LocalDateTime> ends);
+
+  /**
+   * Merges the overlapping or adjacent logs of each resource and user into
+   * the earliest of them. Only logs that ended by {@code endedBefore} are
+   * merged, so open logs, which monitor entries point to, are left alone.
+   * Merging again is harmless.
+   *
+   * @param endedBefore The time by which the merged logs ended.
+   * @return The number of logs merged into another and deleted.
+   */
+  int compact(LocalDateTime endedBefore);
+
+  /**
+   * Streams the logs matching a filter from a cursor, so that exporting them
+   * holds a batch of logs in memory rather than all of them. Each filter is
+   * optional.
+   *
+   * @param resource The resource identifier, or {@code null} for all.
+   * @param user     The user identifier, or {@code null} for all.
+   * @param from     The start of the window, or {@code null} for no lower bound.
+   * @param to       The end of the window, or {@code null} for no upper bound.
+   * @return The logs overlapping the window; the caller must close it.
+   */
+  CloseableIterator<MonitorLog> streamLogs(String resource, String user, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,150 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+
+/**
+ * MongoDB implementation of {@link MonitorLogRepositoryCustom} using bulk
+ * writes and cursors.
+ */
+public class MonitorLogRepositoryImpl implements MonitorLogRepositoryCustom {
+  /** The number of writes sent at once by {@link #compact}. */
+  private static final int COMPACT_BATCH = 500;
+
+  private final MongoOperations mongo;
+
+  /**
+   * Constructs a new {@code MonitorLogRepositoryImpl}.
+   *
+   * @param mongo The Mongo operations to run the writes with.
+   */
+  @Autowired
+  public MonitorLogRepositoryImpl(MongoOperations mongo) {
+    this.mongo = mongo;
+  }
+
+  @Override
+  public void upsertAll(Collection<MonitorLog> logs) {
+    if (logs.isEmpty()) { return; }
+    BulkOperations bulk = mongo.bulkOps(BulkMode.UNORDERED, MonitorLog.class);
+    for (MonitorLog log : logs) {
+      Update update = new Update()
+          .setOnInsert("resource", log.getResource())
+          .setOnInsert("user", log.getUser())
+          .setOnInsert("start", log.getStartTime())
+          .max("end", log.getEndTime());
+      bulk.upsert(new Query(where("_id").is(log.getId())), update);
+    }
+    bulk.execute();
+  }
+
+  @Override
+  public void closeAll(Map<String, LocalDateTime> ends) {
+    LogBulkWrites.closeAll(mongo, MonitorLog.class, "end", ends, true);
+  }
+
+  /**
+   * Walks the ended logs in {@code resource_time} index order, keeping the
+   * interval being merged for each user of the current resource. The writes
+   * are ordered so that a log is extended before the logs merged into it are
+   * deleted.
+   */
+  @Override
+  public int compact(LocalDateTime endedBefore) {
+    Query query = new Query(where("end").lte(endedBefore)).with(Sort.by("resource", "start"));
+    Compaction compaction = new Compaction();
+    String resource = null;
+    Map<String, Merged> byUser = new HashMap<>();
+    try (CloseableIterator<MonitorLog> logs = mongo.stream(query, MonitorLog.class)) {
+      while (logs.hasNext()) {
+        MonitorLog log = logs.next();
+        if (log.getStartTime() == null) { continue; }
+        if (!log.getResource().equals(resource)) {
+          byUser.values().forEach(compaction::write);
+          byUser.clear();
+          resource = log.getResource();
+        }
+        Merged merged = byUser.get(log.getUser());
+        if (merged != null && !log.getStartTime().isAfter(merged.end)) {
+          merged.add(log);
+        } else {
+          if (merged != null) { compaction.write(merged); }
+          byUser.put(log.getUser(), new Merged(log));
+        }
+      }
+    }
+    byUser.values().forEach(compaction::write);
+    compaction.execute();
+    return compaction.removed;
+  }
+
+  /**
+   * A log and the later logs overlapping or adjacent to it.
+   */
+  private static final class Merged {
+    final MonitorLog first;
+    LocalDateTime end;
+    final List<String> merged = new ArrayList<>();
+
+    Merged(MonitorLog first) {
+      this.first = first;
+      this.end = first.getEndTime();
+    }
+
+    void add(MonitorLog log) {
+      if (log.getEndTime().isAfter(end)) { end = log.getEndTime(); }
+      merged.add(log.getId());
+    }
+  }
+
+  /**
+   * The writes of a compaction, sent in ordered batches.
+   */
+  private final class Compaction {
+    private BulkOperations bulk;
+    private int pending;
+    int removed;
+
+    void write(Merged merged) {
+      if (merged.merged.isEmpty()) { return; }
+      if (bulk == null) { bulk = mongo.bulkOps(BulkMode.ORDERED, MonitorLog.class); }
+      if (merged.end.isAfter(merged.first.getEndTime())) {
+        bulk.updateOne(new Query(where("_id").is(merged.first.getId())), Update.update("end", merged.end));
+        pending++;
+      }
+      bulk.remove(new Query(where("_id").in(merged.merged)));
+      pending++;
+      removed += merged.merged.size();
+      if (pending >= COMPACT_BATCH) { execute(); }
+    }
+
+    void execute() {
+      if (bulk == null) { return; }
+      bulk.execute();
+      bulk = null;
+      pending = 0;
+    }
+  }
+
+  @Override
+  public CloseableIterator<MonitorLog> streamLogs(String resource, String user, LocalDateTime from, LocalDateTime to) {
+    return LogCursors.stream(mongo, MonitorLog.class, "start", "end", resource, user, from, to);
+  }
+}
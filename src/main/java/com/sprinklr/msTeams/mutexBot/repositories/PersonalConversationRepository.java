@@ -0,0 +1,16 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sprinklr.msTeams.mutexBot.model.PersonalConversation;
+
+/**
+ * MongoDB repository interface for managing {@link PersonalConversation}
+ * entities.
+ * Provides CRUD operations for interacting with the "Personal-Conversations"
+ * collection.
+ */
+@Repository
+public interface PersonalConversationRepository extends MongoRepository<PersonalConversation, String> {
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -15,7 +16,7 @@ import java.util.List;
  * "Reservation-Log" collection.
  */
 @Repository
-public interface ReservationLogRepository extends MongoRepository<ReservationLog, String> {
+public interface ReservationLogRepository extends MongoRepository<ReservationLog, String>, ReservationLogRepositoryCustom {
 
   /**
    * Retrieves the latest reservation logs for a specific resource and user.
@@ -59,4 +60,39 @@ public interface ReservationLogRepository extends MongoRepository<ReservationLog
    */
   @Query(value = "{ 'user': ?0 }", sort = "{ 'reservedAt': -1 }")
   List<ReservationLog> getUserLogs(String user);
+
+  /**
+   * Retrieves the logs of a specific resource and user that overlap a time
+   * window.
+   *
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param from     The start of the window.
+   * @param to       The end of the window.
+   * @return A list of {@link ReservationLog} objects sorted by ascending reservation time.
+   */
+  @Query(value = "{ 'resource': ?0, 'user': ?1, 'reservedAt': { $lt: ?3 }, 'releasedAt': { $gt: ?2 } }", sort = "{ 'reservedAt': 1 }")
+  List<ReservationLog> getLogs(String resource, String user, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Retrieves the logs of a specific resource that overlap a time window.
+   *
+   * @param resource The resource identifier.
+   * @param from     The start of the window.
+   * @param to       The end of the window.
+   * @return A list of {@link ReservationLog} objects sorted by ascending reservation time.
+   */
+  @Query(value = "{ 'resource': ?0, 'reservedAt': { $lt: ?2 }, 'releasedAt': { $gt: ?1 } }", sort = "{ 'reservedAt': 1 }")
+  List<ReservationLog> getResourceLogs(String resource, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Retrieves the logs of a specific user that overlap a time window.
+   *
+   * @param user The user identifier.
+   * @param from The start of the window.
+   * @param to   The end of the window.
+   * @return A list of {@link ReservationLog} objects sorted by ascending reservation time.
+   */
+  @Query(value = "{ 'user': ?0, 'reservedAt': { $lt: ?2 }, 'releasedAt': { $gt: ?1 } }", sort = "{ 'reservedAt': 1 }")
+  List<ReservationLog> getUserLogs(String user, LocalDateTime from, LocalDateTime to);
 }
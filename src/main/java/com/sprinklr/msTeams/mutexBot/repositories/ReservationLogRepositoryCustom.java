@@ -0,0 +1,43 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.data.util.CloseableIterator;
+
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+
+/**
+ * Bulk writes and cursor queries of {@link ReservationLog} documents.
+ */
+public interface ReservationLogRepositoryCustom {
+
+  /**
+   * Inserts logs in one bulk write. Logs whose ID is already stored are
+   * skipped, so writing a batch again is harmless.
+   *
+   * @param logs The logs to insert, with their IDs set.
+   */
+  void insertAll(Collection<ReservationLog> logs);
+
+  /**
+   * Sets the end time of logs in one bulk write.
+   *
+   * @param ends The end time of each log, by ID.
+   */
+  void closeAll(Map<String, LocalDateTime> ends);
+
+  /**
+   * Streams the logs matching a filter from a cursor, so that exporting them
+   * holds a batch of logs in memory rather than all of them. Each filter is
+   * optional.
+   *
+   * @param resource The resource identifier, or {@code null} for all.
+   * @param user     The user identifier, or {@code null} for all.
+   * @param from     The start of the window, or {@code null} for no lower bound.
+   * @param to       The end of the window, or {@code null} for no upper bound.
+   * @return The logs overlapping the window; the caller must close it.
+   */
+  CloseableIterator<ReservationLog> streamLogs(String resource, String user, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,45 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.util.CloseableIterator;
+
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+
+/**
+ * MongoDB implementation of {@link ReservationLogRepositoryCustom} using bulk
+ * writes and cursors.
+ */
+public class ReservationLogRepositoryImpl implements ReservationLogRepositoryCustom {
+
+  private final MongoOperations mongo;
+
+  /**
+   * Constructs a new {@code ReservationLogRepositoryImpl}.
+   *
+   * @param mongo The Mongo operations to run the writes with.
+   */
+  @Autowired
+  public ReservationLogRepositoryImpl(MongoOperations mongo) {
+    this.mongo = mongo;
+  }
+
+  @Override
+  public void insertAll(Collection<ReservationLog> logs) {
+    LogBulkWrites.insertAll(mongo, ReservationLog.class, logs);
+  }
+
+  @Override
+  public void closeAll(Map<String, LocalDateTime> ends) {
+    LogBulkWrites.closeAll(mongo, ReservationLog.class, "releasedAt", ends, false);
+  }
+
+  @Override
+  public CloseableIterator<ReservationLog> streamLogs(String resource, String user, LocalDateTime from, LocalDateTime to) {
+    return LogCursors.stream(mongo, ReservationLog.class, "reservedAt", "releasedAt", resource, user, from, to);
+  }
+}
@@ -11,20 +11,11 @@ import org.springframework.stereotype.Repository;
 
 /**
  * MongoDB repository interface for managing {@link Resource} entities.
- * Provides CRUD operations and custom query methods for interacting with the
- * "resources" collection.
+ * Provides CRUD operations, custom query methods and the conditional updates of
+ * {@link ResourceRepositoryCustom} for interacting with the "resources" collection.
  */
 @Repository
-public interface ResourceRepository extends MongoRepository<Resource, String> {
-
-  /**
-   * Retrieves resources whose ID starts with a specified prefix.
-   *
-   * @param prefix The prefix to search for in resource IDs.
-   * @return A list of {@link Resource} objects matching the prefix.
-   */
-  @Query("{ '_id': { $regex: '^?0' } }")
-  List<Resource> findByIdStartingWith(String prefix);
+public interface ResourceRepository extends MongoRepository<Resource, String>, ResourceRepositoryCustom {
 
   /**
    * Retrieves resources that are currently reserved and reserved until a
@@ -0,0 +1,121 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Conditional, single round-trip operations on {@link Resource} documents.
+ * Each operation only writes the fields it changes, so concurrent commands
+ * from several bot instances cannot overwrite each other.
+ */
+public interface ResourceRepositoryCustom {
+
+  /**
+   * Reserves a resource if it is unreserved (or its reservation has lapsed) and
+   * the duration is within its maximum allocation time. Expired monitors are
+   * dropped in the same update.
+   *
+   * @param name     The name of the resource.
+   * @param user     The ID of the user reserving the resource.
+   * @param till     The time until which the resource is reserved.
+   * @param duration The requested duration in minutes.
+   * @param now      The current time.
+   * @param logId    The ID of the reservation log, stored on the resource so
+   *                 the log is closed by ID.
+   * @return The updated {@link Resource}, or {@code null} if the condition did not hold.
+   */
+  Resource reserveIfAvailable(String name, String user, LocalDateTime till, int duration, LocalDateTime now,
+      String logId);
+
+  /**
+   * Releases a resource if it is currently reserved by the given user.
+   * Expired monitors are dropped in the same update.
+   *
+   * @param name The name of the resource.
+   * @param user The ID of the reserving user, or {@code null} to release
+   *             regardless of the holder.
+   * @param now  The current time.
+   * @return The updated {@link Resource}, or {@code null} if the condition did not hold.
+   */
+  Resource releaseIfHeld(String name, String user, LocalDateTime now);
+
+  /**
+   * Adds a user to the monitor list of a resource, or extends the user's
+   * monitoring period if it ends before {@code till}. An entry that is still
+   * running keeps its monitor log, which is then extended too; a new, expired
+   * or legacy entry points to the new log.
+   *
+   * @param name  The name of the resource.
+   * @param user  The ID of the monitoring user.
+   * @param till  The time until which the user monitors the resource.
+   * @param logId The ID of a new monitor log.
+   * @param now   The current time, before which an entry has expired.
+   * @return The updated {@link Resource}, or {@code null} if the resource does not exist.
+   */
+  Resource addMonitor(String name, String user, LocalDateTime till, String logId, LocalDateTime now);
+
+  /**
+   * Removes a user from the monitor list of a resource.
+   *
+   * @param name The name of the resource.
+   * @param user The ID of the monitoring user.
+   * @return The {@link Resource} as it was before the update, so the removed
+   *         entry can be read, or {@code null} if the user was not monitoring it.
+   */
+  Resource removeMonitor(String name, String user);
+
+  /**
+   * Ends a reservation that has reached its deadline, if the resource is still
+   * reserved by the same user until the same time. Expired monitors are dropped
+   * in the same update.
+   *
+   * @param name The name of the resource.
+   * @param user The ID of the reserving user.
+   * @param till The deadline of the reservation.
+   * @param now  The current time.
+   * @return The updated {@link Resource}, or {@code null} if the reservation was
+   *         released, extended or replaced in the meantime.
+   */
+  Resource expireReservation(String name, String user, LocalDateTime till, LocalDateTime now);
+
+  /**
+   * Removes the monitors whose period has ended.
+   *
+   * @param name The name of the resource.
+   * @param now  The current time.
+   * @return The updated {@link Resource}, or {@code null} if no monitor had expired.
+   */
+  Resource pullExpiredMonitors(String name, LocalDateTime now);
+
+  /**
+   * Stores the ID of the log of a reservation that has none, if the resource
+   * is still reserved by the same user until the same time.
+   *
+   * @param name  The name of the resource.
+   * @param user  The ID of the reserving user.
+   * @param till  The deadline of the reservation.
+   * @param logId The ID of the reservation log.
+   * @return The updated {@link Resource}, or {@code null} if the condition did not hold.
+   */
+  Resource setReservationLogId(String name, String user, LocalDateTime till, String logId);
+
+  /**
+   * Stores the ID of the monitor log of a user whose entry has none.
+   *
+   * @param name  The name of the resource.
+   * @param user  The ID of the monitoring user.
+   * @param logId The ID of the monitor log.
+   * @return The updated {@link Resource}, or {@code null} if the condition did not hold.
+   */
+  Resource setMonitorLogId(String name, String user, String logId);
+
+  /**
+   * Inserts and deletes resources in one unordered bulk write.
+   *
+   * @param added   The resources to insert.
+   * @param removed The names of the resources to delete.
+   */
+  void applyCatalog(Collection<Resource> added, Collection<String> removed);
+}
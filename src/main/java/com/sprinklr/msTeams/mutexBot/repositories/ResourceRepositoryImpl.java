@@ -0,0 +1,153 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * MongoDB implementation of {@link ResourceRepositoryCustom} using
+ * {@code findAndModify} with conditional queries.
+ */
+public class ResourceRepositoryImpl implements ResourceRepositoryCustom {
+
+  private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+  private static final FindAndModifyOptions RETURN_OLD = FindAndModifyOptions.options().returnNew(false);
+
+  private final MongoOperations mongo;
+
+  /**
+   * Constructs a new {@code ResourceRepositoryImpl}.
+   *
+   * @param mongo The Mongo operations to run the updates with.
+   */
+  @Autowired
+  public ResourceRepositoryImpl(MongoOperations mongo) {
+    this.mongo = mongo;
+  }
+
+  @Override
+  public Resource reserveIfAvailable(String name, String user, LocalDateTime till, int duration, LocalDateTime now,
+      String logId) {
+    Query query = new Query(where("_id").is(name).andOperator(
+        new Criteria().orOperator(
+            where("reserved").is(false),
+            where("reservedTill").is(null),
+            where("reservedTill").lt(now)),
+        new Criteria().orOperator(
+            where("maxAllocationTime").gte(duration),
+            where("maxAllocationTime").exists(false))));
+    Update update = new Update()
+        .set("reserved", true)
+        .set("reservedBy", user)
+        .set("reservedTill", till)
+        .set("reservationLogId", logId)
+        .pull("monitoredBy", expiredMonitors(now));
+    return mongo.findAndModify(query, update, RETURN_NEW, Resource.class);
+  }
+
+  @Override
+  public Resource releaseIfHeld(String name, String user, LocalDateTime now) {
+    Criteria criteria = where("_id").is(name).and("reserved").is(true).and("reservedTill").gte(now);
+    if (user != null) { criteria = criteria.and("reservedBy").is(user); }
+    Update update = new Update()
+        .set("reserved", false)
+        .pull("monitoredBy", expiredMonitors(now));
+    return mongo.findAndModify(new Query(criteria), update, RETURN_NEW, Resource.class);
+  }
+
+  @Override
+  public Resource addMonitor(String name, String user, LocalDateTime till, String logId, LocalDateTime now) {
+    Resource resource = extendMonitor(name, user, till, logId, now);
+    if (resource != null) { return resource; }
+
+    Query absent = new Query(where("_id").is(name).and("monitoredBy.user").ne(user));
+    Update push = new Update().push("monitoredBy",
+        new Document("user", user).append("till", till).append("logId", logId));
+    resource = mongo.findAndModify(absent, push, RETURN_NEW, Resource.class);
+    if (resource != null) { return resource; }
+
+    // Another command added the entry between the two updates.
+    return extendMonitor(name, user, till, logId, now);
+  }
+
+  /**
+   * Extends an existing entry; $max keeps the later of the two end times. A
+   * running entry keeps its log, an expired or legacy one gets the new log.
+   */
+  private Resource extendMonitor(String name, String user, LocalDateTime till, String logId, LocalDateTime now) {
+    Query running = new Query(where("_id").is(name)
+        .and("monitoredBy").elemMatch(where("user").is(user).and("logId").ne(null).and("till").gte(now)));
+    Resource resource = mongo.findAndModify(running, new Update().max("monitoredBy.$.till", till), RETURN_NEW,
+        Resource.class);
+    if (resource != null) { return resource; }
+
+    Query present = new Query(where("_id").is(name).and("monitoredBy").elemMatch(where("user").is(user)));
+    Update restart = new Update().max("monitoredBy.$.till", till).set("monitoredBy.$.logId", logId);
+    return mongo.findAndModify(present, restart, RETURN_NEW, Resource.class);
+  }
+
+  @Override
+  public Resource removeMonitor(String name, String user) {
+    Query query = new Query(where("_id").is(name).and("monitoredBy.user").is(user));
+    Update update = new Update().pull("monitoredBy", new Document("user", user));
+    return mongo.findAndModify(query, update, RETURN_OLD, Resource.class);
+  }
+
+  @Override
+  public Resource expireReservation(String name, String user, LocalDateTime till, LocalDateTime now) {
+    Query query = new Query(where("_id").is(name).and("reserved").is(true).and("reservedBy").is(user)
+        .and("reservedTill").is(till));
+    Update update = new Update()
+        .set("reserved", false)
+        .pull("monitoredBy", expiredMonitors(now));
+    return mongo.findAndModify(query, update, RETURN_NEW, Resource.class);
+  }
+
+  @Override
+  public Resource pullExpiredMonitors(String name, LocalDateTime now) {
+    Query query = new Query(where("_id").is(name).and("monitoredBy.till").lt(now));
+    Update update = new Update().pull("monitoredBy", expiredMonitors(now));
+    return mongo.findAndModify(query, update, RETURN_NEW, Resource.class);
+  }
+
+  @Override
+  public Resource setReservationLogId(String name, String user, LocalDateTime till, String logId) {
+    Query query = new Query(where("_id").is(name).and("reserved").is(true).and("reservedBy").is(user)
+        .and("reservedTill").is(till).and("reservationLogId").is(null));
+    return mongo.findAndModify(query, Update.update("reservationLogId", logId), RETURN_NEW, Resource.class);
+  }
+
+  @Override
+  public Resource setMonitorLogId(String name, String user, String logId) {
+    Query query = new Query(where("_id").is(name)
+        .and("monitoredBy").elemMatch(where("user").is(user).and("logId").is(null)));
+    return mongo.findAndModify(query, Update.update("monitoredBy.$.logId", logId), RETURN_NEW, Resource.class);
+  }
+
+  @Override
+  public void applyCatalog(Collection<Resource> added, Collection<String> removed) {
+    if (added.isEmpty() && removed.isEmpty()) { return; }
+    BulkOperations bulk = mongo.bulkOps(BulkMode.UNORDERED, Resource.class);
+    if (!added.isEmpty()) { bulk.insert(new ArrayList<>(added)); }
+    if (!removed.isEmpty()) { bulk.remove(new Query(where("_id").in(removed))); }
+    bulk.execute();
+  }
+
+  private static Document expiredMonitors(LocalDateTime now) {
+    return new Document("till", new Document("$lt", now));
+  }
+}
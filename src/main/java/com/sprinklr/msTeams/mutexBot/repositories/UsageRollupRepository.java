@@ -0,0 +1,44 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MongoDB repository interface for managing {@link UsageRollup} entities.
+ * Provides CRUD operations and custom query methods for interacting with the
+ * "Usage-Rollup" collection.
+ */
+@Repository
+public interface UsageRollupRepository extends MongoRepository<UsageRollup, String>, UsageRollupRepositoryCustom {
+
+  /**
+   * Retrieves the rollups of every key of a scope in a time window.
+   *
+   * @param scope       The scope.
+   * @param granularity The granularity of the buckets.
+   * @param from        The start of the first bucket.
+   * @param to          The end of the last bucket.
+   * @return A list of {@link UsageRollup} objects.
+   */
+  @Query(value = "{ 'scope': ?0, 'granularity': ?1, 'bucket': { $gte: ?2, $lt: ?3 } }")
+  List<UsageRollup> getBuckets(String scope, String granularity, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Retrieves the rollups of a single key in a time window.
+   *
+   * @param scope       The scope.
+   * @param key         The name of the resource or chart, or the ID of the user.
+   * @param granularity The granularity of the buckets.
+   * @param from        The start of the first bucket.
+   * @param to          The end of the last bucket.
+   * @return A list of {@link UsageRollup} objects.
+   */
+  @Query(value = "{ 'scope': ?0, 'key': ?1, 'granularity': ?2, 'bucket': { $gte: ?3, $lt: ?4 } }")
+  List<UsageRollup> getBuckets(String scope, String key, String granularity, LocalDateTime from, LocalDateTime to);
+}
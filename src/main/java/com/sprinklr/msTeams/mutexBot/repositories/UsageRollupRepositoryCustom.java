@@ -0,0 +1,19 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import java.util.Collection;
+
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+
+/**
+ * Bulk writes of {@link UsageRollup} documents.
+ */
+public interface UsageRollupRepositoryCustom {
+
+  /**
+   * Adds the counters of each rollup to the stored rollup with the same ID,
+   * creating it if needed, in one bulk write.
+   *
+   * @param deltas The increments, with their IDs set.
+   */
+  void incrementAll(Collection<UsageRollup> deltas);
+}
@@ -0,0 +1,51 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+
+/**
+ * MongoDB implementation of {@link UsageRollupRepositoryCustom} using bulk
+ * writes.
+ */
+public class UsageRollupRepositoryImpl implements UsageRollupRepositoryCustom {
+  private final MongoOperations mongo;
+
+  /**
+   * Constructs a new {@code UsageRollupRepositoryImpl}.
+   *
+   * @param mongo The Mongo operations to run the writes with.
+   */
+  @Autowired
+  public UsageRollupRepositoryImpl(MongoOperations mongo) {
+    this.mongo = mongo;
+  }
+
+  @Override
+  public void incrementAll(Collection<UsageRollup> deltas) {
+    if (deltas.isEmpty()) { return; }
+    BulkOperations bulk = mongo.bulkOps(BulkMode.UNORDERED, UsageRollup.class);
+    for (UsageRollup delta : deltas) {
+      Update update = new Update()
+          .setOnInsert("scope", delta.getScope())
+          .setOnInsert("key", delta.getKey())
+          .setOnInsert("granularity", delta.getGranularity())
+          .setOnInsert("bucket", delta.getBucket())
+          .inc("reservedMinutes", delta.getReservedMinutes())
+          .inc("reservations", delta.getReservations())
+          .inc("monitors", delta.getMonitors())
+          .inc("deniedReserves", delta.getDeniedReserves());
+      bulk.upsert(new Query(where("_id").is(delta.getId())), update);
+    }
+    bulk.execute();
+  }
+}
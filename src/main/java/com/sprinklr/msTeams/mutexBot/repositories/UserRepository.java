@@ -9,11 +9,11 @@ import org.springframework.stereotype.Repository;
 
 /**
  * MongoDB repository interface for managing {@link User} entities.
- * Provides CRUD operations and custom query methods for interacting with the
- * "users" collection.
+ * Provides CRUD operations, custom query methods and the upserts of
+ * {@link UserRepositoryCustom} for interacting with the "users" collection.
  */
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
 
   /**
    * Checks if a user with the specified ID exists.
@@ -0,0 +1,30 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import com.sprinklr.msTeams.mutexBot.model.User;
+
+/**
+ * Single round-trip lookups of {@link User} documents that create the
+ * document when it is missing.
+ */
+public interface UserRepositoryCustom {
+
+  /**
+   * Finds a user, inserting a placeholder user (default name and email) if none
+   * exists.
+   *
+   * @param id The ID of the user.
+   * @return The existing or newly inserted {@link User}.
+   */
+  User getOrCreate(String id);
+
+  /**
+   * Stores the name and email of a user, inserting the user if none exists.
+   * The admin flag of an existing user is left unchanged.
+   *
+   * @param id    The ID of the user.
+   * @param name  The name of the user, or {@code null} to keep the stored one.
+   * @param email The email of the user, or {@code null} to keep the stored one.
+   * @return The updated or newly inserted {@link User}.
+   */
+  User upsertProfile(String id, String name, String email);
+}
@@ -0,0 +1,57 @@
+package com.sprinklr.msTeams.mutexBot.repositories;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.sprinklr.msTeams.mutexBot.model.User;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * MongoDB implementation of {@link UserRepositoryCustom} using upserting
+ * {@code findAndModify} calls.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+  private static final FindAndModifyOptions UPSERT = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+  private final MongoOperations mongo;
+
+  /**
+   * Constructs a new {@code UserRepositoryImpl}.
+   *
+   * @param mongo The Mongo operations to run the updates with.
+   */
+  @Autowired
+  public UserRepositoryImpl(MongoOperations mongo) {
+    this.mongo = mongo;
+  }
+
+  @Override
+  public User getOrCreate(String id) {
+    Update update = new Update()
+        .setOnInsert("name", User.defaultName)
+        .setOnInsert("email", User.defaultEmail)
+        .setOnInsert("admin", false);
+    return mongo.findAndModify(new Query(where("_id").is(id)), update, UPSERT, User.class);
+  }
+
+  @Override
+  public User upsertProfile(String id, String name, String email) {
+    Update update = new Update().setOnInsert("admin", false);
+    if (name != null) {
+      update.set("name", name);
+    } else {
+      update.setOnInsert("name", User.defaultName);
+    }
+    if (email != null) {
+      update.set("email", email);
+    } else {
+      update.setOnInsert("email", User.defaultEmail);
+    }
+    return mongo.findAndModify(new Query(where("_id").is(id)), update, UPSERT, User.class);
+  }
+}
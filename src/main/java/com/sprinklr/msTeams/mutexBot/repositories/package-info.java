@@ -1,4 +1,5 @@
 /**
- * This package contains the classes for MongoDB repository interfaces that provide CRUD operations and custom query methods for interacting with MongoDB collections.
+ * This package contains the repository interfaces that provide CRUD operations and custom query methods for the collections of the bot, and their MongoDB implementations.
+ * The interfaces are the storage interface of the services: with {@code storage.backend=embedded}, they are implemented by the {@link com.sprinklr.msTeams.mutexBot.storage} package instead.
  */
 package com.sprinklr.msTeams.mutexBot.repositories;
@@ -3,11 +3,16 @@ package com.sprinklr.msTeams.mutexBot.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.sprinklr.msTeams.mutexBot.model.CatalogState;
 import com.sprinklr.msTeams.mutexBot.model.ChartName;
+import com.sprinklr.msTeams.mutexBot.repositories.CatalogStateRepository;
 import com.sprinklr.msTeams.mutexBot.repositories.ChartNameRepository;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service class for managing operations on {@link ChartName} entities.
@@ -16,16 +21,39 @@ import java.util.List;
 public class ChartNameService {
 
   private final ChartNameRepository repo;
+  private final CatalogStateRepository stateRepo;
 
   /**
    * Constructs a new {@code ChartNameService} instance with the specified
-   * repository.
+   * repositories.
    *
-   * @param chartNamesRepository The repository for {@link ChartName} entities.
+   * @param chartNamesRepository   The repository for {@link ChartName} entities.
+   * @param catalogStateRepository The repository recording the synced commit.
    */
   @Autowired
-  public ChartNameService(ChartNameRepository chartNamesRepository) {
+  public ChartNameService(ChartNameRepository chartNamesRepository, CatalogStateRepository catalogStateRepository) {
     repo = chartNamesRepository;
+    stateRepo = catalogStateRepository;
+  }
+
+  /**
+   * Retrieves the commit of the Helm charts repository the catalog was last
+   * synced from.
+   *
+   * @return The commit ID, or empty if the catalog was never synced.
+   */
+  public Optional<String> getSyncedCommit() {
+    return stateRepo.findById(CatalogState.HELM).map(CatalogState::getCommit);
+  }
+
+  /**
+   * Records the commit of the Helm charts repository the catalog was synced
+   * from.
+   *
+   * @param commit The commit ID.
+   */
+  public void setSyncedCommit(String commit) {
+    stateRepo.save(new CatalogState(CatalogState.HELM, commit, LocalDateTime.now()));
   }
 
   /**
@@ -64,6 +92,17 @@ public class ChartNameService {
     repo.deleteById(chartName.getName());
   }
 
+  /**
+   * Applies a change of the chart catalog: inserts the added chart names and
+   * deletes the removed ones in one bulk write.
+   *
+   * @param added   The names of the new charts.
+   * @param removed The names of the charts to delete.
+   */
+  public void applyCatalog(Collection<String> added, Collection<String> removed) {
+    repo.applyCatalog(added, removed);
+  }
+
   /**
    * Checks if a chart name exists.
    *
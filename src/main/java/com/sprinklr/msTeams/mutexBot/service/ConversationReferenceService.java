@@ -0,0 +1,98 @@
+package com.sprinklr.msTeams.mutexBot.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.microsoft.bot.schema.ConversationReference;
+import com.sprinklr.msTeams.mutexBot.BotMetrics;
+import com.sprinklr.msTeams.mutexBot.model.PersonalConversation;
+import com.sprinklr.msTeams.mutexBot.repositories.PersonalConversationRepository;
+
+/**
+ * Service class caching the 1:1 {@link ConversationReference} of each user,
+ * in memory and in the "Personal-Conversations" collection.
+ */
+@Service
+public class ConversationReferenceService {
+
+  private final PersonalConversationRepository repo;
+  private final Map<String, ConversationReference> cache = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Constructs a new {@code ConversationReferenceService} instance with the
+   * specified repository.
+   *
+   * @param personalConversationRepository The repository for
+   *                                       {@link PersonalConversation} entities.
+   */
+  @Autowired
+  public ConversationReferenceService(PersonalConversationRepository personalConversationRepository) {
+    this.repo = personalConversationRepository;
+    BotMetrics.cache("conversations", this, ConversationReferenceService::getHits,
+        ConversationReferenceService::getMisses);
+  }
+
+  /**
+   * Finds the 1:1 conversation with a user, first in memory and then in the
+   * database.
+   *
+   * @param user The ID of the user.
+   * @return The {@link ConversationReference}, or {@code null} if the bot has
+   *         no conversation with the user yet.
+   */
+  public ConversationReference find(String user) {
+    ConversationReference reference = cache.get(user);
+    if (reference != null) {
+      hits.incrementAndGet();
+      return reference;
+    }
+    Optional<PersonalConversation> stored = repo.findById(user);
+    if (!stored.isPresent()) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    reference = stored.get().toReference();
+    cache.put(user, reference);
+    return reference;
+  }
+
+  /**
+   * Stores the 1:1 conversation with a user.
+   *
+   * @param user      The ID of the user.
+   * @param reference The reference to the conversation.
+   */
+  public void save(String user, ConversationReference reference) {
+    PersonalConversation conversation = new PersonalConversation(user, reference);
+    repo.save(conversation);
+    cache.put(user, conversation.toReference());
+  }
+
+  /**
+   * Forgets the 1:1 conversation with a user (e.g. after the bot was removed).
+   *
+   * @param user The ID of the user.
+   */
+  public void evict(String user) {
+    cache.remove(user);
+    repo.deleteById(user);
+  }
+
+  /**
+   * @return The number of lookups served without creating a conversation.
+   */
+  public long getHits() { return hits.get(); }
+
+  /**
+   * @return The number of lookups that found no stored conversation.
+   */
+  public long getMisses() { return misses.get(); }
+}
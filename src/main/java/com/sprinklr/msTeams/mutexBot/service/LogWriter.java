@@ -0,0 +1,463 @@
+package com.sprinklr.msTeams.mutexBot.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.sprinklr.msTeams.mutexBot.BotMetrics;
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.repositories.MonitorLogRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepository;
+
+/**
+ * Writes the reservation and monitor logs in the background, so commands do
+ * not wait for the DB.
+ *
+ * <p>
+ * Opened and closed logs are queued (at most {@code auditLog.queueCapacity},
+ * after which callers wait) and written in batches: every
+ * {@code auditLog.flushMillis}, or as soon as {@code auditLog.batchSize} are
+ * queued. A batch takes one bulk insert (an upsert for monitor logs, whose
+ * extensions reuse the ID of the log) and one bulk update per collection.
+ * Logs get their IDs when queued, so they can be closed by ID before they are
+ * even written.
+ * </p>
+ *
+ * <p>
+ * A batch that cannot be written is appended to {@code auditLog.spillFile}
+ * and written again, before anything newer, once
+ * {@code auditLog.retryMillis} have passed. Writes are idempotent, so a batch
+ * that was partly written is simply written again. A torn last line of the
+ * spill file is dropped, and other unreadable lines are moved to a
+ * {@code .quarantine} file next to it. Queued logs are written on shutdown.
+ * </p>
+ */
+@Component
+public class LogWriter {
+  private static final String RESERVATION = "reservation";
+  private static final String MONITOR = "monitor";
+
+  private final Map<String, Target<?>> targets = new LinkedHashMap<>();
+  private final BlockingQueue<Document> queue;
+  private final int batchSize;
+  private final long retryMillis;
+  private final Path spillFile;
+  private final ScheduledExecutorService flusher;
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+  /** Until when the DB is not retried after a failed write; guarded by {@code this}. */
+  private long retryAfter;
+
+  /**
+   * Constructs a LogWriter.
+   *
+   * @param reservationLogs The repository of reservation logs.
+   * @param monitorLogs     The repository of monitor logs.
+   * @param batchSize       Maximum number of logs written at once.
+   * @param flushMillis     Maximum time a log waits to be written.
+   * @param queueCapacity   Maximum number of logs waiting to be written.
+   * @param retryMillis     Delay before writing to the DB again after a failure.
+   * @param spillFile       The file holding the logs that could not be written.
+   */
+  @Autowired
+  public LogWriter(ReservationLogRepository reservationLogs, MonitorLogRepository monitorLogs,
+      @Value("${auditLog.batchSize:200}") int batchSize,
+      @Value("${auditLog.flushMillis:1000}") long flushMillis,
+      @Value("${auditLog.queueCapacity:10000}") int queueCapacity,
+      @Value("${auditLog.retryMillis:30000}") long retryMillis,
+      @Value("${auditLog.spillFile:audit-log.spill}") String spillFile) {
+    targets.put(RESERVATION, new Target<>(
+        entry -> new ReservationLog(entry.getString("resource"), entry.getString("user"), time(entry, "start"),
+            time(entry, "end")),
+        ReservationLog::getEndTime, ReservationLog::setEndTime, ReservationLog::setId,
+        reservationLogs::insertAll, reservationLogs::closeAll,
+        (resource, user) -> reservationLogs.getLatest(resource, user, PageRequest.of(0, 1)),
+        ReservationLog::getId, false));
+    targets.put(MONITOR, new Target<>(
+        entry -> new MonitorLog(entry.getString("resource"), entry.getString("user"), time(entry, "start"),
+            time(entry, "end")),
+        MonitorLog::getEndTime, MonitorLog::setEndTime, MonitorLog::setId,
+        monitorLogs::upsertAll, monitorLogs::closeAll,
+        (resource, user) -> monitorLogs.getLatest(resource, user, PageRequest.of(0, 1)),
+        MonitorLog::getId, true));
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = Math.max(1, batchSize);
+    this.retryMillis = retryMillis;
+    this.spillFile = Paths.get(spillFile);
+    this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "log-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    if (flushMillis > 0) {
+      flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Queues a new reservation log.
+   *
+   * @param log The log.
+   * @return The ID given to the log.
+   */
+  public String open(ReservationLog log) {
+    if (log.getId() == null) { log.setId(new ObjectId().toHexString()); }
+    submit(entry(RESERVATION, log.getId(), log.getResource(), log.getUser(), log.getEndTime())
+        .append("start", log.getStartTime().toString()));
+    return log.getId();
+  }
+
+  /**
+   * Queues a new monitor log. A log opened again with the same ID, as when a
+   * monitoring period is extended, is extended to the later end time.
+   *
+   * @param log The log.
+   * @return The ID given to the log.
+   */
+  public String open(MonitorLog log) {
+    if (log.getId() == null) { log.setId(new ObjectId().toHexString()); }
+    submit(entry(MONITOR, log.getId(), log.getResource(), log.getUser(), log.getEndTime())
+        .append("start", log.getStartTime().toString()));
+    return log.getId();
+  }
+
+  /**
+   * Queues the end of a reservation.
+   *
+   * @param id       The ID of the log, or {@code null} for the latest log of
+   *                 the resource and user.
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param end      The time the reservation ended.
+   */
+  public void closeReservation(String id, String resource, String user, LocalDateTime end) {
+    submit(entry(RESERVATION, id, resource, user, end));
+  }
+
+  /**
+   * Queues the end of a monitoring period, unless it ended earlier.
+   *
+   * @param id       The ID of the log, or {@code null} for the latest log of
+   *                 the resource and user.
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param end      The time the monitoring stopped.
+   */
+  public void closeMonitor(String id, String resource, String user, LocalDateTime end) {
+    submit(entry(MONITOR, id, resource, user, end));
+  }
+
+  private static Document entry(String type, String id, String resource, String user, LocalDateTime end) {
+    return new Document("type", type).append("id", id).append("resource", resource).append("user", user)
+        .append("end", end == null ? null : end.toString());
+  }
+
+  private static LocalDateTime time(Document entry, String key) {
+    String time = entry.getString(key);
+    return time == null ? null : LocalDateTime.parse(time);
+  }
+
+  private void submit(Document entry) {
+    try {
+      queue.put(entry);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      spill(Collections.singletonList(entry));
+      return;
+    }
+    if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+      try {
+        flusher.execute(() -> {
+          flushRequested.set(false);
+          flush();
+        });
+      } catch (RejectedExecutionException e) {
+        flushRequested.set(false);  // Shutting down: the final flush writes it.
+      }
+    }
+  }
+
+  /**
+   * Writes the queued logs, after the spilled ones. Logs that cannot be
+   * written are spilled.
+   */
+  public synchronized void flush() {
+    List<Document> batch = new ArrayList<>();
+    queue.drainTo(batch);
+    if (Files.exists(spillFile) && !writeSpilled()) {
+      spill(batch);
+      return;
+    }
+    if (batch.isEmpty()) { return; }
+    if (!write(batch)) { spill(batch); }
+  }
+
+  /**
+   * Writes the spilled logs to the DB, unless it failed recently. A torn last
+   * line, left by a crash while spilling, is dropped; other lines that cannot
+   * be read are moved to the quarantine file, so that they do not block the
+   * rest.
+   *
+   * @return Whether the spill file was written and deleted.
+   */
+  private boolean writeSpilled() {
+    if (System.currentTimeMillis() < retryAfter) { return false; }
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(spillFile, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      System.err.println("Could not read the spilled logs in " + spillFile);
+      e.printStackTrace();
+      retryAfter = System.currentTimeMillis() + retryMillis;
+      return false;
+    }
+    List<Document> spilled = new ArrayList<>();
+    StringBuilder unreadable = new StringBuilder();
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i);
+      if (line.isEmpty()) { continue; }
+      try {
+        spilled.add(Document.parse(line));
+      } catch (RuntimeException e) {
+        if (i == lines.size() - 1) {
+          System.err.println("Dropping the torn last log of " + spillFile);
+        } else {
+          unreadable.append(line).append('\n');
+        }
+      }
+    }
+    if (unreadable.length() > 0 && !quarantine(unreadable, spilled)) { return false; }
+    if (!write(spilled)) { return false; }
+    try {
+      Files.delete(spillFile);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return false;
+    }
+    System.out.println("Wrote " + spilled.size() + " spilled log(s) from " + spillFile);
+    return true;
+  }
+
+  /**
+   * Moves unreadable lines of the spill file to the quarantine file, and
+   * rewrites the spill file with the readable logs only.
+   *
+   * @return Whether the lines were moved.
+   */
+  private boolean quarantine(CharSequence unreadable, List<Document> readable) {
+    Path quarantineFile = spillFile.resolveSibling(spillFile.getFileName() + ".quarantine");
+    Path rewritten = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+    StringBuilder lines = new StringBuilder();
+    for (Document entry : readable) { lines.append(entry.toJson()).append('\n'); }
+    try {
+      Files.write(quarantineFile, unreadable.toString().getBytes(StandardCharsets.UTF_8),
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      Files.write(rewritten, lines.toString().getBytes(StandardCharsets.UTF_8));
+      Files.move(rewritten, spillFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      System.err.println("Could not move the unreadable spilled logs to " + quarantineFile);
+      e.printStackTrace();
+      retryAfter = System.currentTimeMillis() + retryMillis;
+      return false;
+    }
+    System.err.println("Moved unreadable spilled logs of " + spillFile + " to " + quarantineFile);
+    return true;
+  }
+
+  /**
+   * Writes logs to the DB in batches.
+   *
+   * @return Whether all of them were written.
+   */
+  private boolean write(List<Document> entries) {
+    try {
+      for (int from = 0; from < entries.size(); from += batchSize) {
+        List<Document> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+        for (Map.Entry<String, Target<?>> target : targets.entrySet()) {
+          List<Document> ofTarget = new ArrayList<>();
+          for (Document entry : batch) {
+            if (target.getKey().equals(entry.getString("type"))) { ofTarget.add(entry); }
+          }
+          target.getValue().write(ofTarget);
+        }
+      }
+      BotMetrics.counter(BotMetrics.AUDIT_LOGS, "outcome", "written").increment(entries.size());
+      return true;
+    } catch (RuntimeException e) {
+      System.err.println("Could not write " + entries.size() + " log(s), retrying in " + retryMillis + " ms");
+      e.printStackTrace();
+      retryAfter = System.currentTimeMillis() + retryMillis;
+      return false;
+    }
+  }
+
+  /**
+   * Appends logs to the spill file.
+   */
+  private synchronized void spill(Collection<Document> entries) {
+    if (entries.isEmpty()) { return; }
+    StringBuilder lines = new StringBuilder();
+    for (Document entry : entries) { lines.append(entry.toJson()).append('\n'); }
+    try {
+      if (tornLastLine()) { lines.insert(0, '\n'); }  // Keep the torn line apart from the new ones.
+      Files.write(spillFile, lines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+      BotMetrics.counter(BotMetrics.AUDIT_LOGS, "outcome", "spilled").increment(entries.size());
+    } catch (IOException e) {
+      System.err.println("Lost " + entries.size() + " log(s): could not write " + spillFile + "\n" + lines);
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Tells whether the spill file does not end with a line break, as after a
+   * crash while spilling.
+   */
+  private boolean tornLastLine() throws IOException {
+    if (!Files.exists(spillFile)) { return false; }
+    try (SeekableByteChannel channel = Files.newByteChannel(spillFile)) {
+      if (channel.size() == 0) { return false; }
+      ByteBuffer last = ByteBuffer.allocate(1);
+      channel.position(channel.size() - 1).read(last);
+      return last.get(0) != '\n';
+    }
+  }
+
+  /**
+   * Stops the background writes, then writes or spills the queued logs.
+   */
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  /**
+   * How the logs of one collection are built and written.
+   *
+   * @param <T> The type of the logs.
+   */
+  private static final class Target<T> {
+    private final Function<Document, T> create;
+    private final Function<T, LocalDateTime> end;
+    private final BiConsumer<T, LocalDateTime> setEnd;
+    private final BiConsumer<T, String> setId;
+    private final Consumer<Collection<T>> insertAll;
+    private final Consumer<Map<String, LocalDateTime>> closeAll;
+    private final BiFunction<String, String, List<T>> latest;
+    private final Function<T, String> id;
+    /** Whether closing a log only moves its end earlier, as for monitors. */
+    private final boolean shortenOnly;
+
+    Target(Function<Document, T> create, Function<T, LocalDateTime> end,
+        BiConsumer<T, LocalDateTime> setEnd, BiConsumer<T, String> setId, Consumer<Collection<T>> insertAll,
+        Consumer<Map<String, LocalDateTime>> closeAll, BiFunction<String, String, List<T>> latest,
+        Function<T, String> id, boolean shortenOnly) {
+      this.create = create;
+      this.end = end;
+      this.setEnd = setEnd;
+      this.setId = setId;
+      this.insertAll = insertAll;
+      this.closeAll = closeAll;
+      this.latest = latest;
+      this.id = id;
+      this.shortenOnly = shortenOnly;
+    }
+
+    private boolean closes(LocalDateTime current, LocalDateTime at) {
+      return !shortenOnly || (current != null && current.isAfter(at));
+    }
+
+    /**
+     * Writes the entries of a batch, in order: closing a log opened in the
+     * same batch changes it before it is inserted, and closes it again after.
+     */
+    void write(List<Document> entries) {
+      if (entries.isEmpty()) { return; }
+      Map<String, T> opened = new LinkedHashMap<>();
+      Map<String, Document> openedEntries = new LinkedHashMap<>();
+      Map<String, LocalDateTime> closed = new LinkedHashMap<>();
+      for (Document entry : entries) {
+        if (entry.containsKey("start")) {
+          closed.remove(entry.getString("id"));  // Opened again after it was closed.
+          T log = create.apply(entry);
+          T earlier = opened.get(entry.getString("id"));
+          if (earlier != null) {
+            // Opened again to extend it: keep the first start and the latest end.
+            if (end.apply(log).isAfter(end.apply(earlier))) { setEnd.accept(earlier, end.apply(log)); }
+            continue;
+          }
+          setId.accept(log, entry.getString("id"));
+          opened.put(entry.getString("id"), log);
+          openedEntries.put(entry.getString("id"), entry);
+          continue;
+        }
+        LocalDateTime at = time(entry, "end");
+        String logId = entry.getString("id");
+        if (logId == null) { logId = latestId(entry.getString("resource"), entry.getString("user"), openedEntries); }
+        if (logId == null) { continue; }
+        T log = opened.get(logId);
+        if (log != null && closes(end.apply(log), at)) { setEnd.accept(log, at); }
+        // Closed after the insert too: a log written or extended earlier keeps its stored end otherwise.
+        if (!closed.containsKey(logId) || closes(closed.get(logId), at)) { closed.put(logId, at); }
+      }
+      if (!opened.isEmpty()) { insertAll.accept(new ArrayList<>(opened.values())); }
+      if (!closed.isEmpty()) { closeAll.accept(closed); }
+    }
+
+    /**
+     * Finds the latest log of a resource and user, opened in this batch or
+     * stored.
+     */
+    private String latestId(String resource, String user, Map<String, Document> opened) {
+      Document newest = null;
+      for (Document log : opened.values()) {
+        if (resource.equals(log.getString("resource")) && user.equals(log.getString("user"))
+            && (newest == null || !time(log, "start").isBefore(time(newest, "start")))) {
+          newest = log;
+        }
+      }
+      if (newest != null) { return newest.getString("id"); }
+      List<T> stored = latest.apply(resource, user);
+      return stored.isEmpty() ? null : id.apply(stored.get(0));
+    }
+  }
+}
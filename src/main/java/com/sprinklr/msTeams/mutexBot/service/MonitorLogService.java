@@ -3,6 +3,8 @@ package com.sprinklr.msTeams.mutexBot.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
@@ -18,16 +20,23 @@ import java.util.List;
 public class MonitorLogService {
 
   private final MonitorLogRepository repo;
+  private final LogWriter writer;
+  private final UsageService usageService;
 
   /**
    * Constructs a new {@code MonitorLogService} instance with the specified
-   * repository.
+   * repository, log writer and usage service.
    *
    * @param monitorLogRepository The repository for {@link MonitorLog} entities.
+   * @param logWriter            Writes the logs in the background.
+   * @param usageService         Counts the monitor commands in the usage rollups.
    */
   @Autowired
-  public MonitorLogService(MonitorLogRepository monitorLogRepository) {
+  public MonitorLogService(MonitorLogRepository monitorLogRepository, LogWriter logWriter,
+      UsageService usageService) {
     this.repo = monitorLogRepository;
+    this.writer = logWriter;
+    this.usageService = usageService;
   }
 
   /**
@@ -60,6 +69,37 @@ public class MonitorLogService {
     return repo.getLogs(resource, user);
   }
 
+  /**
+   * Retrieves the logs overlapping a time window, filtered by resource and
+   * user in the same way as {@link #getLogs(String, String)}.
+   *
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param from     The start of the window.
+   * @param to       The end of the window.
+   * @return A list of {@link MonitorLog} entities matching the criteria.
+   */
+  public List<MonitorLog> getLogs(String resource, String user, LocalDateTime from, LocalDateTime to) {
+    if (user == null) { return repo.getResourceLogs(resource, from, to); }
+    if (resource == null) { return repo.getUserLogs(user, from, to); }
+    return repo.getLogs(resource, user, from, to);
+  }
+
+  /**
+   * Streams the logs overlapping a time window, filtered by resource and user,
+   * from a cursor rather than a list, for exports of any size. Each filter is
+   * optional.
+   *
+   * @param resource The resource identifier, or {@code null} for all.
+   * @param user     The user identifier, or {@code null} for all.
+   * @param from     The start of the window, or {@code null} for no lower bound.
+   * @param to       The end of the window, or {@code null} for no upper bound.
+   * @return The logs; the caller must close the iterator.
+   */
+  public CloseableIterator<MonitorLog> streamLogs(String resource, String user, LocalDateTime from, LocalDateTime to) {
+    return repo.streamLogs(resource, user, from, to);
+  }
+
   /**
    * Retrieves monitor logs for the specified resource.
    *
@@ -72,29 +112,78 @@ public class MonitorLogService {
 
   /**
    * Initiates monitoring of a resource by a user until the specified end time.
+   * The log is written in the background.
    *
    * @param resource The resource identifier.
    * @param user     The user identifier.
    * @param end      The end time of the monitoring period.
    */
   public void monitor(String resource, String user, LocalDateTime end) {
-    MonitorLog log = new MonitorLog(resource, user, LocalDateTime.now(), end);
-    repo.save(log);
+    monitor(resource, user, end, null);
+  }
+
+  /**
+   * Initiates monitoring of a resource by a user, with the log ID recorded on
+   * the monitor entry, {@link com.sprinklr.msTeams.mutexBot.model.UserTimeEntry#logId}.
+   * If the entry was extended, its log already exists and only its end time is
+   * moved later, so extending a monitoring period adds no log. The log is
+   * written in the background.
+   *
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param end      The end time of the monitoring period.
+   * @param logId    The ID of the log, or {@code null} to generate one.
+   * @return The ID of the log.
+   */
+  public String monitor(String resource, String user, LocalDateTime end, String logId) {
+    LocalDateTime now = LocalDateTime.now();
+    MonitorLog log = new MonitorLog(resource, user, now, end);
+    log.setId(logId);
+    String id = writer.open(log);
+    usageService.monitored(resource, user, now);
+    return id;
   }
 
   /**
    * Stops monitoring of a resource by a user, setting the end time to the current
-   * time.
+   * time unless it ended earlier.
    *
    * @param resource The resource identifier.
    * @param user     The user identifier.
    */
   public void stopMonitoring(String resource, String user) {
-    MonitorLog log = getLatest(resource, user);
-    if (log == null) { return; }
-    if (log.getEndTime().isBefore(LocalDateTime.now())) { return; }
-    log.setEndTime(LocalDateTime.now());
-    repo.save(log);
+    stopMonitoring(null, resource, user);
+  }
+
+  /**
+   * Stops monitoring of a resource by a user, setting the end time to the current
+   * time unless it ended earlier. The log is closed in the background, by ID in
+   * a single {@code _id} update, or else, for entries without a log ID, as the
+   * latest of the resource and user.
+   *
+   * @param logId    The ID of the log, or {@code null} if unknown.
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   */
+  public void stopMonitoring(String logId, String resource, String user) {
+    writer.closeMonitor(logId, resource, user, LocalDateTime.now());
+  }
+
+  /**
+   * Merges the overlapping or adjacent logs of each resource and user into one,
+   * such as the logs written before extending a monitoring period extended its
+   * log. Runs daily at {@code monitorLog.compactCron}, and on demand with the
+   * {@code sync logs} admin command. Logs still open are left for a later run.
+   *
+   * @return The number of logs merged into another.
+   */
+  @Scheduled(cron = "${monitorLog.compactCron:0 30 3 * * ?}")
+  public synchronized int compact() {
+    long start = System.nanoTime();
+    int merged = repo.compact(LocalDateTime.now());
+    System.out.println("\nCompacted monitor logs: merged " + merged + " in " + (System.nanoTime() - start) / 1_000_000
+        + " ms");
+    return merged;
   }
 
   /**
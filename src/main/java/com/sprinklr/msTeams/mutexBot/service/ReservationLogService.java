@@ -3,9 +3,11 @@ package com.sprinklr.msTeams.mutexBot.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Service;
 
 import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.model.Resource;
 import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepository;
 
 import java.time.LocalDateTime;
@@ -18,17 +20,24 @@ import java.util.List;
 public class ReservationLogService {
 
   private final ReservationLogRepository repo;
+  private final LogWriter writer;
+  private final UsageService usageService;
 
   /**
    * Constructs a new {@code ReservationLogService} instance with the specified
-   * repository.
+   * repository, log writer and usage service.
    *
    * @param reservationLogRepository The repository for {@link ReservationLog}
    *                                 entities.
+   * @param logWriter                Writes the logs in the background.
+   * @param usageService             Rolls up the usage of the logged reservations.
    */
   @Autowired
-  public ReservationLogService(ReservationLogRepository reservationLogRepository) {
+  public ReservationLogService(ReservationLogRepository reservationLogRepository, LogWriter logWriter,
+      UsageService usageService) {
     this.repo = reservationLogRepository;
+    this.writer = logWriter;
+    this.usageService = usageService;
   }
 
   /**
@@ -61,6 +70,37 @@ public class ReservationLogService {
     return repo.getLogs(resource, user);
   }
 
+  /**
+   * Retrieves the logs overlapping a time window, filtered by resource and
+   * user in the same way as {@link #getLogs(String, String)}.
+   *
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param from     The start of the window.
+   * @param to       The end of the window.
+   * @return A list of {@link ReservationLog} entities matching the criteria.
+   */
+  public List<ReservationLog> getLogs(String resource, String user, LocalDateTime from, LocalDateTime to) {
+    if (user == null) { return repo.getResourceLogs(resource, from, to); }
+    if (resource == null) { return repo.getUserLogs(user, from, to); }
+    return repo.getLogs(resource, user, from, to);
+  }
+
+  /**
+   * Streams the logs overlapping a time window, filtered by resource and user,
+   * from a cursor rather than a list, for exports of any size. Each filter is
+   * optional.
+   *
+   * @param resource The resource identifier, or {@code null} for all.
+   * @param user     The user identifier, or {@code null} for all.
+   * @param from     The start of the window, or {@code null} for no lower bound.
+   * @param to       The end of the window, or {@code null} for no upper bound.
+   * @return The logs; the caller must close the iterator.
+   */
+  public CloseableIterator<ReservationLog> streamLogs(String resource, String user, LocalDateTime from, LocalDateTime to) {
+    return repo.streamLogs(resource, user, from, to);
+  }
+
   /**
    * Retrieves reservation logs for the specified resource.
    *
@@ -73,15 +113,34 @@ public class ReservationLogService {
 
   /**
    * Initiates reservation of a resource by a user until the specified releasedAt
-   * time.
+   * time. The log is written in the background.
    *
    * @param resource   The resource identifier.
    * @param user       The user identifier.
    * @param releasedAt The time until which the resource is reserved.
    */
   public void reserve(String resource, String user, LocalDateTime releasedAt) {
-    ReservationLog log = new ReservationLog(resource, user, LocalDateTime.now(), releasedAt);
-    repo.save(log);
+    reserve(resource, user, releasedAt, null);
+  }
+
+  /**
+   * Initiates reservation of a resource by a user, with the log ID recorded
+   * on the resource, {@link com.sprinklr.msTeams.mutexBot.model.Resource#getReservationLogId()}.
+   * The log is written in the background.
+   *
+   * @param resource   The resource identifier.
+   * @param user       The user identifier.
+   * @param releasedAt The time until which the resource is reserved.
+   * @param logId      The ID of the log, or {@code null} to generate one.
+   * @return The ID of the log.
+   */
+  public String reserve(String resource, String user, LocalDateTime releasedAt, String logId) {
+    LocalDateTime now = LocalDateTime.now();
+    ReservationLog log = new ReservationLog(resource, user, now, releasedAt);
+    log.setId(logId);
+    String id = writer.open(log);
+    usageService.reserved(resource, user, now, releasedAt);
+    return id;
   }
 
   /**
@@ -92,10 +151,35 @@ public class ReservationLogService {
    * @param user     The user identifier.
    */
   public void release(String resource, String user) {
-    ReservationLog log = getLatest(resource, user);
-    if (log == null) { return; }
-    log.setEndTime(LocalDateTime.now());
-    repo.save(log);
+    release(null, resource, user, LocalDateTime.now());
+  }
+
+  /**
+   * Closes the reservation of a resource by a user at the specified time. The
+   * log is closed in the background, by ID in a single {@code _id} update, or
+   * else, for reservations without a log ID, as the latest of the resource and
+   * user.
+   *
+   * @param logId      The ID of the log, or {@code null} if unknown.
+   * @param resource   The resource identifier.
+   * @param user       The user identifier.
+   * @param releasedAt The time at which the reservation ended.
+   */
+  public void release(String logId, String resource, String user, LocalDateTime releasedAt) {
+    writer.closeReservation(logId, resource, user, releasedAt);
+  }
+
+  /**
+   * Closes the reservation of a released resource at the specified time, like
+   * {@link #release(String, String, String, LocalDateTime)}, and takes the
+   * minutes left until its deadline back from its usage.
+   *
+   * @param released   The resource as released, still holding the reservation.
+   * @param releasedAt The time at which the reservation ended.
+   */
+  public void release(Resource released, LocalDateTime releasedAt) {
+    release(released.getReservationLogId(), released.getName(), released.getReservedBy(), releasedAt);
+    usageService.released(released.getName(), released.getReservedBy(), releasedAt, released.getReservedTill());
   }
 
   /**
@@ -1,77 +1,140 @@
 package com.sprinklr.msTeams.mutexBot.service;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.sprinklr.msTeams.mutexBot.BotMetrics;
 import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UserTimeEntry;
 import com.sprinklr.msTeams.mutexBot.repositories.ResourceRepository;
 
 /**
  * Service class for managing operations on {@link Resource} entities.
+ *
+ * <p>
+ * Resource documents are cached in memory. The writes of this instance store
+ * the document returned by the repository, so lookups ({@link #find},
+ * {@link #exists}, {@link #findByChartName}) need no round trip. Writes made
+ * by other instances, or directly in the DB, are not seen until the cache is
+ * reloaded every {@code resourceCache.refreshMillis}; a name missing from the
+ * cache is looked up in the repository meanwhile. Reservation expiry needs no
+ * invalidation: {@link Resource#isReserved()} compares {@code reservedTill}
+ * with the current time.
+ * </p>
  */
 @Service
 public class ResourceService {
 
   @Autowired
   private ResourceRepository repo;
-  private static Set<String> cache = Collections.synchronizedSet(new HashSet<>());
-  private static AtomicInteger accessCount = new AtomicInteger(0);
-  private static final int REFRESH_THRESHOLD = 500;
+  private volatile Map<String, Resource> cache = new ConcurrentHashMap<>();
+  /** Sorted resource names, so the releases of a chart form one contiguous range. */
+  private volatile NavigableSet<String> names = new ConcurrentSkipListSet<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  /** Guards the cache entries against being replaced by a reload. */
+  private final Object cacheLock = new Object();
+  /** The names written while a reload runs, or {@code null} if none runs. */
+  private Set<String> writtenDuringRefresh;
 
   /**
-   * Initializes the cache of resource names upon bean creation.
+   * Constructs a ResourceService and publishes the hit ratio of its cache.
+   */
+  public ResourceService() {
+    BotMetrics.cache("resources", this, ResourceService::getHits, ResourceService::getMisses);
+  }
+
+  /**
+   * Initializes the cache of resources upon bean creation.
    */
   @PostConstruct
   public void initializeCache() {
+    long start = System.nanoTime();
     refreshCache();
+    System.out.println("\nLoaded " + cache.size() + " resources in " + (System.nanoTime() - start) / 1_000_000 + " ms");
   }
 
   /**
-   * Refreshes the cache of resource names from the repository.
+   * Reloads the cache from the repository, periodically and on demand. The new
+   * contents replace the old ones in a single step, so readers never see a
+   * partially loaded cache. Resources written by this instance during the
+   * reload keep their written version, which may be newer than the one read.
    */
+  @Scheduled(fixedDelayString = "${resourceCache.refreshMillis:60000}",
+      initialDelayString = "${resourceCache.refreshMillis:60000}")
   public synchronized void refreshCache() {
-    cache.clear();
-    cache.addAll(repo.findAll().stream()
-            .map(Resource::getName)
-            .collect(Collectors.toList()));
-    accessCount.set(0);
+    synchronized (cacheLock) {
+      writtenDuringRefresh = new HashSet<>();
+    }
+    Map<String, Resource> fresh = new ConcurrentHashMap<>();
+    try {
+      for (Resource resource : repo.findAll()) {
+        fresh.put(resource.getName(), resource);
+      }
+    } catch (RuntimeException e) {
+      synchronized (cacheLock) {
+        writtenDuringRefresh = null;
+      }
+      throw e;
+    }
+    synchronized (cacheLock) {
+      for (String name : writtenDuringRefresh) {
+        Resource current = cache.get(name);
+        if (current == null) {
+          fresh.remove(name);
+        } else {
+          fresh.put(name, current);
+        }
+      }
+      writtenDuringRefresh = null;
+      names = new ConcurrentSkipListSet<>(fresh.keySet());
+      cache = fresh;
+    }
   }
 
   /**
-   * Updates the cache with a new resource name or removes an existing one.
+   * Stores the latest version of a resource in the cache.
    *
-   * @param name The name of the resource to update in the cache.
-   * @param add  {@code true} to add the resource name, {@code false} to remove
-   *             it.
+   * @param resource The {@link Resource} returned by the repository, or
+   *                 {@code null} if the write did not apply.
+   * @return The same resource.
    */
-  public void updateCache(String name, boolean add) {
-    synchronized (cache) {
-      if (add) {
-        cache.add(name);
-      } else {
-        cache.remove(name);
-      }
+  private Resource cache(Resource resource) {
+    if (resource == null) { return null; }
+    synchronized (cacheLock) {
+      cache.put(resource.getName(), resource);
+      names.add(resource.getName());
+      if (writtenDuringRefresh != null) { writtenDuringRefresh.add(resource.getName()); }
     }
+    return resource;
   }
 
   /**
-   * Increments the access count and refreshes the cache if it exceeds the
-   * threshold.
+   * Removes a deleted resource from the cache.
    */
-  private void incrementAccessCount() {
-    if (accessCount.incrementAndGet() >= REFRESH_THRESHOLD) {
-      refreshCache();
+  private void uncache(String name) {
+    synchronized (cacheLock) {
+      cache.remove(name);
+      names.remove(name);
+      if (writtenDuringRefresh != null) { writtenDuringRefresh.add(name); }
     }
   }
 
@@ -81,7 +144,6 @@ public class ResourceService {
    * @return A list of all {@link Resource} entities.
    */
   public List<Resource> getAll() {
-    incrementAccessCount();
     return repo.findAll();
   }
 
@@ -91,7 +153,6 @@ public class ResourceService {
    * @return A list of all resource names.
    */
   public List<String> getAllNames() {
-    incrementAccessCount();
     return repo.findAll().stream()
         .map(Resource::getName)
         .collect(Collectors.toList());
@@ -103,7 +164,6 @@ public class ResourceService {
    * @return A list of reserved {@link Resource} entities.
    */
   public List<Resource> getReserved() {
-    incrementAccessCount();
     return repo.findReservedResources(LocalDateTime.now());
   }
 
@@ -113,12 +173,20 @@ public class ResourceService {
    * @return A list of available {@link Resource} entities.
    */
   public List<Resource> getAvailable() {
-    incrementAccessCount();
     return repo.findAvailableResources(LocalDateTime.now());
   }
 
   /**
-   * Finds a resource by its name.
+   * Retrieves all cached resources, without a round trip.
+   *
+   * @return A snapshot of the cached {@link Resource} entities.
+   */
+  public List<Resource> getCached() {
+    return new ArrayList<>(cache.values());
+  }
+
+  /**
+   * Finds a resource by its name, from the cache when possible.
    *
    * @param name The name of the resource to find.
    * @return The {@link Resource} entity corresponding to the name, or
@@ -127,10 +195,157 @@ public class ResourceService {
    *                   afterwards.
    */
   public Resource find(String name) throws Exception {
-    incrementAccessCount();
+    Resource cached = cache.get(name);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return cached;
+    }
+    // Not cached: the resource may have been added to the DB by another instance.
+    misses.incrementAndGet();
     Optional<Resource> resource = repo.findById(name);
     if (!resource.isPresent()) { return null; }
-    return resource.get();
+    return cache(resource.get());
+  }
+
+  /**
+   * Reads a resource from the repository, bypassing the cache, and caches the
+   * result. Used after a conditional write was refused, since the refusal may
+   * come from a change by another instance that the cache has not seen yet.
+   *
+   * @param name The name of the resource.
+   * @return The stored {@link Resource}, or {@code null} if it does not exist.
+   */
+  public Resource reload(String name) {
+    Optional<Resource> resource = repo.findById(name);
+    if (resource.isPresent()) { return cache(resource.get()); }
+    uncache(name);
+    return null;
+  }
+
+  /**
+   * Atomically reserves a resource if it is free and the duration is allowed.
+   * The reservation gets the ID of its log, {@link Resource#getReservationLogId()},
+   * which is the ID to open the log with.
+   *
+   * @param name     The name of the resource to reserve.
+   * @param user     The ID of the user reserving the resource.
+   * @param till     The time until which the resource is reserved.
+   * @param duration The requested duration in minutes.
+   * @return The reserved {@link Resource}, or {@code null} if it could not be
+   *         reserved.
+   */
+  public Resource reserve(String name, String user, LocalDateTime till, int duration) {
+    return cache(repo.reserveIfAvailable(name, user, till, duration, LocalDateTime.now(), newLogId()));
+  }
+
+  private static String newLogId() {
+    return new ObjectId().toHexString();
+  }
+
+  /**
+   * Atomically releases a resource if it is reserved by the given user.
+   *
+   * @param name The name of the resource to release.
+   * @param user The ID of the user releasing the resource.
+   * @return The released {@link Resource}, or {@code null} if the user was not
+   *         holding it.
+   */
+  public Resource release(String name, String user) {
+    return cache(repo.releaseIfHeld(name, user, LocalDateTime.now()));
+  }
+
+  /**
+   * Atomically releases a resource regardless of who reserved it.
+   *
+   * @param name The name of the resource to release.
+   * @return The released {@link Resource}, or {@code null} if it was not reserved.
+   */
+  public Resource forceRelease(String name) {
+    return cache(repo.releaseIfHeld(name, null, LocalDateTime.now()));
+  }
+
+  /**
+   * Atomically ends a reservation that has reached its deadline.
+   *
+   * @param name The name of the resource.
+   * @param user The ID of the user holding the reservation.
+   * @param till The deadline of the reservation.
+   * @return The released {@link Resource}, or {@code null} if the reservation
+   *         changed since the deadline was scheduled.
+   */
+  public Resource expire(String name, String user, LocalDateTime till) {
+    return cache(repo.expireReservation(name, user, till, LocalDateTime.now()));
+  }
+
+  /**
+   * Atomically removes the expired monitors of a resource.
+   *
+   * @param name The name of the resource.
+   * @return The updated {@link Resource}, or {@code null} if no monitor had
+   *         expired.
+   */
+  public Resource expireMonitors(String name) {
+    return cache(repo.pullExpiredMonitors(name, LocalDateTime.now()));
+  }
+
+  /**
+   * Atomically adds a user to the monitor list of a resource, or extends the
+   * user's monitoring period. A running entry keeps its monitor log, which the
+   * caller then extends; otherwise the entry gets the ID of a new one. Either
+   * way {@link UserTimeEntry#logId} is the ID to open the log with.
+   *
+   * @param name The name of the resource to monitor.
+   * @param user The ID of the monitoring user.
+   * @param till The time until which the user monitors the resource.
+   * @return The updated {@link Resource}, or {@code null} if not found.
+   */
+  public Resource monitor(String name, String user, LocalDateTime till) {
+    return cache(repo.addMonitor(name, user, till, newLogId(), LocalDateTime.now()));
+  }
+
+  /**
+   * Atomically removes a user from the monitor list of a resource.
+   *
+   * @param name The name of the resource.
+   * @param user The ID of the monitoring user.
+   * @return The removed entry, with the ID of its log, or {@code null} if the
+   *         user was not monitoring the resource.
+   */
+  public UserTimeEntry stopMonitoring(String name, String user) {
+    Resource before = repo.removeMonitor(name, user);
+    if (before == null) { return null; }
+    UserTimeEntry removed = before.getMonitor(user);
+    before.stopMonitoring(user);
+    cache(before);
+    return removed;
+  }
+
+  /**
+   * Atomically records the log of a reservation that has none, such as one
+   * made before reservations carried the ID of their log.
+   *
+   * @param name  The name of the resource.
+   * @param user  The ID of the user holding the reservation.
+   * @param till  The end of the reservation.
+   * @param logId The ID of the reservation log.
+   * @return The updated {@link Resource}, or {@code null} if the reservation
+   *         changed or already has a log ID.
+   */
+  public Resource setReservationLogId(String name, String user, LocalDateTime till, String logId) {
+    return cache(repo.setReservationLogId(name, user, till, logId));
+  }
+
+  /**
+   * Atomically records the log of a monitor entry that has none.
+   *
+   * @param name  The name of the resource.
+   * @param user  The ID of the monitoring user.
+   * @param logId The ID of the monitor log.
+   * @return The updated {@link Resource}, or {@code null} if the user is not
+   *         monitoring the resource or the entry already has a log ID.
+   */
+  public Resource setMonitorLogId(String name, String user, String logId) {
+    return cache(repo.setMonitorLogId(name, user, logId));
   }
 
   /**
@@ -139,8 +354,9 @@ public class ResourceService {
    * @param resourceName The name of the resource to save.
    */
   public void save(String resourceName) { // for creating new resources
-    repo.save(new Resource(resourceName));
-    refreshCache();
+    Resource resource = new Resource(resourceName);
+    repo.save(resource);
+    cache(resource);
   }
 
   /**
@@ -149,22 +365,55 @@ public class ResourceService {
    * @param resource The {@link Resource} entity to save.
    */
   public void save(Resource resource) {
-    incrementAccessCount();
     repo.save(resource);
+    cache(resource);
+  }
+
+  /**
+   * Applies a change of the resource catalog: inserts the added resources and
+   * deletes the removed ones in one bulk write, then applies the same delta to
+   * the cache. The cache is updated entry by entry rather than reloaded, so
+   * readers never see it empty or partially loaded, and writes made to other
+   * resources meanwhile are kept.
+   *
+   * @param added   The names of the new resources.
+   * @param removed The names of the resources to delete.
+   */
+  public void applyCatalog(Collection<String> added, Collection<String> removed) {
+    List<Resource> resources = added.stream().map(Resource::new).collect(Collectors.toList());
+    repo.applyCatalog(resources, removed);
+    resources.forEach(this::cache);
+    removed.forEach(this::uncache);
   }
 
   /**
-   * Checks if a resource exists in the cache by its name.
+   * Checks if a resource exists by its name, from the cache when possible.
    *
    * @param name The name of the resource to check.
-   * @return {@code true} if the resource exists in the cache, {@code false}
-   *         otherwise.
+   * @return {@code true} if the resource exists, {@code false} otherwise.
    */
   public boolean exists(String name) {
-    incrementAccessCount();
-    return cache.contains(name);
+    if (cache.containsKey(name)) {
+      hits.incrementAndGet();
+      return true;
+    }
+    // Not cached: the resource may have been added to the DB by another instance.
+    misses.incrementAndGet();
+    return cache(repo.findById(name).orElse(null)) != null;
   }
 
+  /**
+   * @return The number of lookups by {@link #find} and {@link #exists} served
+   *         from the cache.
+   */
+  public long getHits() { return hits.get(); }
+
+  /**
+   * @return The number of lookups by {@link #find} and {@link #exists} that
+   *         went to the repository.
+   */
+  public long getMisses() { return misses.get(); }
+
   /**
    * Deletes a resource by its name.
    *
@@ -172,19 +421,20 @@ public class ResourceService {
    */
   public void delete(String name) {
     repo.deleteById(name);
-    refreshCache();
+    uncache(name);
   }
 
   /**
    * Finds all resources whose IDs start with the given chart name prefix.
+   * The lookup is a range scan of the sorted name index; the chart name is
+   * compared literally, so characters such as {@code .} or {@code +} match only
+   * themselves.
    *
    * @param chartName The prefix of the resource IDs to search for.
-   * @return A list of resource names matching the prefix.
+   * @return A sorted list of resource names matching the prefix.
    */
   public List<String> findByChartName(String chartName) {
-    incrementAccessCount();
-    return repo.findByIdStartingWith(chartName + "-").stream()
-        .map(Resource::getName)
-        .collect(Collectors.toList());
+    // Every "<chart>-..." name sorts at or after "<chart>-" and before "<chart>." ('.' follows '-').
+    return new ArrayList<>(names.subSet(chartName + "-", true, chartName + ".", false));
   }
 }
@@ -0,0 +1,382 @@
+package com.sprinklr.msTeams.mutexBot.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+import com.sprinklr.msTeams.mutexBot.repositories.UsageRollupRepository;
+
+/**
+ * Keeps the hourly and daily {@link UsageRollup}s of resources, charts and
+ * users, and reports utilization from them.
+ *
+ * <p>
+ * Reservations, releases, monitor commands and refused reservations are added
+ * to rollups held in memory, which are written every {@code usage.flushMillis}
+ * as one bulk of {@code $inc} upserts; a failed write is retried with the next
+ * one. A reservation books its minutes up to its deadline when it is made,
+ * and a release before the deadline takes back the minutes it did not use, so
+ * the rollups never need the logs to be read again. The rollups of a chart are
+ * those of its releases, the resources named {@code <chart>-<release>}.
+ * </p>
+ *
+ * <p>
+ * A report reads one rollup per key and bucket of its window, whatever the
+ * number of logs: the top lists of the last week read the seven daily rollups
+ * of each resource, chart or user, and the usage of one of them reads seven.
+ * A top list thus costs keys times buckets, not a constant: keeping a running
+ * total of the window per key would need its oldest bucket taken out as the
+ * window moves, for every window a report can ask for.
+ * </p>
+ */
+@Service
+public class UsageService {
+  /** How long the chart names are used before being read again. */
+  private static final long CHART_REFRESH_MILLIS = 10 * 60 * 1000;
+  private static final String[] GRANULARITIES = { UsageRollup.HOUR, UsageRollup.DAY };
+
+  /** The orders of {@link #top}. */
+  public static final String RESERVED = "reserved";
+  public static final String DENIED = "denied";
+  public static final String MONITORED = "monitored";
+  public static final String IDLE = "idle";
+
+  private final UsageRollupRepository repo;
+  private final ChartNameService chartNameService;
+  private final ResourceService resourceService;
+  private final Map<String, UsageRollup> pending = new ConcurrentHashMap<>();
+  private volatile List<String> charts;
+  private volatile long chartsReadAt;
+  /** Guards the reads of {@link #charts}, apart from the lock held by {@link #flush}. */
+  private final Object chartLock = new Object();
+  /** The chart of each resource, for the current {@link #charts}. */
+  private volatile Map<String, String> chartOf = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new {@code UsageService}.
+   *
+   * @param usageRollupRepository The repository for {@link UsageRollup} entities.
+   * @param chartNameService      The service to look up chart names.
+   * @param resourceService       The service to look up resources.
+   */
+  @Autowired
+  public UsageService(UsageRollupRepository usageRollupRepository, ChartNameService chartNameService,
+      ResourceService resourceService) {
+    this.repo = usageRollupRepository;
+    this.chartNameService = chartNameService;
+    this.resourceService = resourceService;
+  }
+
+  /**
+   * Records a reservation, booking its minutes up to its deadline.
+   *
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param from     The start of the reservation.
+   * @param till     The deadline of the reservation.
+   */
+  public void reserved(String resource, String user, LocalDateTime from, LocalDateTime till) {
+    record(resource, user, from, rollup -> rollup.addReservations(1));
+    addMinutes(resource, user, from, till, 1);
+  }
+
+  /**
+   * Records the release of a reservation, taking back the minutes between the
+   * release and the deadline.
+   *
+   * @param resource   The resource identifier.
+   * @param user       The user identifier.
+   * @param releasedAt The time of the release.
+   * @param till       The deadline of the reservation.
+   */
+  public void released(String resource, String user, LocalDateTime releasedAt, LocalDateTime till) {
+    addMinutes(resource, user, releasedAt, till, -1);
+  }
+
+  /**
+   * Records a monitor command.
+   *
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param at       The time of the command.
+   */
+  public void monitored(String resource, String user, LocalDateTime at) {
+    record(resource, user, at, rollup -> rollup.addMonitors(1));
+  }
+
+  /**
+   * Records a reservation refused because the resource was reserved by
+   * someone else.
+   *
+   * @param resource The resource identifier.
+   * @param user     The user identifier.
+   * @param at       The time of the attempt.
+   */
+  public void denied(String resource, String user, LocalDateTime at) {
+    record(resource, user, at, rollup -> rollup.addDeniedReserves(1));
+  }
+
+  /**
+   * Spreads the minutes of an interval over the buckets it overlaps.
+   */
+  private void addMinutes(String resource, String user, LocalDateTime from, LocalDateTime till, int sign) {
+    if (from == null || till == null || !till.isAfter(from)) { return; }
+    for (String granularity : GRANULARITIES) {
+      LocalDateTime bucket = UsageRollup.bucketOf(granularity, from);
+      while (bucket.isBefore(till)) {
+        LocalDateTime next = UsageRollup.next(granularity, bucket);
+        LocalDateTime start = from.isAfter(bucket) ? from : bucket;
+        LocalDateTime end = till.isBefore(next) ? till : next;
+        double minutes = sign * Duration.between(start, end).getSeconds() / 60.0;
+        record(resource, user, granularity, bucket, rollup -> rollup.addReservedMinutes(minutes));
+        bucket = next;
+      }
+    }
+  }
+
+  private void record(String resource, String user, LocalDateTime at, Consumer<UsageRollup> change) {
+    for (String granularity : GRANULARITIES) {
+      record(resource, user, granularity, UsageRollup.bucketOf(granularity, at), change);
+    }
+  }
+
+  private void record(String resource, String user, String granularity, LocalDateTime bucket,
+      Consumer<UsageRollup> change) {
+    add(UsageRollup.RESOURCE, resource, granularity, bucket, change);
+    add(UsageRollup.USER, user, granularity, bucket, change);
+    String chart = chartOf(resource);
+    if (chart != null) { add(UsageRollup.CHART, chart, granularity, bucket, change); }
+  }
+
+  private void add(String scope, String key, String granularity, LocalDateTime bucket, Consumer<UsageRollup> change) {
+    if (key == null) { return; }
+    pending.compute(UsageRollup.id(scope, key, granularity, bucket), (id, rollup) -> {
+      if (rollup == null) { rollup = new UsageRollup(scope, key, granularity, bucket); }
+      change.accept(rollup);
+      return rollup;
+    });
+  }
+
+  /**
+   * Writes the rollups recorded since the last flush, after reading the chart
+   * names again if they are old. Runs every {@code usage.flushMillis} and on
+   * shutdown. The rollups are put back if
+   * the write fails, to be retried with the next flush.
+   *
+   * @return The number of rollups written.
+   */
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${usage.flushMillis:10000}")
+  public synchronized int flush() {
+    if (charts != null && System.currentTimeMillis() - chartsReadAt >= CHART_REFRESH_MILLIS) { readChartNames(); }
+    List<UsageRollup> deltas = new ArrayList<>();
+    for (String id : new ArrayList<>(pending.keySet())) {
+      UsageRollup delta = pending.remove(id);
+      if (delta != null) { deltas.add(delta); }
+    }
+    if (deltas.isEmpty()) { return 0; }
+    try {
+      repo.incrementAll(deltas);
+      return deltas.size();
+    } catch (Exception e) {
+      System.err.println("Could not write " + deltas.size() + " usage rollups, retrying with the next flush");
+      e.printStackTrace();
+      for (UsageRollup delta : deltas) {
+        pending.merge(delta.getId(), delta, (queued, failed) -> {
+          queued.add(failed);
+          return queued;
+        });
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * Finds the chart a resource is a release of, as the longest chart name the
+   * resource name starts with followed by {@code -}.
+   *
+   * @param resource The resource name.
+   * @return The chart name, or {@code null} if the resource is of no chart.
+   */
+  String chartOf(String resource) {
+    List<String> names = chartNames();
+    String chart = chartOf.get(resource);
+    if (chart != null) { return chart.isEmpty() ? null : chart; }
+    chart = "";
+    for (String name : names) {
+      if (resource.startsWith(name + "-") && name.length() > chart.length()) { chart = name; }
+    }
+    chartOf.put(resource, chart);
+    return chart.isEmpty() ? null : chart;
+  }
+
+  /**
+   * @return The chart names, read on first use and then refreshed by
+   *         {@link #flush}, so that commands never wait for the read.
+   */
+  private List<String> chartNames() {
+    List<String> names = charts;
+    if (names != null) { return names; }
+    synchronized (chartLock) {
+      if (charts == null) { readChartNames(); }
+      return charts;
+    }
+  }
+
+  /**
+   * Reads the chart names again, keeping the old ones if the read fails.
+   */
+  private void readChartNames() {
+    synchronized (chartLock) {
+      try {
+        charts = chartNameService.getAll();
+        chartOf = new ConcurrentHashMap<>();
+      } catch (Exception e) {
+        System.err.println("Could not read chart names for usage rollups");
+        e.printStackTrace();
+        if (charts == null) { charts = new ArrayList<>(); }
+      }
+      chartsReadAt = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Sums the rollups of one resource, chart or user over the last periods.
+   *
+   * @param scope       {@link UsageRollup#RESOURCE}, {@link UsageRollup#CHART}
+   *                    or {@link UsageRollup#USER}.
+   * @param key         The name of the resource or chart, or the ID of the user.
+   * @param granularity {@link UsageRollup#HOUR} or {@link UsageRollup#DAY}.
+   * @param periods     The number of hours or days, including the current one.
+   * @return The usage.
+   */
+  public Usage usage(String scope, String key, String granularity, int periods) {
+    Window window = new Window(granularity, periods);
+    Usage usage = new Usage(key);
+    for (UsageRollup rollup : repo.getBuckets(scope, key, granularity, window.from, window.to)) {
+      usage.add(rollup);
+    }
+    usage.utilization = utilization(scope, usage, window);
+    return usage;
+  }
+
+  /**
+   * Ranks the resources, charts or users by their usage over the last periods.
+   *
+   * @param scope       {@link UsageRollup#RESOURCE}, {@link UsageRollup#CHART}
+   *                    or {@link UsageRollup#USER}.
+   * @param granularity {@link UsageRollup#HOUR} or {@link UsageRollup#DAY}.
+   * @param periods     The number of hours or days, including the current one.
+   * @param order       {@link #RESERVED}, {@link #DENIED}, {@link #MONITORED} or
+   *                    {@link #IDLE}, for the least utilized first, including
+   *                    the resources and charts never reserved.
+   * @param limit       The maximum number of entries.
+   * @return The usages, in order.
+   */
+  public List<Usage> top(String scope, String granularity, int periods, String order, int limit) {
+    Window window = new Window(granularity, periods);
+    Map<String, Usage> usages = new HashMap<>();
+    for (UsageRollup rollup : repo.getBuckets(scope, granularity, window.from, window.to)) {
+      usages.computeIfAbsent(rollup.getKey(), Usage::new).add(rollup);
+    }
+    if (IDLE.equals(order)) {
+      if (UsageRollup.RESOURCE.equals(scope)) {
+        for (Resource resource : resourceService.getCached()) { usages.computeIfAbsent(resource.getName(), Usage::new); }
+      } else if (UsageRollup.CHART.equals(scope)) {
+        for (String chart : chartNames()) { usages.computeIfAbsent(chart, Usage::new); }
+      }
+    }
+    List<Usage> ranked = new ArrayList<>(usages.values());
+    for (Usage usage : ranked) { usage.utilization = utilization(scope, usage, window); }
+    ranked.sort(comparator(order).thenComparing(Usage::getKey));
+    return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+  }
+
+  private static Comparator<Usage> comparator(String order) {
+    if (order == null || RESERVED.equals(order)) {
+      return Comparator.comparingDouble(Usage::getReservedMinutes).reversed();
+    }
+    if (DENIED.equals(order)) {
+      return Comparator.comparingLong(Usage::getDeniedReserves).reversed()
+          .thenComparing(Comparator.comparingDouble(Usage::getReservedMinutes).reversed());
+    }
+    if (MONITORED.equals(order)) { return Comparator.comparingLong(Usage::getMonitors).reversed(); }
+    if (IDLE.equals(order)) { return Comparator.comparingDouble(Usage::getUtilization); }
+    throw new IllegalArgumentException("Unknown order: " + order);
+  }
+
+  /**
+   * The share of the window the resource, the releases of the chart or the
+   * user spent reserved, in percent.
+   */
+  private double utilization(String scope, Usage usage, Window window) {
+    int capacity = UsageRollup.CHART.equals(scope) ? Math.max(1, resourceService.findByChartName(usage.key).size()) : 1;
+    return 100 * Math.max(0, usage.reservedMinutes) / (window.minutes * capacity);
+  }
+
+  /**
+   * The buckets of the last periods, including the current one, which counts
+   * in full.
+   */
+  private static class Window {
+    final LocalDateTime from;
+    final LocalDateTime to;
+    final double minutes;
+
+    Window(String granularity, int periods) {
+      if (periods <= 0) { throw new IllegalArgumentException("The number of periods must be positive"); }
+      to = UsageRollup.next(granularity, UsageRollup.bucketOf(granularity, LocalDateTime.now()));
+      from = to.minus(periods, UsageRollup.unit(granularity));
+      minutes = Duration.between(from, to).toMinutes();
+    }
+  }
+
+  /**
+   * The usage of a resource, chart or user over a window.
+   */
+  public static class Usage {
+    private final String key;
+    private double reservedMinutes;
+    private long reservations;
+    private long monitors;
+    private long deniedReserves;
+    private double utilization;
+
+    Usage(String key) { this.key = key; }
+
+    private void add(UsageRollup rollup) {
+      reservedMinutes += rollup.getReservedMinutes();
+      reservations += rollup.getReservations();
+      monitors += rollup.getMonitors();
+      deniedReserves += rollup.getDeniedReserves();
+    }
+
+    public String getKey() { return key; }
+    public double getReservedMinutes() { return reservedMinutes; }
+    public long getReservations() { return reservations; }
+    public long getMonitors() { return monitors; }
+    public long getDeniedReserves() { return deniedReserves; }
+    /** The share of the window spent reserved, in percent. */
+    public double getUtilization() { return utilization; }
+
+    public String toString() {
+      return String.format("%s: %.0f%% utilized, %d reservations, %d denied, %d monitors", key, utilization,
+          reservations, deniedReserves, monitors);
+    }
+  }
+}
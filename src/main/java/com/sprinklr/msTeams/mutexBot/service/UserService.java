@@ -1,24 +1,45 @@
 package com.sprinklr.msTeams.mutexBot.service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.microsoft.bot.schema.ChannelAccount;
+import com.sprinklr.msTeams.mutexBot.BotMetrics;
 import com.sprinklr.msTeams.mutexBot.Utils;
 import com.sprinklr.msTeams.mutexBot.model.User;
 import com.sprinklr.msTeams.mutexBot.repositories.UserRepository;
 
 /**
  * Service class for managing operations on {@link User} entities.
+ *
+ * <p>
+ * Resolved users are cached, including placeholder users (default name and
+ * email) that still need their Teams profile. Resolving a user costs at most
+ * one DB call, and none once the user is cached.
+ * </p>
  */
 @Service
 public class UserService {
   @Autowired
   private UserRepository repo;
+  private final Map<String, User> cache = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public UserService() {
+    BotMetrics.cache("users", this, UserService::getHits, UserService::getMisses);
+  }
 
   /**
    * Retrieves all users from the repository.
@@ -38,16 +59,64 @@ public class UserService {
    * @throws Exception If a user is created but cannot be fetched afterwards.
    */
   public User find(String id) throws Exception {
+    User user = cache.get(id);
+    if (user != null) {
+      hits.incrementAndGet();
+      return user;
+    }
+    misses.incrementAndGet();
+    user = repo.getOrCreate(id);
+    if (user == null) {
+      throw new Exception("Created a user, but couldn't fetch it.");
+    }
+    cache.put(id, user);
+    return user;
+  }
+
+  /**
+   * Checks whether a user is an administrator. The flag is read from the
+   * repository rather than the cache, so that an admin dismissed by another
+   * instance or in the DB loses the rights at once; the cached user is
+   * refreshed.
+   *
+   * @param id The ID of the user.
+   * @return {@code true} if the user exists and is an administrator.
+   */
+  public boolean isAdmin(String id) {
     Optional<User> user = repo.findById(id);
-    if (!user.isPresent()) {
-      User new_user = new User(id);
-      save(new_user);
-      user = repo.findById(id);
-      if (!user.isPresent()) {
-        throw new Exception("Created a user, but couldn't fetch it.");
+    if (!user.isPresent()) { return false; }
+    cache.put(id, user.get());
+    return user.get().isAdmin();
+  }
+
+  /**
+   * Looks up several users at once, without creating missing ones. Cached
+   * users cost nothing; the rest are fetched with a single {@code $in} query
+   * and cached.
+   *
+   * @param ids The IDs of the users.
+   * @return The users found, by ID. Unknown IDs have no entry.
+   */
+  public Map<String, User> findAll(Collection<String> ids) {
+    Map<String, User> users = new HashMap<>();
+    Set<String> missing = new HashSet<>();
+    for (String id : ids) {
+      if (id == null) { continue; }
+      User user = cache.get(id);
+      if (user != null) {
+        users.put(id, user);
+      } else {
+        missing.add(id);
       }
     }
-    return user.get();
+    hits.addAndGet(users.size());
+    misses.addAndGet(missing.size());
+    if (missing.isEmpty()) { return users; }
+    for (User user : repo.findAllById(missing)) {
+      cache.put(user.getId(), user);
+      users.put(user.getId(), user);
+    }
+    return users;
   }
 
   /**
@@ -72,26 +141,39 @@ public class UserService {
   }
 
   /**
-   * Checks if a user exists in the repository based on their ID.
+   * Checks if a user exists in the repository with a complete profile.
+   * A placeholder user (default name or email) counts as missing. Unlike
+   * {@link #find}, a missing user is not created.
    *
    * @param id The ID of the user to check.
    * @return {@code true} if the user exists, {@code false} otherwise.
    */
   public boolean exists(String id) {
-    // if (id.equals(User.defaultId)) { return false; }
-    if (!repo.existsById(id)) { return false; }
-    User user;
-    try {
-      user = find(id);
-    } catch (Exception e) {
-      System.out.println("Error while finding user: " + e.getMessage());
-      e.printStackTrace();
-      return false;
+    User user = cache.get(id);
+    if (user != null) {
+      hits.incrementAndGet();
+      return hasProfile(user);
     }
+    misses.incrementAndGet();
+    Optional<User> stored = repo.findById(id);
+    if (!stored.isPresent()) { return false; }
+    cache.put(id, stored.get());
+    return hasProfile(stored.get());
+  }
 
-    if (user.getEmail().equals(User.defaultEmail)) { return false; }
-    if (user.getName().equals(User.defaultName)) { return false; }
-    return true;
+  /**
+   * Stores the profile of a user unless a complete profile is already cached.
+   *
+   * @param profile The user built from the Teams profile.
+   * @return The stored {@link User}.
+   */
+  public User register(User profile) {
+    User cached = cache.get(profile.getId());
+    if (cached != null && hasProfile(cached)) { return cached; }
+    User user = repo.upsertProfile(profile.getId(), profile.getName(), profile.getEmail());
+    if (user == null) { return profile; }
+    cache.put(user.getId(), user);
+    return user;
   }
 
   /**
@@ -101,6 +183,35 @@ public class UserService {
    */
   public void save(User user) {
     repo.save(user);
+    cache.put(user.getId(), user);
+  }
+
+  /**
+   * @return The number of lookups by {@link #find} and {@link #findAll} served
+   *         from the cache.
+   */
+  public long getHits() { return hits.get(); }
+
+  /**
+   * @return The number of lookups by {@link #find} and {@link #findAll} that
+   *         went to the repository.
+   */
+  public long getMisses() { return misses.get(); }
+
+  /**
+   * Removes all users from the cache.
+   */
+  public void clearCache() {
+    cache.clear();
+  }
+
+  /**
+   * Checks whether a user has a name and email other than the placeholders.
+   */
+  private static boolean hasProfile(User user) {
+    if (user.getEmail() == null || user.getEmail().equals(User.defaultEmail)) { return false; }
+    if (user.getName() == null || user.getName().equals(User.defaultName)) { return false; }
+    return true;
   }
 
   /**
@@ -0,0 +1,15 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import com.sprinklr.msTeams.mutexBot.model.CatalogState;
+import com.sprinklr.msTeams.mutexBot.repositories.CatalogStateRepository;
+
+/**
+ * {@link CatalogStateRepository} on the {@link EmbeddedStore}.
+ */
+public class EmbeddedCatalogStateRepository extends EmbeddedRepository<CatalogState>
+    implements CatalogStateRepository {
+
+  public EmbeddedCatalogStateRepository(EmbeddedStore store) {
+    super(store, CatalogState.class);
+  }
+}
@@ -0,0 +1,23 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import com.sprinklr.msTeams.mutexBot.model.ChartName;
+import com.sprinklr.msTeams.mutexBot.repositories.ChartNameRepository;
+
+/**
+ * {@link ChartNameRepository} on the {@link EmbeddedStore}.
+ */
+public class EmbeddedChartNameRepository extends EmbeddedRepository<ChartName> implements ChartNameRepository {
+
+  public EmbeddedChartNameRepository(EmbeddedStore store) {
+    super(store, ChartName.class);
+  }
+
+  @Override
+  public void applyCatalog(Collection<String> added, Collection<String> removed) {
+    if (!added.isEmpty()) { table.saveAll(added.stream().map(ChartName::new).collect(Collectors.toList())); }
+    if (!removed.isEmpty()) { table.deleteAll(removed); }
+  }
+}
@@ -0,0 +1,135 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.CloseableIterator;
+
+import com.sprinklr.msTeams.mutexBot.repositories.MonitorLogRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepository;
+
+/**
+ * The queries of {@link ReservationLogRepository} and
+ * {@link MonitorLogRepository}, which only differ by the type of their logs.
+ *
+ * <p>
+ * Queries scan the whole log, which suits the embedded storage: a single team
+ * writes a few thousand logs a year.
+ * </p>
+ *
+ * @param <T> The type of the logs.
+ */
+abstract class EmbeddedLogRepository<T> extends EmbeddedRepository<T> {
+  private final Function<T, String> resource;
+  private final Function<T, String> user;
+  private final Function<T, LocalDateTime> start;
+  private final Function<T, LocalDateTime> end;
+  private final BiConsumer<T, LocalDateTime> setEnd;
+  private final boolean shortenOnly;
+  private final Comparator<T> latestFirst;
+  private final Comparator<T> earliestFirst;
+
+  EmbeddedLogRepository(EmbeddedStore store, Class<T> type, Function<T, String> resource, Function<T, String> user,
+      Function<T, LocalDateTime> start, Function<T, LocalDateTime> end, BiConsumer<T, LocalDateTime> setEnd,
+      boolean shortenOnly) {
+    super(store, type);
+    this.resource = resource;
+    this.user = user;
+    this.start = start;
+    this.end = end;
+    this.setEnd = setEnd;
+    this.shortenOnly = shortenOnly;
+    this.earliestFirst = Comparator.comparing(start, Comparator.nullsFirst(Comparator.naturalOrder()));
+    this.latestFirst = earliestFirst.reversed();
+  }
+
+  private Predicate<T> of(String resourceName, String userId) {
+    return log -> (resourceName == null || resourceName.equals(resource.apply(log)))
+        && (userId == null || userId.equals(user.apply(log)));
+  }
+
+  /**
+   * Matches the logs that overlap a window, as {@code start < to && end > from}.
+   */
+  private Predicate<T> overlapping(String resourceName, String userId, LocalDateTime from, LocalDateTime to) {
+    return of(resourceName, userId).and(log -> start.apply(log) != null && start.apply(log).isBefore(to)
+        && end.apply(log) != null && end.apply(log).isAfter(from));
+  }
+
+  public List<T> getLatest(String resourceName, String userId, Pageable pageable) {
+    List<T> logs = table.find(of(resourceName, userId), latestFirst);
+    if (pageable.isUnpaged()) { return logs; }
+    int from = (int) Math.min(pageable.getOffset(), logs.size());
+    return logs.subList(from, Math.min(from + pageable.getPageSize(), logs.size()));
+  }
+
+  public List<T> getLogs(String resourceName, String userId) {
+    return table.find(of(resourceName, userId), latestFirst);
+  }
+
+  public List<T> getResourceLogs(String resourceName) {
+    return table.find(of(resourceName, null), latestFirst);
+  }
+
+  public List<T> getUserLogs(String userId) {
+    return table.find(of(null, userId), latestFirst);
+  }
+
+  public List<T> getLogs(String resourceName, String userId, LocalDateTime from, LocalDateTime to) {
+    return table.find(overlapping(resourceName, userId, from, to), earliestFirst);
+  }
+
+  public List<T> getResourceLogs(String resourceName, LocalDateTime from, LocalDateTime to) {
+    return table.find(overlapping(resourceName, null, from, to), earliestFirst);
+  }
+
+  public List<T> getUserLogs(String userId, LocalDateTime from, LocalDateTime to) {
+    return table.find(overlapping(null, userId, from, to), earliestFirst);
+  }
+
+  /**
+   * Iterates over a copy of the matching logs: the embedded storage holds
+   * every log in memory already.
+   */
+  public CloseableIterator<T> streamLogs(String resourceName, String userId, LocalDateTime from, LocalDateTime to) {
+    Iterator<T> logs = table.find(of(resourceName, userId)
+        .and(log -> to == null || (start.apply(log) != null && start.apply(log).isBefore(to)))
+        .and(log -> from == null || (end.apply(log) != null && end.apply(log).isAfter(from))), earliestFirst)
+        .iterator();
+    return new CloseableIterator<T>() {
+      @Override
+      public boolean hasNext() { return logs.hasNext(); }
+
+      @Override
+      public T next() { return logs.next(); }
+
+      @Override
+      public void close() { }
+    };
+  }
+
+  public void insertAll(Collection<T> logs) {
+    List<T> inserted = new ArrayList<>();
+    for (T log : logs) {
+      if (!table.contains(table.idOf(log))) { inserted.add(log); }
+    }
+    if (!inserted.isEmpty()) { table.saveAll(inserted); }
+  }
+
+  public void closeAll(Map<String, LocalDateTime> ends) {
+    for (Map.Entry<String, LocalDateTime> at : ends.entrySet()) {
+      table.update(at.getKey(),
+          log -> !shortenOnly || (end.apply(log) != null && end.apply(log).isAfter(at.getValue())),
+          log -> setEnd.accept(log, at.getValue()));
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.repositories.MonitorLogRepository;
+
+/**
+ * {@link MonitorLogRepository} on the {@link EmbeddedStore}.
+ */
+public class EmbeddedMonitorLogRepository extends EmbeddedLogRepository<MonitorLog>
+    implements MonitorLogRepository {
+  private static final Comparator<MonitorLog> BY_INTERVAL = Comparator.comparing(MonitorLog::getResource)
+      .thenComparing(MonitorLog::getUser)
+      .thenComparing(MonitorLog::getStartTime);
+
+  public EmbeddedMonitorLogRepository(EmbeddedStore store) {
+    super(store, MonitorLog.class, MonitorLog::getResource, MonitorLog::getUser,
+        MonitorLog::getStartTime, MonitorLog::getEndTime, MonitorLog::setEndTime, true);
+  }
+
+  @Override
+  public void upsertAll(Collection<MonitorLog> logs) {
+    for (MonitorLog log : logs) {
+      table.compute(log.getId(), stored -> {
+        if (stored == null) { return log; }
+        if (stored.getEndTime() != null && !log.getEndTime().isAfter(stored.getEndTime())) { return null; }
+        MonitorLog extended = new MonitorLog(stored.getResource(), stored.getUser(), stored.getStartTime(),
+            log.getEndTime());
+        extended.setId(stored.getId());
+        return extended;
+      });
+    }
+  }
+
+  @Override
+  public int compact(LocalDateTime endedBefore) {
+    List<MonitorLog> ended = table.find(log -> log.getStartTime() != null && log.getEndTime() != null
+        && !log.getEndTime().isAfter(endedBefore), BY_INTERVAL);
+    List<String> removed = new ArrayList<>();
+    MonitorLog first = null;
+    LocalDateTime end = null;
+    for (MonitorLog log : ended) {
+      if (first != null && first.getResource().equals(log.getResource()) && first.getUser().equals(log.getUser())
+          && !log.getStartTime().isAfter(end)) {
+        if (log.getEndTime().isAfter(end)) { end = log.getEndTime(); }
+        removed.add(log.getId());
+        continue;
+      }
+      extend(first, end);
+      first = log;
+      end = log.getEndTime();
+    }
+    extend(first, end);
+    if (!removed.isEmpty()) { table.deleteAll(removed); }
+    return removed.size();
+  }
+
+  private void extend(MonitorLog log, LocalDateTime end) {
+    if (log == null || !end.isAfter(log.getEndTime())) { return; }
+    table.update(log.getId(), stored -> true, stored -> stored.setEndTime(end));
+  }
+}
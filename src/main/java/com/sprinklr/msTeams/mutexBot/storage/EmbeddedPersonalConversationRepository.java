@@ -0,0 +1,15 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import com.sprinklr.msTeams.mutexBot.model.PersonalConversation;
+import com.sprinklr.msTeams.mutexBot.repositories.PersonalConversationRepository;
+
+/**
+ * {@link PersonalConversationRepository} on the {@link EmbeddedStore}.
+ */
+public class EmbeddedPersonalConversationRepository extends EmbeddedRepository<PersonalConversation>
+    implements PersonalConversationRepository {
+
+  public EmbeddedPersonalConversationRepository(EmbeddedStore store) {
+    super(store, PersonalConversation.class);
+  }
+}
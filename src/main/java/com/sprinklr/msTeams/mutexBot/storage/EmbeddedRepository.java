@@ -0,0 +1,168 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+/**
+ * The CRUD methods of {@link MongoRepository}, on a table of the
+ * {@link EmbeddedStore}. Embedded repositories extend it with the query and
+ * custom methods of their repository interface.
+ *
+ * <p>
+ * Query by example and sorting by arbitrary properties are not supported:
+ * the bot does not use them.
+ * </p>
+ *
+ * @param <T> The type of the entities.
+ */
+public abstract class EmbeddedRepository<T> implements MongoRepository<T, String> {
+  protected final EmbeddedStore.Table<T> table;
+
+  /**
+   * @param store The store.
+   * @param type  The entity class.
+   */
+  protected EmbeddedRepository(EmbeddedStore store, Class<T> type) {
+    this.table = store.table(type);
+  }
+
+  private static UnsupportedOperationException unsupported(String what) {
+    return new UnsupportedOperationException(what + " is not supported by the embedded storage");
+  }
+
+  private static <E> List<E> list(Iterable<E> items) {
+    List<E> list = new ArrayList<>();
+    items.forEach(list::add);
+    return list;
+  }
+
+  @Override
+  public <S extends T> S save(S entity) {
+    table.save(entity);
+    return entity;
+  }
+
+  @Override
+  public <S extends T> List<S> saveAll(Iterable<S> entities) {
+    List<S> saved = list(entities);
+    table.saveAll(saved);
+    return saved;
+  }
+
+  @Override
+  public <S extends T> S insert(S entity) {
+    return save(entity);
+  }
+
+  @Override
+  public <S extends T> List<S> insert(Iterable<S> entities) {
+    return saveAll(entities);
+  }
+
+  @Override
+  public Optional<T> findById(String id) {
+    return Optional.ofNullable(table.get(id));
+  }
+
+  @Override
+  public boolean existsById(String id) {
+    return table.contains(id);
+  }
+
+  @Override
+  public List<T> findAll() {
+    return table.find(row -> true);
+  }
+
+  @Override
+  public Iterable<T> findAllById(Iterable<String> ids) {
+    List<T> found = new ArrayList<>();
+    for (String id : ids) {
+      T row = table.get(id);
+      if (row != null) { found.add(row); }
+    }
+    return found;
+  }
+
+  @Override
+  public long count() {
+    return table.count();
+  }
+
+  @Override
+  public void deleteById(String id) {
+    table.deleteAll(Collections.singletonList(id));
+  }
+
+  @Override
+  public void delete(T entity) {
+    table.deleteAll(Collections.singletonList(table.idOf(entity)));
+  }
+
+  @Override
+  public void deleteAll(Iterable<? extends T> entities) {
+    List<Object> ids = new ArrayList<>();
+    for (T entity : entities) { ids.add(table.idOf(entity)); }
+    table.deleteAll(ids);
+  }
+
+  @Override
+  public void deleteAll() {
+    table.clear();
+  }
+
+  @Override
+  public List<T> findAll(Sort sort) {
+    if (sort.isSorted()) { throw unsupported("Sorting"); }
+    return findAll();
+  }
+
+  @Override
+  public Page<T> findAll(Pageable pageable) {
+    if (pageable.getSort().isSorted()) { throw unsupported("Sorting"); }
+    List<T> all = findAll();
+    if (pageable.isUnpaged()) { return new PageImpl<>(all); }
+    int from = (int) Math.min(pageable.getOffset(), all.size());
+    int to = Math.min(from + pageable.getPageSize(), all.size());
+    return new PageImpl<>(all.subList(from, to), pageable, all.size());
+  }
+
+  @Override
+  public <S extends T> Optional<S> findOne(Example<S> example) {
+    throw unsupported("Query by example");
+  }
+
+  @Override
+  public <S extends T> List<S> findAll(Example<S> example) {
+    throw unsupported("Query by example");
+  }
+
+  @Override
+  public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+    throw unsupported("Query by example");
+  }
+
+  @Override
+  public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+    throw unsupported("Query by example");
+  }
+
+  @Override
+  public <S extends T> long count(Example<S> example) {
+    throw unsupported("Query by example");
+  }
+
+  @Override
+  public <S extends T> boolean exists(Example<S> example) {
+    throw unsupported("Query by example");
+  }
+}
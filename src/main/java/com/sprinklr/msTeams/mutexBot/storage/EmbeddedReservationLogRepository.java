@@ -0,0 +1,16 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepository;
+
+/**
+ * {@link ReservationLogRepository} on the {@link EmbeddedStore}.
+ */
+public class EmbeddedReservationLogRepository extends EmbeddedLogRepository<ReservationLog>
+    implements ReservationLogRepository {
+
+  public EmbeddedReservationLogRepository(EmbeddedStore store) {
+    super(store, ReservationLog.class, ReservationLog::getResource, ReservationLog::getUser,
+        ReservationLog::getStartTime, ReservationLog::getEndTime, ReservationLog::setEndTime, false);
+  }
+}
@@ -0,0 +1,129 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UserTimeEntry;
+import com.sprinklr.msTeams.mutexBot.repositories.ResourceRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.ResourceRepositoryImpl;
+
+/**
+ * {@link ResourceRepository} on the {@link EmbeddedStore}. The conditional
+ * updates test and change a resource atomically, with the same conditions as
+ * {@link ResourceRepositoryImpl}.
+ */
+public class EmbeddedResourceRepository extends EmbeddedRepository<Resource> implements ResourceRepository {
+
+  public EmbeddedResourceRepository(EmbeddedStore store) {
+    super(store, Resource.class);
+  }
+
+  private static void pullExpiredMonitors(Resource resource, LocalDateTime now) {
+    if (resource.getMonitoredBy() == null) { return; }
+    Iterator<UserTimeEntry> iterator = resource.getMonitoredBy().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().till.isBefore(now)) { iterator.remove(); }
+    }
+  }
+
+  private static boolean isMonitoredBy(Resource resource, String user) {
+    return resource.getMonitoredBy() != null
+        && resource.getMonitoredBy().stream().anyMatch(entry -> entry.user.equals(user));
+  }
+
+  @Override
+  public List<Resource> findReservedResources(LocalDateTime now) {
+    return table.find(resource -> resource.getReservedFlag() && resource.getReservedTill() != null
+        && resource.getReservedTill().isAfter(now));
+  }
+
+  @Override
+  public List<Resource> findAvailableResources(LocalDateTime now) {
+    return table.find(resource -> !resource.getReservedFlag()
+        || (resource.getReservedTill() != null && resource.getReservedTill().isBefore(now)));
+  }
+
+  @Override
+  public Resource reserveIfAvailable(String name, String user, LocalDateTime till, int duration, LocalDateTime now,
+      String logId) {
+    return table.update(name,
+        stored -> (!stored.getReservedFlag() || stored.getReservedTill() == null
+            || stored.getReservedTill().isBefore(now)) && stored.maxAllocationTime >= duration,
+        resource -> {
+          resource.reserve(user, till, logId);
+          pullExpiredMonitors(resource, now);
+        });
+  }
+
+  @Override
+  public Resource releaseIfHeld(String name, String user, LocalDateTime now) {
+    return table.update(name,
+        stored -> stored.getReservedFlag() && stored.getReservedTill() != null
+            && !stored.getReservedTill().isBefore(now) && (user == null || user.equals(stored.getReservedBy())),
+        resource -> {
+          resource.release();
+          pullExpiredMonitors(resource, now);
+        });
+  }
+
+  @Override
+  public Resource addMonitor(String name, String user, LocalDateTime till, String logId, LocalDateTime now) {
+    // Resource.monitor keeps the later of the two end times, as $max does.
+    return table.update(name, stored -> true, resource -> resource.monitor(user, till, logId, now));
+  }
+
+  @Override
+  public Resource removeMonitor(String name, String user) {
+    return table.updateAndGetPrevious(name, stored -> isMonitoredBy(stored, user),
+        resource -> resource.stopMonitoring(user));
+  }
+
+  @Override
+  public Resource expireReservation(String name, String user, LocalDateTime till, LocalDateTime now) {
+    return table.update(name,
+        stored -> stored.getReservedFlag() && user.equals(stored.getReservedBy())
+            && till.equals(stored.getReservedTill()),
+        resource -> {
+          resource.release();
+          pullExpiredMonitors(resource, now);
+        });
+  }
+
+  @Override
+  public Resource pullExpiredMonitors(String name, LocalDateTime now) {
+    return table.update(name,
+        stored -> stored.getMonitoredBy() != null
+            && stored.getMonitoredBy().stream().anyMatch(entry -> entry.till.isBefore(now)),
+        resource -> pullExpiredMonitors(resource, now));
+  }
+
+  @Override
+  public Resource setReservationLogId(String name, String user, LocalDateTime till, String logId) {
+    return table.update(name,
+        stored -> stored.getReservedFlag() && user.equals(stored.getReservedBy())
+            && till.equals(stored.getReservedTill()) && stored.getReservationLogId() == null,
+        resource -> resource.setReservationLogId(logId));
+  }
+
+  @Override
+  public Resource setMonitorLogId(String name, String user, String logId) {
+    return table.update(name,
+        stored -> stored.getMonitor(user) != null && stored.getMonitor(user).logId == null,
+        resource -> resource.getMonitor(user).logId = logId);
+  }
+
+  @Override
+  public void applyCatalog(Collection<Resource> added, Collection<String> removed) {
+    // Like the inserts of the bulk write, never overwrite a stored resource.
+    List<Resource> inserted = new ArrayList<>();
+    for (Resource resource : added) {
+      if (!table.contains(resource.getName())) { inserted.add(resource); }
+    }
+    if (!inserted.isEmpty()) { table.saveAll(inserted); }
+    if (!removed.isEmpty()) { table.deleteAll(removed); }
+  }
+}
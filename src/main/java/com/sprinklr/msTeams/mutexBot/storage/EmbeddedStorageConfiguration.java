@@ -0,0 +1,94 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sprinklr.msTeams.mutexBot.model.CatalogState;
+import com.sprinklr.msTeams.mutexBot.model.ChartName;
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.PersonalConversation;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+import com.sprinklr.msTeams.mutexBot.model.User;
+import com.sprinklr.msTeams.mutexBot.repositories.CatalogStateRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.ChartNameRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.MonitorLogRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.PersonalConversationRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.ResourceRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.UsageRollupRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.UserRepository;
+
+/**
+ * Provides the repositories on the {@link EmbeddedStore} when
+ * {@code storage.backend=embedded}; the MongoDB auto-configuration is then
+ * turned off by {@link StorageEnvironment}.
+ */
+@Configuration
+@ConditionalOnProperty(name = StorageEnvironment.BACKEND, havingValue = StorageEnvironment.EMBEDDED)
+public class EmbeddedStorageConfiguration {
+
+  /**
+   * Opens the store, recovering the state left in its directory.
+   *
+   * @param dir            The directory of the snapshot and journals.
+   * @param fsync          Whether to sync the journal before a change returns.
+   * @param compactAfterMb The journal size triggering a compaction, in MiB.
+   * @return The store.
+   * @throws IOException If the directory cannot be read or written.
+   */
+  @Bean(destroyMethod = "close")
+  public EmbeddedStore embeddedStore(@Value("${storage.embedded.dir:data}") String dir,
+      @Value("${storage.embedded.fsync:true}") boolean fsync,
+      @Value("${storage.embedded.compactAfterMb:64}") long compactAfterMb) throws IOException {
+    return new EmbeddedStore(Paths.get(dir), fsync, compactAfterMb << 20, Resource.class, User.class,
+        ChartName.class, CatalogState.class, ReservationLog.class, MonitorLog.class, PersonalConversation.class,
+        UsageRollup.class);
+  }
+
+  @Bean
+  public ResourceRepository resourceRepository(EmbeddedStore store) {
+    return new EmbeddedResourceRepository(store);
+  }
+
+  @Bean
+  public UserRepository userRepository(EmbeddedStore store) {
+    return new EmbeddedUserRepository(store);
+  }
+
+  @Bean
+  public ChartNameRepository chartNameRepository(EmbeddedStore store) {
+    return new EmbeddedChartNameRepository(store);
+  }
+
+  @Bean
+  public CatalogStateRepository catalogStateRepository(EmbeddedStore store) {
+    return new EmbeddedCatalogStateRepository(store);
+  }
+
+  @Bean
+  public ReservationLogRepository reservationLogRepository(EmbeddedStore store) {
+    return new EmbeddedReservationLogRepository(store);
+  }
+
+  @Bean
+  public MonitorLogRepository monitorLogRepository(EmbeddedStore store) {
+    return new EmbeddedMonitorLogRepository(store);
+  }
+
+  @Bean
+  public PersonalConversationRepository personalConversationRepository(EmbeddedStore store) {
+    return new EmbeddedPersonalConversationRepository(store);
+  }
+
+  @Bean
+  public UsageRollupRepository usageRollupRepository(EmbeddedStore store) {
+    return new EmbeddedUsageRollupRepository(store);
+  }
+}
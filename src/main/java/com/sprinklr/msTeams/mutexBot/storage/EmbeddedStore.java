@@ -0,0 +1,628 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+/**
+ * A single-node store holding the collections of the bot in memory, made
+ * durable by a journal on local disk.
+ *
+ * <p>
+ * Every change is appended to the journal ({@code journal-<generation>.log})
+ * and synced before the call returns; concurrent changes share syncs (see
+ * {@link Journal}). Once the journal outgrows a threshold it is compacted: a
+ * new journal is started and the state at that point is written to
+ * {@code snapshot.json}, after which the older journals are deleted. On start,
+ * the snapshot is loaded and the journals written since are replayed; a record
+ * torn by a crash at the end of a journal is dropped. If a journal write
+ * fails, the store reloads what is on disk and refuses further changes.
+ * </p>
+ *
+ * <p>
+ * Entities are mapped to documents by the same converter as the MongoDB
+ * backend, so both see the same fields and IDs. The stored entities are
+ * private to the store: reads return copies, and changes replace them.
+ * </p>
+ */
+public class EmbeddedStore implements Closeable {
+  private static final String SNAPSHOT = "snapshot.json";
+  private static final Pattern JOURNAL = Pattern.compile("journal-(\\d+)\\.log");
+
+  private final Path dir;
+  private final boolean fsync;
+  private final long compactAfterBytes;
+  private final MongoMappingContext mappingContext = new MongoMappingContext();
+  private final MappingMongoConverter converter;
+  private final Map<String, Table<?>> tables = new LinkedHashMap<>();
+  private final Map<Class<?>, Table<?>> tablesByType = new ConcurrentHashMap<>();
+
+  /** Held shared by changes, and exclusively while switching to a new journal. */
+  private final ReentrantReadWriteLock rotation = new ReentrantReadWriteLock();
+  private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "embedded-store-compactor");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicBoolean compacting = new AtomicBoolean();
+  private volatile Journal journal;
+  private long generation;
+  /** Set once a journal write failed, after which changes are refused. */
+  private volatile boolean failed;
+
+  /**
+   * Opens the store, recovering the state saved in its directory.
+   *
+   * @param dir               The directory of the snapshot and journals.
+   * @param fsync             Whether to sync the journal before a change returns.
+   * @param compactAfterBytes The journal size that triggers a compaction.
+   * @param entityTypes       The entities stored, one collection each.
+   * @throws IOException If the directory cannot be read or written.
+   */
+  public EmbeddedStore(Path dir, boolean fsync, long compactAfterBytes, Class<?>... entityTypes) throws IOException {
+    this.dir = dir;
+    this.fsync = fsync;
+    this.compactAfterBytes = compactAfterBytes;
+
+    MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+    mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+    mappingContext.afterPropertiesSet();
+    converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.setCustomConversions(conversions);
+    converter.afterPropertiesSet();
+
+    for (Class<?> type : entityTypes) {
+      Table<?> table = new Table<>(type);
+      tables.put(table.collection, table);
+      tablesByType.put(type, table);
+    }
+    recover();
+  }
+
+  /**
+   * @param <T>  The type of the entities.
+   * @param type The entity class, as given to the constructor.
+   * @return The collection of the entities.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Table<T> table(Class<T> type) {
+    Table<T> table = (Table<T>) tablesByType.get(type);
+    if (table == null) { throw new IllegalArgumentException("Not stored: " + type.getName()); }
+    return table;
+  }
+
+  private Path journalFile(long generation) {
+    return dir.resolve("journal-" + generation + ".log");
+  }
+
+  /**
+   * Loads the snapshot and replays the journals written since, then compacts
+   * them so the store starts on an empty journal.
+   */
+  private void recover() throws IOException {
+    Files.createDirectories(dir);
+    boolean replayed = load();
+    journal = new Journal(journalFile(generation), fsync);
+    if (replayed) { compact(); }
+  }
+
+  /**
+   * Loads the snapshot and replays the journals written since.
+   *
+   * @return Whether a journal held anything.
+   */
+  private boolean load() throws IOException {
+    for (Table<?> table : tables.values()) { table.rows.clear(); }
+    Path snapshot = dir.resolve(SNAPSHOT);
+    if (Files.exists(snapshot)) {
+      try (BufferedReader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+        generation = Document.parse(reader.readLine()).get("generation", Number.class).longValue();
+        String line;
+        while ((line = reader.readLine()) != null) {
+          Document record = Document.parse(line);
+          table(record.getString("c")).load(record.get("doc", Document.class));
+        }
+      }
+    }
+
+    boolean replayed = false;
+    for (Map.Entry<Long, Path> file : journalFiles().entrySet()) {
+      if (file.getKey() < generation) {
+        Files.delete(file.getValue());  // Already in the snapshot
+        continue;
+      }
+      replayed |= replay(file.getValue());
+      generation = file.getKey();
+    }
+    return replayed;
+  }
+
+  private Map<Long, Path> journalFiles() throws IOException {
+    Map<Long, Path> files = new TreeMap<>();
+    try (java.util.stream.Stream<Path> listing = Files.list(dir)) {
+      for (Path file : listing.collect(Collectors.toList())) {
+        Matcher name = JOURNAL.matcher(file.getFileName().toString());
+        if (name.matches()) { files.put(Long.parseLong(name.group(1)), file); }
+      }
+    }
+    return files;
+  }
+
+  /**
+   * Applies the records of a journal.
+   *
+   * @return Whether the journal held anything.
+   */
+  private boolean replay(Path file) throws IOException {
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    for (int i = 0; i < lines.size(); i++) {
+      Document record;
+      try {
+        record = Document.parse(lines.get(i));
+      } catch (RuntimeException e) {
+        if (i == lines.size() - 1) {
+          System.err.println("Dropping the torn last record of " + file);
+          break;
+        }
+        throw new IOException("Corrupt record " + (i + 1) + " in " + file, e);
+      }
+      Table<?> table = table(record.getString("c"));
+      switch (record.getString("op")) {
+        case "put": table.load(record.get("doc", Document.class)); break;
+        case "delete": table.rows.remove(record.getString("id")); break;
+        case "clear": table.rows.clear(); break;
+        default: throw new IOException("Unknown operation in " + file + ": " + record.toJson());
+      }
+    }
+    return Files.size(file) > 0;
+  }
+
+  private Table<?> table(String collection) throws IOException {
+    Table<?> table = tables.get(collection);
+    if (table == null) { throw new IOException("Unknown collection: " + collection); }
+    return table;
+  }
+
+  /**
+   * Starts a new journal and writes the state at that point to the snapshot,
+   * then deletes the older journals.
+   *
+   * @throws IOException If the snapshot could not be written; the journals are
+   *                     then kept.
+   */
+  public void compact() throws IOException {
+    Journal previous;
+    long snapshotGeneration;
+    Map<Table<?>, List<Object>> contents = new LinkedHashMap<>();
+    rotation.writeLock().lock();
+    try {
+      previous = journal;
+      previous.flush();
+      snapshotGeneration = generation + 1;
+      journal = new Journal(journalFile(snapshotGeneration), fsync);
+      generation = snapshotGeneration;
+      // Stored entities are replaced, never changed, so copying the references is enough.
+      for (Table<?> table : tables.values()) { contents.put(table, new ArrayList<>(table.rows.values())); }
+    } finally {
+      rotation.writeLock().unlock();
+    }
+    previous.close();
+
+    Path temporary = dir.resolve(SNAPSHOT + ".tmp");
+    try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+      writer.write(new Document("generation", snapshotGeneration).toJson());
+      writer.newLine();
+      for (Map.Entry<Table<?>, List<Object>> table : contents.entrySet()) {
+        for (Object row : table.getValue()) {
+          writer.write(new Document("c", table.getKey().collection).append("doc", write(row)).toJson());
+          writer.newLine();
+        }
+      }
+    }
+    if (fsync) {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) { channel.force(true); }
+    }
+    Files.move(temporary, dir.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    syncDirectory();
+
+    for (Map.Entry<Long, Path> file : journalFiles().entrySet()) {
+      if (file.getKey() < snapshotGeneration) { Files.deleteIfExists(file.getValue()); }
+    }
+  }
+
+  private void syncDirectory() {
+    if (!fsync) { return; }
+    try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // Not supported on every platform; the rename is still atomic.
+    }
+  }
+
+  /**
+   * @return The size of the current journal, in bytes.
+   */
+  public long journalSize() {
+    return journal.size();
+  }
+
+  private Document write(Object entity) {
+    Document document = new Document();
+    converter.write(entity, document);
+    return document;
+  }
+
+  /**
+   * Starts a change: the journal cannot be switched until {@link #finish}.
+   *
+   * @throws IllegalStateException If a journal write failed.
+   */
+  private Journal begin() {
+    rotation.readLock().lock();
+    if (failed) {
+      rotation.readLock().unlock();
+      throw readOnly();
+    }
+    return journal;
+  }
+
+  private IllegalStateException readOnly() {
+    return new IllegalStateException("The embedded store in " + dir + " is read-only after a journal write failed");
+  }
+
+  /**
+   * Ends a change, then waits until its records are on disk.
+   *
+   * @param journal  The journal returned by {@link #begin}.
+   * @param sequence The sequence number of the last record, or 0 if none.
+   */
+  private void finish(Journal journal, long sequence) {
+    rotation.readLock().unlock();
+    persist(journal, sequence);
+  }
+
+  /**
+   * Waits until a record is on disk, then compacts the journal in the
+   * background if it outgrew the threshold.
+   */
+  private void persist(Journal journal, long sequence) {
+    if (sequence == 0) { return; }
+    try {
+      journal.await(sequence);
+    } catch (UncheckedIOException e) {
+      fail();
+      throw e;
+    }
+    if (journal.size() >= compactAfterBytes && compacting.compareAndSet(false, true)) {
+      compactor.execute(() -> {
+        try {
+          compact();
+        } catch (IOException e) {
+          System.err.println("Could not compact the embedded store in " + dir);
+          e.printStackTrace();
+        } finally {
+          compacting.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * Makes the store read-only after a journal write failed, and takes back
+   * the changes that were applied in memory but not written, by reloading
+   * what is on disk.
+   */
+  private void fail() {
+    rotation.writeLock().lock();
+    try {
+      if (failed) { return; }
+      failed = true;
+      System.err.println("Journal write failed: the embedded store in " + dir + " is now read-only");
+      load();
+    } catch (IOException | RuntimeException e) {
+      System.err.println("Could not reload the embedded store in " + dir + "; unwritten changes stay visible");
+      e.printStackTrace();
+    } finally {
+      rotation.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Waits for a running compaction, then closes the journal.
+   */
+  @Override
+  public void close() throws IOException {
+    compactor.shutdown();
+    try {
+      compactor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    rotation.writeLock().lock();
+    try {
+      journal.close();
+    } finally {
+      rotation.writeLock().unlock();
+    }
+  }
+
+  /**
+   * A collection of entities, keyed by their ID.
+   *
+   * @param <T> The type of the entities.
+   */
+  public final class Table<T> {
+    private final Class<T> type;
+    private final String collection;
+    private final MongoPersistentProperty idProperty;
+    private final MongoPersistentEntity<?> entity;
+    private final ConcurrentHashMap<String, T> rows = new ConcurrentHashMap<>();
+
+    private Table(Class<T> type) {
+      this.type = type;
+      this.entity = mappingContext.getRequiredPersistentEntity(type);
+      this.collection = entity.getCollection();
+      this.idProperty = entity.getRequiredIdProperty();
+    }
+
+    private void load(Document document) {
+      rows.put(String.valueOf(document.get("_id")), converter.read(type, document));
+    }
+
+    private T copy(T row) {
+      return converter.read(type, write(row));
+    }
+
+    private String put(Document document) {
+      return new Document("c", collection).append("op", "put").append("doc", document).toJson();
+    }
+
+    /**
+     * @param row An entity.
+     * @return The ID of the entity, or {@code null} if it has none yet.
+     */
+    public Object idOf(T row) {
+      return entity.getIdentifierAccessor(row).getIdentifier();
+    }
+
+    /**
+     * @param id The ID of the entity.
+     * @return A copy of the entity, or {@code null} if there is none.
+     */
+    public T get(Object id) {
+      T row = rows.get(String.valueOf(id));
+      return row == null ? null : copy(row);
+    }
+
+    /**
+     * @param id The ID of the entity.
+     * @return Whether there is an entity with that ID.
+     */
+    public boolean contains(Object id) {
+      return rows.containsKey(String.valueOf(id));
+    }
+
+    /**
+     * @return The number of entities.
+     */
+    public long count() {
+      return rows.size();
+    }
+
+    /**
+     * @param filter Tests the stored entities, which it must not change.
+     * @return Copies of the entities that pass the filter.
+     */
+    public List<T> find(Predicate<? super T> filter) {
+      return rows.values().stream().filter(filter).map(this::copy).collect(Collectors.toList());
+    }
+
+    /**
+     * @param filter Tests the stored entities, which it must not change.
+     * @param order  The order of the result.
+     * @return Copies of the entities that pass the filter.
+     */
+    public List<T> find(Predicate<? super T> filter, Comparator<? super T> order) {
+      return rows.values().stream().filter(filter).sorted(order).map(this::copy).collect(Collectors.toList());
+    }
+
+    /**
+     * Inserts or replaces entities. An entity without an ID is given a new
+     * {@link ObjectId}, set on the entity as MongoDB does.
+     *
+     * @param entities The entities.
+     */
+    public void saveAll(Iterable<? extends T> entities) {
+      List<Document> documents = new ArrayList<>();
+      for (T saved : entities) {
+        Document document = write(saved);
+        if (document.get("_id") == null) {
+          ObjectId id = new ObjectId();
+          document.put("_id", id);
+          PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(saved);
+          accessor.setProperty(idProperty, idProperty.getType() == String.class ? id.toHexString() : id);
+        }
+        documents.add(document);
+      }
+      long[] sequence = new long[1];
+      Journal journal = begin();
+      try {
+        for (Document document : documents) {
+          T row = converter.read(type, document);
+          // Appended while the key is locked, so the journal orders changes of a key as they were made.
+          rows.compute(String.valueOf(document.get("_id")), (key, stored) -> {
+            sequence[0] = journal.append(put(document));
+            return row;
+          });
+        }
+      } finally {
+        finish(journal, sequence[0]);
+      }
+    }
+
+    /**
+     * Inserts or replaces an entity.
+     *
+     * @param saved The entity.
+     * @see #saveAll
+     */
+    public void save(T saved) {
+      saveAll(Collections.singletonList(saved));
+    }
+
+    /**
+     * Deletes entities.
+     *
+     * @param ids The IDs of the entities.
+     */
+    public void deleteAll(Iterable<?> ids) {
+      long[] sequence = new long[1];
+      Journal journal = begin();
+      try {
+        for (Object id : ids) {
+          rows.computeIfPresent(String.valueOf(id), (key, stored) -> {
+            sequence[0] = journal.append(
+                new Document("c", collection).append("op", "delete").append("id", key).toJson());
+            return null;
+          });
+        }
+      } finally {
+        finish(journal, sequence[0]);
+      }
+    }
+
+    /**
+     * Deletes every entity.
+     */
+    public void clear() {
+      // Exclusive, as no key lock orders the clear with concurrent changes.
+      Journal journal;
+      long sequence;
+      rotation.writeLock().lock();
+      try {
+        if (failed) { throw readOnly(); }
+        journal = EmbeddedStore.this.journal;
+        sequence = journal.append(new Document("c", collection).append("op", "clear").toJson());
+        rows.clear();
+      } finally {
+        rotation.writeLock().unlock();
+      }
+      persist(journal, sequence);
+    }
+
+    /**
+     * Atomically changes an entity if it passes a condition, like a MongoDB
+     * {@code findAndModify}.
+     *
+     * @param id        The ID of the entity.
+     * @param condition Tests the stored entity, which it must not change.
+     * @param change    Changes a copy of the entity, which then replaces it.
+     * @return A copy of the changed entity, or {@code null} if there is no
+     *         entity or it failed the condition.
+     */
+    public T update(Object id, Predicate<? super T> condition, Consumer<? super T> change) {
+      return apply(id, stored -> {
+        if (stored == null || !condition.test(stored)) { return null; }
+        T changed = copy(stored);
+        change.accept(changed);
+        return changed;
+      }, false);
+    }
+
+    /**
+     * Like {@link #update}, but returns the entity as it was before the change,
+     * like a MongoDB {@code findAndModify} without {@code returnNew}.
+     *
+     * @param id        The ID of the entity.
+     * @param condition Tests the stored entity, which it must not change.
+     * @param change    Changes a copy of the entity, which then replaces it.
+     * @return A copy of the entity before the change, or {@code null} if there
+     *         is no entity or it failed the condition.
+     */
+    public T updateAndGetPrevious(Object id, Predicate<? super T> condition, Consumer<? super T> change) {
+      List<T> previous = new ArrayList<>(1);
+      T changed = update(id, stored -> {
+        if (!condition.test(stored)) { return false; }
+        previous.add(stored);
+        return true;
+      }, change);
+      return changed == null ? null : copy(previous.get(0));
+    }
+
+    /**
+     * Atomically replaces an entity by a function of it, like a MongoDB upsert.
+     *
+     * @param id      The ID of the entity.
+     * @param compute Gets the stored entity, which it must not change, or
+     *                {@code null}; returns the new entity, with the same ID, or
+     *                {@code null} to leave the entity as it is.
+     * @return A copy of the entity after the call, or {@code null} if there is none.
+     */
+    public T compute(Object id, UnaryOperator<T> compute) {
+      return apply(id, compute, true);
+    }
+
+    private T apply(Object id, UnaryOperator<T> compute, boolean returnUnchanged) {
+      String key = String.valueOf(id);
+      Object[] result = new Object[1];
+      long[] sequence = new long[1];
+      Journal journal = begin();
+      try {
+        rows.compute(key, (k, stored) -> {
+          T replacement = compute.apply(stored);
+          if (replacement == null) {
+            if (returnUnchanged) { result[0] = stored; }
+            return stored;
+          }
+          Document document = write(replacement);
+          sequence[0] = journal.append(put(document));
+          T row = converter.read(type, document);
+          result[0] = row;
+          return row;
+        });
+      } finally {
+        finish(journal, sequence[0]);
+      }
+      @SuppressWarnings("unchecked")
+      T row = (T) result[0];
+      return row == null ? null : copy(row);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+import com.sprinklr.msTeams.mutexBot.repositories.UsageRollupRepository;
+
+/**
+ * {@link UsageRollupRepository} on the {@link EmbeddedStore}.
+ */
+public class EmbeddedUsageRollupRepository extends EmbeddedRepository<UsageRollup> implements UsageRollupRepository {
+
+  public EmbeddedUsageRollupRepository(EmbeddedStore store) {
+    super(store, UsageRollup.class);
+  }
+
+  @Override
+  public List<UsageRollup> getBuckets(String scope, String granularity, LocalDateTime from, LocalDateTime to) {
+    return table.find(rollup -> scope.equals(rollup.getScope()) && granularity.equals(rollup.getGranularity())
+        && !rollup.getBucket().isBefore(from) && rollup.getBucket().isBefore(to));
+  }
+
+  @Override
+  public List<UsageRollup> getBuckets(String scope, String key, String granularity, LocalDateTime from,
+      LocalDateTime to) {
+    return table.find(rollup -> scope.equals(rollup.getScope()) && key.equals(rollup.getKey())
+        && granularity.equals(rollup.getGranularity()) && !rollup.getBucket().isBefore(from)
+        && rollup.getBucket().isBefore(to));
+  }
+
+  @Override
+  public void incrementAll(Collection<UsageRollup> deltas) {
+    for (UsageRollup delta : deltas) {
+      table.compute(delta.getId(), stored -> {
+        UsageRollup sum = new UsageRollup(delta.getScope(), delta.getKey(), delta.getGranularity(), delta.getBucket());
+        if (stored != null) { sum.add(stored); }
+        sum.add(delta);
+        return sum;
+      });
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.util.List;
+
+import com.sprinklr.msTeams.mutexBot.model.User;
+import com.sprinklr.msTeams.mutexBot.repositories.UserRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.UserRepositoryImpl;
+
+/**
+ * {@link UserRepository} on the {@link EmbeddedStore}. The upserts behave as
+ * those of {@link UserRepositoryImpl}.
+ */
+public class EmbeddedUserRepository extends EmbeddedRepository<User> implements UserRepository {
+
+  public EmbeddedUserRepository(EmbeddedStore store) {
+    super(store, User.class);
+  }
+
+  @Override
+  public User findByEmail(String email) {
+    List<User> users = table.find(user -> email.equals(user.getEmail()));
+    return users.isEmpty() ? null : users.get(0);
+  }
+
+  @Override
+  public List<User> findByAdminTrue() {
+    return table.find(User::isAdmin);
+  }
+
+  @Override
+  public User getOrCreate(String id) {
+    return table.compute(id, stored -> stored == null ? new User(id) : null);
+  }
+
+  @Override
+  public User upsertProfile(String id, String name, String email) {
+    return table.compute(id, stored -> {
+      if (stored == null) {
+        return new User(id, name != null ? name : User.defaultName, email != null ? email : User.defaultEmail);
+      }
+      User user = new User(id, name != null ? name : stored.getName(), email != null ? email : stored.getEmail());
+      if (stored.isAdmin()) { user.makeAdmin(); }
+      return user;
+    });
+  }
+}
@@ -0,0 +1,163 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only file of records, one per line, made durable in batches.
+ *
+ * <p>
+ * {@link #append} only queues a record; {@link #await} returns once it is on
+ * disk. The first caller to wait writes and syncs every queued record, while
+ * the records appended meanwhile queue up for the next sync. Concurrent
+ * writers thus share fsyncs (group commit) instead of paying one each, and a
+ * lone writer pays a single one.
+ * </p>
+ */
+class Journal implements Closeable {
+  private final Path file;
+  private final FileChannel channel;
+  private final boolean fsync;
+
+  private final Object lock = new Object();
+  private List<byte[]> pending = new ArrayList<>();
+  private long appended;
+  private long durable;
+  private long bytes;
+  private boolean flushing;
+  private IOException failure;
+
+  /**
+   * Opens a journal for appending, creating it if needed.
+   *
+   * @param file  The journal file.
+   * @param fsync Whether to sync the file after each batch, or leave it to the OS.
+   * @throws IOException If the file cannot be opened.
+   */
+  Journal(Path file, boolean fsync) throws IOException {
+    this.file = file;
+    this.fsync = fsync;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+    this.bytes = channel.size();
+  }
+
+  /**
+   * @return The journal file.
+   */
+  Path file() {
+    return file;
+  }
+
+  /**
+   * Queues a record.
+   *
+   * @param record The record, without line break.
+   * @return The sequence number to {@link #await}.
+   */
+  long append(String record) {
+    byte[] line = (record + "\n").getBytes(StandardCharsets.UTF_8);
+    synchronized (lock) {
+      pending.add(line);
+      bytes += line.length;
+      return ++appended;
+    }
+  }
+
+  /**
+   * @return The size of the journal, including queued records, in bytes.
+   */
+  long size() {
+    synchronized (lock) {
+      return bytes;
+    }
+  }
+
+  /**
+   * Waits until a record is on disk, writing the queued records if no other
+   * caller is.
+   *
+   * @param sequence The sequence number returned by {@link #append}.
+   * @throws UncheckedIOException If the journal could not be written.
+   */
+  void await(long sequence) {
+    List<byte[]> batch;
+    long target;
+    synchronized (lock) {
+      while (true) {
+        if (durable >= sequence) { return; }
+        if (failure != null) { throw new UncheckedIOException("Journal write failed: " + file, failure); }
+        if (!flushing) { break; }
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for the journal", e);
+        }
+      }
+      flushing = true;
+      batch = pending;
+      pending = new ArrayList<>();
+      target = appended;
+    }
+
+    IOException error = null;
+    try {
+      write(batch);
+    } catch (IOException e) {
+      error = e;
+    }
+    synchronized (lock) {
+      flushing = false;
+      if (error != null) {
+        failure = error;
+      } else {
+        durable = target;
+      }
+      lock.notifyAll();
+    }
+    if (error != null) { throw new UncheckedIOException("Journal write failed: " + file, error); }
+  }
+
+  /**
+   * Waits until every record appended so far is on disk.
+   */
+  void flush() {
+    long sequence;
+    synchronized (lock) {
+      sequence = appended;
+    }
+    await(sequence);
+  }
+
+  private void write(List<byte[]> batch) throws IOException {
+    if (batch.isEmpty()) { return; }
+    int length = 0;
+    for (byte[] line : batch) { length += line.length; }
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    for (byte[] line : batch) { buffer.put(line); }
+    buffer.flip();
+    while (buffer.hasRemaining()) { channel.write(buffer); }
+    if (fsync) { channel.force(false); }
+  }
+
+  /**
+   * Writes the queued records and closes the file.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.sprinklr.msTeams.mutexBot.storage;
+
+import java.util.Collections;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Selects the storage backend from {@code storage.backend}: {@code mongo}
+ * (the default) or {@code embedded}.
+ *
+ * <p>
+ * The repository interfaces are the storage interface of the services. On
+ * MongoDB, Spring Data implements them; on the embedded backend,
+ * {@link EmbeddedStorageConfiguration} does, and the MongoDB
+ * auto-configuration is excluded here so that no client is created.
+ * </p>
+ */
+public class StorageEnvironment implements EnvironmentPostProcessor {
+  public static final String BACKEND = "storage.backend";
+  public static final String EMBEDDED = "embedded";
+  private static final String EXCLUDE = "spring.autoconfigure.exclude";
+
+  @Override
+  public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+    if (!EMBEDDED.equals(environment.getProperty(BACKEND))) { return; }
+    String excluded = String.join(",", MongoAutoConfiguration.class.getName(),
+        MongoDataAutoConfiguration.class.getName(), MongoRepositoriesAutoConfiguration.class.getName());
+    String configured = environment.getProperty(EXCLUDE);
+    if (configured != null && !configured.trim().isEmpty()) { excluded = configured + "," + excluded; }
+    environment.getPropertySources().addFirst(
+        new MapPropertySource("storageBackend", Collections.<String, Object>singletonMap(EXCLUDE, excluded)));
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the embedded storage backend: the repositories of the bot on an in-memory store made durable by a local journal, selected by {@code storage.backend=embedded}.
+ */
+package com.sprinklr.msTeams.mutexBot.storage;
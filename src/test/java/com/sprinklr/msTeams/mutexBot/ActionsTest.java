@@ -5,12 +5,14 @@ import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.beans.factory.annotation.Value;
 
 import com.microsoft.bot.builder.TurnContext;
 import com.microsoft.bot.builder.teams.TeamsInfo;
@@ -23,6 +25,7 @@ import com.sprinklr.msTeams.mutexBot.service.ChartNameService;
 import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
 import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
 import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+import com.sprinklr.msTeams.mutexBot.service.UsageService;
 import com.sprinklr.msTeams.mutexBot.service.UserService;
 
 class ActionsTest {
@@ -60,19 +63,39 @@ class ActionsTest {
   @Mock
   private User user;
 
-  @Value("${MicrosoftAppId}")
-  private String appId;
+  @Mock
+  private PersonalMessenger personalMessenger;
+
+  @Mock
+  private ExpiryScheduler expiryScheduler;
 
-  @Value("${MicrosoftAppPassword}")
-  private String appPassword;
+  @Mock
+  private UsageService usageService;
 
   private Actions actions;
 
+  private final AtomicInteger rosterCalls = new AtomicInteger();
+
+  /** Stands in for the Teams roster, counting the lookups. */
+  private final BiFunction<TurnContext, String, TeamsChannelAccount> roster = (context, id) -> {
+    rosterCalls.incrementAndGet();
+    TeamsChannelAccount account = new TeamsChannelAccount();
+    account.setId(id);
+    account.setName("Test User");
+    return account;
+  };
+
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    actions = new Actions(resourceService, userService, reservationLogService, monitorLogService,
-        chartNameService, userInput, helmConnector, appId, appPassword);
+    actions = newActions(new MemberCache(3_600_000, roster));
+  }
+
+  private Actions newActions(MemberCache memberCache) {
+    return new Actions(resourceService, userService, reservationLogService, monitorLogService,
+        chartNameService, userInput, helmConnector, new ResourceLocks(16),
+        new NotificationDispatcher(1, 10, 1, 0), personalMessenger, expiryScheduler, memberCache,
+        usageService);
   }
 
   @Test
@@ -99,4 +122,126 @@ class ActionsTest {
     assertTrue(response.getText().contains("is not reserved by anyone"));
   }
 
+  @Test
+  void testReserveResource_AlreadyReserved() throws Exception {
+    when(resourceService.reserve(eq("test-resource"), eq("user-id"), any(LocalDateTime.class), eq(30))).thenReturn(null);
+    when(resourceService.reload("test-resource")).thenReturn(resource);
+    when(teamsUser.getId()).thenReturn("user-id");
+    when(resource.isReserved()).thenReturn(true);
+    when(resource.getReservedBy()).thenReturn("another-user-id");
+    when(resource.getReservedTill()).thenReturn(LocalDateTime.now().plusMinutes(30));
+    when(userService.find("another-user-id")).thenReturn(user);
+
+    Activity response = actions.reserveResource(teamsUser, turnContext, "test-resource", 30);
+
+    assertTrue(response.getText().contains("is already reserved by"));
+    verify(reservationLogService, never()).reserve(any(), any(), any(), any());
+    verify(usageService, times(1)).denied(eq("test-resource"), eq("user-id"), any(LocalDateTime.class));
+  }
+
+  @Test
+  void testReserveResource_Reserved() {
+    TeamsChannelAccount account = new TeamsChannelAccount();
+    account.setId("user-id");
+    account.setName("Test User");
+    when(resource.getName()).thenReturn("test-resource");
+    when(resource.getReservationLogId()).thenReturn("log1");
+    when(resourceService.reserve(eq("test-resource"), eq("user-id"), any(LocalDateTime.class), eq(30))).thenReturn(resource);
+
+    Activity response = actions.reserveResource(account, turnContext, "test-resource", 30);
+
+    assertTrue(response.getText().contains("reserved \"test-resource\""));
+    verify(reservationLogService, times(1)).reserve(eq("test-resource"), eq("user-id"), any(LocalDateTime.class),
+        eq("log1"));
+    verify(expiryScheduler, times(1)).trackReservation(any(Resource.class));
+  }
+
+  @Test
+  void testReleaseResource_NotReserved() throws Exception {
+    when(teamsUser.getId()).thenReturn("user-id");
+    when(resourceService.release("test-resource", "user-id")).thenReturn(null);
+    when(resourceService.reload("test-resource")).thenReturn(resource);
+    when(resource.isReserved()).thenReturn(false);
+
+    Activity response = actions.releaseResource(teamsUser, turnContext, "test-resource");
+
+    assertTrue(response.getText().contains("is not reserved by anyone"));
+    verify(reservationLogService, never()).release(any(Resource.class), any());
+  }
+
+  @Test
+  void testUsageReport_Resource() {
+    when(resourceService.exists("test-resource")).thenReturn(true);
+    UsageService.Usage usage = mock(UsageService.Usage.class);
+    when(usage.toString()).thenReturn("test-resource: 42% utilized");
+    when(usageService.usage("resource", "test-resource", "day", 7)).thenReturn(usage);
+
+    Activity response = actions.usageReport("test-resource");
+
+    assertTrue(response.getText().contains("42% utilized"));
+  }
+
+  @Test
+  void testUsageReport_Unknown() {
+    Activity response = actions.usageReport("nothing");
+
+    assertTrue(response.getText().startsWith("Usage takes"));
+    verifyNoInteractions(usageService);
+  }
+
+  @Test
+  void testGetSender_CachedAfterFirstCommand() {
+    Activity activity = new Activity("message");
+    activity.setFrom(new ChannelAccount("user-id"));
+    when(turnContext.getActivity()).thenReturn(activity);
+
+    actions.getSender(turnContext);
+    TeamsChannelAccount sender = actions.getSender(turnContext);
+
+    assertEquals("user-id", sender.getId());
+    assertEquals(1, rosterCalls.get());
+    verify(userService, times(1)).register(any(User.class));
+  }
+
+  @Test
+  void testNotifyMonitors_PreparedDuringTurn() throws Exception {
+    Resource monitored = new Resource("test-resource");
+    monitored.monitor("monitor1", LocalDateTime.now().plusHours(1));
+    monitored.monitor("monitor2", LocalDateTime.now().plusHours(1));
+    CompletableFuture<Void> sent = new CompletableFuture<>();
+    AtomicInteger sends = new AtomicInteger();
+    when(personalMessenger.sender("message", turnContext)).thenReturn(recipient -> {
+      if (sends.incrementAndGet() == 2) { sent.complete(null); }
+      return CompletableFuture.completedFuture(null);
+    });
+
+    actions.notifyMonitors(monitored, "message", turnContext);
+
+    verify(personalMessenger, times(1)).sender("message", turnContext);
+    sent.get(5, TimeUnit.SECONDS);
+    verify(personalMessenger, never()).send(anyString(), anyString(), any(TurnContext.class));
+  }
+
+  @Test
+  void testActOnResource_MemberCacheHitSkipsRoster() throws Exception {
+    Activity activity = new Activity("message");
+    activity.setFrom(new ChannelAccount("user-id"));
+    when(turnContext.getActivity()).thenReturn(activity);
+    when(resourceService.exists("test-resource")).thenReturn(true);
+    when(resourceService.find("test-resource")).thenReturn(new Resource("test-resource"));
+
+    runStatus(newActions(new MemberCache(0, roster)), 3);
+    assertEquals(3, rosterCalls.get());
+
+    rosterCalls.set(0);
+    runStatus(newActions(new MemberCache(3_600_000, roster)), 3);
+    assertEquals(1, rosterCalls.get());
+  }
+
+  private void runStatus(Actions target, int commands) {
+    for (int i = 0; i < commands; i++) {
+      Activity response = target.actOnResource(turnContext, "test-resource", "status");
+      assertTrue(response.getText().contains("is not reserved"));
+    }
+  }
 }
@@ -0,0 +1,139 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.repository.Repository;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BotMetricsTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void setUp() {
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    Metrics.removeRegistry(registry);
+    registry.close();
+  }
+
+  /** A repository interface, as declared by the bot. */
+  interface ThingRepository extends Repository<Object, String> {
+    String findName(String id);
+  }
+
+  static class Things implements ThingRepository {
+    @Override
+    public String findName(String id) {
+      if (id == null) { throw new IllegalArgumentException("id"); }
+      return "thing-" + id;
+    }
+  }
+
+  static class Counted {
+    final AtomicLong hits = new AtomicLong();
+    final AtomicLong misses = new AtomicLong();
+  }
+
+  @Test
+  void testStop_TagsOutcome() {
+    BotMetrics.stop(Timer.start(BotMetrics.registry()), null, true, BotMetrics.COMMANDS, "command", "help");
+    BotMetrics.stop(Timer.start(BotMetrics.registry()), new RuntimeException(), true, BotMetrics.COMMANDS,
+        "command", "help");
+
+    assertEquals(1, registry.get(BotMetrics.COMMANDS).tags("command", "help", "outcome", "success").timer().count());
+    assertEquals(1, registry.get(BotMetrics.COMMANDS).tags("command", "help", "outcome", "error").timer().count());
+  }
+
+  @Test
+  void testConnectorAsync_TimedUntilCompletion() {
+    CompletableFuture<Void> call = new CompletableFuture<>();
+    CompletableFuture<Void> timed = BotMetrics.connectorAsync("sendPersonalMessage", () -> call);
+
+    assertNull(registry.find(BotMetrics.CONNECTOR_CALLS).timer());
+    call.completeExceptionally(new IllegalStateException());
+
+    assertTrue(timed.isCompletedExceptionally());
+    assertEquals(1, registry.get(BotMetrics.CONNECTOR_CALLS)
+        .tags("call", "sendPersonalMessage", "outcome", "error").timer().count());
+  }
+
+  @Test
+  void testConnector_RecordsFailures() {
+    assertEquals("member", BotMetrics.connector("getMember", () -> "member"));
+    assertThrows(IllegalStateException.class, () -> BotMetrics.connector("getMember", () -> {
+      throw new IllegalStateException();
+    }));
+
+    assertEquals(1, registry.get(BotMetrics.CONNECTOR_CALLS).tags("call", "getMember", "outcome", "success")
+        .timer().count());
+    assertEquals(1, registry.get(BotMetrics.CONNECTOR_CALLS).tags("call", "getMember", "outcome", "error")
+        .timer().count());
+  }
+
+  @Test
+  void testCache_PublishesHitsAndMisses() {
+    Counted cache = new Counted();
+    BotMetrics.cache("test", cache, c -> c.hits.get(), c -> c.misses.get());
+    cache.hits.addAndGet(3);
+    cache.misses.incrementAndGet();
+
+    assertEquals(3, registry.get(BotMetrics.CACHE_REQUESTS).tags("cache", "test", "result", "hit")
+        .functionCounter().count());
+    assertEquals(1, registry.get(BotMetrics.CACHE_REQUESTS).tags("cache", "test", "result", "miss")
+        .functionCounter().count());
+  }
+
+  @Test
+  void testRepositoryMetrics_TimesEachMethod() {
+    ProxyFactory factory = new ProxyFactory(new Things());
+    factory.addInterface(ThingRepository.class);
+    ThingRepository repository = (ThingRepository) new RepositoryMetrics()
+        .postProcessAfterInitialization(factory.getProxy(), "thingRepository");
+
+    assertEquals("thing-1", repository.findName("1"));
+    assertEquals("thing-2", repository.findName("2"));
+    assertThrows(IllegalArgumentException.class, () -> repository.findName(null));
+
+    assertEquals(2, registry.get(BotMetrics.REPOSITORY_CALLS)
+        .tags("repository", "ThingRepository", "method", "findName", "outcome", "success").timer().count());
+    assertEquals(1, registry.get(BotMetrics.REPOSITORY_CALLS)
+        .tags("repository", "ThingRepository", "method", "findName", "outcome", "error").timer().count());
+  }
+
+  @Test
+  void testResourceLocks_RecordsWaits() throws Exception {
+    ResourceLocks locks = new ResourceLocks(16);
+    Lock held = locks.lock("prod-qa6");
+    CountDownLatch waiting = new CountDownLatch(1);
+    Thread other = new Thread(() -> {
+      waiting.countDown();
+      locks.lock("prod-qa6").unlock();
+    });
+    other.start();
+    waiting.await();
+    Thread.sleep(50);
+    held.unlock();
+    other.join();
+
+    Timer waits = registry.get(BotMetrics.LOCK_WAIT).timer();
+    assertEquals(2, waits.count());
+    assertTrue(waits.max(TimeUnit.MILLISECONDS) >= 40, "the second caller waited for the first");
+  }
+}
@@ -0,0 +1,112 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.microsoft.bot.schema.Serialization;
+
+class CardTemplateTest {
+
+  private static Map<String, String> values(String... pairs) {
+    Map<String, String> values = new HashMap<>();
+    for (int i = 0; i < pairs.length; i += 2) { values.put(pairs[i], pairs[i + 1]); }
+    return values;
+  }
+
+  @Test
+  void testSubstitute() {
+    Map<String, String> values = values("action", "reserve", "resource", "chart-qa1");
+
+    assertEquals("reserve chart-qa1 for:", CardTemplate.substitute("${action} $(resource) for:", values));
+    assertEquals("$5 ${missing} reserve", CardTemplate.substitute("$5 ${missing} ${action}", values));
+    assertNull(CardTemplate.substitute("no placeholders", values));
+    assertNull(CardTemplate.substitute("${missing} $(", values));
+  }
+
+  @Test
+  void testFill_ChoicesAndPlaceholders() throws IOException {
+    CardTemplate template = CardTemplate.load(Utils.RESOURCE_ADAPTIVE_CARD_TEMPLATE);
+
+    JsonNode card = template.fill(values("fieldName", "Chart Name:", "cardName", "chartNameCard"),
+        Arrays.asList("chart-a", "chart-b"), name -> name.substring(6));
+
+    assertEquals("Chart Name:", card.at("/body/0/text").asText());
+    assertEquals("chartNameCard", card.at("/body/2/value").asText());
+    JsonNode choices = card.at("/body/1/choices");
+    assertEquals(2, choices.size());
+    assertEquals("a", choices.get(0).get("title").asText());
+    assertEquals("chart-b", choices.get(1).get("value").asText());
+  }
+
+  @Test
+  void testFill_LeavesPrototypeUnchanged() throws IOException {
+    CardTemplate template = CardTemplate.load(Utils.DURATION_ADAPTIVE_CARD_TEMPLATE);
+
+    JsonNode first = template.fill(values("resource", "chart-qa1", "action", "reserve"), null, null);
+    JsonNode second = template.fill(values("resource", "chart-qa2", "action", "monitor"), null, null);
+
+    assertEquals("How long do you wish to reserve chart-qa1 for:", first.at("/body/0/text").asText());
+    assertEquals("chart-qa2", second.at("/body/6/value").asText());
+    assertEquals("monitor", second.at("/body/7/value").asText());
+  }
+
+  @Test
+  void testFill_QuotesInValuesStayValidJson() throws IOException {
+    CardTemplate template = CardTemplate.load(Utils.DURATION_ADAPTIVE_CARD_TEMPLATE);
+    String resource = "chart-\"qa\"\\1 $1";
+
+    JsonNode card = template.fill(values("resource", resource, "action", "reserve"), null, null);
+    JsonNode parsed = Serialization.jsonToTree(Serialization.toString(card));
+
+    assertEquals(resource, parsed.at("/body/6/value").asText());
+  }
+
+  @Test
+  void testLoad_MissingTemplate() throws IOException {
+    assertNull(CardTemplate.load("/missing.json"));
+  }
+
+  /**
+   * Builds the release card the way it was built before: read the template,
+   * splice the choices into the text with regexes, parse the result.
+   */
+  private static JsonNode spliceCard(String chartName, List<String> resourceNames) throws IOException {
+    String templateJSON;
+    try (InputStream inputStream = CardTemplateTest.class.getResourceAsStream(Utils.RESOURCE_ADAPTIVE_CARD_TEMPLATE)) {
+      templateJSON = IOUtils.toString(inputStream, StandardCharsets.UTF_8.toString());
+    }
+    StringBuilder choices = new StringBuilder();
+    for (String resourceName : resourceNames) {
+      if (choices.length() > 0) { choices.append(", "); }
+      choices.append(String.format("{\"title\": \"%s\", \"value\": \"%s\"}",
+          resourceName.substring(chartName.length() + 1), resourceName));
+    }
+    String cardJSON = templateJSON.replaceFirst("\\{\\}", Matcher.quoteReplacement(choices.toString()));
+    cardJSON = cardJSON.replace("$(fieldName)", "Release Name (for '" + chartName + "'):");
+    cardJSON = cardJSON.replace("$(cardName)", "releaseNameCard");
+    return Serialization.jsonToTree(cardJSON);
+  }
+
+  @Test
+  void testFill_SameCardAsSplicing() throws IOException {
+    List<String> releases = new ArrayList<>();
+    for (int i = 0; i < 50; i++) { releases.add("chart-release" + i); }
+    CardTemplate template = CardTemplate.load(Utils.RESOURCE_ADAPTIVE_CARD_TEMPLATE);
+    Map<String, String> values = values("fieldName", "Release Name (for 'chart'):", "cardName", "releaseNameCard");
+
+    assertEquals(spliceCard("chart", releases), template.fill(values, releases, name -> name.substring(6)));
+  }
+}
@@ -0,0 +1,95 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationAccount;
+import com.microsoft.bot.schema.ConversationReference;
+import com.sprinklr.msTeams.mutexBot.model.PersonalConversation;
+import com.sprinklr.msTeams.mutexBot.repositories.PersonalConversationRepository;
+import com.sprinklr.msTeams.mutexBot.service.ConversationReferenceService;
+
+class ConversationReferenceServiceTest {
+
+  @Mock
+  private PersonalConversationRepository personalConversationRepository;
+
+  @InjectMocks
+  private ConversationReferenceService conversationReferenceService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  private static ConversationReference reference(String conversationId) {
+    ConversationAccount conversation = new ConversationAccount(conversationId);
+    conversation.setTenantId("tenant1");
+    ConversationReference reference = new ConversationReference();
+    reference.setConversation(conversation);
+    reference.setServiceUrl("https://smba.example.com/");
+    reference.setChannelId("msteams");
+    reference.setBot(new ChannelAccount("bot1", "MutexBot"));
+    return reference;
+  }
+
+  @Test
+  void testFind_Miss() {
+    when(personalConversationRepository.findById("user1")).thenReturn(Optional.empty());
+
+    assertNull(conversationReferenceService.find("user1"));
+    assertEquals(0, conversationReferenceService.getHits());
+    assertEquals(1, conversationReferenceService.getMisses());
+  }
+
+  @Test
+  void testSaveThenFind_ServedFromMemory() {
+    conversationReferenceService.save("user1", reference("a:1"));
+
+    ConversationReference found = conversationReferenceService.find("user1");
+
+    assertEquals("a:1", found.getConversation().getId());
+    assertEquals("tenant1", found.getConversation().getTenantId());
+    assertEquals("user1", found.getUser().getId());
+    assertEquals("bot1", found.getBot().getId());
+    assertEquals(1, conversationReferenceService.getHits());
+    verify(personalConversationRepository, times(1)).save(any(PersonalConversation.class));
+    verify(personalConversationRepository, never()).findById(any());
+  }
+
+  @Test
+  void testFind_LoadedFromDatabaseOnce() {
+    when(personalConversationRepository.findById("user1"))
+        .thenReturn(Optional.of(new PersonalConversation("user1", reference("a:1"))));
+
+    conversationReferenceService.find("user1");
+    ConversationReference found = conversationReferenceService.find("user1");
+
+    assertEquals("https://smba.example.com/", found.getServiceUrl());
+    assertEquals(2, conversationReferenceService.getHits());
+    verify(personalConversationRepository, times(1)).findById("user1");
+  }
+
+  @Test
+  void testEvict() {
+    conversationReferenceService.save("user1", reference("a:1"));
+    when(personalConversationRepository.findById("user1")).thenReturn(Optional.empty());
+
+    conversationReferenceService.evict("user1");
+
+    assertNull(conversationReferenceService.find("user1"));
+    ArgumentCaptor<String> id = ArgumentCaptor.forClass(String.class);
+    verify(personalConversationRepository).deleteById(id.capture());
+    assertEquals("user1", id.getValue());
+  }
+}
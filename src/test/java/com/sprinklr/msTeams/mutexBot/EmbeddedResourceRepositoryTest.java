@@ -0,0 +1,174 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.User;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedMonitorLogRepository;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedResourceRepository;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedStore;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedUserRepository;
+
+class EmbeddedResourceRepositoryTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+  @TempDir
+  Path dir;
+
+  private EmbeddedStore store;
+  private EmbeddedResourceRepository repo;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    store = new EmbeddedStore(dir, false, Long.MAX_VALUE, Resource.class, User.class, MonitorLog.class);
+    repo = new EmbeddedResourceRepository(store);
+    repo.applyCatalog(Arrays.asList(new Resource("Resource1"), new Resource("Resource2")), Collections.emptyList());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    store.close();
+  }
+
+  @Test
+  void testReserveIfAvailable() {
+    Resource reserved = repo.reserveIfAvailable("Resource1", "User1", NOW.plusHours(1), 60, NOW, null);
+    assertEquals("User1", reserved.getReservedBy());
+    assertNull(repo.reserveIfAvailable("Resource1", "User2", NOW.plusHours(1), 60, NOW, null));
+    assertNull(repo.reserveIfAvailable("Resource2", "User2", NOW.plusDays(2), 2 * 24 * 60, NOW, null));
+    assertNull(repo.reserveIfAvailable("Missing", "User2", NOW.plusHours(1), 60, NOW, null));
+
+    // An expired reservation can be taken over.
+    Resource taken = repo.reserveIfAvailable("Resource1", "User2", NOW.plusHours(3), 60, NOW.plusHours(2), null);
+    assertEquals("User2", taken.getReservedBy());
+    assertEquals("Resource1", repo.findReservedResources(NOW.plusHours(2)).get(0).getName());
+  }
+
+  @Test
+  void testReleaseIfHeld() {
+    repo.reserveIfAvailable("Resource1", "User1", NOW.plusHours(1), 60, NOW, null);
+    assertNull(repo.releaseIfHeld("Resource1", "User2", NOW));
+    assertFalse(repo.releaseIfHeld("Resource1", "User1", NOW).getReservedFlag());
+    assertNull(repo.releaseIfHeld("Resource1", "User1", NOW));
+  }
+
+  @Test
+  void testMonitors() {
+    repo.addMonitor("Resource1", "User1", NOW.plusHours(1), "log1", NOW);
+    repo.addMonitor("Resource1", "User1", NOW.plusMinutes(30), "log2", NOW);
+    repo.addMonitor("Resource1", "User2", NOW.plusMinutes(10), "log3", NOW);
+    Resource resource = repo.findById("Resource1").get();
+    assertEquals(2, resource.getMonitoredBy().size());
+    assertEquals(NOW.plusHours(1), resource.getMonitoredBy().get(0).till);
+    // Extending a running entry keeps its log.
+    assertEquals("log1", resource.getMonitoredBy().get(0).logId);
+
+    assertEquals(1, repo.pullExpiredMonitors("Resource1", NOW.plusMinutes(20)).getMonitoredBy().size());
+    assertNull(repo.pullExpiredMonitors("Resource1", NOW.plusMinutes(20)));
+    assertNull(repo.removeMonitor("Resource1", "User2"));
+    // The resource before the removal, with the log ID of the removed entry.
+    assertEquals("log1", repo.removeMonitor("Resource1", "User1").getMonitor("User1").logId);
+    assertTrue(repo.findById("Resource1").get().getMonitoredBy().isEmpty());
+  }
+
+  @Test
+  void testAddMonitor_ExpiredEntryGetsNewLog() {
+    repo.addMonitor("Resource1", "User1", NOW.plusMinutes(10), "log1", NOW);
+
+    Resource resource = repo.addMonitor("Resource1", "User1", NOW.plusHours(1), "log2", NOW.plusMinutes(20));
+
+    assertEquals("log2", resource.getMonitor("User1").logId);
+    assertEquals(NOW.plusHours(1), resource.getMonitor("User1").till);
+  }
+
+  private static MonitorLog log(String id, String user, LocalDateTime start, LocalDateTime end) {
+    MonitorLog log = new MonitorLog("Resource1", user, start, end);
+    log.setId(id);
+    return log;
+  }
+
+  @Test
+  void testMonitorLogs_UpsertExtends() {
+    EmbeddedMonitorLogRepository logs = new EmbeddedMonitorLogRepository(store);
+    logs.upsertAll(Collections.singletonList(log("log1", "User1", NOW, NOW.plusMinutes(10))));
+    logs.upsertAll(Collections.singletonList(log("log1", "User1", NOW.plusMinutes(5), NOW.plusMinutes(30))));
+    logs.upsertAll(Collections.singletonList(log("log1", "User1", NOW.plusMinutes(6), NOW.plusMinutes(20))));
+
+    MonitorLog stored = logs.findById("log1").get();
+    assertEquals(1, logs.count());
+    assertEquals(NOW, stored.getStartTime());
+    assertEquals(NOW.plusMinutes(30), stored.getEndTime());
+  }
+
+  @Test
+  void testMonitorLogs_Compact() {
+    EmbeddedMonitorLogRepository logs = new EmbeddedMonitorLogRepository(store);
+    logs.saveAll(Arrays.asList(
+        log("a1", "User1", NOW, NOW.plusMinutes(10)),
+        log("a2", "User1", NOW.plusMinutes(5), NOW.plusMinutes(20)),
+        log("a3", "User1", NOW.plusMinutes(20), NOW.plusMinutes(30)),
+        log("a4", "User1", NOW.plusMinutes(40), NOW.plusMinutes(50)),
+        log("b1", "User2", NOW.plusMinutes(5), NOW.plusMinutes(15)),
+        log("open", "User1", NOW.plusMinutes(45), NOW.plusHours(2))));
+
+    assertEquals(2, logs.compact(NOW.plusHours(1)));
+    assertEquals(NOW.plusMinutes(30), logs.findById("a1").get().getEndTime());
+    assertFalse(logs.existsById("a2"));
+    assertFalse(logs.existsById("a3"));
+    assertTrue(logs.existsById("a4"));
+    assertTrue(logs.existsById("b1"));
+    assertTrue(logs.existsById("open"));
+    assertEquals(0, logs.compact(NOW.plusHours(1)));
+  }
+
+  @Test
+  void testSetLogIds_OnlyWhenMissing() {
+    repo.reserveIfAvailable("Resource1", "User1", NOW.plusHours(1), 60, NOW, null);
+    repo.addMonitor("Resource1", "User2", NOW.plusHours(1), null, NOW);
+
+    assertNull(repo.setReservationLogId("Resource1", "User2", NOW.plusHours(1), "log1"));
+    assertEquals("log1", repo.setReservationLogId("Resource1", "User1", NOW.plusHours(1), "log1").getReservationLogId());
+    assertNull(repo.setReservationLogId("Resource1", "User1", NOW.plusHours(1), "log2"));
+
+    assertEquals("log3", repo.setMonitorLogId("Resource1", "User2", "log3").getMonitor("User2").logId);
+    assertNull(repo.setMonitorLogId("Resource1", "User2", "log4"));
+    assertNull(repo.setMonitorLogId("Resource1", "User1", "log4"));
+  }
+
+  @Test
+  void testApplyCatalog_KeepsStoredResources() {
+    repo.reserveIfAvailable("Resource1", "User1", NOW.plusHours(1), 60, NOW, null);
+    repo.applyCatalog(Arrays.asList(new Resource("Resource1"), new Resource("Resource3")),
+        Collections.singletonList("Resource2"));
+
+    assertEquals(2, repo.count());
+    assertTrue(repo.findById("Resource1").get().getReservedFlag());
+    assertFalse(repo.existsById("Resource2"));
+  }
+
+  @Test
+  void testUpsertProfile_KeepsAdminFlag() {
+    EmbeddedUserRepository users = new EmbeddedUserRepository(store);
+    User admin = users.getOrCreate("User1");
+    admin.makeAdmin();
+    users.save(admin);
+
+    User updated = users.upsertProfile("User1", "Test User", null);
+    assertEquals("Test User", updated.getName());
+    assertEquals(User.defaultEmail, updated.getEmail());
+    assertTrue(updated.isAdmin());
+    assertEquals(1, users.findByAdminTrue().size());
+  }
+}
@@ -0,0 +1,210 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.User;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedReservationLogRepository;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedStore;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedUserRepository;
+
+class EmbeddedStoreTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+  @TempDir
+  Path dir;
+
+  private EmbeddedStore open(long compactAfterBytes) throws IOException {
+    return new EmbeddedStore(dir, true, compactAfterBytes, Resource.class, User.class, ReservationLog.class);
+  }
+
+  private List<String> files() throws IOException {
+    try (Stream<Path> listing = Files.list(dir)) {
+      return listing.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  void testReopen_ReplaysJournal() throws IOException {
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      EmbeddedUserRepository users = new EmbeddedUserRepository(store);
+      users.upsertProfile("User1", "Test User", "user1@example.com");
+      users.getOrCreate("User2");
+      users.deleteById("User2");
+      assertTrue(store.journalSize() > 0);
+    }
+
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      EmbeddedUserRepository users = new EmbeddedUserRepository(store);
+      assertEquals(1, users.count());
+      assertEquals("Test User", users.findById("User1").get().getName());
+      assertEquals("User1", users.findByEmail("user1@example.com").getId());
+      // The replayed journal was compacted into the snapshot.
+      assertEquals(0, store.journalSize());
+      assertTrue(files().contains("snapshot.json"));
+    }
+  }
+
+  @Test
+  void testCompact_DeletesOldJournals() throws IOException {
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      EmbeddedReservationLogRepository logs = new EmbeddedReservationLogRepository(store);
+      ReservationLog log = logs.save(new ReservationLog("Resource1", "User1", NOW, null));
+      assertNotNull(store.table(ReservationLog.class).idOf(log));
+      store.compact();
+      log.setEndTime(NOW.plusHours(1));
+      logs.save(log);
+      assertEquals(Arrays.asList("journal-1.log", "snapshot.json"), files());
+    }
+
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      EmbeddedReservationLogRepository logs = new EmbeddedReservationLogRepository(store);
+      List<ReservationLog> found = logs.getLogs("Resource1", "User1");
+      assertEquals(1, found.size());
+      assertEquals(NOW.plusHours(1), found.get(0).getEndTime());
+    }
+  }
+
+  @Test
+  void testReopen_DropsTornRecord() throws IOException {
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      new EmbeddedUserRepository(store).getOrCreate("User1");
+    }
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      new EmbeddedUserRepository(store).getOrCreate("User2");
+    }
+    Path journal = dir.resolve(files().get(0));
+    Files.write(journal, "{\"c\": \"users\", \"op\": \"put\", \"doc\": {\"_id\": \"Us".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.APPEND);
+
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      EmbeddedUserRepository users = new EmbeddedUserRepository(store);
+      assertEquals(2, users.count());
+      assertTrue(users.existsById("User2"));
+    }
+  }
+
+  @Test
+  void testReopen_ConcurrentChangesReplayInOrder() throws Exception {
+    Map<String, String> names;
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      EmbeddedStore.Table<User> users = store.table(User.class);
+      ExecutorService pool = Executors.newFixedThreadPool(4);
+      List<Future<?>> writers = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        int writer = thread;
+        writers.add(pool.submit(() -> {
+          for (int i = 0; i < 500; i++) {
+            String id = "User" + (i % 3);
+            if (i % 7 == writer) {
+              users.deleteAll(Collections.singletonList(id));
+            } else {
+              users.saveAll(Collections.singletonList(new User(id, "Writer" + writer + "-" + i, null)));
+            }
+          }
+        }));
+      }
+      for (Future<?> done : writers) { done.get(); }
+      pool.shutdown();
+      names = users.find(user -> true).stream().collect(Collectors.toMap(User::getId, User::getName));
+    }
+
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      assertEquals(names, store.table(User.class).find(user -> true).stream()
+          .collect(Collectors.toMap(User::getId, User::getName)));
+    }
+  }
+
+  @Test
+  void testFailedJournalWrite_RollsBackAndRefusesChanges() throws IOException {
+    EmbeddedStore store = open(Long.MAX_VALUE);
+    EmbeddedUserRepository users = new EmbeddedUserRepository(store);
+    users.getOrCreate("User1");
+    Object journal = ReflectionTestUtils.getField(store, "journal");
+    ((FileChannel) ReflectionTestUtils.getField(journal, "channel")).close();
+
+    assertThrows(UncheckedIOException.class, () -> users.getOrCreate("User2"));
+    assertFalse(users.existsById("User2"));
+    assertTrue(users.existsById("User1"));
+    assertThrows(IllegalStateException.class, () -> users.deleteById("User1"));
+    assertThrows(UncheckedIOException.class, store::close);
+  }
+
+  @Test
+  void testReadsReturnCopies() throws IOException {
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      EmbeddedUserRepository users = new EmbeddedUserRepository(store);
+      users.getOrCreate("User1").setName("Changed");
+      assertEquals(User.defaultName, users.findById("User1").get().getName());
+    }
+  }
+
+  @Test
+  void testLogQueries() throws IOException {
+    try (EmbeddedStore store = open(Long.MAX_VALUE)) {
+      EmbeddedReservationLogRepository logs = new EmbeddedReservationLogRepository(store);
+      logs.saveAll(Arrays.asList(
+          new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)),
+          new ReservationLog("Resource1", "User2", NOW.plusHours(2), NOW.plusHours(3)),
+          new ReservationLog("Resource2", "User1", NOW.plusHours(4), null)));
+
+      assertEquals(NOW.plusHours(2), logs.getLatest("Resource1", null, PageRequest.of(0, 1)).get(0).getStartTime());
+      assertEquals(2, logs.getUserLogs("User1").size());
+      assertEquals(NOW.plusHours(4), logs.getUserLogs("User1").get(0).getStartTime());
+
+      List<ReservationLog> window = logs.getResourceLogs("Resource1", NOW.plusMinutes(30), NOW.plusHours(5));
+      assertEquals(2, window.size());
+      assertEquals(NOW, window.get(0).getStartTime());
+      // Open logs have no end, so they are left out of windows.
+      assertTrue(logs.getUserLogs("User1", NOW.plusHours(3), NOW.plusHours(6)).isEmpty());
+
+      try (CloseableIterator<ReservationLog> exported = logs.streamLogs(null, "User1", null, null)) {
+        assertEquals(NOW, exported.next().getStartTime());
+        assertEquals(NOW.plusHours(4), exported.next().getStartTime());
+        assertFalse(exported.hasNext());
+      }
+      try (CloseableIterator<ReservationLog> exported = logs.streamLogs(null, null, NOW.plusHours(1), null)) {
+        assertEquals(NOW.plusHours(2), exported.next().getStartTime());
+        assertFalse(exported.hasNext());
+      }
+    }
+  }
+
+  @Test
+  void testCompactsInBackground() throws Exception {
+    try (EmbeddedStore store = open(1)) {
+      new EmbeddedUserRepository(store).getOrCreate("User1");
+    }
+    assertTrue(files().contains("snapshot.json"));
+    assertFalse(files().contains("journal-0.log"));
+    try (EmbeddedStore store = open(1)) {
+      assertTrue(new EmbeddedUserRepository(store).existsById("User1"));
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+import com.sprinklr.msTeams.mutexBot.service.UserService;
+
+class ExpirySchedulerTest {
+
+  @Mock
+  private ResourceService resourceService;
+
+  @Mock
+  private ReservationLogService reservationLogService;
+
+  @Mock
+  private UserService userService;
+
+  @Mock
+  private PersonalMessenger personalMessenger;
+
+  private ExpiryScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    scheduler = new ExpiryScheduler(resourceService, reservationLogService, userService, new ResourceLocks(16),
+        new NotificationDispatcher(1, 100, 1, 0), personalMessenger, 0);
+    when(personalMessenger.send(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+  }
+
+  @Test
+  void testTick_ExpiresLapsedReservation() throws Exception {
+    LocalDateTime till = LocalDateTime.now().minusSeconds(1);
+    Resource reserved = new Resource("Resource1");
+    reserved.reserve("user1", till);
+    reserved.monitor("monitor1", LocalDateTime.now().plusHours(1));
+    reserved.monitor("monitor2", LocalDateTime.now().plusHours(1));
+    Resource released = new Resource("Resource1");
+    released.setReservationLogId("log1");
+    released.monitor("monitor1", LocalDateTime.now().plusHours(1));
+    released.monitor("monitor2", LocalDateTime.now().plusHours(1));
+    when(resourceService.find("Resource1")).thenReturn(reserved);
+    when(resourceService.expire("Resource1", "user1", till)).thenReturn(released);
+
+    scheduler.trackReservation(reserved);
+    assertEquals(1, scheduler.tick());
+
+    verify(resourceService, times(1)).expire("Resource1", "user1", till);
+    verify(reservationLogService, times(1)).release(released, till);
+    verify(personalMessenger, timeout(1000).times(1)).send(eq("monitor1"), contains("expired"));
+    verify(personalMessenger, timeout(1000).times(1)).send(eq("monitor2"), contains("expired"));
+    assertEquals(0, scheduler.pending());
+  }
+
+  @Test
+  void testTick_SkipsChangedReservation() throws Exception {
+    LocalDateTime till = LocalDateTime.now().minusSeconds(1);
+    Resource old = new Resource("Resource1");
+    old.reserve("user1", till);
+    Resource current = new Resource("Resource1");
+    current.reserve("user2", LocalDateTime.now().plusHours(1));
+    when(resourceService.find("Resource1")).thenReturn(current);
+
+    scheduler.trackReservation(old);
+    scheduler.tick();
+
+    verify(resourceService, never()).expire(any(), any(), any());
+    verify(reservationLogService, never()).release(any(Resource.class), any());
+  }
+
+  @Test
+  void testTick_LeavesFutureDeadlines() {
+    Resource reserved = new Resource("Resource1");
+    reserved.reserve("user1", LocalDateTime.now().plusHours(1));
+
+    scheduler.trackReservation(reserved);
+
+    assertEquals(0, scheduler.tick());
+    assertEquals(1, scheduler.pending());
+    verifyNoInteractions(resourceService);
+  }
+
+  @Test
+  void testTick_ExpiresMonitors() throws Exception {
+    Resource monitored = new Resource("Resource1");
+    monitored.monitor("monitor1", LocalDateTime.now().minusSeconds(1));
+    when(resourceService.find("Resource1")).thenReturn(monitored);
+
+    scheduler.trackMonitor(monitored, "monitor1");
+    scheduler.tick();
+
+    verify(resourceService, times(1)).expireMonitors("Resource1");
+    verify(resourceService, never()).expire(any(), any(), any());
+  }
+
+  @Test
+  void testLoadPending() {
+    Resource reserved = new Resource("Resource1");
+    reserved.reserve("user1", LocalDateTime.now().plusHours(1));
+    reserved.monitor("monitor1", LocalDateTime.now().plusHours(2));
+    Resource lapsed = new Resource("Resource2");
+    lapsed.reserve("user2", LocalDateTime.now().minusHours(1));
+    Resource free = new Resource("Resource3");
+    when(resourceService.getCached()).thenReturn(Arrays.asList(reserved, lapsed, free));
+
+    scheduler.loadPending();
+
+    assertEquals(3, scheduler.pending());
+  }
+
+  @Test
+  void testTick_ManyPendingDeadlines() {
+    int pending = 50_000;
+    LocalDateTime base = LocalDateTime.now().plusHours(1);
+    List<Resource> resources = new ArrayList<>();
+    for (int i = 0; i < pending; i++) {
+      Resource resource = new Resource("Resource" + i);
+      resource.reserve("user", base.plusSeconds(i));
+      resources.add(resource);
+    }
+    resources.forEach(scheduler::trackReservation);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 1000; i++) { scheduler.tick(); }
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertEquals(pending, scheduler.pending());
+    assertTrue(elapsedMillis < 1000, "1000 ticks over " + pending + " pending deadlines took " + elapsedMillis + " ms");
+    verifyNoInteractions(resourceService);
+  }
+}
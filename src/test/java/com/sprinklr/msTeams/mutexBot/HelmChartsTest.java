@@ -0,0 +1,255 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sprinklr.msTeams.mutexBot.service.ChartNameService;
+import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class HelmChartsTest {
+
+  private static final String PROJECT = "/api/v4/projects/410";
+
+  @Mock
+  private ResourceService resourceService;
+
+  @Mock
+  private ChartNameService chartNameService;
+
+  private HttpServer server;
+  private ExecutorService serverThreads;
+  private HelmCharts helmCharts;
+  private Readiness readiness;
+
+  /** Stub repository: chart name to release names. */
+  private final Map<String, List<String>> charts = new HashMap<>();
+  private volatile String headCommit = "commit-1";
+  private volatile int chartsStatus = 200;
+  private volatile long releaseDelayMillis = 0;
+  private final AtomicInteger treeRequests = new AtomicInteger();
+  private final AtomicInteger notModified = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+    charts.put("chartA", Arrays.asList("qa1", "qa2"));
+    charts.put("chartB", Collections.singletonList("prod"));
+
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(PROJECT + "/repository/commits", exchange ->
+        respond(exchange, 200, "[{\"id\": \"" + headCommit + "\"}]", null));
+    server.createContext(PROJECT + "/repository/tree", this::tree);
+    serverThreads = Executors.newCachedThreadPool();
+    server.setExecutor(serverThreads);
+    server.start();
+
+    readiness = new Readiness();
+    readiness.ready();
+    helmCharts = new HelmCharts(resourceService, chartNameService, readiness, 4);
+    ReflectionTestUtils.setField(helmCharts, "gitlabUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+    ReflectionTestUtils.setField(helmCharts, "projectId", "410");
+    ReflectionTestUtils.setField(helmCharts, "privateToken", "token");
+    when(resourceService.getAllNames()).thenReturn(Collections.singletonList("removed-release"));
+    when(chartNameService.getAll()).thenReturn(Collections.singletonList("chartA"));
+    when(chartNameService.getSyncedCommit()).thenReturn(Optional.empty());
+  }
+
+  @AfterEach
+  void tearDown() {
+    helmCharts.shutdown();
+    server.stop(0);
+    serverThreads.shutdownNow();
+  }
+
+  /**
+   * Serves one page of {@code repository/tree}, with an ETag derived from the
+   * body and 304 responses to a matching {@code If-None-Match}.
+   */
+  private void tree(HttpExchange exchange) throws IOException {
+    treeRequests.incrementAndGet();
+    int current = inFlight.incrementAndGet();
+    maxInFlight.accumulateAndGet(current, Math::max);
+    try {
+      String path = query(exchange).get("path");
+      StringBuilder body = new StringBuilder("[");
+      if (path.equals("charts")) {
+        if (chartsStatus != 200) {
+          respond(exchange, chartsStatus, "{}", null);
+          return;
+        }
+        body.append("{\"name\": \"README.md\", \"type\": \"blob\"}");
+        for (String chart : charts.keySet()) {
+          body.append(", {\"name\": \"").append(chart).append("\", \"type\": \"tree\"}");
+        }
+      } else {
+        Thread.sleep(releaseDelayMillis);
+        String chart = path.split("/")[1];
+        for (String release : charts.get(chart)) {
+          if (body.length() > 1) { body.append(", "); }
+          body.append("{\"name\": \"").append(release).append("\", \"type\": \"tree\"}");
+        }
+      }
+      body.append("]");
+      String etag = "\"" + Integer.toHexString(body.toString().hashCode()) + "\"";
+      if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        notModified.incrementAndGet();
+        respond(exchange, 304, null, etag);
+      } else {
+        respond(exchange, 200, body.toString(), etag);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private static Map<String, String> query(HttpExchange exchange) {
+    Map<String, String> params = new HashMap<>();
+    for (String param : exchange.getRequestURI().getQuery().split("&")) {
+      String[] pair = param.split("=", 2);
+      params.put(pair[0], pair[1]);
+    }
+    return params;
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body, String etag) throws IOException {
+    if (etag != null) { exchange.getResponseHeaders().add("ETag", etag); }
+    if (body == null) {
+      exchange.sendResponseHeaders(status, -1);
+      exchange.close();
+      return;
+    }
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  @Test
+  void testSyncDB_AppliesRepositoryToDB() {
+    helmCharts.syncDB();
+
+    verify(resourceService).applyCatalog(
+        new HashSet<>(Arrays.asList("chartA-qa1", "chartA-qa2", "chartB-prod")),
+        Collections.singleton("removed-release"));
+    verify(chartNameService).applyCatalog(Collections.singleton("chartB"), Collections.emptySet());
+    verify(resourceService, never()).save(anyString());
+    verify(resourceService, never()).delete(anyString());
+    verify(resourceService, never()).refreshCache();
+    verify(chartNameService).setSyncedCommit("commit-1");
+    assertEquals(3, treeRequests.get());
+    assertEquals(Readiness.Phase.SYNCED, readiness.getPhase());
+  }
+
+  @Test
+  void testInit_StoredCommitUnchangedSkipsWalk() {
+    when(chartNameService.getSyncedCommit()).thenReturn(Optional.of("commit-1"));
+
+    helmCharts.init();
+
+    assertEquals(0, treeRequests.get());
+    verify(resourceService, never()).applyCatalog(anyCollection(), anyCollection());
+    assertEquals(Readiness.Phase.SYNCED, readiness.getPhase());
+  }
+
+  @Test
+  void testInit_StoredCommitOutdatedWalksRepo() {
+    when(chartNameService.getSyncedCommit()).thenReturn(Optional.of("commit-0"));
+
+    helmCharts.init();
+
+    assertEquals(3, treeRequests.get());
+    verify(chartNameService).setSyncedCommit("commit-1");
+  }
+
+  @Test
+  void testSyncDB_SkipsWalkWhenHeadUnchanged() {
+    helmCharts.syncDB();
+    treeRequests.set(0);
+
+    helmCharts.syncDB();
+
+    assertEquals(0, treeRequests.get());
+    verify(resourceService, times(1)).applyCatalog(anyCollection(), anyCollection());
+  }
+
+  @Test
+  void testSyncDB_ForceWalksAndRevalidatesWithETags() {
+    helmCharts.syncDB();
+    treeRequests.set(0);
+
+    helmCharts.syncDB(true);
+
+    assertEquals(3, treeRequests.get());
+    assertEquals(3, notModified.get());
+    verify(resourceService, times(2)).applyCatalog(argThat(added -> added.contains("chartB-prod")), anyCollection());
+  }
+
+  @Test
+  void testSyncDB_NewCommitPicksUpNewRelease() {
+    helmCharts.syncDB();
+    charts.put("chartB", Arrays.asList("prod", "stage"));
+    headCommit = "commit-2";
+
+    helmCharts.syncDB();
+
+    verify(resourceService).applyCatalog(argThat(added -> added.contains("chartB-stage")), anyCollection());
+    assertEquals(2, notModified.get());
+  }
+
+  @Test
+  void testSyncDB_FailedFetchDeletesNothing() {
+    chartsStatus = 500;
+
+    helmCharts.syncDB();
+
+    verify(resourceService, never()).applyCatalog(anyCollection(), anyCollection());
+    verify(chartNameService, never()).applyCatalog(anyCollection(), anyCollection());
+    verify(chartNameService, never()).setSyncedCommit(anyString());
+    assertEquals(Readiness.Phase.SNAPSHOT, readiness.getPhase());
+  }
+
+  @Test
+  void testGetRepo_FetchesChartsInParallel() {
+    for (int i = 0; i < 8; i++) {
+      charts.put("chart" + i, Collections.singletonList("release"));
+    }
+    releaseDelayMillis = 100;
+
+    long start = System.nanoTime();
+    assertTrue(helmCharts.getRepo());
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertTrue(maxInFlight.get() > 1, "charts were fetched one at a time");
+    assertTrue(maxInFlight.get() <= 4, "more fetches in flight than configured: " + maxInFlight.get());
+    assertTrue(elapsedMillis < 10 * releaseDelayMillis, "fetching 10 charts took " + elapsedMillis + " ms");
+  }
+}
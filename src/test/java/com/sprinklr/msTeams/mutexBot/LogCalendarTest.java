@@ -0,0 +1,107 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.model.User;
+import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
+import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+import com.sprinklr.msTeams.mutexBot.service.UserService;
+
+class LogCalendarTest {
+
+  private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+  private static final LocalDateTime TO = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+  @Mock
+  private MonitorLogService monitorLogService;
+
+  @Mock
+  private ReservationLogService reservationLogService;
+
+  @Mock
+  private UserService userService;
+
+  private LogCalendar logCalendar;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    logCalendar = new LogCalendar(monitorLogService, reservationLogService, userService);
+  }
+
+  @Test
+  void testGetEvents_QueriesWindowAndResolvesUsersInOneLookup() throws Exception {
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+    List<ReservationLog> reservations = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      reservations.add(new ReservationLog("Resource1", "user" + (i % 3), start.plusHours(i), start.plusHours(i + 1)));
+    }
+    List<MonitorLog> monitors = Collections.singletonList(
+        new MonitorLog("Resource1", "unknown", start, start.plusHours(1)));
+    when(reservationLogService.getLogs("Resource1", null, FROM, TO)).thenReturn(reservations);
+    when(monitorLogService.getLogs("Resource1", null, FROM, TO)).thenReturn(monitors);
+    Map<String, User> users = new HashMap<>();
+    for (int i = 0; i < 3; i++) {
+      users.put("user" + i, new User("user" + i, "Name" + i, "user" + i + "@example.com"));
+    }
+    when(userService.findAll(any())).thenReturn(users);
+
+    List<Map<String, Object>> events = logCalendar.getEvents("Resource1", null, null, null,
+        "2024-01-01T00:00:00Z", "2024-02-01T00:00:00Z");
+
+    assertEquals(301, events.size());
+    assertEquals("Reserved - Name0", events.get(0).get("title"));
+    assertEquals("2024-01-01T10:00:00.000Z", events.get(0).get("start"));
+    assertEquals(Collections.singletonList("reservation"), events.get(0).get("classNames"));
+    assertEquals("Monitored - User", events.get(300).get("title"));
+    verify(userService, times(1)).findAll(argThat(ids -> ids.size() == 4));
+    verify(userService, never()).find(any());
+    verify(reservationLogService, never()).getLogs(any(), any());
+  }
+
+  @Test
+  void testGetEvents_TypeAndUserPerspective() {
+    when(monitorLogService.getLogs(null, "user1", FROM, TO)).thenReturn(Collections.singletonList(
+        new MonitorLog("Resource1", "user1", FROM, FROM.plusHours(1))));
+
+    List<Map<String, Object>> events = logCalendar.getEvents(null, "user1", "user", "monitor",
+        "2024-01-01", "2024-02-01");
+
+    assertEquals(1, events.size());
+    assertEquals("Monitored - Resource1", events.get(0).get("title"));
+    verifyNoInteractions(reservationLogService);
+    verifyNoInteractions(userService);
+  }
+
+  @Test
+  void testParseBound() {
+    assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), LogCalendar.parseBound("2024-01-01T05:30:00+05:30"));
+    assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), LogCalendar.parseBound("2024-01-01T00:00:00"));
+    assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), LogCalendar.parseBound("2024-01-01"));
+    assertThrows(ResponseStatusException.class, () -> LogCalendar.parseBound("January"));
+  }
+
+  @Test
+  void testGetUserLogs_PageHoldsNoData() {
+    String page = logCalendar.getUserLogs();
+
+    assertTrue(page.contains("/logs/events"));
+    verifyNoInteractions(reservationLogService, monitorLogService, userService);
+  }
+}
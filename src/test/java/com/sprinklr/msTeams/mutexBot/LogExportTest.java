@@ -0,0 +1,139 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
+import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+
+class LogExportTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+  @Mock
+  private ReservationLogService reservationLogService;
+
+  @Mock
+  private MonitorLogService monitorLogService;
+
+  private LogExport logExport;
+  private MockHttpServletResponse response;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    logExport = new LogExport(reservationLogService, monitorLogService);
+    response = new MockHttpServletResponse();
+  }
+
+  private static <T> CloseableIterator<T> cursor(List<T> logs, boolean[] closed) {
+    Iterator<T> iterator = logs.iterator();
+    return new CloseableIterator<T>() {
+      @Override
+      public boolean hasNext() { return iterator.hasNext(); }
+
+      @Override
+      public T next() { return iterator.next(); }
+
+      @Override
+      public void close() { closed[0] = true; }
+    };
+  }
+
+  private static ReservationLog reservation(String id, String resource, String user) {
+    ReservationLog log = new ReservationLog(resource, user, NOW, NOW.plusHours(1));
+    log.setId(id);
+    return log;
+  }
+
+  @Test
+  void testExport_NdjsonGzipped() throws IOException {
+    boolean[] closed = { false };
+    when(reservationLogService.streamLogs("Resource1", null, NOW, NOW.plusDays(1))).thenReturn(cursor(
+        Arrays.asList(reservation("log1", "Resource1", "User1"), reservation("log2", "Resource1", "User\"2")), closed));
+
+    logExport.export("reservation", "ndjson", "Resource1", null, "2024-01-01T12:00:00", "2024-01-02T12:00:00",
+        "gzip, deflate", response);
+
+    assertEquals("gzip", response.getHeader("Content-Encoding"));
+    assertTrue(response.getContentType().startsWith("application/x-ndjson"));
+    String body = IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())),
+        "UTF-8");
+    String[] lines = body.split("\n");
+    assertEquals(2, lines.length);
+    assertEquals("{\"id\":\"log1\",\"resource\":\"Resource1\",\"user\":\"User1\","
+        + "\"start\":\"2024-01-01T12:00:00.000Z\",\"end\":\"2024-01-01T13:00:00.000Z\"}", lines[0]);
+    assertTrue(lines[1].contains("\"user\":\"User\\\"2\""));
+    assertTrue(body.endsWith("\n"));
+    assertTrue(closed[0]);
+  }
+
+  @Test
+  void testExport_CsvUncompressed() throws IOException {
+    boolean[] closed = { false };
+    MonitorLog log = new MonitorLog("Resource,1", "User1", NOW, NOW.plusMinutes(30));
+    log.setId("log1");
+    when(monitorLogService.streamLogs(null, "User1", null, null)).thenReturn(cursor(Arrays.asList(log), closed));
+
+    logExport.export("monitor", "csv", null, "User1", null, null, null, response);
+
+    assertNull(response.getHeader("Content-Encoding"));
+    assertEquals("id,resource,user,start,end\r\n"
+        + "log1,\"Resource,1\",User1,2024-01-01T12:00:00.000Z,2024-01-01T12:30:00.000Z\r\n",
+        response.getContentAsString());
+    assertTrue(closed[0]);
+    verifyNoInteractions(reservationLogService);
+  }
+
+  @Test
+  void testAcceptsGzip_Qualities() {
+    assertTrue(LogExport.acceptsGzip("gzip"));
+    assertTrue(LogExport.acceptsGzip("deflate, GZIP;q=0.5"));
+    assertTrue(LogExport.acceptsGzip("br;q=1.0, *;q=0.1"));
+    assertFalse(LogExport.acceptsGzip("gzip;q=0"));
+    assertFalse(LogExport.acceptsGzip("gzip; q=0.000, deflate"));
+    assertFalse(LogExport.acceptsGzip("*, gzip;q=0"));
+    assertFalse(LogExport.acceptsGzip("gzip;q=high"));
+    assertFalse(LogExport.acceptsGzip("identity, deflate"));
+    assertFalse(LogExport.acceptsGzip(null));
+  }
+
+  @Test
+  void testExport_GzipRefused() throws IOException {
+    when(monitorLogService.streamLogs(null, null, null, null)).thenReturn(cursor(Arrays.asList(), new boolean[1]));
+
+    logExport.export("monitor", "csv", null, null, null, null, "gzip;q=0, identity", response);
+
+    assertNull(response.getHeader("Content-Encoding"));
+    assertEquals("id,resource,user,start,end\r\n", response.getContentAsString());
+  }
+
+  @Test
+  void testExport_InvalidRequest() {
+    assertThrows(ResponseStatusException.class,
+        () -> logExport.export("other", "csv", null, null, null, null, null, response));
+    assertThrows(ResponseStatusException.class,
+        () -> logExport.export("monitor", "xml", null, null, null, null, null, response));
+    assertThrows(ResponseStatusException.class,
+        () -> logExport.export("monitor", "csv", null, null, "yesterday", null, null, response));
+    verifyNoInteractions(monitorLogService);
+  }
+}
@@ -0,0 +1,77 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
+import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+
+class LogIdBackfillTest {
+
+  @Mock
+  private ResourceService resourceService;
+
+  @Mock
+  private ReservationLogService reservationLogService;
+
+  @Mock
+  private MonitorLogService monitorLogService;
+
+  private LogIdBackfill backfill;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    backfill = new LogIdBackfill(resourceService, reservationLogService, monitorLogService);
+  }
+
+  @Test
+  void testBackfill_OpenReservationsAndMonitors() {
+    LocalDateTime till = LocalDateTime.now().plusHours(1);
+    Resource legacy = new Resource("Resource1");
+    legacy.reserve("user1", till);
+    legacy.monitor("monitor1", till);
+    legacy.monitor("expired", LocalDateTime.now().minusMinutes(1));
+    Resource migrated = new Resource("Resource2");
+    migrated.reserve("user2", till, "log2");
+    migrated.monitor("monitor2", till, "log3", LocalDateTime.now());
+    when(resourceService.getCached()).thenReturn(Arrays.asList(legacy, migrated, new Resource("Resource3")));
+
+    ReservationLog reservation = new ReservationLog("Resource1", "user1", LocalDateTime.now(), till);
+    reservation.setId("log1");
+    MonitorLog monitor = new MonitorLog("Resource1", "monitor1", LocalDateTime.now(), till);
+    monitor.setId("log4");
+    when(reservationLogService.getLatest("Resource1", "user1")).thenReturn(reservation);
+    when(monitorLogService.getLatest("Resource1", "monitor1")).thenReturn(monitor);
+    when(resourceService.setReservationLogId("Resource1", "user1", till, "log1")).thenReturn(legacy);
+    when(resourceService.setMonitorLogId("Resource1", "monitor1", "log4")).thenReturn(legacy);
+
+    assertEquals(2, backfill.backfill());
+
+    verify(reservationLogService, times(1)).getLatest(anyString(), anyString());
+    verify(monitorLogService, times(1)).getLatest(anyString(), anyString());
+  }
+
+  @Test
+  void testBackfill_NoLog() {
+    Resource legacy = new Resource("Resource1");
+    legacy.reserve("user1", LocalDateTime.now().plusHours(1));
+    when(resourceService.getCached()).thenReturn(Arrays.asList(legacy));
+
+    assertEquals(0, backfill.backfill());
+
+    verify(resourceService, never()).setReservationLogId(any(), any(), any(), any());
+  }
+}
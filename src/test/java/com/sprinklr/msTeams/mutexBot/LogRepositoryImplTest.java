@@ -0,0 +1,201 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.repositories.MonitorLogRepositoryImpl;
+import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepositoryImpl;
+
+class LogRepositoryImplTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+  @Mock
+  private MongoOperations mongo;
+
+  @Mock
+  private BulkOperations bulk;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(mongo.bulkOps(eq(BulkMode.UNORDERED), any(Class.class))).thenReturn(bulk);
+    when(bulk.insert(anyList())).thenReturn(bulk);
+  }
+
+  private static BulkOperationException bulkError(int code) {
+    BulkWriteError error = new BulkWriteError(code, "error", new BsonDocument(), 0);
+    return new BulkOperationException("error", new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+        Collections.singletonList(error), null, new ServerAddress()));
+  }
+
+  @Test
+  void testInsertAll_SkipsStoredLogs() {
+    when(bulk.execute()).thenThrow(bulkError(11000));
+
+    new ReservationLogRepositoryImpl(mongo)
+        .insertAll(Collections.singletonList(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1))));
+
+    verify(mongo).bulkOps(BulkMode.UNORDERED, ReservationLog.class);
+    verify(bulk).execute();
+  }
+
+  @Test
+  void testInsertAll_OtherErrors() {
+    when(bulk.execute()).thenThrow(bulkError(121));
+
+    assertThrows(BulkOperationException.class, () -> new ReservationLogRepositoryImpl(mongo)
+        .insertAll(Collections.singletonList(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)))));
+  }
+
+  @Test
+  void testCloseAll() {
+    new ReservationLogRepositoryImpl(mongo).closeAll(Collections.singletonMap("log1", NOW));
+    new MonitorLogRepositoryImpl(mongo).closeAll(Collections.singletonMap("log2", NOW));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(bulk, times(2)).updateOne(query.capture(), update.capture());
+    verify(bulk, times(2)).execute();
+    verify(mongo).bulkOps(BulkMode.UNORDERED, MonitorLog.class);
+
+    assertEquals(new Document("_id", "log1"), query.getAllValues().get(0).getQueryObject());
+    assertEquals(NOW, update.getAllValues().get(0).getUpdateObject().get("$set", Document.class).get("releasedAt"));
+    // Monitors only end earlier.
+    assertEquals(new Document("_id", "log2").append("end", new Document("$gt", NOW)),
+        query.getAllValues().get(1).getQueryObject());
+  }
+
+  @Test
+  void testUpsertAll_ExtendsStoredLogs() {
+    MonitorLog log = new MonitorLog("Resource1", "User1", NOW, NOW.plusHours(1));
+    log.setId("log1");
+
+    new MonitorLogRepositoryImpl(mongo).upsertAll(Collections.singletonList(log));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(bulk).upsert(query.capture(), update.capture());
+    verify(bulk).execute();
+    assertEquals(new Document("_id", "log1"), query.getValue().getQueryObject());
+    Document written = update.getValue().getUpdateObject();
+    assertEquals(NOW, written.get("$setOnInsert", Document.class).get("start"));
+    assertEquals(NOW.plusHours(1), written.get("$max", Document.class).get("end"));
+  }
+
+  @Test
+  void testStreamLogs() {
+    when(mongo.stream(any(Query.class), eq(ReservationLog.class))).thenReturn(stream(Collections.emptyList()));
+    when(mongo.stream(any(Query.class), eq(MonitorLog.class))).thenReturn(stream(Collections.emptyList()));
+
+    new ReservationLogRepositoryImpl(mongo).streamLogs("Resource1", null, NOW, NOW.plusDays(1));
+    new MonitorLogRepositoryImpl(mongo).streamLogs(null, null, null, null);
+
+    ArgumentCaptor<Query> filtered = ArgumentCaptor.forClass(Query.class);
+    verify(mongo).stream(filtered.capture(), eq(ReservationLog.class));
+    Document criteria = filtered.getValue().getQueryObject();
+    assertEquals("Resource1", criteria.get("resource"));
+    assertEquals(NOW.plusDays(1), criteria.get("reservedAt", Document.class).get("$lt"));
+    assertEquals(NOW, criteria.get("releasedAt", Document.class).get("$gt"));
+    assertEquals(new Document("reservedAt", 1), filtered.getValue().getSortObject());
+    assertTrue(filtered.getValue().getMeta().getCursorBatchSize() > 0);
+
+    ArgumentCaptor<Query> all = ArgumentCaptor.forClass(Query.class);
+    verify(mongo).stream(all.capture(), eq(MonitorLog.class));
+    assertTrue(all.getValue().getQueryObject().isEmpty());
+    assertEquals(new Document("_id", 1), all.getValue().getSortObject());
+  }
+
+  private static MonitorLog log(String id, String resource, String user, int start, int end) {
+    MonitorLog log = new MonitorLog(resource, user, NOW.plusMinutes(start), NOW.plusMinutes(end));
+    log.setId(id);
+    return log;
+  }
+
+  private static <T> CloseableIterator<T> stream(List<T> logs) {
+    Iterator<T> iterator = logs.iterator();
+    return new CloseableIterator<T>() {
+      @Override
+      public boolean hasNext() { return iterator.hasNext(); }
+
+      @Override
+      public T next() { return iterator.next(); }
+
+      @Override
+      public void close() { }
+    };
+  }
+
+  @Test
+  void testCompact_MergesOverlappingLogs() {
+    when(mongo.bulkOps(eq(BulkMode.ORDERED), any(Class.class))).thenReturn(bulk);
+    // In index order: by resource, then start.
+    when(mongo.stream(any(Query.class), eq(MonitorLog.class))).thenReturn(stream(Arrays.asList(
+        log("a1", "Resource1", "User1", 0, 10),
+        log("b1", "Resource1", "User2", 5, 15),
+        log("a2", "Resource1", "User1", 5, 20),
+        log("a3", "Resource1", "User1", 20, 30),
+        log("a4", "Resource1", "User1", 40, 50),
+        log("c1", "Resource2", "User1", 45, 50))));
+
+    assertEquals(2, new MonitorLogRepositoryImpl(mongo).compact(NOW.plusHours(1)));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongo).stream(query.capture(), eq(MonitorLog.class));
+    assertEquals(new Document("resource", 1).append("start", 1), query.getValue().getSortObject());
+    ArgumentCaptor<Query> updated = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+    InOrder order = inOrder(bulk);
+    order.verify(bulk).updateOne(updated.capture(), update.capture());
+    order.verify(bulk).remove(removed.capture());
+    order.verify(bulk).execute();
+    assertEquals(new Document("_id", "a1"), updated.getValue().getQueryObject());
+    assertEquals(NOW.plusMinutes(30), update.getValue().getUpdateObject().get("$set", Document.class).get("end"));
+    assertEquals(new Document("_id", new Document("$in", Arrays.asList("a2", "a3"))), removed.getValue().getQueryObject());
+  }
+
+  @Test
+  void testCompact_NothingToMerge() {
+    when(mongo.stream(any(Query.class), eq(MonitorLog.class)))
+        .thenReturn(stream(Collections.singletonList(log("a1", "Resource1", "User1", 0, 10))));
+
+    assertEquals(0, new MonitorLogRepositoryImpl(mongo).compact(NOW.plusHours(1)));
+
+    verify(mongo, never()).bulkOps(any(BulkMode.class), any(Class.class));
+  }
+
+  @Test
+  void testCloseAll_Empty() {
+    new MonitorLogRepositoryImpl(mongo).closeAll(Collections.emptyMap());
+
+    verifyNoInteractions(mongo);
+  }
+}
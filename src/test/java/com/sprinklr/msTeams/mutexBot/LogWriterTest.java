@@ -0,0 +1,262 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+
+import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
+import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.repositories.MonitorLogRepository;
+import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepository;
+import com.sprinklr.msTeams.mutexBot.service.LogWriter;
+
+class LogWriterTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+  @Mock
+  private ReservationLogRepository reservationLogs;
+
+  @Mock
+  private MonitorLogRepository monitorLogs;
+
+  @TempDir
+  Path dir;
+
+  private Path spillFile;
+  private LogWriter writer;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    spillFile = dir.resolve("audit-log.spill");
+    // No periodic flush: the tests flush explicitly.
+    writer = new LogWriter(reservationLogs, monitorLogs, 100, 0, 1000, 0, spillFile.toString());
+  }
+
+  @AfterEach
+  void tearDown() {
+    writer.shutdown();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<ReservationLog> insertedReservations() {
+    ArgumentCaptor<Collection<ReservationLog>> logs = ArgumentCaptor.forClass(Collection.class);
+    verify(reservationLogs, atLeastOnce()).insertAll(logs.capture());
+    List<ReservationLog> inserted = new ArrayList<>();
+    logs.getAllValues().forEach(inserted::addAll);
+    return inserted;
+  }
+
+  @Test
+  void testOpen_WritesNothingUntilFlush() {
+    String id = writer.open(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+
+    assertNotNull(id);
+    verifyNoInteractions(reservationLogs);
+
+    writer.flush();
+
+    List<ReservationLog> inserted = insertedReservations();
+    assertEquals(1, inserted.size());
+    assertEquals(id, inserted.get(0).getId());
+    verify(reservationLogs, never()).closeAll(any());
+  }
+
+  @Test
+  void testClose_InSameBatch() {
+    String id = writer.open(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+    writer.closeReservation(id, "Resource1", "User1", NOW.plusMinutes(10));
+    writer.flush();
+
+    assertEquals(NOW.plusMinutes(10), insertedReservations().get(0).getEndTime());
+    verify(reservationLogs, times(1)).closeAll(Collections.singletonMap(id, NOW.plusMinutes(10)));
+  }
+
+  @Test
+  void testClose_ById() {
+    String id = writer.open(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+    writer.flush();
+    writer.closeReservation(id, "Resource1", "User1", NOW.plusMinutes(10));
+    writer.flush();
+
+    verify(reservationLogs, times(1)).closeAll(Collections.singletonMap(id, NOW.plusMinutes(10)));
+    verify(reservationLogs, never()).getLatest(anyString(), anyString(), any(Pageable.class));
+  }
+
+  @Test
+  void testClose_LatestStoredLog() {
+    MonitorLog stored = new MonitorLog("Resource1", "User1", NOW, NOW.plusHours(1));
+    stored.setId("log1");
+    when(monitorLogs.getLatest(eq("Resource1"), eq("User1"), any(Pageable.class)))
+        .thenReturn(Collections.singletonList(stored));
+
+    writer.closeMonitor(null, "Resource1", "User1", NOW.plusMinutes(10));
+    writer.flush();
+
+    verify(monitorLogs, times(1)).closeAll(Collections.singletonMap("log1", NOW.plusMinutes(10)));
+  }
+
+  @Test
+  void testCloseMonitor_OnlyShortens() {
+    writer.open(new MonitorLog("Resource1", "User1", NOW, NOW.plusMinutes(5)));
+    writer.closeMonitor(null, "Resource1", "User1", NOW.plusMinutes(10));
+    writer.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Collection<MonitorLog>> logs = ArgumentCaptor.forClass(Collection.class);
+    verify(monitorLogs).upsertAll(logs.capture());
+    assertEquals(NOW.plusMinutes(5), logs.getValue().iterator().next().getEndTime());
+    verify(monitorLogs, never()).getLatest(anyString(), anyString(), any(Pageable.class));
+  }
+
+  @Test
+  void testMonitorExtension_SameBatch() {
+    MonitorLog first = new MonitorLog("Resource1", "User1", NOW, NOW.plusMinutes(10));
+    first.setId("log1");
+    MonitorLog extension = new MonitorLog("Resource1", "User1", NOW.plusMinutes(5), NOW.plusMinutes(30));
+    extension.setId("log1");
+    writer.open(first);
+    writer.open(extension);
+    writer.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Collection<MonitorLog>> logs = ArgumentCaptor.forClass(Collection.class);
+    verify(monitorLogs).upsertAll(logs.capture());
+    assertEquals(1, logs.getValue().size());
+    MonitorLog written = logs.getValue().iterator().next();
+    assertEquals(NOW, written.getStartTime());
+    assertEquals(NOW.plusMinutes(30), written.getEndTime());
+  }
+
+  @Test
+  void testMonitorExtension_ClosedAfterEarlierFlush() {
+    MonitorLog first = new MonitorLog("Resource1", "User1", NOW, NOW.plusMinutes(10));
+    first.setId("log1");
+    writer.open(first);
+    writer.flush();
+    MonitorLog extension = new MonitorLog("Resource1", "User1", NOW.plusMinutes(5), NOW.plusMinutes(30));
+    extension.setId("log1");
+    writer.open(extension);
+    writer.closeMonitor("log1", "Resource1", "User1", NOW.plusMinutes(20));
+    writer.flush();
+
+    // The upsert keeps the later stored end, so the close must follow it.
+    verify(monitorLogs, times(2)).upsertAll(any());
+    verify(monitorLogs, times(1)).closeAll(Collections.singletonMap("log1", NOW.plusMinutes(20)));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testFailedWrite_SpillsAndRetries() throws Exception {
+    doThrow(new DataAccessResourceFailureException("down")).when(reservationLogs).insertAll(any());
+    String first = writer.open(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+    writer.flush();
+    assertTrue(Files.exists(spillFile));
+
+    doNothing().when(reservationLogs).insertAll(any());
+    String second = writer.open(new ReservationLog("Resource2", "User1", NOW, NOW.plusHours(1)));
+    writer.closeReservation(first, "Resource1", "User1", NOW.plusMinutes(10));
+    writer.flush();
+
+    assertFalse(Files.exists(spillFile));
+    List<ReservationLog> inserted = insertedReservations();
+    // The failed attempt, the spilled log, then the new one.
+    assertEquals(first, inserted.get(1).getId());
+    assertEquals(second, inserted.get(2).getId());
+    ArgumentCaptor<Map<String, LocalDateTime>> closed = ArgumentCaptor.forClass(Map.class);
+    verify(reservationLogs).closeAll(closed.capture());
+    assertEquals(NOW.plusMinutes(10), closed.getValue().get(first));
+  }
+
+  @Test
+  void testTruncatedSpillFile_DropsTornLastLine() throws Exception {
+    doThrow(new DataAccessResourceFailureException("down")).doNothing().when(reservationLogs).insertAll(any());
+    String id = writer.open(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+    writer.flush();
+    // A crash while spilling the next batch.
+    Files.write(spillFile, "{\"type\": \"reserv".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+    writer.flush();
+
+    assertFalse(Files.exists(spillFile));
+    assertFalse(Files.exists(dir.resolve("audit-log.spill.quarantine")));
+    assertEquals(id, insertedReservations().get(1).getId());
+  }
+
+  @Test
+  void testUnreadableSpilledLine_Quarantined() throws Exception {
+    doThrow(new DataAccessResourceFailureException("down")).doThrow(new DataAccessResourceFailureException("down"))
+        .doNothing().when(reservationLogs).insertAll(any());
+    String first = writer.open(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+    writer.flush();
+    Files.write(spillFile, "{\"type\": \"reserv".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    // Spilled after the torn line, which is then no longer the last one.
+    String second = writer.open(new ReservationLog("Resource2", "User1", NOW, NOW.plusHours(1)));
+    writer.flush();
+    assertEquals(3, Files.readAllLines(spillFile).size());
+
+    writer.flush();
+
+    assertFalse(Files.exists(spillFile));
+    assertEquals(Collections.singletonList("{\"type\": \"reserv"),
+        Files.readAllLines(dir.resolve("audit-log.spill.quarantine")));
+    List<ReservationLog> inserted = insertedReservations();
+    assertEquals(first, inserted.get(2).getId());
+    assertEquals(second, inserted.get(3).getId());
+  }
+
+  @Test
+  void testFailedWrite_ReplayKeepsCloseOfWrittenLog() {
+    doThrow(new DataAccessResourceFailureException("down")).doThrow(new DataAccessResourceFailureException("down"))
+        .doNothing().when(monitorLogs).upsertAll(any());
+    String id = writer.open(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+    writer.open(new MonitorLog("Resource1", "User2", NOW, NOW.plusHours(1)));
+    writer.flush();
+    writer.closeReservation(id, "Resource1", "User1", NOW.plusMinutes(10));
+    writer.flush();
+    writer.flush();
+
+    // The reservation was inserted before the batch failed, so the replayed
+    // insert is skipped and only closeAll ends it.
+    assertFalse(Files.exists(spillFile));
+    verify(reservationLogs, times(1)).closeAll(Collections.singletonMap(id, NOW.plusMinutes(10)));
+  }
+
+  @Test
+  void testShutdown_WritesQueuedLogs() {
+    writer.open(new MonitorLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+    writer.shutdown();
+
+    verify(monitorLogs, times(1)).upsertAll(any());
+  }
+
+  @Test
+  void testFullBatch_FlushesInBackground() {
+    writer.shutdown();
+    writer = new LogWriter(reservationLogs, monitorLogs, 2, 0, 1000, 0, spillFile.toString());
+    writer.open(new ReservationLog("Resource1", "User1", NOW, NOW.plusHours(1)));
+    writer.open(new ReservationLog("Resource2", "User1", NOW, NOW.plusHours(1)));
+
+    verify(reservationLogs, timeout(5000)).insertAll(any());
+  }
+}
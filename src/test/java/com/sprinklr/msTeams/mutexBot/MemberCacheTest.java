@@ -0,0 +1,83 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.schema.teams.TeamsChannelAccount;
+
+class MemberCacheTest {
+
+  private final AtomicInteger rosterCalls = new AtomicInteger();
+
+  private final BiFunction<TurnContext, String, TeamsChannelAccount> roster = (context, id) -> {
+    rosterCalls.incrementAndGet();
+    return member(id, "aad-" + id);
+  };
+
+  @BeforeEach
+  void setUp() {
+    rosterCalls.set(0);
+  }
+
+  @Test
+  void testGet_LoadsOnceThenServesFromCache() {
+    MemberCache cache = new MemberCache(60_000, roster);
+
+    TeamsChannelAccount first = cache.get(null, "user1");
+    TeamsChannelAccount second = cache.get(null, "user1");
+
+    assertSame(first, second);
+    assertEquals(1, rosterCalls.get());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  void testGet_ExpiredEntryReloaded() throws InterruptedException {
+    MemberCache cache = new MemberCache(5, roster);
+
+    cache.get(null, "user1");
+    Thread.sleep(20);
+    cache.get(null, "user1");
+
+    assertEquals(2, rosterCalls.get());
+  }
+
+  @Test
+  void testPut_KeyedByTeamsIdAndAadObjectId() {
+    MemberCache cache = new MemberCache(60_000, roster);
+    TeamsChannelAccount member = member("user1", "aad-1");
+
+    cache.put(member);
+
+    assertSame(member, cache.find("user1"));
+    assertSame(member, cache.find("aad-1"));
+    assertSame(member, cache.get(null, "user1"));
+    assertEquals(0, rosterCalls.get());
+  }
+
+  @Test
+  void testEvict_RemovesAllKeys() {
+    MemberCache cache = new MemberCache(60_000, roster);
+    cache.put(member("user1", "aad-1"));
+
+    cache.evict("aad-1");
+
+    assertNull(cache.find("user1"));
+    assertNull(cache.find("aad-1"));
+  }
+
+  private static TeamsChannelAccount member(String id, String aadObjectId) {
+    TeamsChannelAccount member = new TeamsChannelAccount();
+    member.setId(id);
+    member.setAadObjectId(aadObjectId);
+    member.setName("User " + id);
+    return member;
+  }
+}
@@ -17,13 +17,21 @@ import org.springframework.data.domain.Pageable;
 
 import com.sprinklr.msTeams.mutexBot.model.MonitorLog;
 import com.sprinklr.msTeams.mutexBot.repositories.MonitorLogRepository;
+import com.sprinklr.msTeams.mutexBot.service.LogWriter;
 import com.sprinklr.msTeams.mutexBot.service.MonitorLogService;
+import com.sprinklr.msTeams.mutexBot.service.UsageService;
 
 class MonitorLogServiceTest {
 
   @Mock
   private MonitorLogRepository monitorLogRepository;
 
+  @Mock
+  private LogWriter logWriter;
+
+  @Mock
+  private UsageService usageService;
+
   @InjectMocks
   private MonitorLogService monitorLogService;
 
@@ -31,6 +39,7 @@ class MonitorLogServiceTest {
   void setUp() {
     MockitoAnnotations.openMocks(this);
     reset(monitorLogRepository);
+    when(logWriter.open(any(MonitorLog.class))).thenReturn("log1");
   }
 
   @Test
@@ -72,6 +81,24 @@ class MonitorLogServiceTest {
     assertEquals("user1", result.get(0).getUser());
   }
 
+  @Test
+  void testGetLogs_Window() {
+    LocalDateTime from = LocalDateTime.now().minusDays(7);
+    LocalDateTime to = LocalDateTime.now();
+    List<MonitorLog> logList = new ArrayList<>();
+    logList.add(new MonitorLog("resource1", "user1", from.plusHours(1), from.plusHours(2)));
+    when(monitorLogRepository.getResourceLogs("resource1", from, to)).thenReturn(logList);
+
+    assertEquals(logList, monitorLogService.getLogs("resource1", null, from, to));
+    monitorLogService.getLogs(null, "user1", from, to);
+    monitorLogService.getLogs("resource1", "user1", from, to);
+
+    verify(monitorLogRepository, times(1)).getResourceLogs("resource1", from, to);
+    verify(monitorLogRepository, times(1)).getUserLogs("user1", from, to);
+    verify(monitorLogRepository, times(1)).getLogs("resource1", "user1", from, to);
+    verify(monitorLogRepository, never()).getResourceLogs("resource1");
+  }
+
   @Test
   void testGetResourceLogs() {
     MonitorLog log1 = new MonitorLog("resource1", "user1", LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
@@ -94,30 +121,54 @@ class MonitorLogServiceTest {
     monitorLogService.monitor(resource, user, end);
 
     ArgumentCaptor<MonitorLog> captor = ArgumentCaptor.forClass(MonitorLog.class);
-    verify(monitorLogRepository).save(captor.capture());
+    verify(logWriter).open(captor.capture());
+    verify(monitorLogRepository, never()).save(any(MonitorLog.class));
     MonitorLog savedLog = captor.getValue();
 
     assertEquals(resource, savedLog.getResource());
     assertEquals(user, savedLog.getUser());
     assertEquals(end, savedLog.getEndTime());
+    verify(usageService, times(1)).monitored(resource, user, savedLog.getStartTime());
+  }
+
+  @Test
+  void testMonitor_WithLogId() {
+    monitorLogService.monitor("resource1", "user1", LocalDateTime.now().plusHours(1), "stored1");
+
+    ArgumentCaptor<MonitorLog> captor = ArgumentCaptor.forClass(MonitorLog.class);
+    verify(logWriter).open(captor.capture());
+    assertEquals("stored1", captor.getValue().getId());
   }
 
   @Test
   void testStopMonitoring() {
-    MonitorLog log = new MonitorLog("resource1", "user1", LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
-    List<MonitorLog> logList = new ArrayList<>();
-    logList.add(log);
-    when(monitorLogRepository.getLatest(eq("resource1"), eq("user1"), any(Pageable.class))).thenReturn(logList);
+    monitorLogService.stopMonitoring("stored1", "resource1", "user1");
 
-    monitorLogService.stopMonitoring("resource1", "user1");
+    ArgumentCaptor<LocalDateTime> end = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(logWriter).closeMonitor(eq("stored1"), eq("resource1"), eq("user1"), end.capture());
+    assertTrue(end.getValue().isBefore(LocalDateTime.now().plusSeconds(1)));
+    verify(monitorLogRepository, never()).getLatest(anyString(), anyString(), any(Pageable.class));
+  }
 
-    ArgumentCaptor<MonitorLog> captor = ArgumentCaptor.forClass(MonitorLog.class);
-    verify(monitorLogRepository).save(captor.capture());
-    MonitorLog updatedLog = captor.getValue();
+  @Test
+  void testCompact() {
+    when(monitorLogRepository.compact(any(LocalDateTime.class))).thenReturn(3);
+
+    assertEquals(3, monitorLogService.compact());
+
+    ArgumentCaptor<LocalDateTime> endedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(monitorLogRepository).compact(endedBefore.capture());
+    assertFalse(endedBefore.getValue().isAfter(LocalDateTime.now()));
+  }
+
+  @Test
+  void testStopMonitoring_OpenedElsewhere() {
+    monitorLogService.stopMonitoring("resource1", "user1");
+    monitorLogService.stopMonitoring("resource1", "user1");
 
-    assertEquals("resource1", updatedLog.getResource());
-    assertEquals("user1", updatedLog.getUser());
-    assertTrue(updatedLog.getEndTime().isBefore(LocalDateTime.now().plusSeconds(1)));
+    // The writer finds the latest log of the resource and user.
+    verify(logWriter, times(2)).closeMonitor(isNull(), eq("resource1"), eq("user1"), any(LocalDateTime.class));
+    verify(monitorLogRepository, never()).save(any(MonitorLog.class));
   }
 
   @Test
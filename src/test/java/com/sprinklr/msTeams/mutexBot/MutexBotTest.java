@@ -0,0 +1,142 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.microsoft.bot.builder.MessageFactory;
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.sprinklr.msTeams.mutexBot.service.UserService;
+
+class MutexBotTest {
+
+  @Mock
+  private UserService userService;
+
+  @Mock
+  private UserInput userInput;
+
+  @Mock
+  private Actions actions;
+
+  @Mock
+  private MemberCache memberCache;
+
+  @Mock
+  private TurnContext turnContext;
+
+  private MutexBot bot;
+  private final Activity welcome = MessageFactory.text("welcome");
+  private final Activity reply = MessageFactory.text("reply");
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    bot = new MutexBot(userService, userInput, actions, memberCache, "http://localhost/");
+    when(turnContext.sendActivity(any(Activity.class))).thenReturn(CompletableFuture.completedFuture(null));
+    when(userInput.welcomeCard()).thenReturn(welcome);
+    when(userInput.adminActionSelection()).thenReturn(reply);
+    when(actions.actOnResource(any(), anyString(), anyString())).thenReturn(reply);
+    when(actions.actOnResource(any(), anyString(), anyString(), anyInt())).thenReturn(reply);
+  }
+
+  private void receive(String text) {
+    Activity activity = MessageFactory.text(text);
+    activity.setRecipient(new ChannelAccount("bot"));
+    when(turnContext.getActivity()).thenReturn(activity);
+    bot.onMessageActivity(turnContext).join();
+  }
+
+  private String lastReply() {
+    ArgumentCaptor<Activity> sent = ArgumentCaptor.forClass(Activity.class);
+    verify(turnContext, atLeastOnce()).sendActivity(sent.capture());
+    List<Activity> activities = sent.getAllValues();
+    return activities.get(activities.size() - 1).getText();
+  }
+
+  @Test
+  void testSingleWordCommands_CaseInsensitiveWithAliases() {
+    receive("HeLp");
+    assertTrue(lastReply().startsWith("Commands:"));
+
+    receive("  ?  ");
+    assertTrue(lastReply().startsWith("Commands:"));
+
+    receive("Hi");
+    receive("hello!");
+    verify(userInput, times(2)).welcomeCard();
+
+    receive("ADMIN");
+    verify(userInput, times(1)).adminActionSelection();
+  }
+
+  @Test
+  void testResourceActions() {
+    receive("Status   prod:qa6");
+    verify(actions).actOnResource(turnContext, "prod:qa6", "status");
+
+    receive("unwatch prod:qa6");
+    verify(actions).actOnResource(turnContext, "prod:qa6", "stopmonitoring");
+
+    receive("ForceRelease prod:qa6");
+    verify(actions).actOnResource(turnContext, "prod:qa6", "forcerelease");
+
+    receive("Frobnicate prod:qa6");
+    verify(actions).actOnResource(turnContext, "prod:qa6", "frobnicate");
+  }
+
+  @Test
+  void testDurations() {
+    receive("Reserve prod:qa6 for 1h12m");
+    verify(actions).actOnResource(turnContext, "prod:qa6", "reserve", 72);
+
+    receive("monitor prod:qa6 2 hours 30 min");
+    verify(actions).actOnResource(turnContext, "prod:qa6", "monitor", 150);
+
+    receive("reserve prod:qa6 for 1x");
+    assertEquals("Invalid duration \"1x\": Unknown unit 'x' at position 2, expected h or m.<br>e.g. Reserve prod:qa6 for 1h12m",
+        lastReply());
+    verify(actions, times(2)).actOnResource(any(), anyString(), anyString(), anyInt());
+  }
+
+  @Test
+  void testCards() {
+    Activity activity = new Activity("message");
+    activity.setRecipient(new ChannelAccount("bot"));
+    Map<String, Object> data = new HashMap<>();
+    data.put("card", "chartNameCard");
+    activity.setValue(data);
+    when(turnContext.getActivity()).thenReturn(activity);
+    when(actions.handleChartNameCard(turnContext, data)).thenReturn(reply);
+
+    bot.onMessageActivity(turnContext).join();
+
+    verify(actions).handleChartNameCard(turnContext, data);
+    assertEquals("reply", lastReply());
+  }
+
+  @Test
+  void testCommandName_OnlyRegisteredNames() {
+    assertEquals("help", bot.commandName(Arrays.asList("?")));
+    assertEquals("listAdmins", bot.commandName(Arrays.asList("ADMINS")));
+    assertEquals("hello", bot.commandName(Arrays.asList("hello!")));
+    assertEquals("unknown", bot.commandName(Arrays.asList("helpp")));
+    assertEquals("monitor", bot.commandName(Arrays.asList("Watch", "prod-qa6")));
+    assertEquals("unknown", bot.commandName(Arrays.asList("grab", "prod-qa6")));
+    assertEquals("empty", bot.commandName(Collections.emptyList()));
+  }
+}
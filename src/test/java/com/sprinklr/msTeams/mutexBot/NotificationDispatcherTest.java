@@ -0,0 +1,115 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationDispatcherTest {
+
+  private NotificationDispatcher dispatcher;
+
+  @AfterEach
+  void tearDown() {
+    if (dispatcher != null) { dispatcher.shutdown(); }
+  }
+
+  private static CompletableFuture<Void> failed(String message) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    future.completeExceptionally(new RuntimeException(message));
+    return future;
+  }
+
+  @Test
+  void testDispatch_AllDelivered() throws Exception {
+    dispatcher = new NotificationDispatcher(2, 10, 3, 1);
+    List<String> recipients = Arrays.asList("user1", "user2", "user3");
+
+    List<NotificationDispatcher.Outcome> outcomes = dispatcher
+        .dispatch(recipients, recipient -> CompletableFuture.completedFuture(null))
+        .get(5, TimeUnit.SECONDS);
+
+    assertEquals(3, outcomes.size());
+    for (NotificationDispatcher.Outcome outcome : outcomes) {
+      assertTrue(outcome.delivered);
+      assertEquals(1, outcome.attempts);
+    }
+  }
+
+  @Test
+  void testDispatch_RetriesWithBackoff() throws Exception {
+    dispatcher = new NotificationDispatcher(2, 10, 3, 1);
+    Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    List<NotificationDispatcher.Outcome> outcomes = dispatcher.dispatch(Arrays.asList("flaky", "down"), recipient -> {
+      int call = calls.computeIfAbsent(recipient, r -> new AtomicInteger()).incrementAndGet();
+      if (recipient.equals("flaky") && call > 1) { return CompletableFuture.completedFuture(null); }
+      return failed("connector unavailable");
+    }).get(5, TimeUnit.SECONDS);
+
+    NotificationDispatcher.Outcome flaky = outcomes.get(0);
+    NotificationDispatcher.Outcome down = outcomes.get(1);
+    assertTrue(flaky.delivered);
+    assertEquals(2, flaky.attempts);
+    assertFalse(down.delivered);
+    assertEquals(3, down.attempts);
+    assertNotNull(down.error);
+    assertEquals(3, calls.get("down").get());
+  }
+
+  @Test
+  void testDispatch_ReturnsBeforeDelivery() throws Exception {
+    dispatcher = new NotificationDispatcher(1, 10, 1, 1);
+    CompletableFuture<Void> slowSend = new CompletableFuture<>();
+
+    CompletableFuture<List<NotificationDispatcher.Outcome>> outcomes = dispatcher
+        .dispatch(Arrays.asList("user1"), recipient -> slowSend);
+
+    assertFalse(outcomes.isDone());
+    slowSend.complete(null);
+    assertTrue(outcomes.get(5, TimeUnit.SECONDS).get(0).delivered);
+  }
+
+  @Test
+  void testDispatch_ConcurrencyLimit() throws Exception {
+    dispatcher = new NotificationDispatcher(2, 100, 1, 1);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    List<String> recipients = Arrays.asList("u1", "u2", "u3", "u4", "u5", "u6", "u7", "u8");
+
+    dispatcher.dispatch(recipients, recipient -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      inFlight.decrementAndGet();
+      return CompletableFuture.completedFuture(null);
+    }).get(5, TimeUnit.SECONDS);
+
+    assertTrue(maxInFlight.get() <= 2);
+  }
+
+  @Test
+  void testDispatch_QueueFull() throws Exception {
+    dispatcher = new NotificationDispatcher(1, 1, 1, 1);
+    CompletableFuture<Void> blocked = new CompletableFuture<>();
+
+    CompletableFuture<List<NotificationDispatcher.Outcome>> outcomes = dispatcher
+        .dispatch(Arrays.asList("u1", "u2", "u3"), recipient -> blocked);
+    blocked.complete(null);
+
+    List<NotificationDispatcher.Outcome> results = outcomes.get(5, TimeUnit.SECONDS);
+    assertTrue(results.get(0).delivered);
+    assertFalse(results.get(2).delivered);
+  }
+}
@@ -0,0 +1,146 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.microsoft.bot.builder.BotCallbackHandler;
+import com.microsoft.bot.builder.BotFrameworkAdapter;
+import com.microsoft.bot.builder.TurnContext;
+import com.microsoft.bot.connector.authentication.MicrosoftAppCredentials;
+import com.microsoft.bot.schema.Activity;
+import com.microsoft.bot.schema.ChannelAccount;
+import com.microsoft.bot.schema.ConversationAccount;
+import com.microsoft.bot.schema.ConversationParameters;
+import com.microsoft.bot.schema.ConversationReference;
+import com.microsoft.bot.schema.teams.ChannelInfo;
+import com.microsoft.bot.schema.teams.TeamsChannelData;
+import com.sprinklr.msTeams.mutexBot.service.ConversationReferenceService;
+
+class PersonalMessengerTest {
+
+  @Mock
+  private ConversationReferenceService conversationReferences;
+
+  @Mock
+  private BotFrameworkAdapter adapter;
+
+  @Mock
+  private TurnContext turnContext;
+
+  private PersonalMessenger messenger;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    messenger = new PersonalMessenger(conversationReferences, adapter, "app-id", "app-password");
+
+    Activity activity = new Activity("message");
+    activity.setServiceUrl("https://smba.example.com/");
+    activity.setRecipient(new ChannelAccount("bot1"));
+    activity.setConversation(new ConversationAccount("channel-conversation"));
+    TeamsChannelData channelData = new TeamsChannelData();
+    channelData.setChannel(new ChannelInfo("19:channel"));
+    activity.setChannelData(channelData);
+    when(turnContext.getActivity()).thenReturn(activity);
+    when(turnContext.getAdapter()).thenReturn(adapter);
+    when(adapter.continueConversation(anyString(), any(ConversationReference.class), any(BotCallbackHandler.class)))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(adapter.createConversation(any(), anyString(), any(MicrosoftAppCredentials.class), any(ConversationParameters.class),
+        any(BotCallbackHandler.class))).thenReturn(CompletableFuture.completedFuture(null));
+  }
+
+  @Test
+  void testSend_CachedReference() {
+    ConversationReference reference = new ConversationReference();
+    when(conversationReferences.find("user1")).thenReturn(reference);
+
+    messenger.send("user1", "hello", turnContext).join();
+
+    verify(adapter, times(1)).continueConversation(eq("app-id"), eq(reference), any(BotCallbackHandler.class));
+    verify(adapter, never()).createConversation(any(), any(), any(MicrosoftAppCredentials.class), any(), any());
+  }
+
+  @Test
+  void testSend_CreatesConversationOnMiss() {
+    when(conversationReferences.find("user1")).thenReturn(null);
+
+    messenger.send("user1", "hello", turnContext).join();
+
+    verify(adapter, times(1)).createConversation(any(), eq("https://smba.example.com/"), any(MicrosoftAppCredentials.class),
+        any(ConversationParameters.class), any(BotCallbackHandler.class));
+  }
+
+  @Test
+  void testSend_SharesCredentials() {
+    when(conversationReferences.find(anyString())).thenReturn(null);
+
+    messenger.send("user1", "hello", turnContext).join();
+    messenger.send("user2", "hello", turnContext).join();
+
+    ArgumentCaptor<MicrosoftAppCredentials> credentials = ArgumentCaptor.forClass(MicrosoftAppCredentials.class);
+    verify(adapter, times(2)).createConversation(any(), anyString(), credentials.capture(),
+        any(ConversationParameters.class), any(BotCallbackHandler.class));
+    assertSame(credentials.getAllValues().get(0), credentials.getAllValues().get(1));
+  }
+
+  @Test
+  void testSend_StaleReferenceRecreated() {
+    CompletableFuture<Void> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("conversation not found"));
+    when(conversationReferences.find("user1")).thenReturn(new ConversationReference());
+    when(adapter.continueConversation(anyString(), any(ConversationReference.class), any(BotCallbackHandler.class)))
+        .thenReturn(failed);
+
+    messenger.send("user1", "hello", turnContext).join();
+
+    verify(conversationReferences, times(1)).evict("user1");
+    verify(adapter, times(1)).createConversation(any(), anyString(), any(MicrosoftAppCredentials.class),
+        any(ConversationParameters.class), any(BotCallbackHandler.class));
+  }
+
+  @Test
+  void testSender_ReadsTurnBeforeItEnds() {
+    when(conversationReferences.find("user1")).thenReturn(null);
+
+    Function<String, CompletableFuture<Void>> sender = messenger.sender("hello", turnContext);
+    // The turn is over: its context must not be used any more.
+    reset(turnContext);
+    when(turnContext.getActivity()).thenThrow(new IllegalStateException("disposed"));
+    sender.apply("user1").join();
+
+    ArgumentCaptor<ConversationParameters> parameters = ArgumentCaptor.forClass(ConversationParameters.class);
+    verify(adapter, times(1)).createConversation(eq("19:channel"), eq("https://smba.example.com/"),
+        any(MicrosoftAppCredentials.class), parameters.capture(), any(BotCallbackHandler.class));
+    assertEquals("bot1", parameters.getValue().getBot().getId());
+    verify(turnContext, never()).getAdapter();
+  }
+
+  @Test
+  void testSendOutsideTurn_UsesStoredReference() {
+    ConversationReference reference = new ConversationReference();
+    when(conversationReferences.find("user1")).thenReturn(reference);
+
+    messenger.send("user1", "hello").join();
+
+    verify(adapter, times(1)).continueConversation(eq("app-id"), eq(reference), any(BotCallbackHandler.class));
+  }
+
+  @Test
+  void testSendOutsideTurn_NoStoredReference() {
+    when(conversationReferences.find("user1")).thenReturn(null);
+
+    CompletableFuture<Void> sent = messenger.send("user1", "hello");
+
+    assertTrue(sent.isCompletedExceptionally());
+    verify(adapter, never()).createConversation(any(), any(), any(MicrosoftAppCredentials.class), any(), any());
+  }
+}
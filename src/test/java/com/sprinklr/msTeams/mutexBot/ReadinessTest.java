@@ -0,0 +1,48 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class ReadinessTest {
+
+  @Test
+  void testStatus_UnavailableWhileStarting() {
+    Readiness readiness = new Readiness();
+
+    ResponseEntity<Map<String, Object>> status = readiness.status();
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, status.getStatusCode());
+    assertEquals(Readiness.Phase.STARTING, status.getBody().get("phase"));
+  }
+
+  @Test
+  void testStatus_ServingSnapshotThenSynced() {
+    Readiness readiness = new Readiness();
+
+    readiness.ready();
+    ResponseEntity<Map<String, Object>> snapshot = readiness.status();
+    readiness.synced();
+    ResponseEntity<Map<String, Object>> synced = readiness.status();
+
+    assertEquals(HttpStatus.OK, snapshot.getStatusCode());
+    assertEquals(Readiness.Phase.SNAPSHOT, snapshot.getBody().get("phase"));
+    assertEquals(-1L, snapshot.getBody().get("syncedMillis"));
+    assertEquals(Readiness.Phase.SYNCED, synced.getBody().get("phase"));
+    assertTrue((long) synced.getBody().get("syncedMillis") >= (long) synced.getBody().get("readyMillis"));
+  }
+
+  @Test
+  void testReady_DoesNotUndoSync() {
+    Readiness readiness = new Readiness();
+
+    readiness.synced();
+    readiness.ready();
+
+    assertEquals(Readiness.Phase.SYNCED, readiness.getPhase());
+  }
+}
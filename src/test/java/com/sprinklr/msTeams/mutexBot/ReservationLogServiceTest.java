@@ -10,6 +10,7 @@ import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -17,14 +18,23 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import com.sprinklr.msTeams.mutexBot.model.ReservationLog;
+import com.sprinklr.msTeams.mutexBot.model.Resource;
 import com.sprinklr.msTeams.mutexBot.repositories.ReservationLogRepository;
+import com.sprinklr.msTeams.mutexBot.service.LogWriter;
 import com.sprinklr.msTeams.mutexBot.service.ReservationLogService;
+import com.sprinklr.msTeams.mutexBot.service.UsageService;
 
 class ReservationLogServiceTest {
 
   @Mock
   private ReservationLogRepository reservationLogRepository;
 
+  @Mock
+  private LogWriter logWriter;
+
+  @Mock
+  private UsageService usageService;
+
   @InjectMocks
   private ReservationLogService reservationLogService;
 
@@ -32,6 +42,7 @@ class ReservationLogServiceTest {
   void setUp() {
     MockitoAnnotations.openMocks(this);
     reset(reservationLogRepository);
+    when(logWriter.open(any(ReservationLog.class))).thenReturn("log1");
   }
 
   @Test
@@ -86,36 +97,58 @@ class ReservationLogServiceTest {
 
   @Test
   void testReserve() {
-    LocalDateTime now = LocalDateTime.now();
-    LocalDateTime releaseTime = now.plusHours(1);
-    ReservationLog log = new ReservationLog("Resource1", "User1", now, releaseTime);
+    LocalDateTime releaseTime = LocalDateTime.now().plusHours(1);
 
     reservationLogService.reserve("Resource1", "User1", releaseTime);
 
-    verify(reservationLogRepository, times(1)).save(any(ReservationLog.class));
+    ArgumentCaptor<ReservationLog> log = ArgumentCaptor.forClass(ReservationLog.class);
+    verify(logWriter, times(1)).open(log.capture());
+    assertEquals("Resource1", log.getValue().getResource());
+    assertEquals(releaseTime, log.getValue().getEndTime());
+    verify(reservationLogRepository, never()).save(any(ReservationLog.class));
+    verify(usageService, times(1)).reserved("Resource1", "User1", log.getValue().getStartTime(), releaseTime);
+  }
+
+  @Test
+  void testReserve_WithLogId() {
+    LocalDateTime releaseTime = LocalDateTime.now().plusHours(1);
+
+    reservationLogService.reserve("Resource1", "User1", releaseTime, "stored1");
+
+    ArgumentCaptor<ReservationLog> log = ArgumentCaptor.forClass(ReservationLog.class);
+    verify(logWriter, times(1)).open(log.capture());
+    assertEquals("stored1", log.getValue().getId());
   }
 
   @Test
   void testRelease() {
-    LocalDateTime now = LocalDateTime.now();
-    LocalDateTime releaseTime = now.plusHours(1);
-    ReservationLog log = new ReservationLog("Resource1", "User1", now, releaseTime);
-    when(reservationLogRepository.getLatest("Resource1", "User1", PageRequest.of(0, 1)))
-        .thenReturn(Collections.singletonList(log));
+    LocalDateTime releaseTime = LocalDateTime.now().plusHours(1);
 
-    reservationLogService.release("Resource1", "User1");
+    reservationLogService.release("stored1", "Resource1", "User1", releaseTime);
 
-    assertNotNull(log.getEndTime());
-    verify(reservationLogRepository, times(1)).save(log);
+    verify(logWriter, times(1)).closeReservation("stored1", "Resource1", "User1", releaseTime);
+    verify(reservationLogRepository, never()).getLatest(anyString(), anyString(), any(Pageable.class));
   }
 
   @Test
-  void testRelease_NoLog() {
-    when(reservationLogRepository.getLatest("Resource1", "User1", PageRequest.of(0, 1)))
-        .thenReturn(Collections.emptyList());
+  void testRelease_Resource() {
+    LocalDateTime till = LocalDateTime.now().plusHours(1);
+    LocalDateTime releaseTime = till.minusMinutes(20);
+    Resource released = new Resource("Resource1");
+    released.reserve("User1", till, "stored1");
+    released.release();
+
+    reservationLogService.release(released, releaseTime);
 
+    verify(logWriter, times(1)).closeReservation("stored1", "Resource1", "User1", releaseTime);
+    verify(usageService, times(1)).released("Resource1", "User1", releaseTime, till);
+  }
+
+  @Test
+  void testRelease_OpenedElsewhere() {
     reservationLogService.release("Resource1", "User1");
 
+    verify(logWriter, times(1)).closeReservation(isNull(), eq("Resource1"), eq("User1"), any(LocalDateTime.class));
     verify(reservationLogRepository, never()).save(any(ReservationLog.class));
   }
 
@@ -0,0 +1,129 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.Test;
+
+class ResourceLocksTest {
+
+  private static final int OPS_PER_THREAD = 20;
+  private static final long WORK_MILLIS = 5;
+
+  @Test
+  void testSameResourceSameLock() {
+    ResourceLocks locks = new ResourceLocks(64);
+
+    assertSame(locks.forResource("prod-qa6"), locks.forResource("prod-qa6"));
+    assertEquals(64, locks.size());
+  }
+
+  @Test
+  void testStripesRoundedToPowerOfTwo() {
+    assertEquals(16, new ResourceLocks(10).size());
+    assertEquals(1, new ResourceLocks(0).size());
+  }
+
+  @Test
+  void testSameResourceIsMutuallyExclusive() throws Exception {
+    ResourceLocks locks = new ResourceLocks(64);
+    AtomicInteger inside = new AtomicInteger();
+    AtomicInteger maxInside = new AtomicInteger();
+
+    runContended(locks, 4, i -> "prod-qa6", inside, maxInside);
+
+    assertEquals(1, maxInside.get());
+  }
+
+  @Test
+  void testDistinctResourcesDoNotBlock() throws Exception {
+    ResourceLocks locks = new ResourceLocks(64);
+    List<String> names = distinctStripeNames(locks, 2);
+    ExecutorService other = Executors.newSingleThreadExecutor();
+
+    Lock held = locks.lock(names.get(0));
+    try {
+      assertTrue(other.submit(() -> tryLock(locks, names.get(1))).get());
+      assertFalse(other.submit(() -> tryLock(locks, names.get(0))).get());
+    } finally {
+      held.unlock();
+      other.shutdown();
+    }
+    assertTrue(other.awaitTermination(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testContendedResourcesDoNotDeadlock() throws Exception {
+    ResourceLocks locks = new ResourceLocks(4);
+    List<String> names = distinctStripeNames(locks, 3);
+    AtomicInteger inside = new AtomicInteger();
+    AtomicInteger maxInside = new AtomicInteger();
+
+    // More threads than stripes, each cycling over the shared names.
+    runContended(locks, 8, thread -> names.get(thread % names.size()), inside, maxInside);
+
+    assertEquals(0, inside.get());
+    assertTrue(maxInside.get() <= names.size());
+  }
+
+  private static boolean tryLock(ResourceLocks locks, String name) {
+    Lock lock = locks.forResource(name);
+    if (!lock.tryLock()) { return false; }
+    lock.unlock();
+    return true;
+  }
+
+  private interface NameForThread {
+    String get(int thread);
+  }
+
+  private static List<String> distinctStripeNames(ResourceLocks locks, int count) {
+    List<String> names = new ArrayList<>();
+    List<Integer> stripes = new ArrayList<>();
+    for (int i = 0; names.size() < count; i++) {
+      String name = "chart-release" + i;
+      if (stripes.contains(locks.stripeFor(name))) { continue; }
+      stripes.add(locks.stripeFor(name));
+      names.add(name);
+    }
+    return names;
+  }
+
+  private static void runContended(ResourceLocks locks, int threads, NameForThread names,
+      AtomicInteger inside, AtomicInteger maxInside) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      String name = names.get(t);
+      futures.add(pool.submit(() -> {
+        start.await();
+        for (int i = 0; i < OPS_PER_THREAD; i++) {
+          Lock lock = locks.lock(name);
+          try {
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            Thread.sleep(WORK_MILLIS);
+            inside.decrementAndGet();
+          } finally {
+            lock.unlock();
+          }
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    // A deadlock fails the test rather than hanging it.
+    for (Future<?> future : futures) { future.get(30, TimeUnit.SECONDS); }
+    pool.shutdown();
+    pool.awaitTermination(1, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,204 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.repositories.ResourceRepositoryImpl;
+
+class ResourceRepositoryImplTest {
+
+  @Mock
+  private MongoOperations mongo;
+
+  private ResourceRepositoryImpl repo;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    repo = new ResourceRepositoryImpl(mongo);
+  }
+
+  @Test
+  void testReserveIfAvailable() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime till = now.plusHours(1);
+    Resource resource = new Resource("Resource1");
+    when(mongo.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Resource.class)))
+        .thenReturn(resource);
+
+    assertSame(resource, repo.reserveIfAvailable("Resource1", "user1", till, 60, now, "log1"));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+    verify(mongo).findAndModify(query.capture(), update.capture(), options.capture(), eq(Resource.class));
+
+    String condition = query.getValue().getQueryObject().toString();
+    assertEquals("Resource1", query.getValue().getQueryObject().get("_id"));
+    assertTrue(condition.contains("reserved=false"));
+    assertTrue(condition.contains("reservedTill"));
+    assertTrue(condition.contains("maxAllocationTime"));
+
+    Document set = (Document) update.getValue().getUpdateObject().get("$set");
+    assertEquals(true, set.get("reserved"));
+    assertEquals("user1", set.get("reservedBy"));
+    assertEquals(till, set.get("reservedTill"));
+    assertEquals("log1", set.get("reservationLogId"));
+    assertFalse(set.containsKey("monitoredBy"));
+    assertTrue(update.getValue().getUpdateObject().containsKey("$pull"));
+    assertTrue(options.getValue().isReturnNew());
+  }
+
+  @Test
+  void testReleaseIfHeld() {
+    LocalDateTime now = LocalDateTime.now();
+
+    repo.releaseIfHeld("Resource1", "user1", now);
+    repo.releaseIfHeld("Resource1", null, now);
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongo, times(2)).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(Resource.class));
+    Document byHolder = query.getAllValues().get(0).getQueryObject();
+    Document forced = query.getAllValues().get(1).getQueryObject();
+    assertEquals("user1", byHolder.get("reservedBy"));
+    assertEquals(true, byHolder.get("reserved"));
+    assertFalse(forced.containsKey("reservedBy"));
+  }
+
+  @Test
+  void testAddMonitor_PushesWhenAbsent() {
+    LocalDateTime till = LocalDateTime.now().plusHours(1);
+    Resource resource = new Resource("Resource1");
+    when(mongo.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Resource.class)))
+        .thenReturn(null, null, resource);
+
+    assertSame(resource, repo.addMonitor("Resource1", "user1", till, "log1", LocalDateTime.now()));
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongo, times(3)).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Resource.class));
+    Document restart = update.getAllValues().get(1).getUpdateObject();
+    assertTrue(restart.containsKey("$max"));
+    assertEquals("log1", ((Document) restart.get("$set")).get("monitoredBy.$.logId"));
+    Document push = (Document) update.getAllValues().get(2).getUpdateObject().get("$push");
+    assertEquals("log1", ((Document) push.get("monitoredBy")).get("logId"));
+  }
+
+  @Test
+  void testAddMonitor_ExtendsRunningEntryInPlace() {
+    LocalDateTime now = LocalDateTime.now();
+    Resource resource = new Resource("Resource1");
+    when(mongo.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Resource.class)))
+        .thenReturn(resource);
+
+    assertSame(resource, repo.addMonitor("Resource1", "user1", now.plusHours(1), "log1", now));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongo, times(1)).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Resource.class));
+    String condition = query.getValue().getQueryObject().toString();
+    assertTrue(condition.contains("logId"));
+    assertTrue(condition.contains("$gte"));
+    // The entry keeps its log.
+    assertEquals(Collections.singleton("$max"), update.getValue().getUpdateObject().keySet());
+  }
+
+  @Test
+  void testRemoveMonitor() {
+    Resource resource = new Resource("Resource1");
+    when(mongo.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Resource.class)))
+        .thenReturn(resource, (Resource) null);
+
+    assertSame(resource, repo.removeMonitor("Resource1", "user1"));
+    assertNull(repo.removeMonitor("Resource1", "user1"));
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+    verify(mongo, times(2)).findAndModify(any(Query.class), update.capture(), options.capture(), eq(Resource.class));
+    assertTrue(update.getValue().getUpdateObject().containsKey("$pull"));
+    // The removed entry, with its log ID, is only in the document before the update.
+    assertFalse(options.getValue().isReturnNew());
+  }
+
+  @Test
+  void testSetReservationLogId_OnlyWhenMissing() {
+    LocalDateTime till = LocalDateTime.now().plusHours(1);
+
+    repo.setReservationLogId("Resource1", "user1", till, "log1");
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongo).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Resource.class));
+    Document condition = query.getValue().getQueryObject();
+    assertEquals("user1", condition.get("reservedBy"));
+    assertEquals(till, condition.get("reservedTill"));
+    assertTrue(condition.containsKey("reservationLogId"));
+    assertNull(condition.get("reservationLogId"));
+    assertEquals("log1", ((Document) update.getValue().getUpdateObject().get("$set")).get("reservationLogId"));
+  }
+
+  @Test
+  void testExpireReservation() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime till = now.minusSeconds(1);
+
+    repo.expireReservation("Resource1", "user1", till, now);
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongo).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Resource.class));
+    Document criteria = query.getValue().getQueryObject();
+    assertEquals("user1", criteria.get("reservedBy"));
+    assertEquals(till, criteria.get("reservedTill"));
+    assertEquals(false, update.getValue().getUpdateObject().get("$set", Document.class).get("reserved"));
+  }
+
+  @Test
+  void testPullExpiredMonitors() {
+    repo.pullExpiredMonitors("Resource1", LocalDateTime.now());
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongo).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Resource.class));
+    assertTrue(update.getValue().getUpdateObject().containsKey("$pull"));
+  }
+
+  @Test
+  void testApplyCatalog() {
+    BulkOperations bulk = mock(BulkOperations.class);
+    when(mongo.bulkOps(BulkMode.UNORDERED, Resource.class)).thenReturn(bulk);
+
+    repo.applyCatalog(Arrays.asList(new Resource("Resource1"), new Resource("Resource2")),
+        Collections.singletonList("Resource3"));
+
+    verify(bulk).insert(argThat((List<Resource> added) -> added.size() == 2));
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(bulk).remove(query.capture());
+    assertTrue(query.getValue().getQueryObject().get("_id", Document.class).containsKey("$in"));
+    verify(bulk, times(1)).execute();
+  }
+
+  @Test
+  void testApplyCatalog_NothingToApply() {
+    repo.applyCatalog(Collections.emptyList(), Collections.emptyList());
+
+    verifyNoInteractions(mongo);
+  }
+}
@@ -17,6 +17,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UserTimeEntry;
 import com.sprinklr.msTeams.mutexBot.repositories.ResourceRepository;
 import com.sprinklr.msTeams.mutexBot.service.ResourceService;
 
@@ -137,15 +138,217 @@ public class ResourceServiceTest {
     verify(resourceRepository, times(1)).deleteById("Resource1");
   }
 
+  @Test
+  void testFind_ServedFromCache() throws Exception {
+    Resource resource = new Resource("Resource1");
+    when(resourceRepository.findById("Resource1")).thenReturn(Optional.of(resource));
+
+    resourceService.find("Resource1");
+    Resource foundResource = resourceService.find("Resource1");
+
+    assertSame(resource, foundResource);
+    verify(resourceRepository, times(1)).findById("Resource1");
+  }
+
+  @Test
+  void testFind_NotFound() throws Exception {
+    when(resourceRepository.findById("Resource1")).thenReturn(Optional.empty());
+
+    assertNull(resourceService.find("Resource1"));
+    assertFalse(resourceService.exists("Resource1"));
+  }
+
+  @Test
+  void testSaveAndDelete_WriteThrough() throws Exception {
+    resourceService.save("Resource1");
+    assertTrue(resourceService.exists("Resource1"));
+    assertEquals("Resource1", resourceService.find("Resource1").getName());
+
+    resourceService.delete("Resource1");
+    assertFalse(resourceService.exists("Resource1"));
+    verify(resourceRepository, never()).findAll();
+    // Only the lookup of the deleted name went to the repository.
+    verify(resourceRepository, times(1)).findById("Resource1");
+  }
+
+  @Test
+  void testExists_AddedByAnotherInstance() throws Exception {
+    Resource resource = new Resource("Resource1");
+    when(resourceRepository.findById("Resource1")).thenReturn(Optional.of(resource));
+
+    assertTrue(resourceService.exists("Resource1"));
+    assertSame(resource, resourceService.find("Resource1"));
+    verify(resourceRepository, times(1)).findById("Resource1");
+  }
+
+  @Test
+  void testReload_SeesChangeByAnotherInstance() throws Exception {
+    resourceService.save("Resource1");
+    resourceService.save("Resource2");
+    Resource reserved = new Resource("Resource1");
+    reserved.reserve("user1", LocalDateTime.now().plusHours(1));
+    when(resourceRepository.findById("Resource1")).thenReturn(Optional.of(reserved));
+    when(resourceRepository.findById("Resource2")).thenReturn(Optional.empty());
+
+    assertSame(reserved, resourceService.reload("Resource1"));
+    assertNull(resourceService.reload("Resource2"));
+
+    assertTrue(resourceService.find("Resource1").isReserved());
+    assertFalse(resourceService.exists("Resource2"));
+  }
+
+  @Test
+  void testReserve_UpdatesCache() throws Exception {
+    Resource resource = new Resource("Resource1");
+    LocalDateTime till = LocalDateTime.now().plusHours(1);
+    resource.reserve("user1", till);
+    when(resourceRepository.reserveIfAvailable(eq("Resource1"), eq("user1"), eq(till), eq(60), any(LocalDateTime.class),
+        anyString()))
+        .thenReturn(resource);
+
+    resourceService.reserve("Resource1", "user1", till, 60);
+    Resource cached = resourceService.find("Resource1");
+
+    assertTrue(cached.isReserved());
+    assertEquals("user1", cached.getReservedBy());
+    verify(resourceRepository, never()).findById(any());
+  }
+
+  @Test
+  void testRefreshCache_ReplacesContents() {
+    resourceService.save("Resource1");
+    when(resourceRepository.findAll()).thenReturn(Collections.singletonList(new Resource("Resource2")));
+
+    resourceService.refreshCache();
+
+    assertFalse(resourceService.exists("Resource1"));
+    assertTrue(resourceService.exists("Resource2"));
+  }
+
+  @Test
+  void testRefreshCache_KeepsWritesMadeDuringReload() throws Exception {
+    Resource reserved = new Resource("Resource1");
+    reserved.reserve("user1", LocalDateTime.now().plusHours(1));
+    when(resourceRepository.reserveIfAvailable(eq("Resource1"), eq("user1"), any(LocalDateTime.class), eq(60),
+        any(LocalDateTime.class), anyString()))
+        .thenReturn(reserved);
+    // The reservation lands while the reload reads the older version.
+    when(resourceRepository.findAll()).thenAnswer(invocation -> {
+      resourceService.reserve("Resource1", "user1", LocalDateTime.now().plusHours(1), 60);
+      return Collections.singletonList(new Resource("Resource1"));
+    });
+
+    resourceService.refreshCache();
+
+    assertTrue(resourceService.find("Resource1").isReserved());
+  }
+
+  @Test
+  void testApplyCatalog_BulkWriteAndCacheDelta() throws Exception {
+    resourceService.save("chart-old");
+    resourceService.save("chart-kept");
+
+    resourceService.applyCatalog(Arrays.asList("chart-new1", "chart-new2"), Collections.singletonList("chart-old"));
+
+    verify(resourceRepository, times(1)).applyCatalog(
+        argThat(added -> added.size() == 2 && added.stream().allMatch(r -> !r.getReservedFlag())),
+        eq(Collections.singletonList("chart-old")));
+    verify(resourceRepository, never()).findAll();
+    verify(resourceRepository, never()).deleteById(any());
+    assertEquals(Arrays.asList("chart-kept", "chart-new1", "chart-new2"), resourceService.findByChartName("chart"));
+    assertFalse(resourceService.exists("chart-old"));
+    assertNotNull(resourceService.find("chart-new1"));
+  }
+
   @Test
   void testFindByChartName() {
-    Resource resource = new Resource("Chart-Resource1");
-    when(resourceRepository.findByIdStartingWith("Chart-")).thenReturn(Collections.singletonList(resource));
+    when(resourceRepository.findAll()).thenReturn(Arrays.asList(
+        new Resource("Chart-Resource2"), new Resource("Chart-Resource1"), new Resource("Other-Resource1")));
+    resourceService.refreshCache();
 
     List<String> resources = resourceService.findByChartName("Chart");
 
-    assertEquals(1, resources.size());
-    assertTrue(resources.contains("Chart-Resource1"));
-    verify(resourceRepository, times(1)).findByIdStartingWith("Chart-");
+    assertEquals(Arrays.asList("Chart-Resource1", "Chart-Resource2"), resources);
+  }
+
+  @Test
+  void testFindByChartName_KeptUpToDate() {
+    resourceService.save("chart-b");
+    resourceService.save("chart-a");
+    resourceService.save("chart2-a");
+    resourceService.save("chart");
+    resourceService.delete("chart-b");
+
+    assertEquals(Collections.singletonList("chart-a"), resourceService.findByChartName("chart"));
+    assertTrue(resourceService.findByChartName("missing").isEmpty());
+  }
+
+  @Test
+  void testFindByChartName_RegexCharactersAreLiteral() {
+    resourceService.save("a.b-release");
+    resourceService.save("axb-release");
+    resourceService.save("c++-release");
+    resourceService.save("[x]-release");
+
+    assertEquals(Collections.singletonList("a.b-release"), resourceService.findByChartName("a.b"));
+    assertEquals(Collections.singletonList("c++-release"), resourceService.findByChartName("c++"));
+    assertEquals(Collections.singletonList("[x]-release"), resourceService.findByChartName("[x]"));
+    assertTrue(resourceService.findByChartName(".*").isEmpty());
+  }
+
+  @Test
+  void testReserve() {
+    Resource resource = new Resource("Resource1");
+    LocalDateTime till = LocalDateTime.now().plusHours(1);
+    resource.reserve("user1", till);
+    when(resourceRepository.reserveIfAvailable(eq("Resource1"), eq("user1"), eq(till), eq(60), any(LocalDateTime.class),
+        anyString()))
+        .thenReturn(resource);
+
+    Resource reserved = resourceService.reserve("Resource1", "user1", till, 60);
+
+    assertSame(resource, reserved);
+    verify(resourceRepository, never()).findById(any());
+    verify(resourceRepository, never()).save(any(Resource.class));
+  }
+
+  @Test
+  void testReserve_AlreadyReserved() {
+    when(resourceRepository.reserveIfAvailable(any(), any(), any(), anyInt(), any(), any())).thenReturn(null);
+
+    assertNull(resourceService.reserve("Resource1", "user1", LocalDateTime.now().plusHours(1), 60));
+  }
+
+  @Test
+  void testRelease() {
+    Resource resource = new Resource("Resource1");
+    when(resourceRepository.releaseIfHeld(eq("Resource1"), eq("user1"), any(LocalDateTime.class))).thenReturn(resource);
+
+    assertSame(resource, resourceService.release("Resource1", "user1"));
+    verify(resourceRepository, never()).save(any(Resource.class));
+  }
+
+  @Test
+  void testForceRelease() {
+    Resource resource = new Resource("Resource1");
+    when(resourceRepository.releaseIfHeld(eq("Resource1"), isNull(), any(LocalDateTime.class))).thenReturn(resource);
+
+    assertSame(resource, resourceService.forceRelease("Resource1"));
+  }
+
+  @Test
+  void testMonitorAndStopMonitoring() {
+    Resource resource = new Resource("Resource1");
+    LocalDateTime till = LocalDateTime.now().plusHours(1);
+    Resource monitored = new Resource("Resource1");
+    monitored.monitor("user1", till, "log1", LocalDateTime.now());
+    when(resourceRepository.addMonitor(eq("Resource1"), eq("user1"), eq(till), anyString(), any(LocalDateTime.class)))
+        .thenReturn(resource);
+    when(resourceRepository.removeMonitor("Resource1", "user1")).thenReturn(monitored, (Resource) null);
+
+    assertSame(resource, resourceService.monitor("Resource1", "user1", till));
+    UserTimeEntry removed = resourceService.stopMonitoring("Resource1", "user1");
+    assertEquals("log1", removed.logId);
+    assertNull(resourceService.stopMonitoring("Resource1", "user1"));
   }
 }
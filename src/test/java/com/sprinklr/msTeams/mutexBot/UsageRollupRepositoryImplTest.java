@@ -0,0 +1,64 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+import com.sprinklr.msTeams.mutexBot.repositories.UsageRollupRepositoryImpl;
+
+class UsageRollupRepositoryImplTest {
+  private static final LocalDateTime HOUR = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+  @Mock
+  private MongoOperations mongo;
+
+  @Mock
+  private BulkOperations bulk;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(mongo.bulkOps(BulkMode.UNORDERED, UsageRollup.class)).thenReturn(bulk);
+  }
+
+  @Test
+  void testIncrementAll() {
+    UsageRollup delta = new UsageRollup(UsageRollup.RESOURCE, "Resource1", UsageRollup.HOUR, HOUR);
+    delta.addReservedMinutes(-15);
+    delta.addDeniedReserves(2);
+
+    new UsageRollupRepositoryImpl(mongo).incrementAll(Collections.singletonList(delta));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(bulk).upsert(query.capture(), update.capture());
+    verify(bulk).execute();
+    assertEquals(new Document("_id", delta.getId()), query.getValue().getQueryObject());
+    Document written = update.getValue().getUpdateObject();
+    assertEquals(HOUR, written.get("$setOnInsert", Document.class).get("bucket"));
+    assertEquals(-15.0, written.get("$inc", Document.class).get("reservedMinutes"));
+    assertEquals(2L, written.get("$inc", Document.class).get("deniedReserves"));
+  }
+
+  @Test
+  void testIncrementAll_Empty() {
+    new UsageRollupRepositoryImpl(mongo).incrementAll(Collections.emptyList());
+
+    verifyNoInteractions(mongo);
+  }
+}
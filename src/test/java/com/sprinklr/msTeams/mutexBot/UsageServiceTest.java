@@ -0,0 +1,168 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sprinklr.msTeams.mutexBot.model.Resource;
+import com.sprinklr.msTeams.mutexBot.model.UsageRollup;
+import com.sprinklr.msTeams.mutexBot.repositories.UsageRollupRepository;
+import com.sprinklr.msTeams.mutexBot.service.ChartNameService;
+import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+import com.sprinklr.msTeams.mutexBot.service.UsageService;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedStore;
+import com.sprinklr.msTeams.mutexBot.storage.EmbeddedUsageRollupRepository;
+
+class UsageServiceTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 10, 30);
+
+  @Mock
+  private ChartNameService chartNameService;
+
+  @Mock
+  private ResourceService resourceService;
+
+  @TempDir
+  Path dir;
+
+  private EmbeddedStore store;
+  private UsageRollupRepository repo;
+  private UsageService usageService;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+    store = new EmbeddedStore(dir, false, Long.MAX_VALUE, UsageRollup.class);
+    repo = new EmbeddedUsageRollupRepository(store);
+    when(chartNameService.getAll()).thenReturn(Arrays.asList("app", "app-web"));
+    usageService = new UsageService(repo, chartNameService, resourceService);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    store.close();
+  }
+
+  private UsageRollup stored(String scope, String key, String granularity, LocalDateTime bucket) {
+    return repo.findById(UsageRollup.id(scope, key, granularity, bucket)).orElse(null);
+  }
+
+  @Test
+  void testReserved_SpreadsMinutesOverBuckets() {
+    usageService.reserved("app-qa1", "user1", NOW, NOW.plusMinutes(105));
+    usageService.reserved("app-web-qa1", "user1", NOW, NOW.plusMinutes(10));
+
+    assertEquals(0, repo.count());
+    assertTrue(usageService.flush() > 0);
+
+    assertEquals(30, stored("resource", "app-qa1", "hour", NOW.minusMinutes(30)).getReservedMinutes(), 1e-9);
+    assertEquals(60, stored("resource", "app-qa1", "hour", NOW.plusMinutes(30)).getReservedMinutes(), 1e-9);
+    assertEquals(15, stored("resource", "app-qa1", "hour", NOW.plusMinutes(90)).getReservedMinutes(), 1e-9);
+    UsageRollup day = stored("resource", "app-qa1", "day", NOW.truncatedTo(ChronoUnit.DAYS));
+    assertEquals(105, day.getReservedMinutes(), 1e-9);
+    assertEquals(1, day.getReservations());
+
+    // Releases belong to the chart with the longest matching name.
+    assertEquals(105, stored("chart", "app", "day", NOW.truncatedTo(ChronoUnit.DAYS)).getReservedMinutes(), 1e-9);
+    assertEquals(10, stored("chart", "app-web", "day", NOW.truncatedTo(ChronoUnit.DAYS)).getReservedMinutes(), 1e-9);
+    UsageRollup user = stored("user", "user1", "day", NOW.truncatedTo(ChronoUnit.DAYS));
+    assertEquals(115, user.getReservedMinutes(), 1e-9);
+    assertEquals(2, user.getReservations());
+    verify(chartNameService, times(1)).getAll();
+  }
+
+  @Test
+  void testReleased_TakesBackUnusedMinutes() {
+    usageService.reserved("app-qa1", "user1", NOW, NOW.plusMinutes(60));
+    usageService.flush();
+    usageService.released("app-qa1", "user1", NOW.plusMinutes(20), NOW.plusMinutes(60));
+    usageService.denied("app-qa1", "user2", NOW.plusMinutes(5));
+    usageService.monitored("app-qa1", "user2", NOW.plusMinutes(5));
+    usageService.flush();
+
+    UsageRollup hour = stored("resource", "app-qa1", "hour", NOW.minusMinutes(30));
+    assertEquals(20, hour.getReservedMinutes(), 1e-9);
+    assertEquals(1, hour.getReservations());
+    assertEquals(1, hour.getDeniedReserves());
+    assertEquals(1, hour.getMonitors());
+    assertEquals(0, stored("resource", "app-qa1", "hour", NOW.plusMinutes(30)).getReservedMinutes(), 1e-9);
+  }
+
+  @Test
+  void testFlush_RefreshesOldChartNames() {
+    usageService.reserved("app-web-qa1", "user1", NOW, NOW.plusMinutes(10));
+    usageService.flush();
+    when(chartNameService.getAll()).thenReturn(Arrays.asList("app"));
+    ReflectionTestUtils.setField(usageService, "chartsReadAt", 0L);
+
+    // Commands keep the old names; only the flush reads them again.
+    usageService.reserved("app-web-qa1", "user1", NOW, NOW.plusMinutes(10));
+    verify(chartNameService, times(1)).getAll();
+    usageService.flush();
+    verify(chartNameService, times(2)).getAll();
+    usageService.reserved("app-web-qa1", "user1", NOW, NOW.plusMinutes(10));
+    usageService.flush();
+
+    LocalDateTime day = NOW.truncatedTo(ChronoUnit.DAYS);
+    assertEquals(20, stored("chart", "app-web", "day", day).getReservedMinutes(), 1e-9);
+    assertEquals(10, stored("chart", "app", "day", day).getReservedMinutes(), 1e-9);
+  }
+
+  @Test
+  void testFlush_RetriesFailedWrite() {
+    UsageRollupRepository failing = mock(UsageRollupRepository.class);
+    doThrow(new DataAccessResourceFailureException("down")).doNothing().when(failing).incrementAll(any());
+    usageService = new UsageService(failing, chartNameService, resourceService);
+    usageService.denied("app-qa1", "user1", NOW);
+
+    assertEquals(0, usageService.flush());
+    usageService.denied("app-qa1", "user1", NOW);
+    assertEquals(6, usageService.flush());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Collection<UsageRollup>> deltas = ArgumentCaptor.forClass(Collection.class);
+    verify(failing, times(2)).incrementAll(deltas.capture());
+    assertTrue(deltas.getValue().stream().allMatch(delta -> delta.getDeniedReserves() == 2));
+  }
+
+  @Test
+  void testTop() {
+    LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+    when(resourceService.getCached())
+        .thenReturn(Arrays.asList(new Resource("app-qa1"), new Resource("app-qa2"), new Resource("app-qa3")));
+    when(resourceService.findByChartName("app")).thenReturn(Arrays.asList("app-qa1", "app-qa2", "app-qa3"));
+    usageService.reserved("app-qa1", "user1", today, today.plusMinutes(144));
+    usageService.reserved("app-qa2", "user2", today, today.plusMinutes(72));
+    usageService.denied("app-qa2", "user1", today);
+    usageService.flush();
+
+    List<UsageService.Usage> reserved = usageService.top("resource", "day", 1, UsageService.RESERVED, 10);
+    assertEquals(Arrays.asList("app-qa1", "app-qa2"), Arrays.asList(reserved.get(0).getKey(), reserved.get(1).getKey()));
+    assertEquals(10, reserved.get(0).getUtilization(), 1e-9);
+
+    assertEquals("app-qa2", usageService.top("resource", "day", 1, UsageService.DENIED, 1).get(0).getKey());
+    assertEquals("app-qa3", usageService.top("resource", "day", 1, UsageService.IDLE, 1).get(0).getKey());
+
+    UsageService.Usage chart = usageService.usage("chart", "app", "day", 1);
+    assertEquals(216, chart.getReservedMinutes(), 1e-9);
+    assertEquals(5, chart.getUtilization(), 1e-9);
+    assertEquals(1, usageService.usage("user", "user1", "day", 1).getDeniedReserves());
+  }
+}
@@ -0,0 +1,78 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.microsoft.bot.schema.Activity;
+import com.sprinklr.msTeams.mutexBot.service.ChartNameService;
+import com.sprinklr.msTeams.mutexBot.service.ResourceService;
+
+class UserInputTest {
+
+  @Mock
+  private ResourceService resourceService;
+
+  @Mock
+  private ChartNameService chartNameService;
+
+  private UserInput userInput;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    userInput = new UserInput(resourceService, chartNameService);
+  }
+
+  private static JsonNode card(Activity activity) {
+    return (JsonNode) activity.getAttachments().get(0).getContent();
+  }
+
+  @Test
+  void testReleaseNameSelection() {
+    when(resourceService.findByChartName("chart")).thenReturn(Arrays.asList("chart-qa1", "chart-\"qa2\""));
+
+    JsonNode card = card(userInput.releaseNameSelection("chart"));
+
+    assertEquals("Release Name (for 'chart'):", card.at("/body/0/text").asText());
+    assertEquals("releaseNameCard", card.at("/body/2/value").asText());
+    assertEquals("qa1", card.at("/body/1/choices/0/title").asText());
+    assertEquals("\"qa2\"", card.at("/body/1/choices/1/title").asText());
+    assertEquals("chart-\"qa2\"", card.at("/body/1/choices/1/value").asText());
+  }
+
+  @Test
+  void testChartNameSelection() {
+    when(chartNameService.getAll()).thenReturn(Arrays.asList("chartA", "chartB"));
+
+    JsonNode card = card(userInput.chartNameSelection());
+
+    assertEquals("chartNameCard", card.at("/body/2/value").asText());
+    assertEquals(2, card.at("/body/1/choices").size());
+  }
+
+  @Test
+  void testDurationSelection() {
+    JsonNode card = card(userInput.durationSelection("chart-qa1", "reserve"));
+
+    assertEquals("How long do you wish to reserve chart-qa1 for:", card.at("/body/0/text").asText());
+    assertEquals("chart-qa1", card.at("/body/6/value").asText());
+  }
+
+  @Test
+  void testAdminActionSelection() {
+    JsonNode card = card(userInput.adminActionSelection());
+
+    JsonNode choices = card.at("/body/1/choices");
+    assertEquals(Utils.adminActions.length, choices.size());
+    assertEquals("createResource", choices.get(0).get("title").asText());
+    assertEquals("createresource", choices.get(0).get("value").asText());
+  }
+}
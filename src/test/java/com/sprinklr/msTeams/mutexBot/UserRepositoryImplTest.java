@@ -0,0 +1,66 @@
+package com.sprinklr.msTeams.mutexBot;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.sprinklr.msTeams.mutexBot.model.User;
+import com.sprinklr.msTeams.mutexBot.repositories.UserRepositoryImpl;
+
+class UserRepositoryImplTest {
+
+  @Mock
+  private MongoOperations mongo;
+
+  private UserRepositoryImpl repo;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    repo = new UserRepositoryImpl(mongo);
+  }
+
+  @Test
+  void testGetOrCreate() {
+    User user = new User("User1");
+    when(mongo.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+        .thenReturn(user);
+
+    assertSame(user, repo.getOrCreate("User1"));
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+    verify(mongo, times(1)).findAndModify(any(Query.class), update.capture(), options.capture(), eq(User.class));
+    Document onInsert = update.getValue().getUpdateObject().get("$setOnInsert", Document.class);
+    assertEquals(User.defaultName, onInsert.get("name"));
+    assertEquals(User.defaultEmail, onInsert.get("email"));
+    assertFalse(update.getValue().getUpdateObject().containsKey("$set"));
+    assertTrue(options.getValue().isUpsert());
+    assertTrue(options.getValue().isReturnNew());
+  }
+
+  @Test
+  void testUpsertProfile_KeepsAdminFlag() {
+    repo.upsertProfile("User1", "Test User", null);
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongo, times(1)).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(User.class));
+    Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+    Document onInsert = update.getValue().getUpdateObject().get("$setOnInsert", Document.class);
+    assertEquals("Test User", set.get("name"));
+    assertFalse(set.containsKey("email"));
+    assertFalse(set.containsKey("admin"));
+    assertEquals(User.defaultEmail, onInsert.get("email"));
+    assertEquals(false, onInsert.get("admin"));
+  }
+}
@@ -4,7 +4,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -50,13 +53,45 @@ public class UserServiceTest {
   @Test
   void testFind() throws Exception {
     User user = new User("User1");
-    when(userRepository.findById("User1")).thenReturn(Optional.of(user));
+    when(userRepository.getOrCreate("User1")).thenReturn(user);
 
     User foundUser = userService.find("User1");
 
     assertNotNull(foundUser);
     assertEquals("User1", foundUser.getId());
-    verify(userRepository, times(1)).findById("User1");
+    verify(userRepository, times(1)).getOrCreate("User1");
+    verify(userRepository, never()).findById(any());
+  }
+
+  @Test
+  void testFind_Cached() throws Exception {
+    when(userRepository.getOrCreate("User1")).thenReturn(new User("User1"));
+
+    userService.find("User1");
+    userService.find("User1");
+
+    verify(userRepository, times(1)).getOrCreate("User1");
+  }
+
+  @Test
+  void testFindAll_OneQueryForUncachedUsers() throws Exception {
+    User cached = new User("User1", "Name1", "user1@example.com");
+    when(userRepository.getOrCreate("User1")).thenReturn(cached);
+    userService.find("User1");
+    User fetched = new User("User2", "Name2", "user2@example.com");
+    when(userRepository.findAllById(any())).thenReturn(Collections.singletonList(fetched));
+
+    Map<String, User> users = userService.findAll(Arrays.asList("User1", "User2", "User2", "Unknown"));
+
+    assertSame(cached, users.get("User1"));
+    assertSame(fetched, users.get("User2"));
+    assertFalse(users.containsKey("Unknown"));
+    verify(userRepository, times(1)).findAllById(new HashSet<>(Arrays.asList("User2", "Unknown")));
+    verify(userRepository, times(1)).getOrCreate(any());
+    verify(userRepository, never()).upsertProfile(any(), any(), any());
+
+    userService.findAll(Collections.singletonList("User2"));
+    verify(userRepository, times(1)).findAllById(any());
   }
 
   @Test
@@ -77,24 +112,73 @@ public class UserServiceTest {
     User user = new User("User1");
     user.setEmail("test@example.com");
     user.setName("Test User");
-    when(userRepository.existsById("User1")).thenReturn(true);
     when(userRepository.findById("User1")).thenReturn(Optional.of(user));
 
     boolean exists = userService.exists("User1");
 
     assertTrue(exists);
-    verify(userRepository, times(1)).existsById("User1");
     verify(userRepository, times(1)).findById("User1");
+    verify(userRepository, never()).getOrCreate(any());
   }
 
   @Test
   void testExists_UserDoesNotExist() {
-    when(userRepository.existsById("NonExistentUser")).thenReturn(false);
+    when(userRepository.findById("NonExistentUser")).thenReturn(Optional.empty());
 
     boolean exists = userService.exists("NonExistentUser");
 
     assertFalse(exists);
-    verify(userRepository, times(1)).existsById("NonExistentUser");
+    verify(userRepository, never()).getOrCreate(any());
+  }
+
+  @Test
+  void testExists_PlaceholderCached() {
+    when(userRepository.findById("User1")).thenReturn(Optional.of(new User("User1")));
+
+    assertFalse(userService.exists("User1"));
+    assertFalse(userService.exists("User1"));
+
+    verify(userRepository, times(1)).findById("User1");
+    verify(userRepository, never()).getOrCreate(any());
+  }
+
+  @Test
+  void testRegister_UpsertsPlaceholderOnce() throws Exception {
+    when(userRepository.getOrCreate("User1")).thenReturn(new User("User1"));
+    User stored = new User("User1", "Test User", "test@example.com");
+    when(userRepository.upsertProfile("User1", "Test User", "test@example.com")).thenReturn(stored);
+    userService.find("User1");
+
+    userService.register(new User("User1", "Test User", "test@example.com"));
+    userService.register(new User("User1", "Test User", "test@example.com"));
+
+    assertTrue(userService.exists("User1"));
+    verify(userRepository, times(1)).upsertProfile("User1", "Test User", "test@example.com");
+    verify(userRepository, times(1)).getOrCreate("User1");
+  }
+
+  @Test
+  void testSave_UpdatesCache() throws Exception {
+    User user = new User("User1", "Test User", "test@example.com");
+    user.makeAdmin();
+
+    userService.save(user);
+
+    assertTrue(userService.find("User1").isAdmin());
+    verify(userRepository, never()).getOrCreate(any());
+  }
+
+  @Test
+  void testIsAdmin_ReadsRepositoryNotCache() throws Exception {
+    User cached = new User("User1", "Test User", "test@example.com");
+    cached.makeAdmin();
+    userService.save(cached);
+    // Dismissed by another instance.
+    when(userRepository.findById("User1")).thenReturn(Optional.of(new User("User1", "Test User", "test@example.com")));
+
+    assertFalse(userService.isAdmin("User1"));
+    assertFalse(userService.find("User1").isAdmin());
+    assertFalse(userService.isAdmin("Unknown"));
   }
 
   @Test
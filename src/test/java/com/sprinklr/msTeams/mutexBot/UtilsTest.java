@@ -7,6 +7,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 
@@ -93,6 +94,39 @@ class UtilsTest {
     assertEquals(0, Utils.timeString2Int("0m"));
   }
 
+  @Test
+  void testParseDuration() {
+    assertEquals(150, Utils.parseDuration("2h30m"));
+    assertEquals(150, Utils.parseDuration("2 hours 30 min"));
+    assertEquals(90, Utils.parseDuration("1H 30M"));
+    assertEquals(30, Utils.parseDuration("30m"));
+    assertEquals(125, Utils.parseDuration("5m 2hr"));
+  }
+
+  @Test
+  void testParseDuration_PreciseErrors() {
+    assertEquals("Duration is empty", assertThrows(IllegalArgumentException.class,
+        () -> Utils.parseDuration("  ")).getMessage());
+    assertEquals("Missing unit (h or m) after 30 at position 3", assertThrows(IllegalArgumentException.class,
+        () -> Utils.parseDuration("30")).getMessage());
+    assertEquals("Unknown unit 'x' at position 2, expected h or m", assertThrows(IllegalArgumentException.class,
+        () -> Utils.parseDuration("1x")).getMessage());
+    assertEquals("Expected a number at position 4, found 'm'", assertThrows(IllegalArgumentException.class,
+        () -> Utils.parseDuration("1h m")).getMessage());
+    assertEquals("Hours given twice, at position 4", assertThrows(IllegalArgumentException.class,
+        () -> Utils.parseDuration("1h2h")).getMessage());
+    assertEquals("Number at position 1 is too large", assertThrows(IllegalArgumentException.class,
+        () -> Utils.parseDuration("99999999999m")).getMessage());
+    assertThrows(IllegalArgumentException.class, () -> Utils.parseDuration("-1h"));
+  }
+
+  @Test
+  void testTokenize() {
+    assertEquals(Arrays.asList("Reserve", "prod:qa6", "for", "1h"), Utils.tokenize("  Reserve  prod:qa6\tfor 1h \n"));
+    assertEquals(Collections.singletonList("help"), Utils.tokenize("help"));
+    assertTrue(Utils.tokenize("   ").isEmpty());
+  }
+
   @Test
   void testSendMessage() {
     Activity message = MessageFactory.text("Test message");